@@ -0,0 +1,90 @@
+package com.parentalcontrol.benchmarks;
+
+import com.parentalcontrol.model.User;
+import com.parentalcontrol.service.AccessDecision;
+import com.parentalcontrol.service.ParentalControlService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the access-check entry points of {@link ParentalControlService}.
+ * <p>
+ * The nested {@link SingleThreaded} and {@link MultiThreaded} variants run the
+ * same benchmarks with one thread and with one thread per core.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class AccessCheckBenchmark {
+
+    @Benchmark
+    public ParentalControlService.AccessResult checkAccessByTitleHit(CatalogState state, Cursor cursor) {
+        int i = cursor.next();
+        return state.service.checkAccess(state.users[i], state.hitTitles[i]);
+    }
+
+    @Benchmark
+    public ParentalControlService.AccessResult checkAccessByTitleMiss(CatalogState state, Cursor cursor) {
+        int i = cursor.next();
+        return state.service.checkAccess(state.users[i], state.missTitles[i]);
+    }
+
+    @Benchmark
+    public ParentalControlService.AccessResult checkAccessByMovie(CatalogState state, Cursor cursor) {
+        int i = cursor.next();
+        return state.service.checkAccess(state.users[i], state.movies[i]);
+    }
+
+    @Benchmark
+    public AccessDecision decideByMovie(CatalogState state, Cursor cursor) {
+        int i = cursor.next();
+        return state.service.decide(state.users[i], state.movies[i]);
+    }
+
+    @Benchmark
+    public AccessDecision decideByUserId(CatalogState state, Cursor cursor) {
+        int i = cursor.next();
+        return state.service.decide(state.userIds[i], state.movies[i]);
+    }
+
+    @Benchmark
+    public AccessDecision decideByMovieWithPolicy(CatalogState state, Cursor cursor) {
+        int i = cursor.next();
+        return state.policyService.decide(state.users[i & (CatalogState.POLICY_PROFILES - 1)], state.movies[i]);
+    }
+
+    @Benchmark
+    public AccessDecision decideByMovieWithOverrides(CatalogState state, Cursor cursor) {
+        int i = cursor.next();
+        User user = state.users[CatalogState.POLICY_PROFILES + (i & (CatalogState.POLICY_PROFILES - 1))];
+        return state.policyService.decide(user, state.movies[i]);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public String legacyGetParentalControl(CatalogState state, Cursor cursor) {
+        int i = cursor.next();
+        return state.service.getParentalControl(state.hitTitles[i], state.ratings[i % state.ratings.length].name());
+    }
+
+    @Threads(1)
+    public static class SingleThreaded extends AccessCheckBenchmark {
+    }
+
+    @Threads(Threads.MAX)
+    public static class MultiThreaded extends AccessCheckBenchmark {
+    }
+}
@@ -0,0 +1,118 @@
+package com.parentalcontrol.benchmarks;
+
+import com.parentalcontrol.catalog.PageCursor;
+import com.parentalcontrol.load.SyntheticCatalog;
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.MovieIdSet;
+import com.parentalcontrol.model.ProfilePolicy;
+import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.User;
+import com.parentalcontrol.service.MovieService;
+import com.parentalcontrol.service.ParentalControlService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+
+/**
+ * Shared benchmark fixture: a synthetic catalog of {@code catalogSize} movies
+ * and pools of users, hit titles, miss titles and page cursors to draw requests
+ * from, plus a second service in which a set of profiles have multi-rule policies.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+    /** Size of each request pool; a power of two so threads can cycle with a mask. */
+    static final int POOL_SIZE = 1024;
+
+    /** Number of profiles with a policy; a power of two, like the pool size. */
+    static final int POLICY_PROFILES = 64;
+
+    /** Allowed and denied titles on each override-only profile. */
+    static final int OVERRIDES_PER_PROFILE = 32;
+
+    @Param({"10", "10000", "1000000", "10000000"})
+    public int catalogSize;
+
+    MovieService movieService;
+    ParentalControlService service;
+    ParentalControlService policyService;
+    User[] users;
+    int[] userIds;
+    Movie[] movies;
+    String[] hitTitles;
+    String[] missTitles;
+    String[] misspelledTitles;
+    String[] searchTerms;
+    String[] pageCursors;
+    Rating[] ratings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        movieService = new MovieService(SyntheticCatalog.generate(catalogSize, 42));
+        // The typo dictionaries are left to the typo benchmarks' warmup iterations.
+        movieService.getSnapshot().warm();
+        service = new ParentalControlService(movieService);
+
+        SplittableRandom random = new SplittableRandom(7);
+        SplittableRandom typos = new SplittableRandom(11);
+        ratings = Rating.values();
+        users = new User[POOL_SIZE];
+        userIds = new int[POOL_SIZE];
+        movies = new Movie[POOL_SIZE];
+        hitTitles = new String[POOL_SIZE];
+        missTitles = new String[POOL_SIZE];
+        misspelledTitles = new String[POOL_SIZE];
+        searchTerms = new String[POOL_SIZE];
+        pageCursors = new String[POOL_SIZE];
+        String[] fragments = {"the", "dark", "ret", "star 1", "king", "garden", "iron f", "xyz"};
+        for (int i = 0; i < POOL_SIZE; i++) {
+            users[i] = User.createWithDefaultRating("user" + i, 5 + random.nextInt(40));
+            userIds[i] = service.getUserService().register(users[i]);
+            movies[i] = movieService.findMovieById(1 + random.nextInt(catalogSize));
+            hitTitles[i] = movies[i].getTitle();
+            missTitles[i] = SyntheticCatalog.missingTitle(i);
+            misspelledTitles[i] = misspell(hitTitles[i], typos);
+            searchTerms[i] = fragments[random.nextInt(fragments.length)];
+            pageCursors[i] = PageCursor.after(movies[i]).encode();
+        }
+
+        String[] genres = {"Horror", "Action", "Drama"};
+        policyService = new ParentalControlService(movieService);
+        for (int i = 0; i < POLICY_PROFILES; i++) {
+            ProfilePolicy policy = ProfilePolicy.of(users[i])
+                                                .blockGenre(genres[i % genres.length])
+                                                .withYears(1970 + i % 20, 2025)
+                                                .allowTitle(movies[i].getId())
+                                                .denyTitle(movies[i + POLICY_PROFILES].getId());
+            policyService.setProfilePolicy(users[i], policy);
+        }
+        // The next profiles only override titles, which is checked without a compiled bitmap.
+        for (int i = POLICY_PROFILES; i < 2 * POLICY_PROFILES; i++) {
+            MovieIdSet.Builder allowed = new MovieIdSet.Builder();
+            MovieIdSet.Builder denied = new MovieIdSet.Builder();
+            for (int j = 0; j < OVERRIDES_PER_PROFILE; j++) {
+                allowed.add(1 + random.nextInt(catalogSize));
+                denied.add(movies[random.nextInt(POOL_SIZE)].getId());
+            }
+            policyService.setProfilePolicy(users[i], ProfilePolicy.of(users[i])
+                                                                  .allowTitles(allowed.build())
+                                                                  .denyTitles(denied.build()));
+        }
+    }
+
+    /** Swaps two adjacent characters of a title, the commonest typo. */
+    private static String misspell(String title, SplittableRandom random) {
+        char[] chars = title.toCharArray();
+        int i = random.nextInt(chars.length - 1);
+        char c = chars[i];
+        chars[i] = chars[i + 1];
+        chars[i + 1] = c;
+        return new String(chars);
+    }
+}
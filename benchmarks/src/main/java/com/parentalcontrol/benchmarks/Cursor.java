@@ -0,0 +1,20 @@
+package com.parentalcontrol.benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-thread position in the request pools, so threads do not contend on a
+ * shared counter.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+@State(Scope.Thread)
+public class Cursor {
+    private int next;
+
+    int next() {
+        return next++ & (CatalogState.POOL_SIZE - 1);
+    }
+}
@@ -0,0 +1,86 @@
+package com.parentalcontrol.benchmarks;
+
+import com.parentalcontrol.catalog.CatalogImporter;
+import com.parentalcontrol.load.SyntheticCatalog;
+import com.parentalcontrol.model.Movie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end bulk import of a generated feed: parsing, validation, dedup and
+ * index construction, at different pool sizes to show how the import scales.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class ImportBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"CSV", "JSONL"})
+    public CatalogImporter.Format format;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private Path feed;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        feed = Files.createTempFile("feed", "." + format.name().toLowerCase());
+        try (BufferedWriter out = Files.newBufferedWriter(feed, StandardCharsets.UTF_8)) {
+            if (format == CatalogImporter.Format.CSV) {
+                out.write("id,title,rating,genre,releaseYear\n");
+            }
+            for (Movie movie : (Iterable<Movie>) SyntheticCatalog.generate(rows, 42).stream()::iterator) {
+                if (format == CatalogImporter.Format.CSV) {
+                    out.write(movie.getId() + ",\"" + movie.getTitle() + "\"," + movie.getRating().name() + ","
+                              + movie.getGenre() + "," + movie.getReleaseYear() + "\n");
+                } else {
+                    out.write("{\"id\":" + movie.getId() + ",\"title\":\"" + movie.getTitle() + "\",\"rating\":\""
+                              + movie.getRating().name() + "\",\"genre\":\"" + movie.getGenre()
+                              + "\",\"releaseYear\":" + movie.getReleaseYear() + "}\n");
+                }
+            }
+        }
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(feed);
+    }
+
+    @Benchmark
+    public CatalogImporter.ImportedCatalog importFeed() {
+        return CatalogImporter.importFile(feed, format, pool);
+    }
+}
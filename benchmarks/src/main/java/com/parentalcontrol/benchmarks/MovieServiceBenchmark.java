@@ -0,0 +1,79 @@
+package com.parentalcontrol.benchmarks;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.service.MoviePage;
+import com.parentalcontrol.service.MovieService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the catalog queries of {@link MovieService}.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class MovieServiceBenchmark {
+
+    @Benchmark
+    public List<Movie> searchMoviesByTitle(CatalogState state, Cursor cursor) {
+        return state.movieService.searchMoviesByTitle(state.searchTerms[cursor.next()]);
+    }
+
+    @Benchmark
+    public List<Movie> searchMoviesByTitleTop20(CatalogState state, Cursor cursor) {
+        return state.movieService.searchMoviesByTitle(state.searchTerms[cursor.next()], 20);
+    }
+
+    @Benchmark
+    public Optional<Movie> resolveMisspelledTitle(CatalogState state, Cursor cursor) {
+        return state.movieService.resolveMovieTitle(state.misspelledTitles[cursor.next()]);
+    }
+
+    @Benchmark
+    public List<Movie> suggestTitles(CatalogState state, Cursor cursor) {
+        return state.movieService.suggestTitles(state.misspelledTitles[cursor.next()], 5);
+    }
+
+    @Benchmark
+    public List<Movie> getAccessibleMovies(CatalogState state, Cursor cursor) {
+        Rating[] ratings = state.ratings;
+        return state.movieService.getAccessibleMovies(ratings[cursor.next() % ratings.length]);
+    }
+
+    @Benchmark
+    public MoviePage getAccessibleMoviesPage(CatalogState state, Cursor cursor) {
+        int i = cursor.next();
+        Rating[] ratings = state.ratings;
+        return state.movieService.getAccessibleMoviesPage(ratings[i % ratings.length], state.pageCursors[i], 20);
+    }
+
+    @Benchmark
+    public Map<Rating, Long> getMovieCountByRating(CatalogState state) {
+        return state.movieService.getMovieCountByRating();
+    }
+
+    @Threads(1)
+    public static class SingleThreaded extends MovieServiceBenchmark {
+    }
+
+    @Threads(Threads.MAX)
+    public static class MultiThreaded extends MovieServiceBenchmark {
+    }
+}
@@ -0,0 +1,48 @@
+package com.parentalcontrol.benchmarks;
+
+import com.parentalcontrol.model.Rating;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link Rating#fromString(String)} for enum names, display names
+ * and the fallback path taken by display names such as "12".
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public abstract class RatingBenchmark {
+
+    @Param({"PG_13", "pg 13", "Parental Guidance 13", "12"})
+    public String name;
+
+    @Benchmark
+    public Rating fromString() {
+        return Rating.fromString(name);
+    }
+
+    @Threads(1)
+    public static class SingleThreaded extends RatingBenchmark {
+    }
+
+    @Threads(Threads.MAX)
+    public static class MultiThreaded extends RatingBenchmark {
+    }
+}
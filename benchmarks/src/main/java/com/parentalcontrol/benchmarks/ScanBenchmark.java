@@ -0,0 +1,74 @@
+package com.parentalcontrol.benchmarks;
+
+import com.parentalcontrol.catalog.ColumnarCatalog;
+import com.parentalcontrol.catalog.HeapCatalog;
+import com.parentalcontrol.load.SyntheticCatalog;
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.RatingScheme;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Whole-catalog scans over {@link Movie} objects against the same scans over a
+ * {@link ColumnarCatalog}: a group-by on rating and an accessibility count.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@Threads(1)
+@State(Scope.Benchmark)
+public class ScanBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int catalogSize;
+
+    private HeapCatalog heap;
+    private ColumnarCatalog columnar;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        heap = SyntheticCatalog.generate(catalogSize, 42);
+        columnar = ColumnarCatalog.of(heap);
+    }
+
+    @Benchmark
+    public Map<Rating, Long> countByRatingObjects() {
+        return heap.stream().collect(Collectors.groupingBy(Movie::getRating, Collectors.counting()));
+    }
+
+    @Benchmark
+    public long[] countByRatingColumnar() {
+        return columnar.countByRating();
+    }
+
+    @Benchmark
+    public long countAccessibleObjects() {
+        return heap.stream().filter(movie -> RatingScheme.DEFAULT.allows(movie.getRating(), Rating.PG_13)).count();
+    }
+
+    @Benchmark
+    public long countAccessibleColumnar() {
+        return columnar.countAccessible(Rating.PG_13, RatingScheme.DEFAULT);
+    }
+}
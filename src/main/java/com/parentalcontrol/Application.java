@@ -1,11 +1,18 @@
 package com.parentalcontrol;
 
+import com.parentalcontrol.http.ParentalControlServer;
+import com.parentalcontrol.load.LoadGenerator;
+import com.parentalcontrol.load.LoadProfile;
+import com.parentalcontrol.load.LoadReport;
 import com.parentalcontrol.model.Rating;
 import com.parentalcontrol.model.User;
 import com.parentalcontrol.service.ParentalControlService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+
 /**
  * Main application class demonstrating the parental control system.
  * 
@@ -16,9 +23,19 @@ public class Application {
     private static final Logger logger = LoggerFactory.getLogger(Application.class);
 
     public static void main(String[] args) {
+        if (args.length > 0 && "load".equals(args[0])) {
+            load(LoadProfile.parse(Arrays.copyOfRange(args, 1, args.length)));
+            return;
+        }
         logger.info("Starting Parental Control System Demo");
         
         ParentalControlService service = new ParentalControlService();
+        service.registerMBeans("default");
+
+        if (args.length > 0 && "serve".equals(args[0])) {
+            serve(service, args.length > 1 ? Integer.parseInt(args[1]) : ParentalControlServer.DEFAULT_PORT);
+            return;
+        }
         
         // Create different users with various age groups and restrictions
         User child = User.createWithDefaultRating("Alice", 8);
@@ -54,6 +71,28 @@ public class Application {
         logger.info("Parental Control System Demo completed");
     }
     
+    /**
+     * Runs the HTTP front end until the JVM is stopped.
+     */
+    private static void serve(ParentalControlService service, int port) {
+        ParentalControlServer server = ParentalControlServer.start(new InetSocketAddress(port), service);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close, "http-shutdown"));
+        System.out.printf("Serving on http://localhost:%d/ (Ctrl+C to stop)%n", server.getAddress().getPort());
+    }
+
+    /**
+     * Drives a synthetic load and prints progress and the final report.
+     */
+    private static void load(LoadProfile profile) {
+        System.out.println("Setting up " + profile);
+        LoadGenerator generator = new LoadGenerator(profile);
+        generator.getService().registerMBeans("load");
+        System.out.printf("Warming up for %ds, then measuring for %ds%n",
+                          profile.getWarmup().toSeconds(), profile.getDuration().toSeconds());
+        LoadReport report = generator.run(System.out::println);
+        System.out.print(report.summary());
+    }
+
     private static void testMovieAccess(ParentalControlService service, User user, String movieTitle) {
         System.out.printf("User: %s (age %d, max rating: %s)%n", 
                          user.getUsername(), user.getAge(), user.getMaxAllowedRating().getDisplayName());
@@ -0,0 +1,342 @@
+package com.parentalcontrol.audit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.parentalcontrol.model.Rating;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only JSONL audit log fed through a preallocated ring buffer.
+ * <p>
+ * Request threads claim a slot in a fixed ring of reusable records and copy the
+ * decision into it; they never allocate, lock or touch the disk. When the ring is
+ * full the record is dropped and counted rather than making the caller wait. A
+ * single background writer drains whatever has accumulated, encodes it as one
+ * JSON object per line and appends the whole batch with one write, then forces
+ * it to disk as the {@link FsyncPolicy} dictates (group commit).
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class AuditLog implements AuditSink, AuditLogMXBean, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AuditLog.class);
+
+    /** Default ring capacity in records. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /** Most records encoded into one write. */
+    static final int MAX_BATCH = 4096;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final Path file;
+    private final FsyncPolicy fsyncPolicy;
+    private final Slot[] ring;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong forces = new AtomicLong();
+
+    private final FileChannel channel;
+    private final BatchBuffer buffer = new BatchBuffer();
+    private final JsonGenerator generator;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    /**
+     * Creates a log without starting its writer.
+     */
+    AuditLog(Path file, int capacity, FsyncPolicy fsyncPolicy) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Audit file cannot be null");
+        }
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Audit capacity must be between 2 and 2^30");
+        }
+        if (fsyncPolicy == null) {
+            throw new IllegalArgumentException("Fsync policy cannot be null");
+        }
+        this.file = file;
+        this.fsyncPolicy = fsyncPolicy;
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.ring = new Slot[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Slot(i);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                        StandardOpenOption.APPEND);
+        this.generator = JSON.createGenerator(buffer);
+        this.generator.setRootValueSeparator(null);
+        this.writer = new Thread(this::runWriter, "audit-writer-" + file.getFileName());
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Opens or creates an audit file and starts its writer.
+     *
+     * @param file the JSONL file to append to
+     * @param capacity the number of records the ring holds, rounded up to a power of two
+     * @param fsyncPolicy when written records are forced to disk
+     * @return the running log
+     */
+    public static AuditLog open(Path file, int capacity, FsyncPolicy fsyncPolicy) {
+        try {
+            AuditLog log = new AuditLog(file, capacity, fsyncPolicy);
+            log.start();
+            logger.info("Audit log {} opened (capacity {}, {})", file, log.ring.length, fsyncPolicy);
+            return log;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open audit log " + file, e);
+        }
+    }
+
+    void start() {
+        writer.start();
+    }
+
+    @Override
+    public boolean append(String username, Rating userMaxRating, String movieTitle, int movieId,
+                          Rating movieRating, String verdict) {
+        if (!running) {
+            dropped.increment();
+            return false;
+        }
+        long position;
+        Slot slot;
+        while (true) {
+            position = tail.get();
+            slot = ring[(int) position & mask];
+            long available = slot.sequence - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (available < 0) {
+                dropped.increment();
+                return false;
+            }
+        }
+        slot.timestamp = System.currentTimeMillis();
+        slot.username = username;
+        slot.userMaxRating = userMaxRating;
+        slot.movieTitle = movieTitle;
+        slot.movieId = movieId;
+        slot.movieRating = movieRating;
+        slot.verdict = verdict;
+        slot.sequence = position + 1; // publish
+        appended.increment();
+        return true;
+    }
+
+    /**
+     * Stops accepting records, writes everything already accepted, forces it to
+     * disk and closes the file. A record appended while the log is closing may be
+     * counted as appended without being written.
+     */
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else {
+            drainAll();
+        }
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            logger.error("Could not close audit log {}: {}", file, e.getMessage());
+        }
+        logger.info("Audit log {} closed ({} written, {} dropped)", file, getWritten(), getDropped());
+    }
+
+    private void runWriter() {
+        long lastForce = System.nanoTime();
+        boolean unforced = false;
+        while (running) {
+            int count = drainBatch();
+            unforced |= count > 0;
+            if (unforced && fsyncPolicy.isDue(System.nanoTime() - lastForce)) {
+                force();
+                lastForce = System.nanoTime();
+                unforced = false;
+            }
+            if (count == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        drainAll();
+    }
+
+    private void drainAll() {
+        while (drainBatch() > 0) {
+            // keep writing until every published record is on disk
+        }
+    }
+
+    /**
+     * Encodes and writes up to {@link #MAX_BATCH} published records.
+     *
+     * @return the number of records taken from the ring
+     */
+    private int drainBatch() {
+        buffer.reset();
+        int count = 0;
+        try {
+            while (count < MAX_BATCH) {
+                Slot slot = ring[(int) head & mask];
+                if (slot.sequence != head + 1) {
+                    break;
+                }
+                encode(slot);
+                slot.clear();
+                slot.sequence = head + ring.length; // release for reuse
+                head++;
+                count++;
+            }
+            if (count == 0) {
+                return 0;
+            }
+            generator.flush();
+            ByteBuffer bytes = buffer.asByteBuffer();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            written.addAndGet(count);
+            batches.incrementAndGet();
+        } catch (IOException e) {
+            dropped.add(count);
+            logger.error("Could not write {} audit records to {}: {}", count, file, e.getMessage());
+        }
+        return count;
+    }
+
+    private void encode(Slot slot) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("ts", slot.timestamp);
+        generator.writeStringField("user", slot.username);
+        generator.writeStringField("maxRating", slot.userMaxRating == null ? null : slot.userMaxRating.name());
+        generator.writeStringField("title", slot.movieTitle);
+        if (slot.movieRating != null) {
+            generator.writeNumberField("movieId", slot.movieId);
+            generator.writeStringField("rating", slot.movieRating.name());
+        }
+        generator.writeStringField("verdict", slot.verdict);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void force() {
+        try {
+            channel.force(false);
+            forces.incrementAndGet();
+        } catch (IOException e) {
+            logger.error("Could not force audit log {}: {}", file, e.getMessage());
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public long getAppended() {
+        return appended.sum();
+    }
+
+    @Override
+    public long getWritten() {
+        return written.get();
+    }
+
+    @Override
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public long getBatches() {
+        return batches.get();
+    }
+
+    @Override
+    public long getForces() {
+        return forces.get();
+    }
+
+    @Override
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AuditLog{file=%s, written=%d, dropped=%d}", file, getWritten(), getDropped());
+    }
+
+    /**
+     * Reusable ring entry. {@code sequence} equals the claiming position while the
+     * slot is free, position + 1 once the record is published, and position plus
+     * the ring size once the writer has released it for the next lap.
+     */
+    private static final class Slot {
+        volatile long sequence;
+        long timestamp;
+        String username;
+        Rating userMaxRating;
+        String movieTitle;
+        int movieId;
+        Rating movieRating;
+        String verdict;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+
+        void clear() {
+            username = null;
+            movieTitle = null;
+            verdict = null;
+            userMaxRating = null;
+            movieRating = null;
+        }
+    }
+
+    /** Batch buffer whose contents can be written without copying. */
+    private static final class BatchBuffer extends ByteArrayOutputStream {
+        BatchBuffer() {
+            super(64 * 1024);
+        }
+
+        ByteBuffer asByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
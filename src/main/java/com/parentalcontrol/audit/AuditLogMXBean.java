@@ -0,0 +1,27 @@
+package com.parentalcontrol.audit;
+
+/**
+ * JMX view of an {@link AuditLog}.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public interface AuditLogMXBean {
+
+    long getAppended();
+
+    long getWritten();
+
+    /**
+     * Gets the number of records lost because the buffer was full or a write failed.
+     *
+     * @return the dropped count
+     */
+    long getDropped();
+
+    long getBatches();
+
+    long getForces();
+
+    int getCapacity();
+}
@@ -0,0 +1,31 @@
+package com.parentalcontrol.audit;
+
+import com.parentalcontrol.model.Rating;
+
+/**
+ * Destination for the audit trail of access decisions.
+ * <p>
+ * Implementations must not block the calling request thread on I/O.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public interface AuditSink {
+
+    /** Sink that discards every record. */
+    AuditSink NONE = (username, userMaxRating, movieTitle, movieId, movieRating, verdict) -> true;
+
+    /**
+     * Records one access decision.
+     *
+     * @param username the user who asked
+     * @param userMaxRating the user's maximum allowed rating
+     * @param movieTitle the requested title
+     * @param movieId the movie id, or -1 if the movie was not found
+     * @param movieRating the movie's rating, or null if the movie was not found
+     * @param verdict the verdict name, e.g. "ALLOWED"
+     * @return true if the record was accepted, false if it was dropped
+     */
+    boolean append(String username, Rating userMaxRating, String movieTitle, int movieId,
+                   Rating movieRating, String verdict);
+}
@@ -0,0 +1,56 @@
+package com.parentalcontrol.audit;
+
+import java.time.Duration;
+
+/**
+ * When the audit writer forces written records to stable storage.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class FsyncPolicy {
+
+    /** Force after every batch: a record is durable once its batch is written. */
+    public static final FsyncPolicy EVERY_BATCH = new FsyncPolicy(0);
+
+    /** Never force; the operating system flushes written records on its own schedule. */
+    public static final FsyncPolicy NEVER = new FsyncPolicy(Long.MAX_VALUE);
+
+    private final long intervalNanos;
+
+    private FsyncPolicy(long intervalNanos) {
+        this.intervalNanos = intervalNanos;
+    }
+
+    /**
+     * Forces at most once per interval, bounding how much a crash can lose.
+     *
+     * @param interval the minimum time between forces
+     * @return the policy
+     */
+    public static FsyncPolicy every(Duration interval) {
+        if (interval == null || interval.isNegative()) {
+            throw new IllegalArgumentException("Fsync interval cannot be null or negative");
+        }
+        return new FsyncPolicy(interval.toNanos());
+    }
+
+    /**
+     * Checks whether a force is due.
+     *
+     * @param nanosSinceLastForce time since the previous force
+     * @return true if the writer should force now
+     */
+    boolean isDue(long nanosSinceLastForce) {
+        return intervalNanos != Long.MAX_VALUE && nanosSinceLastForce >= intervalNanos;
+    }
+
+    @Override
+    public String toString() {
+        if (intervalNanos == 0) {
+            return "FsyncPolicy{every batch}";
+        }
+        return intervalNanos == Long.MAX_VALUE ? "FsyncPolicy{never}"
+                : "FsyncPolicy{every " + intervalNanos / 1_000_000 + " ms}";
+    }
+}
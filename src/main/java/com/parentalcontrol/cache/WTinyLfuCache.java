@@ -0,0 +1,298 @@
+package com.parentalcontrol.cache;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bounded cache with W-TinyLFU eviction.
+ * <p>
+ * New entries enter a small LRU window (1% of the capacity). Entries leaving the
+ * window compete for a place in the main region against its least recently used
+ * entry: a {@link FrequencySketch} estimates how often each was requested
+ * recently and only the more popular one is kept. The main region is a segmented
+ * LRU, so entries hit again after admission move to a protected segment that
+ * one-off scans cannot flush.
+ * <p>
+ * The cache is thread-safe; every operation holds the cache's monitor for a few
+ * pointer updates. Values are computed outside the lock by
+ * {@link #get(Object, Function)}, so two threads missing on the same key may
+ * both compute it.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class WTinyLfuCache<K, V> {
+
+    private enum Region {
+        WINDOW,
+        PROBATION,
+        PROTECTED
+    }
+
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int protectedMaximum;
+    private final Map<K, Node<K, V>> data = new HashMap<>();
+    private final FrequencySketch sketch;
+    private final AccessQueue<K, V> window = new AccessQueue<>();
+    private final AccessQueue<K, V> probation = new AccessQueue<>();
+    private final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Creates a cache holding at most {@code maximumSize} entries.
+     *
+     * @param maximumSize the capacity
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public WTinyLfuCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.protectedMaximum = (maximumSize - windowMaximum) * 4 / 5;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * Gets a cached value, recording the request for the admission filter.
+     *
+     * @param key the key
+     * @return the value, or null if it is not cached
+     */
+    public synchronized V getIfPresent(K key) {
+        requireKey(key);
+        sketch.increment(key);
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        onHit(node);
+        return node.value;
+    }
+
+    /**
+     * Gets a cached value, computing and caching it on a miss.
+     *
+     * @param key the key
+     * @param loader computes the value; a null result is returned but not cached
+     * @return the cached or computed value
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Caches a value, evicting if the cache is over capacity. The new entry itself
+     * may be the one evicted if it is less popular than the entries it competes with.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public synchronized void put(K key, V value) {
+        requireKey(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Cache value cannot be null");
+        }
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            node.value = value;
+            onHit(node);
+            return;
+        }
+        node = new Node<>(key, value);
+        data.put(key, node);
+        window.addLast(node);
+        evict();
+    }
+
+    /**
+     * Removes every entry whose key matches.
+     *
+     * @param predicate selects the keys to remove
+     * @return the number of entries removed
+     */
+    public synchronized int invalidateIf(Predicate<? super K> predicate) {
+        int removed = 0;
+        for (Iterator<Node<K, V>> it = data.values().iterator(); it.hasNext(); ) {
+            Node<K, V> node = it.next();
+            if (predicate.test(node.key)) {
+                it.remove();
+                queueOf(node).remove(node);
+                removed++;
+            }
+        }
+        invalidations += removed;
+        return removed;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public synchronized void invalidateAll() {
+        invalidations += data.size();
+        data.clear();
+        window.clear();
+        probation.clear();
+        protectedQueue.clear();
+    }
+
+    public synchronized int size() {
+        return data.size();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Gets a snapshot of the cache statistics.
+     *
+     * @return the statistics
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, invalidations, data.size());
+    }
+
+    private void onHit(Node<K, V> node) {
+        switch (node.region) {
+            case WINDOW:
+                window.moveToLast(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                node.region = Region.PROTECTED;
+                protectedQueue.addLast(node);
+                if (protectedQueue.size > protectedMaximum) {
+                    Node<K, V> demoted = protectedQueue.first();
+                    protectedQueue.remove(demoted);
+                    demoted.region = Region.PROBATION;
+                    probation.addLast(demoted);
+                }
+                break;
+            default:
+                protectedQueue.moveToLast(node);
+                break;
+        }
+    }
+
+    /**
+     * Moves overflow from the window into probation and, while the cache is over
+     * capacity, keeps whichever of the window candidate and the main region's
+     * victim the sketch considers more popular.
+     */
+    private void evict() {
+        while (window.size > windowMaximum) {
+            Node<K, V> candidate = window.first();
+            window.remove(candidate);
+            candidate.region = Region.PROBATION;
+            probation.addLast(candidate);
+            if (data.size() <= maximumSize) {
+                continue;
+            }
+
+            Node<K, V> victim = probation.first();
+            if (victim == candidate && protectedQueue.size > 0) {
+                victim = protectedQueue.first();
+            }
+            Node<K, V> evicted = victim != candidate
+                    && sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate;
+            queueOf(evicted).remove(evicted);
+            data.remove(evicted.key);
+            evictions++;
+        }
+    }
+
+    private AccessQueue<K, V> queueOf(Node<K, V> node) {
+        switch (node.region) {
+            case WINDOW:
+                return window;
+            case PROBATION:
+                return probation;
+            default:
+                return protectedQueue;
+        }
+    }
+
+    private static void requireKey(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cache key cannot be null");
+        }
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        Region region = Region.WINDOW;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Intrusive doubly-linked LRU list; the first node is the least recently used.
+     */
+    private static final class AccessQueue<K, V> {
+        private final Node<K, V> sentinel = new Node<>(null, null);
+        private int size;
+
+        AccessQueue() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+        }
+
+        Node<K, V> first() {
+            return sentinel.next;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.prev = sentinel.prev;
+            node.next = sentinel;
+            sentinel.prev.next = node;
+            sentinel.prev = node;
+            size++;
+        }
+
+        void remove(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            remove(node);
+            addLast(node);
+        }
+
+        void clear() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compiles a movie catalog into a binary snapshot that {@link MappedCatalog}
+ * can serve directly from a memory-mapped file.
+ * <p>
+ * The snapshot is written to a temporary file next to the target and moved into
+ * place, so a reader never maps a partially written snapshot.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class CatalogCompiler {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCompiler.class);
+
+    private CatalogCompiler() {
+    }
+
+    /**
+     * Compiles a JSON catalog file into a snapshot.
+     *
+     * @param catalogFile the JSON catalog
+     * @param snapshotFile the snapshot to write
+     * @return the number of movies written
+     */
+    public static int compile(Path catalogFile, Path snapshotFile) {
+        return compile(HeapCatalog.fromFile(catalogFile), snapshotFile);
+    }
+
+    /**
+     * Compiles a catalog into a snapshot.
+     *
+     * @param catalog the catalog to write
+     * @param snapshotFile the snapshot to write
+     * @return the number of movies written
+     * @throws IllegalArgumentException if the catalog cannot be represented in the snapshot format
+     * @throws UncheckedIOException if the snapshot cannot be written
+     */
+    public static int compile(MovieCatalog catalog, Path snapshotFile) {
+        long start = System.nanoTime();
+        Movie[] movies = catalog.stream()
+                .sorted(Comparator.comparingInt(Movie::getId))
+                .toArray(Movie[]::new);
+        int count = movies.length;
+
+        Map<String, Integer> genreCodes = new LinkedHashMap<>();
+        byte[][] titles = new byte[count][];
+        int[] titleOffsets = new int[count];
+        long stringsLength = 0;
+        for (int i = 0; i < count; i++) {
+            Movie movie = movies[i];
+            if (movie.getReleaseYear() < Short.MIN_VALUE || movie.getReleaseYear() > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Release year out of range for snapshot: " + movie);
+            }
+            genreCodes.putIfAbsent(movie.getGenre(), genreCodes.size());
+            titles[i] = movie.getTitle().getBytes(StandardCharsets.UTF_8);
+            if (titles[i].length > 0xFFFF) {
+                throw new IllegalArgumentException("Title too long for snapshot: " + movie.getId());
+            }
+            titleOffsets[i] = (int) stringsLength;
+            stringsLength += titles[i].length;
+        }
+        if (genreCodes.size() > 0xFFFF) {
+            throw new IllegalArgumentException("Too many genres for snapshot: " + genreCodes.size());
+        }
+
+        int slots = SnapshotFormat.hashSlots(count);
+        int[] slotHashes = new int[slots];
+        int[] slotRecords = new int[slots];
+        for (int i = 0; i < count; i++) {
+            String key = MovieCatalog.titleKey(movies[i].getTitle());
+            if (!movies[i].equals(catalog.findByTitle(key))) {
+                continue; // another movie owns this title
+            }
+            int hash = SnapshotFormat.titleHash(key);
+            int slot = hash & (slots - 1);
+            while (slotRecords[slot] != 0) {
+                slot = (slot + 1) & (slots - 1);
+            }
+            slotHashes[slot] = hash;
+            slotRecords[slot] = i + 1;
+        }
+
+        byte[][] genres = new byte[genreCodes.size()][];
+        long genresLength = 0;
+        for (Map.Entry<String, Integer> entry : genreCodes.entrySet()) {
+            byte[] bytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            genres[entry.getValue()] = bytes;
+            genresLength += 2 + bytes.length;
+        }
+
+        long recordsOffset = SnapshotFormat.HEADER_SIZE;
+        long hashOffset = recordsOffset + (long) count * SnapshotFormat.RECORD_SIZE;
+        long genresOffset = hashOffset + (long) slots * SnapshotFormat.SLOT_SIZE;
+        long stringsOffset = genresOffset + genresLength;
+        if (stringsOffset + stringsLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Snapshot would exceed 2 GB: " + (stringsOffset + stringsLength) + " bytes");
+        }
+
+        Path temp = null;
+        try {
+            Path parent = snapshotFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            temp = Files.createTempFile(parent, snapshotFile.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(SnapshotFormat.MAGIC);
+                out.writeInt(SnapshotFormat.VERSION);
+                out.writeInt(count);
+                out.writeInt(genres.length);
+                out.writeInt(slots);
+                out.writeInt(0);
+                out.writeLong(recordsOffset);
+                out.writeLong(hashOffset);
+                out.writeLong(genresOffset);
+                out.writeLong(stringsOffset);
+
+                for (int i = 0; i < count; i++) {
+                    Movie movie = movies[i];
+                    out.writeInt(movie.getId());
+                    out.writeByte(movie.getRating().ordinal());
+                    out.writeByte(0);
+                    out.writeShort(movie.getReleaseYear());
+                    out.writeShort(genreCodes.get(movie.getGenre()));
+                    out.writeShort(titles[i].length);
+                    out.writeInt(titleOffsets[i]);
+                }
+                for (int slot = 0; slot < slots; slot++) {
+                    out.writeInt(slotHashes[slot]);
+                    out.writeInt(slotRecords[slot]);
+                }
+                for (byte[] genre : genres) {
+                    out.writeShort(genre.length);
+                    out.write(genre);
+                }
+                for (byte[] title : titles) {
+                    out.write(title);
+                }
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true); // the snapshot must be durable before it replaces anything
+            }
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new UncheckedIOException("Failed to write catalog snapshot " + snapshotFile, e);
+        }
+
+        logger.info("Compiled {} movies into snapshot {} in {} ms",
+                   count, snapshotFile, (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete temporary snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Command-line entry point: {@code CatalogCompiler <catalog.json> <snapshot.bin>}.
+     *
+     * @param args the catalog and snapshot paths
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: CatalogCompiler <catalog.json> <snapshot.bin>");
+            System.exit(2);
+        }
+        int count = compile(Path.of(args[0]), Path.of(args[1]));
+        System.out.printf("Wrote %d movies to %s%n", count, args[1]);
+    }
+}
@@ -0,0 +1,647 @@
+package com.parentalcontrol.catalog;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Bulk importer for full-catalog feeds in CSV or JSON Lines format.
+ * <p>
+ * The file is cut into byte ranges that are parsed in parallel on a
+ * {@link ForkJoinPool}. A range owns every line that starts inside it: it skips
+ * the partial line at its start and reads past its end to finish its last line,
+ * so no pre-pass over the file is needed to find line boundaries. Every row goes
+ * through the {@link Movie} constructor and {@link Rating#fromString(String)};
+ * rows that fail are counted and a sample of them is kept for the report.
+ * <p>
+ * The parsed rows are then assembled in file order into a {@link HeapCatalog}.
+ * Rows repeating an ID or a normalized title seen earlier in the file are dropped
+ * as duplicates. Finally the rating index, search index and statistics are built
+ * concurrently. Nothing is published here: the caller receives a complete,
+ * indexed catalog and swaps it in at once (see {@code MovieService.importCatalog}).
+ * <p>
+ * CSV files need a header row naming the {@code id}, {@code title} and
+ * {@code rating} columns, plus optionally {@code genre} and {@code releaseYear}.
+ * Fields may be quoted, but must not contain line breaks. JSON Lines files hold
+ * one movie object per line, with the fields used by {@link CatalogLoader}.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class CatalogImporter {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogImporter.class);
+
+    /** Smallest byte range worth a task of its own. */
+    static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+    /** Largest byte range per task, so a slow range cannot hold up the whole import. */
+    static final int MAX_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    /** Number of rejected rows described in the report. */
+    static final int REJECTION_SAMPLES = 100;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int READ_AHEAD = 8 * 1024;
+
+    private CatalogImporter() {
+    }
+
+    /**
+     * Input formats.
+     */
+    public enum Format {
+        CSV,
+        JSONL;
+
+        /**
+         * Picks the format from a file's extension: {@code .csv}, {@code .jsonl} or {@code .ndjson}.
+         *
+         * @param file the feed file
+         * @return the format
+         * @throws IllegalArgumentException if the extension is not recognized
+         */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+                return JSONL;
+            }
+            throw new IllegalArgumentException("Cannot tell the format of " + file + " from its extension");
+        }
+    }
+
+    /**
+     * Imports a feed on the common fork-join pool, detecting its format from the
+     * file extension.
+     *
+     * @param file the feed file
+     * @return the imported catalog and its indexes
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public static ImportedCatalog importFile(Path file) {
+        return importFile(file, Format.of(file), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Imports a feed.
+     *
+     * @param file the feed file
+     * @param format the feed format
+     * @param pool runs the parsing and index tasks
+     * @return the imported catalog and its indexes
+     * @throws IllegalArgumentException if a CSV header lacks a required column
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public static ImportedCatalog importFile(Path file, Format format, ForkJoinPool pool) {
+        return importFile(file, format, pool, 0);
+    }
+
+    static ImportedCatalog importFile(Path file, Format format, ForkJoinPool pool, int chunkSize) {
+        if (file == null || format == null || pool == null) {
+            throw new IllegalArgumentException("File, format and pool cannot be null");
+        }
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long dataStart = startOfData(channel);
+            int[] columns = null;
+            if (format == Format.CSV) {
+                byte[] header = readLine(channel, dataStart);
+                columns = csvColumns(decodeLine(header, 0, header.length));
+                dataStart += header.length;
+            }
+
+            // Parse byte ranges in parallel, then collect them in file order
+            long chunk = chunkSize > 0 ? chunkSize : chooseChunkSize(size - dataStart, pool.getParallelism());
+            List<ForkJoinTask<ChunkResult>> tasks = new ArrayList<>();
+            for (long from = dataStart; from < size; from += chunk) {
+                ChunkParser parser = new ChunkParser(channel, from, Math.min(size, from + chunk), format, columns);
+                tasks.add(pool.submit(parser::parse));
+            }
+            List<ChunkResult> chunks = new ArrayList<>(tasks.size());
+            for (ForkJoinTask<ChunkResult> task : tasks) {
+                chunks.add(task.join());
+            }
+            long parsed = System.nanoTime();
+
+            ImportReport.Builder report = new ImportReport.Builder();
+            HeapCatalog catalog = assemble(chunks, report);
+            long assembled = System.nanoTime();
+
+            ForkJoinTask<RatingIndex> ratingIndex = pool.submit(() -> RatingIndex.build(catalog));
+            ForkJoinTask<TitleSearchIndex> searchIndex = pool.submit(() -> TitleSearchIndex.build(catalog));
+            CatalogStatistics statistics = CatalogStatistics.build(catalog);
+            ImportedCatalog imported = new ImportedCatalog(catalog, ratingIndex.join(), searchIndex.join(),
+                    statistics, report.build(parsed - start, assembled - parsed, System.nanoTime() - start));
+
+            logger.info("Imported {} movies from {}: {}", catalog.size(), file, imported.getReport());
+            return imported;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to import catalog feed " + file, e);
+        }
+    }
+
+    static long chooseChunkSize(long bytes, int parallelism) {
+        long perTask = bytes / (Math.max(1, parallelism) * 4L);
+        return Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, perTask));
+    }
+
+    /** Adds the parsed rows to a catalog in file order, dropping repeated IDs and titles. */
+    private static HeapCatalog assemble(List<ChunkResult> chunks, ImportReport.Builder report) {
+        int total = 0;
+        for (ChunkResult chunk : chunks) {
+            total += chunk.count;
+            report.add(chunk);
+        }
+        HeapCatalog catalog = new HeapCatalog(total);
+        for (ChunkResult chunk : chunks) {
+            for (int i = 0; i < chunk.count; i++) {
+                if (!catalog.addIfAbsent(chunk.movies[i], chunk.titleKeys[i])) {
+                    report.duplicates++;
+                }
+            }
+        }
+        catalog.compact();
+        return catalog;
+    }
+
+    /** Skips a UTF-8 byte order mark. */
+    private static long startOfData(FileChannel channel) throws IOException {
+        ByteBuffer bom = ByteBuffer.allocate(3);
+        channel.read(bom, 0);
+        return bom.position() == 3 && (bom.get(0) & 0xFF) == 0xEF && (bom.get(1) & 0xFF) == 0xBB
+                && (bom.get(2) & 0xFF) == 0xBF ? 3 : 0;
+    }
+
+    /** Reads from a position up to and including the next line feed, or to the end of the file. */
+    private static byte[] readLine(FileChannel channel, long position) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_AHEAD);
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return line.toByteArray();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    line.write(buffer.array(), 0, i + 1);
+                    return line.toByteArray();
+                }
+            }
+            line.write(buffer.array(), 0, read);
+            position += read;
+        }
+    }
+
+    /** Decodes one line without its line terminator. */
+    private static String decodeLine(byte[] bytes, int from, int to) {
+        while (to > from && (bytes[to - 1] == '\n' || bytes[to - 1] == '\r')) {
+            to--;
+        }
+        return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Maps the CSV header to column positions.
+     *
+     * @return the positions of id, title, rating, genre and releaseYear; -1 for an absent optional column
+     */
+    static int[] csvColumns(String header) {
+        List<String> names = new ArrayList<>();
+        splitCsv(header, names);
+        int[] columns = {-1, -1, -1, -1, -1};
+        for (int i = 0; i < names.size(); i++) {
+            switch (names.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "id":
+                    columns[0] = i;
+                    break;
+                case "title":
+                    columns[1] = i;
+                    break;
+                case "rating":
+                    columns[2] = i;
+                    break;
+                case "genre":
+                    columns[3] = i;
+                    break;
+                case "releaseyear":
+                case "release_year":
+                case "year":
+                    columns[4] = i;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (columns[0] < 0 || columns[1] < 0 || columns[2] < 0) {
+            throw new IllegalArgumentException("CSV header must name id, title and rating columns: " + header);
+        }
+        return columns;
+    }
+
+    /** Splits a CSV line into fields, honouring double quotes and doubled quotes inside them. */
+    static void splitCsv(String line, List<String> fields) {
+        fields.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+    }
+
+    /**
+     * Parses the lines that start inside one byte range. Rating and genre strings
+     * repeat across millions of rows, so both are memoized per range.
+     */
+    private static final class ChunkParser {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final Format format;
+        private final int[] columns;
+        private final Map<String, Rating> ratings = new HashMap<>();
+        private final Map<String, String> genres = new HashMap<>();
+        private final List<String> fields = new ArrayList<>();
+        private final ChunkResult result = new ChunkResult();
+
+        ChunkParser(FileChannel channel, long start, long end, Format format, int[] columns) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.format = format;
+            this.columns = columns;
+        }
+
+        ChunkResult parse() {
+            try {
+                return parseRange();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read bytes " + start + "-" + end, e);
+            }
+        }
+
+        private ChunkResult parseRange() throws IOException {
+            // Read one byte before the range to tell whether it starts on a line boundary
+            long from = start > 0 ? start - 1 : 0;
+            byte[] bytes = new byte[(int) (end - from)];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining() && channel.read(buffer, from + buffer.position()) > 0) {
+                // fill the range
+            }
+
+            int position = 0;
+            if (start > 0) {
+                int newline = indexOf(bytes, 0, '\n');
+                if (newline < 0) {
+                    return result; // the range lies inside a line owned by an earlier range
+                }
+                position = newline + 1;
+            }
+            while (position < bytes.length) {
+                int newline = indexOf(bytes, position, '\n');
+                if (newline >= 0) {
+                    parseLine(bytes, position, newline, from + position);
+                    position = newline + 1;
+                } else {
+                    // Finish the last line from beyond the range
+                    byte[] rest = readLine(channel, from + bytes.length);
+                    byte[] line = Arrays.copyOfRange(bytes, position, bytes.length + rest.length);
+                    System.arraycopy(rest, 0, line, bytes.length - position, rest.length);
+                    parseLine(line, 0, line.length, from + position);
+                    break;
+                }
+            }
+            return result;
+        }
+
+        private void parseLine(byte[] bytes, int from, int to, long offset) {
+            String line = decodeLine(bytes, from, to);
+            if (line.isBlank()) {
+                return;
+            }
+            result.rows++;
+            try {
+                Movie movie = format == Format.CSV ? csvMovie(line) : jsonMovie(bytes, from, to);
+                result.add(movie, MovieCatalog.titleKey(movie.getTitle()));
+            } catch (IllegalArgumentException e) {
+                result.reject(offset, e.getMessage());
+            }
+        }
+
+        private Movie csvMovie(String line) {
+            splitCsv(line, fields);
+            int id = parseInt(field(columns[0]), "id");
+            String yearField = field(columns[4]);
+            int releaseYear = yearField == null || yearField.isBlank() ? 0 : parseInt(yearField, "releaseYear");
+            return new Movie(id, field(columns[1]), resolveRating(field(columns[2])),
+                             internGenre(field(columns[3])), releaseYear);
+        }
+
+        private String field(int column) {
+            return column >= 0 && column < fields.size() ? fields.get(column) : null;
+        }
+
+        private Movie jsonMovie(byte[] bytes, int from, int to) {
+            Integer id = null;
+            String title = null;
+            String ratingName = null;
+            String genre = null;
+            int releaseYear = 0;
+            try (JsonParser parser = JSON_FACTORY.createParser(bytes, from, to - from)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Row is not a JSON object");
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    switch (name) {
+                        case "id":
+                            id = value == JsonToken.VALUE_NUMBER_INT ? parser.getIntValue() : null;
+                            break;
+                        case "title":
+                            title = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                            break;
+                        case "rating":
+                            ratingName = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                            break;
+                        case "genre":
+                            genre = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                            break;
+                        case "releaseYear":
+                            releaseYear = value == JsonToken.VALUE_NUMBER_INT ? parser.getIntValue() : 0;
+                            break;
+                        default:
+                            parser.skipChildren();
+                            break;
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Malformed JSON: " + e.getMessage().split("\n", 2)[0]);
+            }
+            if (id == null) {
+                throw new IllegalArgumentException("Row has no integer id");
+            }
+            return new Movie(id, title, resolveRating(ratingName), internGenre(genre), releaseYear);
+        }
+
+        private Rating resolveRating(String name) {
+            if (name == null) {
+                return null; // rejected by the Movie constructor
+            }
+            Rating rating = ratings.get(name);
+            if (rating == null) {
+                rating = Rating.fromString(name);
+                ratings.put(name, rating);
+            }
+            return rating;
+        }
+
+        private String internGenre(String genre) {
+            return genre == null ? null : genres.computeIfAbsent(genre, g -> g);
+        }
+
+        private static int parseInt(String value, String name) {
+            try {
+                return Integer.parseInt(value == null ? "" : value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + name + ": " + value);
+            }
+        }
+
+        private static int indexOf(byte[] bytes, int from, char c) {
+            for (int i = from; i < bytes.length; i++) {
+                if (bytes[i] == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Valid rows of one byte range in file order, with their title keys, and the
+     * rows it rejected.
+     */
+    private static final class ChunkResult {
+        private Movie[] movies = new Movie[256];
+        private String[] titleKeys = new String[256];
+        private int count;
+        private long rows;
+        private long rejected;
+        private final List<String> rejections = new ArrayList<>();
+
+        void add(Movie movie, String titleKey) {
+            if (count == movies.length) {
+                movies = Arrays.copyOf(movies, count * 2);
+                titleKeys = Arrays.copyOf(titleKeys, count * 2);
+            }
+            movies[count] = movie;
+            titleKeys[count++] = titleKey;
+        }
+
+        void reject(long offset, String reason) {
+            rejected++;
+            if (rejections.size() < REJECTION_SAMPLES) {
+                rejections.add("byte " + offset + ": " + reason);
+            }
+        }
+    }
+
+    /**
+     * A catalog imported from a feed, with every derived index already built.
+     */
+    public static final class ImportedCatalog {
+        private final HeapCatalog catalog;
+        private final RatingIndex ratingIndex;
+        private final TitleSearchIndex searchIndex;
+        private final CatalogStatistics statistics;
+        private final ImportReport report;
+
+        ImportedCatalog(HeapCatalog catalog, RatingIndex ratingIndex, TitleSearchIndex searchIndex,
+                        CatalogStatistics statistics, ImportReport report) {
+            this.catalog = catalog;
+            this.ratingIndex = ratingIndex;
+            this.searchIndex = searchIndex;
+            this.statistics = statistics;
+            this.report = report;
+        }
+
+        public HeapCatalog getCatalog() {
+            return catalog;
+        }
+
+        public ImportReport getReport() {
+            return report;
+        }
+
+        /**
+         * Creates a snapshot of the imported catalog that reuses the prebuilt indexes.
+         *
+         * @param version the snapshot version
+         * @param servedCatalog the catalog to serve: the imported one, or a persisted copy with the same content
+         * @return the snapshot
+         */
+        public CatalogSnapshot toSnapshot(long version, MovieCatalog servedCatalog) {
+            return new CatalogSnapshot(version, servedCatalog, ratingIndex, statistics, searchIndex);
+        }
+    }
+
+    /**
+     * Outcome of an import: row counts, phase timings and a sample of rejected rows.
+     */
+    public static final class ImportReport {
+        private final long rows;
+        private final long imported;
+        private final long rejected;
+        private final long duplicates;
+        private final long parseNanos;
+        private final long assembleNanos;
+        private final long elapsedNanos;
+        private final List<String> rejections;
+
+        private ImportReport(Builder builder, long parseNanos, long assembleNanos, long elapsedNanos) {
+            this.rows = builder.rows;
+            this.rejected = builder.rejected;
+            this.duplicates = builder.duplicates;
+            this.imported = builder.rows - builder.rejected - builder.duplicates;
+            this.parseNanos = parseNanos;
+            this.assembleNanos = assembleNanos;
+            this.elapsedNanos = elapsedNanos;
+            this.rejections = Collections.unmodifiableList(builder.rejections);
+        }
+
+        /**
+         * Gets the number of non-blank data rows read.
+         *
+         * @return the row count
+         */
+        public long getRows() {
+            return rows;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        /**
+         * Gets the number of rows that failed to parse or validate.
+         *
+         * @return the rejected row count
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Gets the number of valid rows dropped because an earlier row had the same
+         * ID or normalized title.
+         *
+         * @return the duplicate row count
+         */
+        public long getDuplicates() {
+            return duplicates;
+        }
+
+        /**
+         * Gets descriptions of the first rejected rows, each with its byte offset.
+         *
+         * @return unmodifiable list of at most {@value CatalogImporter#REJECTION_SAMPLES} entries
+         */
+        public List<String> getRejections() {
+            return rejections;
+        }
+
+        public long getParseMillis() {
+            return parseNanos / 1_000_000;
+        }
+
+        public long getAssembleMillis() {
+            return assembleNanos / 1_000_000;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        /**
+         * Gets the end-to-end import throughput, indexes included.
+         *
+         * @return rows per second, or 0 if nothing was timed
+         */
+        public double getRowsPerSecond() {
+            return elapsedNanos > 0 ? rows * 1_000_000_000.0 / elapsedNanos : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ImportReport{rows=%d, imported=%d, rejected=%d, duplicates=%d, "
+                               + "parse=%d ms, assemble=%d ms, elapsed=%d ms, rate=%.0f rows/sec}",
+                               rows, imported, rejected, duplicates, getParseMillis(), getAssembleMillis(),
+                               getElapsedMillis(), getRowsPerSecond());
+        }
+
+        private static final class Builder {
+            private long rows;
+            private long rejected;
+            private long duplicates;
+            private final List<String> rejections = new ArrayList<>();
+
+            void add(ChunkResult chunk) {
+                rows += chunk.rows;
+                rejected += chunk.rejected;
+                for (String rejection : chunk.rejections) {
+                    if (rejections.size() < REJECTION_SAMPLES) {
+                        rejections.add(rejection);
+                    }
+                }
+            }
+
+            ImportReport build(long parseNanos, long assembleNanos, long elapsedNanos) {
+                return new ImportReport(this, parseNanos, assembleNanos, elapsedNanos);
+            }
+        }
+    }
+}
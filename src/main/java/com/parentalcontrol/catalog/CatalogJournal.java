@@ -0,0 +1,269 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of catalog changes.
+ * <p>
+ * Each entry is framed as {@code length:int crc32:int payload}, where the payload
+ * holds a sequence number, an operation and the movie it concerns. Entries are
+ * forced to disk before {@link #appendUpsert(long, Movie)} and
+ * {@link #appendDelete(long, int)} return, so a change that was acknowledged
+ * survives a crash. A torn or corrupt entry at the end of the file, left by a
+ * crash mid-append, ends the journal: {@link #open(Path, Replay)} replays the
+ * entries before it and truncates it away.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class CatalogJournal implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogJournal.class);
+
+    static final byte OP_UPSERT = 1;
+    static final byte OP_DELETE = 2;
+
+    private static final int FRAME_HEADER = 8;
+    private static final int MAX_PAYLOAD = 1 << 20;
+    private static final Rating[] RATINGS = Rating.values();
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
+    private final DataOutputStream payloadOut = new DataOutputStream(payload);
+    private final CRC32 crc = new CRC32();
+    private long entries;
+
+    /**
+     * Receives the entries of a journal in the order they were appended.
+     */
+    public interface Replay {
+        /**
+         * Called for an added or replaced movie.
+         *
+         * @param sequence the change's sequence number
+         * @param movie the movie
+         */
+        void upsert(long sequence, Movie movie);
+
+        /**
+         * Called for a deleted movie.
+         *
+         * @param sequence the change's sequence number
+         * @param movieId the deleted ID
+         */
+        void delete(long sequence, int movieId);
+    }
+
+    private CatalogJournal(Path file, FileChannel channel, long entries) {
+        this.file = file;
+        this.channel = channel;
+        this.entries = entries;
+    }
+
+    /**
+     * Opens or creates a journal, replaying the entries it already holds.
+     *
+     * @param file the journal file
+     * @param replay receives the existing entries
+     * @return the journal, positioned to append after the last intact entry
+     * @throws UncheckedIOException if the journal cannot be read or opened
+     */
+    public static CatalogJournal open(Path file, Replay replay) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                   StandardOpenOption.WRITE);
+            try {
+                long[] intact = replayAll(channel, replay);
+                if (intact[0] < channel.size()) {
+                    logger.warn("Truncating {} bytes of torn entries from journal {}",
+                               channel.size() - intact[0], file);
+                    channel.truncate(intact[0]);
+                    channel.force(true);
+                }
+                channel.position(intact[0]);
+                return new CatalogJournal(file, channel, intact[1]);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open catalog journal " + file, e);
+        }
+    }
+
+    /**
+     * Replays every intact entry.
+     *
+     * @return the offset after the last intact entry and the number of entries
+     */
+    private static long[] replayAll(FileChannel channel, Replay replay) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER);
+        CRC32 crc = new CRC32();
+        long offset = 0;
+        long count = 0;
+        long size = channel.size();
+        while (offset + FRAME_HEADER <= size) {
+            header.clear();
+            channel.read(header, offset);
+            int length = header.getInt(0);
+            if (length <= 0 || length > MAX_PAYLOAD || offset + FRAME_HEADER + length > size) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length);
+            while (body.hasRemaining() && channel.read(body, offset + FRAME_HEADER + body.position()) > 0) {
+                // read the whole payload
+            }
+            crc.reset();
+            crc.update(body.array(), 0, length);
+            if ((int) crc.getValue() != header.getInt(4)) {
+                break;
+            }
+            decode(body.array(), replay);
+            offset += FRAME_HEADER + length;
+            count++;
+        }
+        return new long[] {offset, count};
+    }
+
+    private static void decode(byte[] bytes, Replay replay) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        long sequence = in.readLong();
+        byte op = in.readByte();
+        int id = in.readInt();
+        if (op == OP_DELETE) {
+            replay.delete(sequence, id);
+        } else if (op == OP_UPSERT) {
+            Rating rating = RATINGS[in.readByte()];
+            int year = in.readInt();
+            String title = in.readUTF();
+            String genre = in.readUTF();
+            replay.upsert(sequence, new Movie(id, title, rating, genre, year));
+        } else {
+            throw new IOException("Unknown journal operation " + op);
+        }
+    }
+
+    /**
+     * Appends an added or replaced movie and forces it to disk.
+     *
+     * @param sequence the change's sequence number
+     * @param movie the movie
+     */
+    public synchronized void appendUpsert(long sequence, Movie movie) {
+        try {
+            payload.reset();
+            payloadOut.writeLong(sequence);
+            payloadOut.writeByte(OP_UPSERT);
+            payloadOut.writeInt(movie.getId());
+            payloadOut.writeByte(movie.getRating().ordinal());
+            payloadOut.writeInt(movie.getReleaseYear());
+            payloadOut.writeUTF(movie.getTitle());
+            payloadOut.writeUTF(movie.getGenre());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Movie cannot be journaled: " + movie, e);
+        }
+        writeFrame();
+    }
+
+    /**
+     * Appends a deletion and forces it to disk.
+     *
+     * @param sequence the change's sequence number
+     * @param movieId the deleted ID
+     */
+    public synchronized void appendDelete(long sequence, int movieId) {
+        try {
+            payload.reset();
+            payloadOut.writeLong(sequence);
+            payloadOut.writeByte(OP_DELETE);
+            payloadOut.writeInt(movieId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        writeFrame();
+    }
+
+    private void writeFrame() {
+        byte[] bytes = payload.toByteArray();
+        crc.reset();
+        crc.update(bytes, 0, bytes.length);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + bytes.length);
+        frame.putInt(bytes.length).putInt((int) crc.getValue()).put(bytes).flip();
+        long start = -1;
+        try {
+            start = channel.position();
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+            channel.force(false);
+            entries++;
+        } catch (IOException e) {
+            discardFrom(start);
+            throw new UncheckedIOException("Failed to append to catalog journal " + file, e);
+        }
+    }
+
+    /** Cuts off a partly written frame, so later entries are not lost behind it on replay. */
+    private void discardFrom(long position) {
+        if (position < 0) {
+            return;
+        }
+        try {
+            channel.truncate(position);
+            channel.position(position);
+        } catch (IOException e) {
+            logger.error("Could not discard partial entry in catalog journal {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Discards every entry, once they are all covered by a compacted snapshot.
+     */
+    public synchronized void reset() {
+        try {
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+            entries = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to reset catalog journal " + file, e);
+        }
+    }
+
+    /**
+     * Gets the number of entries in the journal, replayed or appended.
+     *
+     * @return the entry count
+     */
+    public synchronized long getEntryCount() {
+        return entries;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.error("Could not close catalog journal {}: {}", file, e.getMessage());
+        }
+    }
+}
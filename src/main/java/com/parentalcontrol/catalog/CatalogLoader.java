@@ -0,0 +1,348 @@
+package com.parentalcontrol.catalog;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Streaming loader for JSON movie catalogs.
+ * <p>
+ * Uses Jackson's {@link JsonParser} directly so that catalogs with millions of
+ * entries are read one record at a time: no DOM tree is built and memory use is
+ * bounded by a single record plus whatever the sink retains.
+ * <p>
+ * Accepts either a top-level array of movie objects or an object with a
+ * {@code "movies"} array (the layout of {@code movies.json}). Unknown fields and
+ * other top-level sections such as {@code "ratings"} are skipped.
+ * <p>
+ * Loading into a {@link HeapCatalog} keeps the first record for each ID and
+ * normalized title and counts later ones as duplicates, as
+ * {@link CatalogImporter} does.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class CatalogLoader {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogLoader.class);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private CatalogLoader() {
+    }
+
+    /**
+     * Loads a catalog from a classpath resource.
+     *
+     * @param resource the resource name, e.g. {@code movies.json}
+     * @param sink receives every valid movie in file order
+     * @return the load report
+     * @throws IllegalArgumentException if the resource does not exist
+     * @throws UncheckedIOException if the resource cannot be read or parsed
+     */
+    public static LoadReport loadResource(String resource, Consumer<Movie> sink) {
+        return readResource(resource, keepAll(sink));
+    }
+
+    /**
+     * Loads a catalog from a classpath resource into a heap catalog, dropping
+     * records that repeat an ID or title loaded earlier.
+     *
+     * @param resource the resource name
+     * @param catalog the catalog to fill
+     * @return the load report
+     * @throws IllegalArgumentException if the resource does not exist
+     * @throws UncheckedIOException if the resource cannot be read or parsed
+     */
+    static LoadReport loadResource(String resource, HeapCatalog catalog) {
+        return readResource(resource, catalog::addIfAbsent);
+    }
+
+    private static LoadReport readResource(String resource, Predicate<Movie> sink) {
+        InputStream in = CatalogLoader.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalArgumentException("Catalog resource not found: " + resource);
+        }
+        try (InputStream stream = in) {
+            return read(stream, sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load catalog resource " + resource, e);
+        }
+    }
+
+    /**
+     * Loads a catalog from a file.
+     *
+     * @param file the JSON catalog file
+     * @param sink receives every valid movie in file order
+     * @return the load report
+     * @throws UncheckedIOException if the file cannot be read or parsed
+     */
+    public static LoadReport loadFile(Path file, Consumer<Movie> sink) {
+        return readFile(file, keepAll(sink));
+    }
+
+    /**
+     * Loads a catalog from a file into a heap catalog, dropping records that
+     * repeat an ID or title loaded earlier.
+     *
+     * @param file the JSON catalog file
+     * @param catalog the catalog to fill
+     * @return the load report
+     * @throws UncheckedIOException if the file cannot be read or parsed
+     */
+    static LoadReport loadFile(Path file, HeapCatalog catalog) {
+        return readFile(file, catalog::addIfAbsent);
+    }
+
+    private static LoadReport readFile(Path file, Predicate<Movie> sink) {
+        try (InputStream stream = Files.newInputStream(file)) {
+            return read(stream, sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load catalog file " + file, e);
+        }
+    }
+
+    /**
+     * Loads a catalog from a stream. The stream is not closed.
+     *
+     * @param in the JSON input
+     * @param sink receives every valid movie in stream order
+     * @return the load report
+     * @throws IOException if the stream cannot be read or is not valid JSON
+     */
+    public static LoadReport load(InputStream in, Consumer<Movie> sink) throws IOException {
+        return read(in, keepAll(sink));
+    }
+
+    private static Predicate<Movie> keepAll(Consumer<Movie> sink) {
+        return movie -> {
+            sink.accept(movie);
+            return true;
+        };
+    }
+
+    // The sink returns false for a movie it drops as a duplicate
+    private static LoadReport read(InputStream in, Predicate<Movie> sink) throws IOException {
+        long start = System.nanoTime();
+        RecordReader reader = new RecordReader();
+
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                reader.readMovies(parser, sink);
+            } else if (token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if ("movies".equals(field) && value == JsonToken.START_ARRAY) {
+                        reader.readMovies(parser, sink);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if (token != null) {
+                throw new IOException("Expected a JSON object or array at catalog root, found " + token);
+            }
+        }
+
+        LoadReport report = new LoadReport(reader.loaded, reader.rejected, reader.duplicates,
+                                           System.nanoTime() - start);
+        logger.debug("Catalog load finished: {}", report);
+        return report;
+    }
+
+    /**
+     * Per-load parsing state. Rating and genre strings repeat across millions of
+     * records, so both are memoized to avoid repeated lookups and duplicate strings.
+     */
+    private static final class RecordReader {
+        private final Map<String, Rating> ratings = new HashMap<>();
+        private final Map<String, String> genres = new HashMap<>();
+        private long loaded;
+        private long rejected;
+        private long duplicates;
+
+        void readMovies(JsonParser parser, Predicate<Movie> sink) throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    rejected++;
+                    continue;
+                }
+                Movie movie = readMovie(parser);
+                if (movie == null) {
+                    rejected++;
+                } else if (sink.test(movie)) {
+                    loaded++;
+                } else {
+                    duplicates++;
+                }
+            }
+        }
+
+        private Movie readMovie(JsonParser parser) throws IOException {
+            int id = 0;
+            boolean hasId = false;
+            String title = null;
+            String ratingName = null;
+            String genre = null;
+            int releaseYear = 0;
+            boolean outOfRange = false;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "id":
+                        if (value == JsonToken.VALUE_NUMBER_INT) {
+                            if (fitsInt(parser)) {
+                                id = parser.getIntValue();
+                                hasId = true;
+                            } else {
+                                outOfRange = true;
+                            }
+                        }
+                        break;
+                    case "title":
+                        title = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                        break;
+                    case "rating":
+                        ratingName = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                        break;
+                    case "genre":
+                        genre = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                        break;
+                    case "releaseYear":
+                        if (value == JsonToken.VALUE_NUMBER_INT) {
+                            if (fitsInt(parser)) {
+                                releaseYear = parser.getIntValue();
+                            } else {
+                                outOfRange = true;
+                            }
+                        }
+                        break;
+                    default:
+                        break;
+                }
+                // An object or array, even under a known field, is skipped whole
+                parser.skipChildren();
+            }
+
+            if (outOfRange) {
+                logger.warn("Skipping catalog record with a number out of range near {}",
+                            parser.getCurrentLocation());
+                return null;
+            }
+            if (!hasId) {
+                logger.warn("Skipping catalog record without id near {}", parser.getCurrentLocation());
+                return null;
+            }
+            try {
+                return new Movie(id, title, resolveRating(ratingName), internGenre(genre), releaseYear);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Skipping invalid catalog record {}: {}", id, e.getMessage());
+                return null;
+            }
+        }
+
+        // getIntValue() throws for a value beyond int range instead of reporting it
+        private static boolean fitsInt(JsonParser parser) throws IOException {
+            return parser.getNumberType() == JsonParser.NumberType.INT;
+        }
+
+        private Rating resolveRating(String name) {
+            if (name == null) {
+                return null;
+            }
+            Rating rating = ratings.get(name);
+            if (rating == null) {
+                rating = Rating.fromString(name);
+                ratings.put(name, rating);
+            }
+            return rating;
+        }
+
+        private String internGenre(String genre) {
+            if (genre == null) {
+                return null;
+            }
+            return genres.computeIfAbsent(genre, g -> g);
+        }
+    }
+
+    /**
+     * Outcome of a catalog load.
+     */
+    public static final class LoadReport {
+        private final long loaded;
+        private final long rejected;
+        private final long duplicates;
+        private final long elapsedNanos;
+
+        LoadReport(long loaded, long rejected, long duplicates, long elapsedNanos) {
+            this.loaded = loaded;
+            this.rejected = rejected;
+            this.duplicates = duplicates;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getLoaded() {
+            return loaded;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Gets the number of valid records dropped because an earlier record had
+         * the same ID or normalized title. Only loads into a {@link HeapCatalog}
+         * drop duplicates.
+         *
+         * @return the duplicate record count
+         */
+        public long getDuplicates() {
+            return duplicates;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        /**
+         * Gets the load throughput.
+         *
+         * @return valid records per second, or 0 if nothing was timed
+         */
+        public double getRecordsPerSecond() {
+            return elapsedNanos > 0 ? loaded * 1_000_000_000.0 / elapsedNanos : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("LoadReport{loaded=%d, rejected=%d, duplicates=%d, elapsed=%d ms, "
+                               + "rate=%.0f records/sec}",
+                               loaded, rejected, duplicates, getElapsedMillis(), getRecordsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+
+/**
+ * Immutable, versioned view of the catalog published to readers.
+ * <p>
+ * A snapshot is never modified after construction. Reloads build a new snapshot
+ * and publish it atomically, so a reader that obtained a snapshot sees one
+ * consistent catalog for as long as it holds the reference.
+ * <p>
+ * Derived indexes and statistics are built on first use and then shared by every
+ * reader of the snapshot. A snapshot that follows a single change
+ * ({@link #withUpsert(MovieCatalog, Movie, Movie, Movie)}, {@link #withRemoval(MovieCatalog, Movie)})
+ * derives every index built so far from this one's instead of rebuilding it.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class CatalogSnapshot {
+    private final long version;
+    private final MovieCatalog catalog;
+    private final long createdAt;
+    private volatile RatingIndex ratingIndex;
+    private volatile TitleSearchIndex searchIndex;
+    private volatile CatalogStatistics statistics;
+    private volatile FacetIndex facetIndex;
+    private volatile FuzzyTitleIndex fuzzyTitleIndex;
+    // Held apart from this snapshot's monitor so no other index waits on the fuzzy one
+    private final Object fuzzyTitleLock = new Object();
+
+    public CatalogSnapshot(long version, MovieCatalog catalog) {
+        this(version, catalog, null, null);
+    }
+
+    /**
+     * Creates a snapshot with an already built rating index, typically one derived
+     * incrementally from the previous snapshot's index.
+     *
+     * @param version the snapshot version
+     * @param catalog the catalog
+     * @param ratingIndex the rating index for the catalog, or null to build it on first use
+     */
+    public CatalogSnapshot(long version, MovieCatalog catalog, RatingIndex ratingIndex) {
+        this(version, catalog, ratingIndex, null);
+    }
+
+    /**
+     * Creates a snapshot with an already built rating index and statistics,
+     * typically derived incrementally from the previous snapshot's.
+     *
+     * @param version the snapshot version
+     * @param catalog the catalog
+     * @param ratingIndex the rating index for the catalog, or null to build it on first use
+     * @param statistics the statistics of the catalog, or null to compute them on first use
+     */
+    public CatalogSnapshot(long version, MovieCatalog catalog, RatingIndex ratingIndex,
+                           CatalogStatistics statistics) {
+        this(version, catalog, ratingIndex, statistics, null);
+    }
+
+    /**
+     * Creates a snapshot whose derived indexes were all built in advance, for
+     * example in parallel by {@link CatalogImporter}.
+     *
+     * @param version the snapshot version
+     * @param catalog the catalog
+     * @param ratingIndex the rating index for the catalog, or null to build it on first use
+     * @param statistics the statistics of the catalog, or null to compute them on first use
+     * @param searchIndex the title search index for the catalog, or null to build it on first use
+     */
+    public CatalogSnapshot(long version, MovieCatalog catalog, RatingIndex ratingIndex,
+                           CatalogStatistics statistics, TitleSearchIndex searchIndex) {
+        this(version, catalog, ratingIndex, statistics, searchIndex, null, null);
+    }
+
+    private CatalogSnapshot(long version, MovieCatalog catalog, RatingIndex ratingIndex,
+                            CatalogStatistics statistics, TitleSearchIndex searchIndex, FacetIndex facetIndex,
+                            FuzzyTitleIndex fuzzyTitleIndex) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        this.version = version;
+        this.catalog = catalog;
+        this.ratingIndex = ratingIndex;
+        this.statistics = statistics;
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
+        this.fuzzyTitleIndex = fuzzyTitleIndex;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Creates the snapshot that follows this one.
+     *
+     * @param nextCatalog the catalog for the new version
+     * @return a snapshot with the next version number
+     */
+    public CatalogSnapshot next(MovieCatalog nextCatalog) {
+        return new CatalogSnapshot(version + 1, nextCatalog);
+    }
+
+    /**
+     * Creates the snapshot that follows this one after a movie is added or
+     * replaced. The rating index and statistics are derived from this snapshot's;
+     * so is every other index built so far, and the rest are left to first use.
+     * <p>
+     * Titles are unique, so a movie that takes the title of another ID displaces
+     * it; the displaced movie is dropped from every index along with the change.
+     *
+     * @param nextCatalog the catalog with the change applied
+     * @param movie the new or updated movie
+     * @param replaced the movie with the same ID it replaces, or null if the ID is new
+     * @param displaced the movie with the same title under another ID, or null
+     * @return a snapshot with the next version number
+     */
+    public CatalogSnapshot withUpsert(MovieCatalog nextCatalog, Movie movie, Movie replaced, Movie displaced) {
+        CatalogSnapshot from = displaced == null ? this : withRemoval(catalog, displaced);
+        TitleSearchIndex search = from.searchIndex;
+        FacetIndex facets = from.facetIndex;
+        FuzzyTitleIndex fuzzy = from.fuzzyTitleIndex;
+        return new CatalogSnapshot(version + 1, nextCatalog, from.getRatingIndex().withUpsert(movie, replaced),
+                                   from.getStatistics().withUpsert(movie, replaced),
+                                   search == null ? null : search.withUpsert(movie, replaced),
+                                   facets == null ? null : facets.withUpsert(movie, replaced),
+                                   fuzzy == null ? null : fuzzy.withUpsert(movie, replaced));
+    }
+
+    /**
+     * Creates the snapshot that follows this one after a movie is removed, deriving
+     * its indexes as {@link #withUpsert(MovieCatalog, Movie, Movie, Movie)} does.
+     *
+     * @param nextCatalog the catalog with the change applied
+     * @param removed the movie that was removed
+     * @return a snapshot with the next version number
+     */
+    public CatalogSnapshot withRemoval(MovieCatalog nextCatalog, Movie removed) {
+        TitleSearchIndex search = searchIndex;
+        FacetIndex facets = facetIndex;
+        FuzzyTitleIndex fuzzy = fuzzyTitleIndex;
+        return new CatalogSnapshot(version + 1, nextCatalog, getRatingIndex().withRemoval(removed),
+                                   getStatistics().withRemoval(removed),
+                                   search == null ? null : search.withRemoval(removed),
+                                   facets == null ? null : facets.withRemoval(removed),
+                                   fuzzy == null ? null : fuzzy.withRemoval(removed));
+    }
+
+    /**
+     * Creates a snapshot of the same version over another catalog with the same
+     * content, such as the one compaction writes. Every index built so far is kept.
+     *
+     * @param sameContent the catalog holding exactly this snapshot's movies
+     * @return a snapshot with this version number
+     */
+    public CatalogSnapshot withCatalog(MovieCatalog sameContent) {
+        return new CatalogSnapshot(version, sameContent, ratingIndex, statistics, searchIndex, facetIndex,
+                                   fuzzyTitleIndex);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public MovieCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Gets the title-ordered per-rating index, building it on first use.
+     *
+     * @return the rating index
+     */
+    public RatingIndex getRatingIndex() {
+        RatingIndex index = ratingIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = ratingIndex;
+                if (index == null) {
+                    index = RatingIndex.build(catalog);
+                    ratingIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gets the title search index, building it on first use.
+     *
+     * @return the search index
+     */
+    public TitleSearchIndex getSearchIndex() {
+        TitleSearchIndex index = searchIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = searchIndex;
+                if (index == null) {
+                    index = TitleSearchIndex.build(catalog);
+                    searchIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gets the genre and release-year index, building it on first use. It is not
+     * built by {@link #warm()}; only policy recompiles need it.
+     *
+     * @return the facet index
+     */
+    public FacetIndex getFacetIndex() {
+        FacetIndex index = facetIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = facetIndex;
+                if (index == null) {
+                    index = FacetIndex.build(catalog);
+                    facetIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gets the normalized and typo-tolerant title index, building its normalized
+     * keys on first use if {@link #warm()} has not. The build holds a lock of its
+     * own, so readers of the other indexes never wait for it.
+     *
+     * @return the fuzzy title index
+     */
+    public FuzzyTitleIndex getFuzzyTitleIndex() {
+        FuzzyTitleIndex index = fuzzyTitleIndex;
+        if (index == null) {
+            synchronized (fuzzyTitleLock) {
+                index = fuzzyTitleIndex;
+                if (index == null) {
+                    index = FuzzyTitleIndex.build(catalog);
+                    fuzzyTitleIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gets the catalog statistics, computing them on first use.
+     *
+     * @return the statistics
+     */
+    public CatalogStatistics getStatistics() {
+        CatalogStatistics stats = statistics;
+        if (stats == null) {
+            synchronized (this) {
+                stats = statistics;
+                if (stats == null) {
+                    stats = CatalogStatistics.build(catalog);
+                    statistics = stats;
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Builds every derived index that has not been built yet, so that readers of
+     * a newly published snapshot never wait for one. Only the facet index and the
+     * fuzzy title index's deletion dictionaries, which only typo lookups need,
+     * are left to first use.
+     *
+     * @return this snapshot
+     */
+    public CatalogSnapshot warm() {
+        getRatingIndex();
+        getSearchIndex();
+        getStatistics();
+        getFuzzyTitleIndex();
+        return this;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CatalogSnapshot{version=%d, movies=%d}", version, catalog.size());
+    }
+}
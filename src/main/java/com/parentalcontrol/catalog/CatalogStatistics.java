@@ -0,0 +1,215 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.RatingScheme;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Movie counts of one catalog: per rating, per genre, per release decade and
+ * the number of movies each rating ceiling can access.
+ * <p>
+ * Statistics are computed once per {@link CatalogSnapshot} and are immutable, so
+ * every read is a lookup and always describes exactly the snapshot it came from.
+ * {@link #withUpsert(Movie, Movie)} and {@link #withRemoval(Movie)} derive the
+ * statistics of a changed catalog from the previous ones, at a cost that depends
+ * on the number of distinct genres and decades rather than on catalog size.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class CatalogStatistics {
+
+    private static final Rating[] RATINGS = Rating.values();
+
+    private final long total;
+    private final long[] byRating;
+    private final long[] accessible;
+    private final Map<Rating, Long> byRatingView;
+    private final Map<String, Long> byGenre;
+    private final Map<Integer, Long> byDecade;
+
+    private CatalogStatistics(long[] byRating, Map<String, Long> byGenre, Map<Integer, Long> byDecade) {
+        this.byRating = byRating;
+        this.byGenre = Collections.unmodifiableMap(byGenre);
+        this.byDecade = Collections.unmodifiableMap(byDecade);
+
+        long sum = 0;
+        Map<Rating, Long> view = new EnumMap<>(Rating.class);
+        for (Rating rating : RATINGS) {
+            long count = byRating[rating.ordinal()];
+            sum += count;
+            if (count > 0) {
+                view.put(rating, count);
+            }
+        }
+        this.total = sum;
+        this.byRatingView = Collections.unmodifiableMap(view);
+
+        this.accessible = new long[RATINGS.length];
+        for (Rating ceiling : RATINGS) {
+            accessible[ceiling.ordinal()] = accessibleCount(ceiling, RatingScheme.DEFAULT);
+        }
+    }
+
+    /**
+     * Computes the statistics of a catalog in one pass.
+     *
+     * @param catalog the catalog
+     * @return the statistics
+     */
+    public static CatalogStatistics build(MovieCatalog catalog) {
+        long[] byRating = new long[RATINGS.length];
+        Map<String, Long> byGenre = new TreeMap<>();
+        Map<Integer, Long> byDecade = new TreeMap<>();
+        catalog.stream().forEach(movie -> {
+            byRating[movie.getRating().ordinal()]++;
+            byGenre.merge(movie.getGenre(), 1L, Long::sum);
+            byDecade.merge(decadeOf(movie.getReleaseYear()), 1L, Long::sum);
+        });
+        return new CatalogStatistics(byRating, byGenre, byDecade);
+    }
+
+    /**
+     * Derives the statistics after a movie is added or replaced.
+     *
+     * @param movie the new or updated movie
+     * @param replaced the movie it replaces, or null if it is new
+     * @return the updated statistics
+     */
+    public CatalogStatistics withUpsert(Movie movie, Movie replaced) {
+        long[] nextByRating = byRating.clone();
+        Map<String, Long> nextByGenre = new TreeMap<>(byGenre);
+        Map<Integer, Long> nextByDecade = new TreeMap<>(byDecade);
+        if (replaced != null) {
+            apply(replaced, -1, nextByRating, nextByGenre, nextByDecade);
+        }
+        apply(movie, 1, nextByRating, nextByGenre, nextByDecade);
+        return new CatalogStatistics(nextByRating, nextByGenre, nextByDecade);
+    }
+
+    /**
+     * Derives the statistics after a movie is removed.
+     *
+     * @param movie the removed movie
+     * @return the updated statistics
+     */
+    public CatalogStatistics withRemoval(Movie movie) {
+        long[] nextByRating = byRating.clone();
+        Map<String, Long> nextByGenre = new TreeMap<>(byGenre);
+        Map<Integer, Long> nextByDecade = new TreeMap<>(byDecade);
+        apply(movie, -1, nextByRating, nextByGenre, nextByDecade);
+        return new CatalogStatistics(nextByRating, nextByGenre, nextByDecade);
+    }
+
+    private static void apply(Movie movie, long delta, long[] byRating,
+                              Map<String, Long> byGenre, Map<Integer, Long> byDecade) {
+        byRating[movie.getRating().ordinal()] += delta;
+        byGenre.merge(movie.getGenre(), delta, CatalogStatistics::sumOrRemove);
+        byDecade.merge(decadeOf(movie.getReleaseYear()), delta, CatalogStatistics::sumOrRemove);
+    }
+
+    /** Sums counts, dropping keys whose count reaches zero. */
+    private static Long sumOrRemove(Long count, Long delta) {
+        long sum = count + delta;
+        return sum == 0 ? null : sum;
+    }
+
+    /**
+     * Gets the first year of the decade a year falls in, e.g. 1990 for 1999.
+     *
+     * @param year the release year
+     * @return the decade
+     */
+    public static int decadeOf(int year) {
+        return Math.floorDiv(year, 10) * 10;
+    }
+
+    /**
+     * Gets the number of movies.
+     *
+     * @return the movie count
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the number of movies with a rating.
+     *
+     * @param rating the rating
+     * @return the movie count
+     */
+    public long getCount(Rating rating) {
+        return byRating[rating.ordinal()];
+    }
+
+    /**
+     * Gets the number of movies per rating, leaving out ratings no movie has.
+     *
+     * @return unmodifiable map in rating order
+     */
+    public Map<Rating, Long> getCountByRating() {
+        return byRatingView;
+    }
+
+    /**
+     * Gets the number of movies per genre.
+     *
+     * @return unmodifiable map in genre order
+     */
+    public Map<String, Long> getCountByGenre() {
+        return byGenre;
+    }
+
+    /**
+     * Gets the number of movies per release decade, keyed by the decade's first year.
+     *
+     * @return unmodifiable map in decade order
+     */
+    public Map<Integer, Long> getCountByDecade() {
+        return byDecade;
+    }
+
+    /**
+     * Gets the number of movies accessible with a maximum rating under the default
+     * rating scheme.
+     *
+     * @param ceiling the maximum allowed rating
+     * @return the accessible movie count
+     */
+    public long getAccessibleCount(Rating ceiling) {
+        return accessible[ceiling.ordinal()];
+    }
+
+    /**
+     * Gets the number of movies accessible with a maximum rating under a scheme.
+     *
+     * @param ceiling the maximum allowed rating
+     * @param scheme the rating scheme to apply
+     * @return the accessible movie count
+     */
+    public long getAccessibleCount(Rating ceiling, RatingScheme scheme) {
+        return scheme == RatingScheme.DEFAULT ? accessible[ceiling.ordinal()] : accessibleCount(ceiling, scheme);
+    }
+
+    private long accessibleCount(Rating ceiling, RatingScheme scheme) {
+        long mask = scheme.allowedMask(ceiling);
+        long count = 0;
+        for (int r = 0; r < byRating.length; r++) {
+            if ((mask >>> r & 1) != 0) {
+                count += byRating[r];
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CatalogStatistics{total=%d, byRating=%s}", total, byRatingView);
+    }
+}
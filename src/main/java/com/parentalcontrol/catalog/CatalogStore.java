@@ -0,0 +1,239 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Durable home of a mutable catalog: the latest compacted snapshot plus a
+ * {@link CatalogJournal} of the changes made since.
+ * <p>
+ * A data directory holds {@code catalog-<sequence>.bin}, a {@link CatalogCompiler}
+ * snapshot containing every change up to that sequence number, and
+ * {@code journal.log}. Opening the store maps the newest snapshot and replays
+ * only the journal entries after its sequence, so recovery time depends on the
+ * number of recent changes rather than on catalog size. {@link #compact(MovieCatalog)}
+ * writes a new snapshot and empties the journal; a crash between the two is
+ * harmless because replay skips entries the snapshot already covers.
+ * <p>
+ * The store does not serialize its callers; {@code MovieService} logs and compacts
+ * under its write lock.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class CatalogStore implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogStore.class);
+
+    static final String JOURNAL_FILE = "journal.log";
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("catalog-(\\d{20})\\.bin");
+
+    private final Path directory;
+    private final CatalogJournal journal;
+    private final OverlayCatalog recovered;
+    private long sequence;
+    private long snapshotSequence;
+
+    private CatalogStore(Path directory, CatalogJournal journal, OverlayCatalog recovered,
+                         long sequence, long snapshotSequence) {
+        this.directory = directory;
+        this.journal = journal;
+        this.recovered = recovered;
+        this.sequence = sequence;
+        this.snapshotSequence = snapshotSequence;
+    }
+
+    /**
+     * Opens a data directory, recovering the catalog it holds. A directory without
+     * a snapshot is initialized with a snapshot of the initial catalog.
+     *
+     * @param directory the data directory, created if missing
+     * @param initial builds the catalog to start from in a new directory
+     * @return the open store
+     * @throws UncheckedIOException if the directory cannot be read or written
+     */
+    public static CatalogStore open(Path directory, Supplier<? extends MovieCatalog> initial) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Data directory cannot be null");
+        }
+        if (initial == null) {
+            throw new IllegalArgumentException("Initial catalog supplier cannot be null");
+        }
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create data directory " + directory, e);
+        }
+
+        long snapshotSequence = latestSnapshotSequence(directory);
+        if (snapshotSequence < 0) {
+            snapshotSequence = 0;
+            CatalogCompiler.compile(initial.get(), snapshotFile(directory, 0));
+        }
+        MovieCatalog base = MappedCatalog.open(snapshotFile(directory, snapshotSequence));
+
+        Recovery recovery = new Recovery(new OverlayCatalog.Builder(OverlayCatalog.over(base)), snapshotSequence);
+        CatalogJournal journal = CatalogJournal.open(directory.resolve(JOURNAL_FILE), recovery);
+        logger.info("Recovered catalog from {} in {} ms: snapshot {} ({} movies) + {} journal entries replayed",
+                   directory, (System.nanoTime() - start) / 1_000_000, snapshotSequence, base.size(),
+                   recovery.replayed);
+        return new CatalogStore(directory, journal, recovery.changes.build(), recovery.sequence, snapshotSequence);
+    }
+
+    /**
+     * Gets the catalog recovered when the store was opened.
+     *
+     * @return the snapshot with the journal applied
+     */
+    public OverlayCatalog getRecoveredCatalog() {
+        return recovered;
+    }
+
+    /**
+     * Journals an added or replaced movie.
+     *
+     * @param movie the movie
+     * @return the change's sequence number
+     */
+    public long logUpsert(Movie movie) {
+        journal.appendUpsert(sequence + 1, movie);
+        return ++sequence;
+    }
+
+    /**
+     * Journals a deleted movie.
+     *
+     * @param movieId the deleted ID
+     * @return the change's sequence number
+     */
+    public long logDelete(int movieId) {
+        journal.appendDelete(sequence + 1, movieId);
+        return ++sequence;
+    }
+
+    /**
+     * Writes a catalog as the new snapshot and empties the journal. The catalog
+     * must include every change logged so far.
+     *
+     * @param current the catalog to persist
+     * @return the persisted catalog, served from the new snapshot
+     */
+    public OverlayCatalog compact(MovieCatalog current) {
+        long start = System.nanoTime();
+        Path file = snapshotFile(directory, sequence);
+        CatalogCompiler.compile(current, file);
+        long previous = snapshotSequence;
+        snapshotSequence = sequence;
+        journal.reset();
+        if (previous != snapshotSequence) {
+            deleteQuietly(snapshotFile(directory, previous));
+        }
+        logger.info("Compacted catalog into {} in {} ms", file, (System.nanoTime() - start) / 1_000_000);
+        return OverlayCatalog.over(MappedCatalog.open(file));
+    }
+
+    /**
+     * Gets the sequence number of the last journaled change.
+     *
+     * @return the sequence number, 0 before the first change
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the sequence number the newest snapshot covers.
+     *
+     * @return the snapshot's sequence number
+     */
+    public long getSnapshotSequence() {
+        return snapshotSequence;
+    }
+
+    /**
+     * Gets the number of changes journaled since the last compaction.
+     *
+     * @return the journal entry count
+     */
+    public long getJournalEntryCount() {
+        return journal.getEntryCount();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() {
+        journal.close();
+    }
+
+    static Path snapshotFile(Path directory, long sequence) {
+        return directory.resolve(String.format("catalog-%020d.bin", sequence));
+    }
+
+    private static long latestSnapshotSequence(Path directory) {
+        long latest = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "catalog-*.bin")) {
+            for (Path file : files) {
+                Matcher matcher = SNAPSHOT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    latest = Math.max(latest, Long.parseLong(matcher.group(1)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list data directory " + directory, e);
+        }
+        return latest;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete superseded snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Applies the journal entries a snapshot does not already contain.
+     */
+    private static final class Recovery implements CatalogJournal.Replay {
+        private final OverlayCatalog.Builder changes;
+        private long sequence;
+        private int replayed;
+
+        Recovery(OverlayCatalog.Builder changes, long snapshotSequence) {
+            this.changes = changes;
+            this.sequence = snapshotSequence;
+        }
+
+        @Override
+        public void upsert(long entrySequence, Movie movie) {
+            if (entrySequence > sequence) {
+                changes.upsert(movie);
+                sequence = entrySequence;
+                replayed++;
+            }
+        }
+
+        @Override
+        public void delete(long entrySequence, int movieId) {
+            if (entrySequence > sequence) {
+                changes.remove(movieId);
+                sequence = entrySequence;
+                replayed++;
+            }
+        }
+    }
+}
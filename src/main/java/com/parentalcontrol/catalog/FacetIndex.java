@@ -0,0 +1,237 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Movie IDs grouped by genre and ordered by release year.
+ * <p>
+ * The index answers "which movies does this rule touch" for rules over genres and
+ * year ranges, so a caller that keeps something derived from the catalog can
+ * revisit just those movies when a rule changes instead of scanning the catalog.
+ * A genre is one {@code int[]} posting list; a year range is a contiguous run of
+ * the year-ordered array, found by binary search.
+ * <p>
+ * An index is immutable and is built on first use by {@link CatalogSnapshot}.
+ * {@link #withUpsert(Movie, Movie)} and {@link #withRemoval(Movie)} derive a new
+ * index by copying only the genre lists a change touches and the year-ordered
+ * arrays, never re-sorting.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class FacetIndex {
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<String, int[]> idsByGenre;
+    private final int[] yearOrderIds;
+    private final int[] yearOrderYears;
+
+    private FacetIndex(Map<String, int[]> idsByGenre, int[] yearOrderIds, int[] yearOrderYears) {
+        this.idsByGenre = idsByGenre;
+        this.yearOrderIds = yearOrderIds;
+        this.yearOrderYears = yearOrderYears;
+    }
+
+    /**
+     * Builds the index for a catalog.
+     *
+     * @param catalog the catalog to index
+     * @return the index
+     */
+    public static FacetIndex build(MovieCatalog catalog) {
+        Movie[] movies = catalog.stream().toArray(Movie[]::new);
+
+        Map<String, int[]> idsByGenre = new HashMap<>();
+        Map<String, Integer> fill = new HashMap<>();
+        for (Movie movie : movies) {
+            fill.merge(genreKey(movie.getGenre()), 1, Integer::sum);
+        }
+        fill.forEach((genre, count) -> idsByGenre.put(genre, new int[count]));
+        fill.replaceAll((genre, count) -> 0);
+
+        long[] keys = new long[movies.length];
+        for (int i = 0; i < movies.length; i++) {
+            Movie movie = movies[i];
+            String genre = genreKey(movie.getGenre());
+            int position = fill.get(genre);
+            idsByGenre.get(genre)[position] = movie.getId();
+            fill.put(genre, position + 1);
+            keys[i] = sortKey(movie.getReleaseYear(), movie.getId());
+        }
+        Arrays.parallelSort(keys);
+
+        int[] yearOrderIds = new int[keys.length];
+        int[] yearOrderYears = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            yearOrderIds[i] = (int) keys[i];
+            yearOrderYears[i] = (int) (keys[i] >> 32);
+        }
+        return new FacetIndex(idsByGenre, yearOrderIds, yearOrderYears);
+    }
+
+    /**
+     * Derives an index with a movie added or replaced.
+     *
+     * @param movie the new or updated movie
+     * @param replaced the movie it replaces, or null if it is new
+     * @return the updated index
+     */
+    public FacetIndex withUpsert(Movie movie, Movie replaced) {
+        FacetIndex base = replaced == null ? this : withRemoval(replaced);
+        String genre = genreKey(movie.getGenre());
+        Map<String, int[]> nextByGenre = new HashMap<>(base.idsByGenre);
+        int[] ids = nextByGenre.getOrDefault(genre, EMPTY);
+        int[] nextIds = Arrays.copyOf(ids, ids.length + 1);
+        nextIds[ids.length] = movie.getId();
+        nextByGenre.put(genre, nextIds);
+
+        int at = base.yearPosition(movie.getReleaseYear(), movie.getId());
+        return new FacetIndex(nextByGenre, insert(base.yearOrderIds, at, movie.getId()),
+                              insert(base.yearOrderYears, at, movie.getReleaseYear()));
+    }
+
+    /**
+     * Derives an index with a movie removed.
+     *
+     * @param movie the movie to remove
+     * @return the updated index, or this index if it does not hold the movie
+     */
+    public FacetIndex withRemoval(Movie movie) {
+        String genre = genreKey(movie.getGenre());
+        int[] ids = idsByGenre.getOrDefault(genre, EMPTY);
+        int index = 0;
+        while (index < ids.length && ids[index] != movie.getId()) {
+            index++;
+        }
+        int at = yearPosition(movie.getReleaseYear(), movie.getId());
+        if (index == ids.length || at == yearOrderIds.length || yearOrderIds[at] != movie.getId()) {
+            return this;
+        }
+        Map<String, int[]> nextByGenre = new HashMap<>(idsByGenre);
+        if (ids.length == 1) {
+            nextByGenre.remove(genre);
+        } else {
+            nextByGenre.put(genre, remove(ids, index));
+        }
+        return new FacetIndex(nextByGenre, remove(yearOrderIds, at), remove(yearOrderYears, at));
+    }
+
+    /**
+     * Normalizes a genre into the key used by the index.
+     *
+     * @param genre the raw genre, possibly null
+     * @return the trimmed, lower-cased genre
+     */
+    public static String genreKey(String genre) {
+        return genre == null ? "" : genre.trim().toLowerCase();
+    }
+
+    /**
+     * Counts the movies in a genre.
+     *
+     * @param genre the genre, compared case-insensitively
+     * @return the movie count
+     */
+    public int countInGenre(String genre) {
+        return idsByGenre.getOrDefault(genreKey(genre), EMPTY).length;
+    }
+
+    /**
+     * Visits the ID of every movie in a genre.
+     *
+     * @param genre the genre, compared case-insensitively
+     * @param action receives each ID
+     */
+    public void forEachInGenre(String genre, IntConsumer action) {
+        for (int id : idsByGenre.getOrDefault(genreKey(genre), EMPTY)) {
+            action.accept(id);
+        }
+    }
+
+    /**
+     * Counts the movies released within a range of years.
+     *
+     * @param from the first year, inclusive
+     * @param to the last year, inclusive
+     * @return the movie count
+     */
+    public int countReleasedBetween(int from, int to) {
+        return from > to ? 0 : firstAfter(to) - firstAfter(from - 1L);
+    }
+
+    /**
+     * Visits the ID of every movie released within a range of years.
+     *
+     * @param from the first year, inclusive
+     * @param to the last year, inclusive
+     * @param action receives each ID
+     */
+    public void forEachReleasedBetween(int from, int to, IntConsumer action) {
+        if (from > to) {
+            return;
+        }
+        int end = firstAfter(to);
+        for (int i = firstAfter(from - 1L); i < end; i++) {
+            action.accept(yearOrderIds[i]);
+        }
+    }
+
+    public int size() {
+        return yearOrderIds.length;
+    }
+
+    // Position of a movie in the year-ordered arrays, or where it would be inserted.
+    private int yearPosition(int year, int id) {
+        long key = sortKey(year, id);
+        int low = 0;
+        int high = yearOrderIds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortKey(yearOrderYears[mid], yearOrderIds[mid]) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long sortKey(int year, int id) {
+        return ((long) year << 32) | (id & 0xFFFF_FFFFL);
+    }
+
+    private static int[] insert(int[] values, int at, int value) {
+        int[] next = new int[values.length + 1];
+        System.arraycopy(values, 0, next, 0, at);
+        next[at] = value;
+        System.arraycopy(values, at, next, at + 1, values.length - at);
+        return next;
+    }
+
+    private static int[] remove(int[] values, int at) {
+        int[] next = new int[values.length - 1];
+        System.arraycopy(values, 0, next, 0, at);
+        System.arraycopy(values, at + 1, next, at, next.length - at);
+        return next;
+    }
+
+    // Position of the first movie released after a year.
+    private int firstAfter(long year) {
+        int low = 0;
+        int high = yearOrderYears.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (yearOrderYears[mid] <= year) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
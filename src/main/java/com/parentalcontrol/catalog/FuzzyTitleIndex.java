@@ -0,0 +1,808 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Title index answering normalized and typo-tolerant lookups without scanning
+ * the catalog.
+ * <p>
+ * Every title is indexed under its {@link TitleNormalizer normalized} form.
+ * Movies are numbered in normalized-key order (ties broken by the shorter exact
+ * title, then by ID, so "Heat" ranks before "The Heat"), which makes a normalized
+ * lookup one binary search. The keys are stored back to back in one character
+ * array in that order.
+ * <p>
+ * Typos are found with symmetric-delete (SymSpell) dictionaries over windows at
+ * the ends of each key: every window, whole and with each character deleted, is
+ * hashed together with the key length to the movies that produce it. A query
+ * generates its own deletions for every key length within reach and only the
+ * movies sharing one of them are verified with a bounded edit distance, so the
+ * cost depends on the number of near neighbours rather than on the size of the
+ * catalog.
+ * <p>
+ * Keys shorter than {@value #LONG_KEY_LENGTH} characters use their first and
+ * their last {@value #SHORT_WINDOW} characters; a short key tolerates one edit,
+ * which either end alone detects. Longer keys use a head and a tail window of up
+ * to {@value #LONG_WINDOW} characters that do not overlap, so that
+ * {@value #MAX_DISTANCE} edits leave one of them with at most one (pigeonhole).
+ * The windows are long enough that titles sharing a common first or last word do
+ * not all become candidates. A title adds about 20 dictionary entries.
+ * <p>
+ * The dictionaries cost far more to build than the keys, and only typo lookups
+ * need them, so {@link #build(MovieCatalog)} (and {@link CatalogSnapshot#warm()})
+ * builds the keys alone. The first typo lookup builds the dictionaries, under a
+ * lock of their own that {@link #find(String)} never takes.
+ * <p>
+ * Like {@link TitleSearchIndex}, an index derives its successor after a catalog
+ * change ({@link #withUpsert(Movie, Movie)}, {@link #withRemoval(Movie)}) by
+ * sharing its keys and dictionaries, built or not, so that they are built at most
+ * once for a run of derived indexes. It hides the replaced and removed movies and
+ * indexing the added ones on their own, and rebuilds once the changes outgrow
+ * {@link IndexChanges#exceeds(int)}.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class FuzzyTitleIndex {
+
+    /** Largest edit distance the index tolerates. */
+    public static final int MAX_DISTANCE = 2;
+
+    /** Characters of a short key that take part in the deletion dictionary. */
+    static final int SHORT_WINDOW = 7;
+
+    /** Largest window at each end of a long key. */
+    static final int LONG_WINDOW = 10;
+
+    /** Shortest key indexed by a head and a tail window. */
+    static final int LONG_KEY_LENGTH = 2 * SHORT_WINDOW;
+
+    private static final int[] NO_DOCS = new int[0];
+
+    private static final long[] NO_RANKS = new long[0];
+
+    /** Order of movies with equal keys: the shorter exact title, then the lower ID. */
+    private static final Comparator<Movie> EQUAL_KEY_ORDER =
+        Comparator.<Movie>comparingInt(movie -> movie.getTitle().trim().length()).thenComparingInt(Movie::getId);
+
+    private final Movie[] movies;
+    private final char[] text;
+    private final int[] offsets;
+    private final Dictionaries dictionaries;
+    private final IndexChanges changes;
+    // Index of the movies added since the keys above were sorted, or null
+    private final FuzzyTitleIndex added;
+
+    private FuzzyTitleIndex(Movie[] movies, char[] text, int[] offsets, Dictionaries dictionaries,
+                            IndexChanges changes, FuzzyTitleIndex added) {
+        this.movies = movies;
+        this.text = text;
+        this.offsets = offsets;
+        this.dictionaries = dictionaries;
+        this.changes = changes;
+        this.added = added;
+    }
+
+    /**
+     * Builds the normalized keys of a catalog, sorted in parallel on the fork-join
+     * pool of the calling task, or the common pool. Normalized lookups can be
+     * served at once; typo lookups first build the deletion dictionaries.
+     *
+     * @param catalog the catalog to index
+     * @return the index
+     */
+    public static FuzzyTitleIndex build(MovieCatalog catalog) {
+        return build(catalog.stream().toArray(Movie[]::new));
+    }
+
+    private static FuzzyTitleIndex build(Movie[] all) {
+        String[] keyOf = new String[all.length];
+        Integer[] order = new Integer[all.length];
+        long textLength = 0;
+        for (int i = 0; i < all.length; i++) {
+            keyOf[i] = TitleNormalizer.normalize(all[i].getTitle());
+            order[i] = i;
+            textLength += keyOf[i].length();
+        }
+        if (textLength > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Catalog titles too long to index: " + textLength + " characters");
+        }
+        Arrays.parallelSort(order, Comparator.<Integer, String>comparing(i -> keyOf[i])
+                .thenComparingInt(i -> all[i].getTitle().trim().length())
+                .thenComparingInt(i -> all[i].getId()));
+
+        Movie[] movies = new Movie[all.length];
+        char[] text = new char[(int) textLength];
+        int[] offsets = new int[all.length + 1];
+        for (int doc = 0; doc < order.length; doc++) {
+            movies[doc] = all[order[doc]];
+            String key = keyOf[order[doc]];
+            key.getChars(0, key.length(), text, offsets[doc]);
+            offsets[doc + 1] = offsets[doc] + key.length();
+        }
+        return new FuzzyTitleIndex(movies, text, offsets, new Dictionaries(), IndexChanges.NONE, null);
+    }
+
+    /**
+     * Derives an index with a movie added or replaced. Unless the changes are
+     * folded into a rebuild, the derived index shares this one's deletion
+     * dictionaries.
+     *
+     * @param movie the new or updated movie
+     * @param replaced the movie it replaces, or null if it is new
+     * @return the updated index
+     */
+    public FuzzyTitleIndex withUpsert(Movie movie, Movie replaced) {
+        return derive(changes.withUpsert(movie, replaced));
+    }
+
+    /**
+     * Derives an index with a movie removed.
+     *
+     * @param movie the movie to remove
+     * @return the updated index
+     */
+    public FuzzyTitleIndex withRemoval(Movie movie) {
+        return derive(changes.withRemoval(movie));
+    }
+
+    private FuzzyTitleIndex derive(IndexChanges next) {
+        if (next.exceeds(movies.length)) {
+            List<Movie> visible = new ArrayList<>(movies.length + next.sizeDelta());
+            for (Movie movie : movies) {
+                if (!next.hides(movie.getId())) {
+                    visible.add(movie);
+                }
+            }
+            visible.addAll(Arrays.asList(next.addedMovies()));
+            return build(visible.toArray(new Movie[0]));
+        }
+        Movie[] addedMovies = next.addedMovies();
+        return new FuzzyTitleIndex(movies, text, offsets, dictionaries, next,
+                                   addedMovies.length == 0 ? null : build(addedMovies));
+    }
+
+    /**
+     * Builds the deletion dictionaries for typo lookups if they are not built yet.
+     * Only the first caller builds them; concurrent callers wait for it, but
+     * {@link #find(String)} does not.
+     *
+     * @return this index
+     */
+    public FuzzyTitleIndex buildDictionaries() {
+        dictionaries.build(text, offsets);
+        if (added != null) {
+            added.buildDictionaries();
+        }
+        return this;
+    }
+
+    /**
+     * Checks whether the deletion dictionaries have been built.
+     *
+     * @return true if typo lookups can start at once
+     */
+    public boolean hasDictionaries() {
+        return dictionaries.isBuilt() && (added == null || added.hasDictionaries());
+    }
+
+    /**
+     * Finds the movie whose title normalizes to the same key as the query.
+     *
+     * @param title the title to look up
+     * @return the best ranked movie with an equal normalized title, or null if none
+     */
+    public Movie find(String title) {
+        char[] key = TitleNormalizer.normalize(title).toCharArray();
+        return key.length == 0 ? null : find(key);
+    }
+
+    private Movie find(char[] key) {
+        Movie found = firstVisible(exactDoc(key));
+        if (added != null) {
+            Movie other = added.find(key);
+            if (other != null && (found == null || ranksBefore(other, found))) {
+                found = other;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Resolves a title that may be misspelled: an equal normalized title if there
+     * is one, otherwise the closest title if exactly one normalized title is
+     * closest. Short queries tolerate fewer edits (see {@link #allowedDistance(int)}).
+     * The deletion dictionaries are built first if need be.
+     *
+     * @param title the title to resolve
+     * @return the movie, or null if no title is close enough or the closest is ambiguous
+     */
+    public Movie resolve(String title) {
+        char[] key = TitleNormalizer.normalize(title).toCharArray();
+        if (key.length == 0) {
+            return null;
+        }
+        Movie exact = find(key);
+        if (exact != null) {
+            return exact;
+        }
+
+        int maxDistance = allowedDistance(key.length);
+        if (maxDistance == 0) {
+            return null;
+        }
+        Closest closest = new Closest(key.length, maxDistance);
+        offerCandidates(key, closest);
+        if (added != null) {
+            added.offerCandidates(key, closest);
+        }
+        return closest.ambiguous ? null : closest.movie;
+    }
+
+    /** Offers every visible candidate key to a typo lookup. */
+    private void offerCandidates(char[] key, Closest closest) {
+        for (int candidate : candidates(key, closest.maxDistance)) {
+            int distance = distance(key, candidate, Math.min(closest.maxDistance, closest.distance), closest.rows);
+            if (distance <= closest.maxDistance) {
+                Movie movie = firstVisible(candidate);
+                if (movie != null) {
+                    closest.offer(distance, this, candidate, movie);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the titles closest to a query, for "did you mean" suggestions. The
+     * deletion dictionaries are built first if need be.
+     *
+     * @param title the title to match
+     * @param limit the maximum number of results
+     * @return matching movies, closest first, then in normalized title order
+     */
+    public List<Movie> similar(String title, int limit) {
+        List<Movie> results = new ArrayList<>(Math.min(limit, 16));
+        char[] key = TitleNormalizer.normalize(title).toCharArray();
+        if (key.length == 0 || limit <= 0) {
+            return results;
+        }
+        int maxDistance = allowedDistance(key.length);
+        long[] ranked = ranked(key, maxDistance);
+        long[] addedRanked = added == null ? NO_RANKS : added.ranked(key, maxDistance);
+        int i = 0;
+        int j = 0;
+        while (results.size() < limit && (i < ranked.length || j < addedRanked.length)) {
+            int order = i == ranked.length ? 1
+                    : j == addedRanked.length ? -1 : compareRanks(ranked[i], added, addedRanked[j]);
+            if (order < 0) {
+                addVisibleRun((int) ranked[i++], results, limit);
+            } else if (order > 0) {
+                added.addVisibleRun((int) addedRanked[j++], results, limit);
+            } else {
+                // The same key among the added movies: interleave the two runs by rank
+                List<Movie> run = new ArrayList<>();
+                addVisibleRun((int) ranked[i++], run, Integer.MAX_VALUE);
+                added.addVisibleRun((int) addedRanked[j++], run, Integer.MAX_VALUE);
+                run.sort(EQUAL_KEY_ORDER);
+                results.addAll(run.subList(0, Math.min(run.size(), limit - results.size())));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Ranks the keys within reach of a query as (distance, doc), closest first and
+     * then in key order; each doc is the first of its run of equal keys.
+     */
+    private long[] ranked(char[] key, int maxDistance) {
+        int[] candidates = maxDistance == 0 ? NO_DOCS : candidates(key, maxDistance);
+        long[] ranked = new long[candidates.length + 1];
+        int count = 0;
+        int exact = exactDoc(key);
+        if (exact >= 0) {
+            ranked[count++] = exact;
+        }
+        Rows rows = new Rows(key.length + maxDistance);
+        for (int candidate : candidates) {
+            int distance = distance(key, candidate, maxDistance, rows);
+            if (distance > 0 && distance <= maxDistance) {
+                ranked[count++] = (long) distance << 32 | candidate;
+            }
+        }
+        Arrays.sort(ranked, 0, count);
+        return Arrays.copyOf(ranked, count);
+    }
+
+    /** Compares ranks by distance, then by key, with a rank from another index. */
+    private int compareRanks(long rank, FuzzyTitleIndex other, long otherRank) {
+        int order = Integer.compare((int) (rank >>> 32), (int) (otherRank >>> 32));
+        if (order != 0) {
+            return order;
+        }
+        int doc = (int) rank;
+        int otherDoc = (int) otherRank;
+        return Arrays.compare(text, offsets[doc], offsets[doc + 1],
+                              other.text, other.offsets[otherDoc], other.offsets[otherDoc + 1]);
+    }
+
+    /** Adds the visible movies of the run of equal keys starting at a document. */
+    private void addVisibleRun(int first, List<Movie> results, int limit) {
+        for (int doc = first; doc < movies.length && results.size() < limit && sameKey(doc, first); doc++) {
+            if (!changes.hides(movies[doc].getId())) {
+                results.add(movies[doc]);
+            }
+        }
+    }
+
+    /** Gets the best ranked visible movie of the run of equal keys starting at a document, or null. */
+    private Movie firstVisible(int first) {
+        if (first < 0 || changes.isEmpty()) {
+            return first < 0 ? null : movies[first];
+        }
+        for (int doc = first; doc < movies.length && sameKey(doc, first); doc++) {
+            if (!changes.hides(movies[doc].getId())) {
+                return movies[doc];
+            }
+        }
+        return null;
+    }
+
+    private static boolean ranksBefore(Movie movie, Movie other) {
+        return EQUAL_KEY_ORDER.compare(movie, other) < 0;
+    }
+
+    /**
+     * Gets the number of edits a query of the given normalized length may differ
+     * by: none up to three characters, one below {@value #LONG_KEY_LENGTH} plus
+     * {@value #MAX_DISTANCE}, then {@value #MAX_DISTANCE}. No query within two
+     * edits of a short key may make more than one, so short keys need only
+     * single deletions.
+     *
+     * @param length the normalized query length
+     * @return the allowed edit distance
+     */
+    public static int allowedDistance(int length) {
+        return length <= 3 ? 0 : length < LONG_KEY_LENGTH + MAX_DISTANCE ? 1 : MAX_DISTANCE;
+    }
+
+    /**
+     * Gets the number of indexed movies.
+     *
+     * @return the movie count
+     */
+    public int size() {
+        return movies.length + changes.sizeDelta();
+    }
+
+    /**
+     * Collects the first document of every key sharing a deletion with the query.
+     * Deletions are tagged with the length of their key, so each reachable length
+     * is probed separately and every posting found has that length. Within a
+     * single edit either end of a key alone will do, and the end holding fewer
+     * postings is probed. A long key within {@value #MAX_DISTANCE} edits either
+     * keeps its tail within one edit or spends them all there and keeps its head
+     * intact, and symmetrically, so it is enough to probe one end with every
+     * deletion and the other with one, whichever way holds fewer postings.
+     */
+    private int[] candidates(char[] key, int maxDistance) {
+        buildDictionaries();
+        DeleteDictionary heads = dictionaries.heads;
+        DeleteDictionary tails = dictionaries.tails;
+        int length = key.length;
+        int[] headHashes = new int[(2 * maxDistance + 1) * (LONG_WINDOW + 1)];
+        int[] tailHashes = new int[headHashes.length];
+        int headCount = 0;
+        int tailCount = 0;
+        long postingTotal = 0;
+        for (int keyLength = Math.max(1, length - maxDistance); keyLength <= length + maxDistance; keyLength++) {
+            int window = keyLength >= LONG_KEY_LENGTH ? windowOf(keyLength) : SHORT_WINDOW;
+            int headFrom = headCount;
+            int tailFrom = tailCount;
+            headCount = deletions(key, 0, length, keyLength, false, window, headHashes, headCount);
+            tailCount = deletions(key, 0, length, keyLength, true, window, tailHashes, tailCount);
+            long headTotal = heads.lookup(headHashes, headFrom, headCount);
+            long tailTotal = tails.lookup(tailHashes, tailFrom, tailCount);
+
+            if (maxDistance == 1) {
+                if (headTotal <= tailTotal) {
+                    Arrays.fill(tailHashes, tailFrom, tailCount, -1);
+                } else {
+                    Arrays.fill(headHashes, headFrom, headCount, -1);
+                }
+                postingTotal += Math.min(headTotal, tailTotal);
+                continue;
+            }
+            // An end kept intact but for a transposition across the middle matches
+            // once its inner character is deleted
+            int headInner = headHashes[headFrom + window];
+            int tailInner = tailHashes[tailFrom + 1];
+            long headInnerTotal = heads.postingCount(headInner);
+            long tailInnerTotal = tails.postingCount(tailInner);
+            long cost;
+            if (headTotal + tailInnerTotal < headInnerTotal + tailTotal) {
+                Arrays.fill(tailHashes, tailFrom, tailCount, -1);
+                tailHashes[tailFrom] = tailInner;
+                cost = headTotal + tailInnerTotal;
+            } else {
+                Arrays.fill(headHashes, headFrom, headCount, -1);
+                headHashes[headFrom] = headInner;
+                cost = headInnerTotal + tailTotal;
+            }
+            postingTotal += cost;
+        }
+
+        int[] found = new int[(int) postingTotal];
+        int size = collect(heads, headHashes, headCount, found, 0);
+        size = collect(tails, tailHashes, tailCount, found, size);
+        if (size == 0) {
+            return NO_DOCS;
+        }
+        // A doc reached through several deletions (or a hash collision) is verified once
+        Arrays.sort(found, 0, size);
+        int unique = 1;
+        for (int i = 1; i < size; i++) {
+            if (found[i] != found[unique - 1]) {
+                found[unique++] = found[i];
+            }
+        }
+        return Arrays.copyOf(found, unique);
+    }
+
+    /** Appends the postings of deletions already replaced by their dictionary entries. */
+    private static int collect(DeleteDictionary dictionary, int[] entries, int count, int[] found, int size) {
+        for (int h = 0; h < count; h++) {
+            int entry = entries[h];
+            if (entry >= 0) {
+                int from = dictionary.starts[entry];
+                int postings = dictionary.starts[entry + 1] - from;
+                System.arraycopy(dictionary.postings, from, found, size, postings);
+                size += postings;
+            }
+        }
+        return size;
+    }
+
+    /** Finds the first document whose key equals the query, or -1. */
+    private int exactDoc(char[] key) {
+        int low = 0;
+        int high = movies.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(mid, key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < movies.length && compare(low, key) == 0 ? low : -1;
+    }
+
+    /** Compares a document's key with a query the way {@link String#compareTo} does. */
+    private int compare(int doc, char[] key) {
+        int from = offsets[doc];
+        int length = offsets[doc + 1] - from;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            if (text[from + i] != key[i]) {
+                return text[from + i] - key[i];
+            }
+        }
+        return length - key.length;
+    }
+
+    private boolean sameKey(int doc, int other) {
+        return sameKey(doc, this, other);
+    }
+
+    private boolean sameKey(int doc, FuzzyTitleIndex index, int other) {
+        return Arrays.equals(text, offsets[doc], offsets[doc + 1],
+                             index.text, index.offsets[other], index.offsets[other + 1]);
+    }
+
+    /**
+     * Gets the size of the head and tail windows of a long key: as large as
+     * possible without overlapping, up to {@value #LONG_WINDOW}.
+     */
+    static int windowOf(int keyLength) {
+        return Math.min(LONG_WINDOW, keyLength / 2);
+    }
+
+    /**
+     * Hashes the first (or last) {@code window} characters of a key whole and with
+     * each character deleted, tagged with the length of the key they stand for,
+     * appending the hashes at {@code count}.
+     *
+     * @return the new number of hashes, possibly with repeats
+     */
+    static int deletions(char[] chars, int from, int keyLength, int tag, boolean fromEnd, int window,
+                         int[] hashes, int count) {
+        int length = Math.min(keyLength, window);
+        int offset = fromEnd ? from + keyLength - length : from;
+        hashes[count++] = hash(chars, offset, length, -1, tag);
+        for (int i = 0; i < length; i++) {
+            hashes[count++] = hash(chars, offset, length, i, tag);
+        }
+        return count;
+    }
+
+    /** FNV-1a over {@code length} characters from {@code offset}, skipping one position. */
+    private static int hash(char[] chars, int offset, int length, int skip, int tag) {
+        int hash = 0x811C9DC5;
+        for (int i = 0; i < length; i++) {
+            if (i != skip) {
+                hash = (hash ^ chars[offset + i]) * 0x01000193;
+            }
+        }
+        hash = (hash ^ (skip < 0 ? length : length - 1)) * 0x01000193;
+        return (hash ^ tag) * 0x01000193;
+    }
+
+    private int distance(char[] key, int doc, int max, Rows rows) {
+        return distance(key, 0, key.length, text, offsets[doc], offsets[doc + 1] - offsets[doc], max, rows);
+    }
+
+    /**
+     * Computes the optimal string alignment distance (Levenshtein plus adjacent
+     * transpositions) between two strings.
+     *
+     * @return the distance, or {@code max + 1} if it is greater than {@code max}
+     */
+    static int distance(String a, String b, int max) {
+        return distance(a.toCharArray(), 0, a.length(), b.toCharArray(), 0, b.length(), max, new Rows(b.length()));
+    }
+
+    /**
+     * Computes the optimal string alignment distance between two character
+     * ranges, giving up once it must exceed {@code max}. A common prefix and
+     * suffix are skipped, and only the band of cells within {@code max} of the
+     * diagonal is filled.
+     */
+    private static int distance(char[] a, int aFrom, int n, char[] b, int bFrom, int m, int max, Rows rows) {
+        int over = max + 1;
+        if (Math.abs(n - m) > max) {
+            return over;
+        }
+        while (n > 0 && m > 0 && a[aFrom] == b[bFrom]) {
+            aFrom++;
+            bFrom++;
+            n--;
+            m--;
+        }
+        while (n > 0 && m > 0 && a[aFrom + n - 1] == b[bFrom + m - 1]) {
+            n--;
+            m--;
+        }
+        int[] previous2 = rows.previous2;
+        int[] previous = rows.previous;
+        int[] current = rows.current;
+        for (int j = 0; j <= m; j++) {
+            previous[j] = Math.min(j, over);
+        }
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(m, i + max);
+            current[from - 1] = from == 1 ? Math.min(i, over) : over;
+            int rowMin = current[from - 1];
+            char ca = a[aFrom + i - 1];
+            for (int j = from; j <= to; j++) {
+                char cb = b[bFrom + j - 1];
+                int cost = ca == cb ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && ca == b[bFrom + j - 2] && a[aFrom + i - 2] == cb) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = Math.min(value, over);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < m) {
+                current[to + 1] = over;
+            }
+            if (rowMin > max) {
+                return over;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[m];
+    }
+
+    /**
+     * The closest visible key a typo lookup has found so far, over an index and
+     * the index of its added movies.
+     */
+    private static final class Closest {
+        final int maxDistance;
+        final Rows rows;
+        int distance;
+        Movie movie;
+        FuzzyTitleIndex index;
+        int doc;
+        boolean ambiguous;
+
+        Closest(int keyLength, int maxDistance) {
+            this.maxDistance = maxDistance;
+            this.rows = new Rows(keyLength + maxDistance);
+            this.distance = maxDistance + 1;
+        }
+
+        void offer(int candidateDistance, FuzzyTitleIndex candidateIndex, int candidateDoc, Movie candidate) {
+            if (candidateDistance < distance) {
+                distance = candidateDistance;
+                movie = candidate;
+                index = candidateIndex;
+                doc = candidateDoc;
+                ambiguous = false;
+            } else if (candidateDistance == distance && movie != null) {
+                // Keys within one index are distinct; an added movie may share one
+                if (!index.sameKey(doc, candidateIndex, candidateDoc)) {
+                    ambiguous = true;
+                } else if (ranksBefore(candidate, movie)) {
+                    movie = candidate;
+                    index = candidateIndex;
+                    doc = candidateDoc;
+                }
+            }
+        }
+    }
+
+    /** Three dynamic-programming rows reused across the candidates of one query. */
+    private static final class Rows {
+        final int[] previous2;
+        final int[] previous;
+        final int[] current;
+
+        Rows(int maxLength) {
+            this.previous2 = new int[maxLength + 1];
+            this.previous = new int[maxLength + 1];
+            this.current = new int[maxLength + 1];
+        }
+    }
+
+    /**
+     * Symmetric-delete dictionary over one end of every key: distinct deletion
+     * hashes, each with a range of posting documents, and an open-addressing table
+     * from hash to entry so that a lookup costs one probe rather than a binary
+     * search over millions of hashes.
+     */
+    /**
+     * The deletion dictionaries of one set of keys, shared by every index derived
+     * over those keys. Only the first caller builds them; concurrent callers wait.
+     */
+    private static final class Dictionaries {
+        private volatile DeleteDictionary heads;
+        private volatile DeleteDictionary tails;
+
+        void build(char[] text, int[] offsets) {
+            if (tails == null) {
+                synchronized (this) {
+                    if (tails == null) {
+                        heads = DeleteDictionary.build(text, offsets, false);
+                        tails = DeleteDictionary.build(text, offsets, true);
+                    }
+                }
+            }
+        }
+
+        boolean isBuilt() {
+            return tails != null;
+        }
+    }
+
+    private static final class DeleteDictionary {
+        private final int[] hashes;
+        private final int[] starts;
+        private final int[] postings;
+        private final int[] slots;
+        private final int shift;
+
+        private DeleteDictionary(int[] hashes, int[] starts, int[] postings) {
+            this.hashes = hashes;
+            this.starts = starts;
+            this.postings = postings;
+            int bits = Math.max(4, 33 - Integer.numberOfLeadingZeros(Math.max(1, hashes.length)));
+            this.slots = new int[1 << bits];
+            this.shift = 32 - bits;
+            for (int entry = 0; entry < hashes.length; entry++) {
+                int slot = slot(hashes[entry]);
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & (slots.length - 1);
+                }
+                slots[slot] = entry + 1;
+            }
+        }
+
+        static DeleteDictionary build(char[] text, int[] offsets, boolean fromEnd) {
+            // Pack (hash, doc) pairs so that one sort groups each deletion's posting list
+            long[] pairs = new long[16];
+            int pairCount = 0;
+            int[] hashes = new int[LONG_WINDOW + 1];
+            int docs = offsets.length - 1;
+            for (int doc = 0; doc < docs; doc++) {
+                int from = offsets[doc];
+                int length = offsets[doc + 1] - from;
+                // Movies sharing a key share its deletions; only the first of the run is posted
+                if (doc > 0 && Arrays.equals(text, offsets[doc - 1], from, text, from, from + length)) {
+                    continue;
+                }
+                int window = length >= LONG_KEY_LENGTH ? windowOf(length) : SHORT_WINDOW;
+                int count = deletions(text, from, length, length, fromEnd, window, hashes, 0);
+                if (pairCount + count > pairs.length) {
+                    pairs = Arrays.copyOf(pairs, Math.max(pairs.length * 2, pairCount + count));
+                }
+                for (int i = 0; i < count; i++) {
+                    pairs[pairCount++] = (long) hashes[i] << 32 | doc;
+                }
+            }
+            Arrays.parallelSort(pairs, 0, pairCount);
+
+            int[] postings = new int[pairCount];
+            int[] distinctHashes = new int[16];
+            int[] starts = new int[17];
+            int size = 0;
+            int distinct = 0;
+            for (int i = 0; i < pairCount; i++) {
+                if (i > 0 && pairs[i] == pairs[i - 1]) {
+                    continue;
+                }
+                int hash = (int) (pairs[i] >> 32);
+                if (distinct == 0 || distinctHashes[distinct - 1] != hash) {
+                    if (distinct == distinctHashes.length) {
+                        distinctHashes = Arrays.copyOf(distinctHashes, distinct * 2);
+                        starts = Arrays.copyOf(starts, distinct * 2 + 1);
+                    }
+                    distinctHashes[distinct] = hash;
+                    starts[distinct++] = size;
+                }
+                postings[size++] = (int) pairs[i];
+            }
+            starts[distinct] = size;
+            return new DeleteDictionary(Arrays.copyOf(distinctHashes, distinct),
+                    Arrays.copyOf(starts, distinct + 1), Arrays.copyOf(postings, size));
+        }
+
+        /**
+         * Replaces each query deletion hash in a range with its entry, or -1 if absent.
+         *
+         * @return the number of postings the entries hold
+         */
+        long lookup(int[] queryHashes, int from, int to) {
+            long total = 0;
+            for (int h = from; h < to; h++) {
+                int entry = entryOf(queryHashes[h]);
+                queryHashes[h] = entry;
+                if (entry >= 0) {
+                    total += starts[entry + 1] - starts[entry];
+                }
+            }
+            return total;
+        }
+
+        /** Gets the number of postings of an entry, or 0 for -1. */
+        int postingCount(int entry) {
+            return entry < 0 ? 0 : starts[entry + 1] - starts[entry];
+        }
+
+        private int entryOf(int hash) {
+            int slot = slot(hash);
+            int entry;
+            while ((entry = slots[slot]) != 0) {
+                if (hashes[entry - 1] == hash) {
+                    return entry - 1;
+                }
+                slot = (slot + 1) & (slots.length - 1);
+            }
+            return -1;
+        }
+
+        private int slot(int hash) {
+            return (hash * 0x9E3779B9) >>> shift;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Catalog held on the Java heap, indexed by ID in a {@link MovieIdIndex} and by
+ * title in a hash map.
+ * <p>
+ * A heap catalog is filled through {@link #add(Movie)} while it is being built
+ * and must not be modified once it has been published to readers in a
+ * {@link CatalogSnapshot}.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public class HeapCatalog implements MovieCatalog {
+    private static final Logger logger = LoggerFactory.getLogger(HeapCatalog.class);
+
+    private final MovieIdIndex movies;
+    private final Map<String, Movie> moviesByTitle;
+
+    public HeapCatalog() {
+        this.movies = new MovieIdIndex();
+        this.moviesByTitle = new HashMap<>();
+    }
+
+    /**
+     * Creates an empty catalog sized for a known number of movies, so that bulk
+     * loads do not rehash the title map as it grows.
+     *
+     * @param expectedSize the number of movies that will be added
+     */
+    public HeapCatalog(int expectedSize) {
+        this.movies = new MovieIdIndex();
+        this.moviesByTitle = new HashMap<>(Math.max(16, (int) (expectedSize / 0.75f) + 1));
+    }
+
+    /**
+     * Builds a catalog from a JSON classpath resource. A record repeating the ID
+     * or title of an earlier one is dropped and counted as a duplicate.
+     *
+     * @param resource the resource name
+     * @return the loaded catalog
+     */
+    public static HeapCatalog fromResource(String resource) {
+        HeapCatalog catalog = new HeapCatalog();
+        catalog.logLoad(resource, CatalogLoader.loadResource(resource, catalog));
+        catalog.compact();
+        return catalog;
+    }
+
+    /**
+     * Builds a catalog from a JSON file, dropping repeated records as
+     * {@link #fromResource(String)} does.
+     *
+     * @param catalogFile the catalog file
+     * @return the loaded catalog
+     */
+    public static HeapCatalog fromFile(Path catalogFile) {
+        HeapCatalog catalog = new HeapCatalog();
+        catalog.logLoad(catalogFile.toString(), CatalogLoader.loadFile(catalogFile, catalog));
+        catalog.compact();
+        return catalog;
+    }
+
+    private void logLoad(String source, CatalogLoader.LoadReport report) {
+        logger.info("Loaded {} movies from {} in {} ms ({} records/sec, {} rejected, {} duplicates)",
+                   size(), source, report.getElapsedMillis(),
+                   Math.round(report.getRecordsPerSecond()), report.getRejected(), report.getDuplicates());
+    }
+
+    /**
+     * Adds a movie to the catalog, replacing any movie with the same ID or title.
+     * A replaced movie is dropped from both indexes, so it can be found neither
+     * by its ID nor by its title.
+     *
+     * @param movie the movie to add
+     */
+    public void add(Movie movie) {
+        add(movie, MovieCatalog.titleKey(movie.getTitle()));
+    }
+
+    /** Adds a movie whose title key the caller has already computed. */
+    void add(Movie movie, String titleKey) {
+        Movie sameId = movies.put(movie);
+        if (sameId != null) {
+            moviesByTitle.remove(MovieCatalog.titleKey(sameId.getTitle()), sameId);
+        }
+        Movie sameTitle = moviesByTitle.put(titleKey, movie);
+        if (sameTitle != null && sameTitle.getId() != movie.getId()) {
+            movies.remove(sameTitle.getId());
+        }
+    }
+
+    /**
+     * Adds a movie unless the catalog already holds one with the same ID or
+     * title. This is the duplicate policy of both catalog loaders: the first
+     * record wins.
+     *
+     * @param movie the movie to add
+     * @return true if the movie was added, false if it is a duplicate
+     */
+    public boolean addIfAbsent(Movie movie) {
+        return addIfAbsent(movie, MovieCatalog.titleKey(movie.getTitle()));
+    }
+
+    /** Adds a movie if absent, given a title key the caller has already computed. */
+    boolean addIfAbsent(Movie movie, String titleKey) {
+        if (movies.get(movie.getId()) != null || moviesByTitle.containsKey(titleKey)) {
+            return false;
+        }
+        movies.put(movie);
+        moviesByTitle.put(titleKey, movie);
+        return true;
+    }
+
+    /**
+     * Shrinks the ID index to the smallest layout the loaded IDs allow. Call once
+     * the catalog is fully built.
+     */
+    public void compact() {
+        movies.compact();
+    }
+
+    @Override
+    public Movie findById(int movieId) {
+        return movies.get(movieId);
+    }
+
+    @Override
+    public Movie findByTitle(String titleKey) {
+        return moviesByTitle.get(titleKey);
+    }
+
+    @Override
+    public int size() {
+        return movies.size();
+    }
+
+    @Override
+    public Stream<Movie> stream() {
+        return movies.stream();
+    }
+}
@@ -0,0 +1,122 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Catalog changes made since an index was built: the IDs of indexed movies that
+ * are no longer visible, and the movies added or replaced since.
+ * <p>
+ * Indexes too costly to patch in place, such as {@link TitleSearchIndex} and
+ * {@link FuzzyTitleIndex}, derive a new version by keeping their arrays, hiding
+ * these IDs and indexing the added movies on their own. Like
+ * {@link OverlayCatalog}, every change derives a new instance and copies only
+ * the changes; an index folds them into a rebuild once {@link #exceeds(int)}.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+final class IndexChanges {
+
+    /** Changes an index always tolerates before folding them in. */
+    static final int MIN_FOLD = 64;
+
+    /** Changes after which an index always folds them in. */
+    static final int MAX_FOLD = 1024;
+
+    static final IndexChanges NONE = new IndexChanges(Collections.emptySet(), Collections.emptyMap());
+
+    private final Set<Integer> hidden;
+    private final Map<Integer, Movie> added;
+
+    private IndexChanges(Set<Integer> hidden, Map<Integer, Movie> added) {
+        this.hidden = hidden;
+        this.added = added;
+    }
+
+    /**
+     * Derives the changes with a movie added or replaced.
+     *
+     * @param movie the new or updated movie
+     * @param replaced the movie it replaces, or null if it is new
+     * @return the derived changes
+     */
+    IndexChanges withUpsert(Movie movie, Movie replaced) {
+        if (movie == null) {
+            throw new IllegalArgumentException("Movie cannot be null");
+        }
+        Set<Integer> nextHidden = hidden;
+        if (replaced != null && !added.containsKey(replaced.getId())) {
+            nextHidden = new HashSet<>(hidden);
+            nextHidden.add(replaced.getId());
+        }
+        Map<Integer, Movie> nextAdded = new HashMap<>(added);
+        nextAdded.put(movie.getId(), movie);
+        return new IndexChanges(nextHidden, nextAdded);
+    }
+
+    /**
+     * Derives the changes with a movie removed.
+     *
+     * @param movie the movie to remove
+     * @return the derived changes
+     */
+    IndexChanges withRemoval(Movie movie) {
+        if (movie == null) {
+            throw new IllegalArgumentException("Movie cannot be null");
+        }
+        if (added.containsKey(movie.getId())) {
+            Map<Integer, Movie> nextAdded = new HashMap<>(added);
+            nextAdded.remove(movie.getId());
+            return new IndexChanges(hidden, nextAdded);
+        }
+        Set<Integer> nextHidden = new HashSet<>(hidden);
+        nextHidden.add(movie.getId());
+        return new IndexChanges(nextHidden, added);
+    }
+
+    boolean isEmpty() {
+        return hidden.isEmpty() && added.isEmpty();
+    }
+
+    /**
+     * Checks whether an indexed movie is no longer visible.
+     *
+     * @param movieId the ID of a movie in the index's own arrays
+     * @return true if the movie was replaced or removed
+     */
+    boolean hides(int movieId) {
+        return !hidden.isEmpty() && hidden.contains(movieId);
+    }
+
+    Movie[] addedMovies() {
+        return added.values().toArray(new Movie[0]);
+    }
+
+    /**
+     * Gets the change in movie count.
+     *
+     * @return the added movies less the hidden ones
+     */
+    int sizeDelta() {
+        return added.size() - hidden.size();
+    }
+
+    /**
+     * Checks whether an index over the given number of movies should rebuild
+     * rather than carry these changes any further: past an eighth of its movies,
+     * within {@value #MIN_FOLD} and {@value #MAX_FOLD} changes.
+     *
+     * @param indexedMovies the movies in the index's own arrays
+     * @return true if the changes should be folded in
+     */
+    boolean exceeds(int indexedMovies) {
+        int limit = Math.max(MIN_FOLD, Math.min(MAX_FOLD, indexedMovies / 8));
+        return hidden.size() + added.size() > limit;
+    }
+}
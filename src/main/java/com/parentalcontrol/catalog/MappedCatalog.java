@@ -0,0 +1,176 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Catalog served straight from a memory-mapped binary snapshot produced by
+ * {@link CatalogCompiler}.
+ * <p>
+ * Opening a snapshot only maps the file and reads the header and genre table, so
+ * startup cost does not depend on catalog size. Records stay off-heap; a
+ * {@link Movie} is decoded only when a lookup hits. All reads use absolute
+ * buffer positions, so the catalog is safe for concurrent readers.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public class MappedCatalog implements MovieCatalog {
+    private static final Logger logger = LoggerFactory.getLogger(MappedCatalog.class);
+
+    private static final Rating[] RATINGS = Rating.values();
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int hashMask;
+    private final int recordsOffset;
+    private final int hashOffset;
+    private final int stringsOffset;
+    private final String[] genres;
+
+    private MappedCatalog(Path file, MappedByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+
+        if (buffer.capacity() < SnapshotFormat.HEADER_SIZE
+                || buffer.getInt(0) != SnapshotFormat.MAGIC) {
+            throw new IllegalArgumentException("Not a catalog snapshot: " + file);
+        }
+        if (buffer.getInt(4) != SnapshotFormat.VERSION) {
+            throw new IllegalArgumentException("Unsupported catalog snapshot version " + buffer.getInt(4) + ": " + file);
+        }
+
+        this.count = buffer.getInt(SnapshotFormat.OFF_COUNT);
+        this.hashMask = buffer.getInt(SnapshotFormat.OFF_HASH_SLOTS) - 1;
+        this.recordsOffset = (int) buffer.getLong(SnapshotFormat.OFF_RECORDS);
+        this.hashOffset = (int) buffer.getLong(SnapshotFormat.OFF_HASH);
+        this.stringsOffset = (int) buffer.getLong(SnapshotFormat.OFF_STRINGS);
+
+        int genreCount = buffer.getInt(SnapshotFormat.OFF_GENRE_COUNT);
+        this.genres = new String[genreCount];
+        int position = (int) buffer.getLong(SnapshotFormat.OFF_GENRES);
+        for (int i = 0; i < genreCount; i++) {
+            int length = Short.toUnsignedInt(buffer.getShort(position));
+            genres[i] = decode(position + 2, length);
+            position += 2 + length;
+        }
+    }
+
+    /**
+     * Maps a snapshot file.
+     *
+     * @param file the snapshot written by {@link CatalogCompiler}
+     * @return the mapped catalog
+     * @throws IllegalArgumentException if the file is not a valid snapshot
+     * @throws UncheckedIOException if the file cannot be mapped
+     */
+    public static MappedCatalog open(Path file) {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Catalog snapshot exceeds 2 GB: " + file);
+            }
+            MappedCatalog catalog = new MappedCatalog(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            logger.info("Mapped catalog snapshot {} ({} movies, {} bytes) in {} µs",
+                       file, catalog.count, size, (System.nanoTime() - start) / 1_000);
+            return catalog;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map catalog snapshot " + file, e);
+        }
+    }
+
+    @Override
+    public Movie findById(int movieId) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int id = buffer.getInt(recordOffset(mid) + SnapshotFormat.REC_ID);
+            if (id < movieId) {
+                low = mid + 1;
+            } else if (id > movieId) {
+                high = mid - 1;
+            } else {
+                return movieAt(mid);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Movie findByTitle(String titleKey) {
+        if (titleKey == null) {
+            return null;
+        }
+        int hash = SnapshotFormat.titleHash(titleKey);
+        int slot = hash & hashMask;
+        while (true) {
+            int position = hashOffset + slot * SnapshotFormat.SLOT_SIZE;
+            int record = buffer.getInt(position + 4);
+            if (record == 0) {
+                return null;
+            }
+            if (buffer.getInt(position) == hash) {
+                Movie movie = movieAt(record - 1);
+                if (MovieCatalog.titleKey(movie.getTitle()).equals(titleKey)) {
+                    return movie;
+                }
+            }
+            slot = (slot + 1) & hashMask;
+        }
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public Stream<Movie> stream() {
+        return IntStream.range(0, count).mapToObj(this::movieAt);
+    }
+
+    /**
+     * Gets the mapped snapshot file.
+     *
+     * @return the snapshot path
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    private int recordOffset(int index) {
+        return recordsOffset + index * SnapshotFormat.RECORD_SIZE;
+    }
+
+    private Movie movieAt(int index) {
+        int offset = recordOffset(index);
+        int id = buffer.getInt(offset + SnapshotFormat.REC_ID);
+        Rating rating = RATINGS[buffer.get(offset + SnapshotFormat.REC_RATING)];
+        int year = buffer.getShort(offset + SnapshotFormat.REC_YEAR);
+        String genre = genres[Short.toUnsignedInt(buffer.getShort(offset + SnapshotFormat.REC_GENRE))];
+        int titleLength = Short.toUnsignedInt(buffer.getShort(offset + SnapshotFormat.REC_TITLE_LENGTH));
+        int titleOffset = buffer.getInt(offset + SnapshotFormat.REC_TITLE_OFFSET);
+        return new Movie(id, decode(stringsOffset + titleOffset, titleLength), rating, genre, year);
+    }
+
+    private String decode(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
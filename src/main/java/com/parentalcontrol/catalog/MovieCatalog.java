@@ -0,0 +1,57 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+
+import java.util.stream.Stream;
+
+/**
+ * Read-only view of a movie catalog.
+ * <p>
+ * Implementations report misses by returning {@code null} rather than throwing,
+ * leaving the choice of error handling to the calling service.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public interface MovieCatalog {
+
+    /**
+     * Finds a movie by its ID.
+     *
+     * @param movieId the movie ID
+     * @return the movie, or null if absent
+     */
+    Movie findById(int movieId);
+
+    /**
+     * Finds a movie by its title key.
+     *
+     * @param titleKey the normalized title, see {@link #titleKey(String)}
+     * @return the movie, or null if absent
+     */
+    Movie findByTitle(String titleKey);
+
+    /**
+     * Gets the number of movies in the catalog.
+     *
+     * @return the movie count
+     */
+    int size();
+
+    /**
+     * Streams every movie in the catalog in no particular order.
+     *
+     * @return a stream of movies
+     */
+    Stream<Movie> stream();
+
+    /**
+     * Normalizes a title into the key used for title lookups.
+     *
+     * @param title the raw title
+     * @return the trimmed, lower-cased title
+     */
+    static String titleKey(String title) {
+        return title.trim().toLowerCase();
+    }
+}
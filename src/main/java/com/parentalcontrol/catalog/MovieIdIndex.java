@@ -0,0 +1,253 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Map from primitive movie IDs to movies, without boxed keys or entry objects.
+ * <p>
+ * While IDs are compact the index is a plain array addressed by ID, costing one
+ * reference per possible ID. Once an ID would leave that array too sparse (or is
+ * negative) the index switches to an open-addressing table of parallel
+ * {@code int} keys and movie references with linear probing. Lookups in either
+ * form allocate nothing. {@link #compact()} returns to, and trims, the array form
+ * when the IDs loaded so far allow it, so load order does not decide the layout.
+ * <p>
+ * Like {@link HeapCatalog}, an index is filled while it is being built and must
+ * not be modified once readers can see it.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class MovieIdIndex {
+
+    /** The array form may span at most this many slots per movie. */
+    static final int MAX_DENSE_SPREAD = 4;
+
+    /** The array form may always span this many slots, however few movies there are. */
+    static final int MIN_DENSE_CAPACITY = 64;
+
+    private static final int MIN_HASHED_CAPACITY = 16;
+
+    // Array form: movie with ID i at dense[i]. Null once the index is hashed.
+    private Movie[] dense = new Movie[MIN_DENSE_CAPACITY];
+
+    // Hashed form: slot i holds keys[i] -> values[i], or is free if values[i] is null.
+    private int[] keys;
+    private Movie[] values;
+
+    private int size;
+    private int minId = Integer.MAX_VALUE;
+    private int maxId = Integer.MIN_VALUE;
+
+    /**
+     * Finds a movie by ID.
+     *
+     * @param movieId the movie ID
+     * @return the movie, or null if absent
+     */
+    public Movie get(int movieId) {
+        Movie[] array = dense;
+        if (array != null) {
+            return movieId >= 0 && movieId < array.length ? array[movieId] : null;
+        }
+        int mask = keys.length - 1;
+        for (int slot = slotOf(movieId, mask); ; slot = (slot + 1) & mask) {
+            Movie movie = values[slot];
+            if (movie == null || keys[slot] == movieId) {
+                return movie;
+            }
+        }
+    }
+
+    /**
+     * Adds a movie under its ID.
+     *
+     * @param movie the movie
+     * @return the movie previously stored under the same ID, or null
+     */
+    public Movie put(Movie movie) {
+        Objects.requireNonNull(movie, "movie");
+        int id = movie.getId();
+        if (dense != null && !fitsDense(id, size + 1)) {
+            toHashed();
+        }
+        Movie previous = dense != null ? putDense(id, movie) : putHashed(id, movie);
+        if (previous == null) {
+            size++;
+            minId = Math.min(minId, id);
+            maxId = Math.max(maxId, id);
+        }
+        return previous;
+    }
+
+    /**
+     * Removes the movie stored under an ID.
+     *
+     * @param movieId the movie ID
+     * @return the removed movie, or null if absent
+     */
+    public Movie remove(int movieId) {
+        Movie previous = dense != null ? removeDense(movieId) : removeHashed(movieId);
+        if (previous != null) {
+            size--;
+        }
+        return previous;
+    }
+
+    /**
+     * Switches to the smallest layout the current IDs allow: an array trimmed to
+     * the largest ID if the IDs are compact, otherwise a table sized for the
+     * current count.
+     */
+    public void compact() {
+        if (size > 0 && minId >= 0 && fitsDense(maxId, size)) {
+            Movie[] array = new Movie[maxId + 1];
+            forEachSlot(movie -> array[movie.getId()] = movie);
+            dense = array;
+            keys = null;
+            values = null;
+        } else if (dense == null) {
+            rehash(tableCapacity(size));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the index is in its array form.
+     *
+     * @return true if lookups index an array directly
+     */
+    public boolean isDense() {
+        return dense != null;
+    }
+
+    /**
+     * Streams the indexed movies; in ID order while the index is dense.
+     *
+     * @return a stream of movies
+     */
+    public Stream<Movie> stream() {
+        return Arrays.stream(dense != null ? dense : values).filter(Objects::nonNull);
+    }
+
+    private static boolean fitsDense(int id, int count) {
+        return id >= 0 && id < Math.max(MIN_DENSE_CAPACITY, (long) count * MAX_DENSE_SPREAD);
+    }
+
+    private Movie putDense(int id, Movie movie) {
+        if (id >= dense.length) {
+            dense = Arrays.copyOf(dense, (int) Math.min(Integer.highestOneBit(id) * 2L, Integer.MAX_VALUE - 8));
+        }
+        Movie previous = dense[id];
+        dense[id] = movie;
+        return previous;
+    }
+
+    private Movie putHashed(int id, Movie movie) {
+        if ((size + 1) * 2L > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = slotOf(id, mask);
+        while (values[slot] != null && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        Movie previous = values[slot];
+        keys[slot] = id;
+        values[slot] = movie;
+        return previous;
+    }
+
+    private Movie removeDense(int id) {
+        if (id < 0 || id >= dense.length) {
+            return null;
+        }
+        Movie previous = dense[id];
+        dense[id] = null;
+        return previous;
+    }
+
+    /** Removes by shifting later entries of the probe run back, so no tombstones are left. */
+    private Movie removeHashed(int id) {
+        int mask = keys.length - 1;
+        int slot = slotOf(id, mask);
+        while (values[slot] != null && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        Movie previous = values[slot];
+        if (previous == null) {
+            return null;
+        }
+        int gap = slot;
+        for (int next = (gap + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+            if (((next - slotOf(keys[next], mask)) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        values[gap] = null;
+        return previous;
+    }
+
+    private void toHashed() {
+        Movie[] array = dense;
+        keys = new int[tableCapacity(size + 1)];
+        values = new Movie[keys.length];
+        dense = null;
+        for (Movie movie : array) {
+            if (movie != null) {
+                insertFresh(movie);
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Movie[] oldValues = values;
+        keys = new int[capacity];
+        values = new Movie[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                insertFresh(oldValues[i]);
+            }
+        }
+    }
+
+    private void insertFresh(Movie movie) {
+        int mask = keys.length - 1;
+        int slot = slotOf(movie.getId(), mask);
+        while (values[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = movie.getId();
+        values[slot] = movie;
+    }
+
+    private void forEachSlot(Consumer<Movie> action) {
+        for (Movie movie : dense != null ? dense : values) {
+            if (movie != null) {
+                action.accept(movie);
+            }
+        }
+    }
+
+    /** Table capacity keeping the load factor at or below one half. */
+    private static int tableCapacity(int count) {
+        return Math.max(MIN_HASHED_CAPACITY, Integer.highestOneBit(Math.max(1, count) * 2 - 1) << 1);
+    }
+
+    /** Fibonacci hashing, so sequential IDs spread across the table. */
+    private static int slotOf(int id, int mask) {
+        int hash = id * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & mask;
+    }
+}
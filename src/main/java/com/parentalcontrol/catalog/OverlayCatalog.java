@@ -0,0 +1,217 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Catalog made of an immutable base catalog and a small set of changes on top:
+ * movies added or replaced since the base was built, and IDs deleted from it.
+ * <p>
+ * Every change derives a new overlay and leaves the previous one untouched, so
+ * an overlay can be published in a {@link CatalogSnapshot} like any other
+ * catalog. Deriving copies only the changes, never the base; compaction folds
+ * the changes into a new base once they grow (see {@link CatalogStore}).
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class OverlayCatalog implements MovieCatalog {
+    private final MovieCatalog base;
+    private final Map<Integer, Movie> upserts;
+    private final Map<String, Movie> upsertsByTitle;
+    private final Set<Integer> hidden;
+    private final int size;
+
+    private OverlayCatalog(MovieCatalog base, Map<Integer, Movie> upserts, Map<String, Movie> upsertsByTitle,
+                           Set<Integer> hidden) {
+        this.base = base;
+        this.upserts = upserts;
+        this.upsertsByTitle = upsertsByTitle;
+        this.hidden = hidden;
+        this.size = base.size() - hidden.size() + upserts.size();
+    }
+
+    /**
+     * Creates an overlay without changes.
+     *
+     * @param base the base catalog
+     * @return the overlay
+     */
+    public static OverlayCatalog over(MovieCatalog base) {
+        if (base == null) {
+            throw new IllegalArgumentException("Base catalog cannot be null");
+        }
+        return new OverlayCatalog(base, Collections.emptyMap(), Collections.emptyMap(), Collections.emptySet());
+    }
+
+    /**
+     * Derives a catalog with a movie added, replacing the movie with the same ID
+     * and the movie with the same title, as {@link HeapCatalog#add(Movie)} does.
+     *
+     * @param movie the movie
+     * @return the derived catalog
+     */
+    public OverlayCatalog withUpsert(Movie movie) {
+        if (movie == null) {
+            throw new IllegalArgumentException("Movie cannot be null");
+        }
+        return new Builder(this).upsert(movie).build();
+    }
+
+    /**
+     * Derives a catalog without the movie with an ID.
+     *
+     * @param movieId the ID to delete
+     * @return the derived catalog, or this catalog if it has no such movie
+     */
+    public OverlayCatalog withRemoval(int movieId) {
+        return findById(movieId) == null ? this : new Builder(this).remove(movieId).build();
+    }
+
+    @Override
+    public Movie findById(int movieId) {
+        Movie movie = upserts.get(movieId);
+        if (movie != null) {
+            return movie;
+        }
+        return hidden.contains(movieId) ? null : base.findById(movieId);
+    }
+
+    @Override
+    public Movie findByTitle(String titleKey) {
+        Movie movie = upsertsByTitle.get(titleKey);
+        if (movie != null) {
+            return movie;
+        }
+        movie = base.findByTitle(titleKey);
+        return movie == null || hidden.contains(movie.getId()) ? null : movie;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Stream<Movie> stream() {
+        Stream<Movie> remaining = hidden.isEmpty() ? base.stream()
+                                                   : base.stream().filter(movie -> !hidden.contains(movie.getId()));
+        return upserts.isEmpty() ? remaining : Stream.concat(remaining, upserts.values().stream());
+    }
+
+    public MovieCatalog getBase() {
+        return base;
+    }
+
+    /**
+     * Gets the number of changes layered over the base: upserted movies plus base
+     * movies hidden by a replacement or deletion.
+     *
+     * @return the overlay size
+     */
+    public int getChangeCount() {
+        return upserts.size() + hidden.size();
+    }
+
+    /**
+     * Lists the IDs whose movie differs between an earlier catalog and this one,
+     * at the cost of the two overlays' changes rather than of the catalog.
+     *
+     * @param earlier an earlier overlay over the same base, or that base itself
+     * @return the IDs added, replaced or deleted since, or null if the earlier
+     *         catalog does not share this overlay's base
+     */
+    public int[] changedSince(MovieCatalog earlier) {
+        OverlayCatalog from;
+        if (earlier == base) {
+            from = over(base);
+        } else if (earlier instanceof OverlayCatalog && ((OverlayCatalog) earlier).base == base) {
+            from = (OverlayCatalog) earlier;
+        } else {
+            return null;
+        }
+        Set<Integer> candidates = new HashSet<>(upserts.keySet());
+        candidates.addAll(hidden);
+        candidates.addAll(from.upserts.keySet());
+        candidates.addAll(from.hidden);
+        return candidates.stream()
+                         .mapToInt(Integer::intValue)
+                         .filter(id -> findById(id) != from.findById(id))
+                         .toArray();
+    }
+
+    /**
+     * Applies a run of changes in place, for replaying a journal without copying
+     * the overlay once per change.
+     */
+    static final class Builder {
+        private final MovieCatalog base;
+        private final Map<Integer, Movie> upserts;
+        private final Map<String, Movie> upsertsByTitle;
+        private final Set<Integer> hidden;
+
+        Builder(OverlayCatalog from) {
+            this.base = from.base;
+            this.upserts = new HashMap<>(from.upserts);
+            this.upsertsByTitle = new HashMap<>(from.upsertsByTitle);
+            this.hidden = new HashSet<>(from.hidden);
+        }
+
+        private Movie find(int movieId) {
+            Movie movie = upserts.get(movieId);
+            return movie != null || hidden.contains(movieId) ? movie : base.findById(movieId);
+        }
+
+        private Movie findByTitle(String titleKey) {
+            Movie movie = upsertsByTitle.get(titleKey);
+            if (movie != null) {
+                return movie;
+            }
+            movie = base.findByTitle(titleKey);
+            return movie == null || hidden.contains(movie.getId()) ? null : movie;
+        }
+
+        Builder upsert(Movie movie) {
+            String titleKey = MovieCatalog.titleKey(movie.getTitle());
+            Movie sameTitle = findByTitle(titleKey);
+            if (sameTitle != null && sameTitle.getId() != movie.getId()) {
+                remove(sameTitle.getId());
+            }
+            forget(find(movie.getId()));
+            upserts.put(movie.getId(), movie);
+            upsertsByTitle.put(titleKey, movie);
+            if (base.findById(movie.getId()) != null) {
+                hidden.add(movie.getId());
+            }
+            return this;
+        }
+
+        Builder remove(int movieId) {
+            Movie existing = find(movieId);
+            if (existing != null) {
+                forget(existing);
+                upserts.remove(movieId);
+                if (base.findById(movieId) != null) {
+                    hidden.add(movieId);
+                }
+            }
+            return this;
+        }
+
+        private void forget(Movie movie) {
+            if (movie != null) {
+                upsertsByTitle.remove(MovieCatalog.titleKey(movie.getTitle()), movie);
+            }
+        }
+
+        OverlayCatalog build() {
+            return new OverlayCatalog(base, upserts, upsertsByTitle, hidden);
+        }
+    }
+}
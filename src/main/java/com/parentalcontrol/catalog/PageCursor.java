@@ -0,0 +1,120 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Keyset position in a result list: the title and ID of the last movie returned.
+ * <p>
+ * The next page starts at the first movie ordered after that key, found by binary
+ * search, so fetching a deep page costs the same as the first one. Because the
+ * cursor holds a key rather than an offset, it stays valid across catalog
+ * versions: movies added or deleted before the cursor never shift later pages.
+ * <p>
+ * {@link #encode()} turns a cursor into an opaque URL-safe token for clients.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class PageCursor {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final String title;
+    private final int id;
+
+    private PageCursor(String title, int id) {
+        this.title = title;
+        this.id = id;
+    }
+
+    /**
+     * Creates the cursor positioned after a movie.
+     *
+     * @param movie the last movie of a page
+     * @return the cursor
+     */
+    public static PageCursor after(Movie movie) {
+        if (movie == null) {
+            throw new IllegalArgumentException("Movie cannot be null");
+        }
+        return new PageCursor(movie.getTitle(), movie.getId());
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the token
+     * @return the cursor
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("Cursor cannot be null or empty");
+        }
+        String text;
+        try {
+            text = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+        int colon = text.indexOf(':');
+        if (colon <= 0 || colon == text.length() - 1) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        try {
+            return new PageCursor(text.substring(colon + 1), Integer.parseInt(text.substring(0, colon)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    /**
+     * Encodes the cursor as an opaque, URL-safe token.
+     *
+     * @return the token
+     */
+    public String encode() {
+        return ENCODER.encodeToString((id + ":" + title).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Compares the cursor with a movie in {@link RatingIndex#TITLE_ORDER}.
+     *
+     * @param movie the movie
+     * @return negative, zero or positive as the cursor sorts before, at or after the movie
+     */
+    int compareTo(Movie movie) {
+        int byTitle = title.compareTo(movie.getTitle());
+        return byTitle != 0 ? byTitle : Integer.compare(id, movie.getId());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof PageCursor)) return false;
+        PageCursor other = (PageCursor) obj;
+        return id == other.id && title.equals(other.title);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(title, id);
+    }
+
+    @Override
+    public String toString() {
+        return "PageCursor{title='" + title + "', id=" + id + "}";
+    }
+}
@@ -0,0 +1,383 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.RatingScheme;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Title-ordered movie indexes, one per {@link Rating} plus one over the whole
+ * catalog.
+ * <p>
+ * Because there are only a handful of ratings, browse queries are answered from
+ * presorted arrays: a single rating is a view of its array, and an accessibility
+ * query merges the arrays of the accessible ratings, costing O(result) instead of
+ * a filter and sort over the whole catalog.
+ * <p>
+ * {@link #spliterator(Rating, RatingScheme, PageCursor)} walks the same arrays
+ * lazily from a keyset cursor: it finds its start by binary search, merges one
+ * movie at a time and splits by title range for parallel streams, so a page of
+ * any depth costs O(page size) and no result array is built.
+ * <p>
+ * An index is immutable. {@link #withUpsert(Movie, Movie)} and
+ * {@link #withRemoval(Movie)} derive a new index by copying only the arrays that
+ * change, so updates never re-sort.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class RatingIndex {
+
+    /** Ordering shared by every index array: title, then ID for equal titles. */
+    public static final Comparator<Movie> TITLE_ORDER =
+        Comparator.comparing(Movie::getTitle).thenComparingInt(Movie::getId);
+
+    private static final Rating[] RATINGS = Rating.values();
+    private static final Movie[] EMPTY = new Movie[0];
+
+    private final Movie[] all;
+    private final Movie[][] byRating;
+
+    private RatingIndex(Movie[] all, Movie[][] byRating) {
+        this.all = all;
+        this.byRating = byRating;
+    }
+
+    /**
+     * Builds the index for a catalog. The sort runs in parallel on the fork-join
+     * pool of the calling task, or the common pool.
+     *
+     * @param catalog the catalog to index
+     * @return the index
+     */
+    public static RatingIndex build(MovieCatalog catalog) {
+        Movie[] all = catalog.stream().toArray(Movie[]::new);
+        Arrays.parallelSort(all, TITLE_ORDER);
+
+        int[] counts = new int[RATINGS.length];
+        for (Movie movie : all) {
+            counts[movie.getRating().ordinal()]++;
+        }
+        Movie[][] byRating = new Movie[RATINGS.length][];
+        for (int r = 0; r < RATINGS.length; r++) {
+            byRating[r] = counts[r] == 0 ? EMPTY : new Movie[counts[r]];
+        }
+        int[] fill = new int[RATINGS.length];
+        for (Movie movie : all) {
+            int r = movie.getRating().ordinal();
+            byRating[r][fill[r]++] = movie;
+        }
+        return new RatingIndex(all, byRating);
+    }
+
+    /**
+     * Gets every movie in title order.
+     *
+     * @return an unmodifiable list
+     */
+    public List<Movie> all() {
+        return view(all);
+    }
+
+    /**
+     * Gets the movies with a rating in title order.
+     *
+     * @param rating the rating
+     * @return an unmodifiable list
+     */
+    public List<Movie> byRating(Rating rating) {
+        return view(byRating[rating.ordinal()]);
+    }
+
+    /**
+     * Gets the movies accessible with a maximum rating in title order, under the
+     * default rating scheme.
+     *
+     * @param maxRating the maximum allowed rating
+     * @return an unmodifiable list
+     */
+    public List<Movie> accessible(Rating maxRating) {
+        return accessible(maxRating, RatingScheme.DEFAULT);
+    }
+
+    /**
+     * Gets the movies accessible with a maximum rating in title order.
+     *
+     * @param maxRating the maximum allowed rating
+     * @param scheme the rating scheme to apply
+     * @return an unmodifiable list
+     */
+    public List<Movie> accessible(Rating maxRating, RatingScheme scheme) {
+        Movie[][] sources = new Movie[RATINGS.length][];
+        int sourceCount = 0;
+        int total = 0;
+        for (Rating rating : RATINGS) {
+            Movie[] movies = byRating[rating.ordinal()];
+            if (movies.length > 0 && scheme.allows(rating, maxRating)) {
+                sources[sourceCount++] = movies;
+                total += movies.length;
+            }
+        }
+        if (total == all.length) {
+            return view(all);
+        }
+        if (sourceCount == 1) {
+            return view(sources[0]);
+        }
+        return view(merge(sources, sourceCount, total));
+    }
+
+    /**
+     * Walks every movie in title order, starting after a cursor.
+     *
+     * @param after the cursor to resume after, or null to start at the first movie
+     * @return a sized, sorted spliterator
+     */
+    public Spliterator<Movie> spliterator(PageCursor after) {
+        return new MergeSpliterator(new Movie[][] {all}, after);
+    }
+
+    /**
+     * Walks the movies accessible with a maximum rating in title order, starting
+     * after a cursor, without materializing the merged list.
+     *
+     * @param maxRating the maximum allowed rating
+     * @param scheme the rating scheme to apply
+     * @param after the cursor to resume after, or null to start at the first movie
+     * @return a sized, sorted spliterator
+     */
+    public Spliterator<Movie> spliterator(Rating maxRating, RatingScheme scheme, PageCursor after) {
+        Movie[][] sources = new Movie[RATINGS.length][];
+        int sourceCount = 0;
+        int total = 0;
+        for (Rating rating : RATINGS) {
+            Movie[] movies = byRating[rating.ordinal()];
+            if (movies.length > 0 && scheme.allows(rating, maxRating)) {
+                sources[sourceCount++] = movies;
+                total += movies.length;
+            }
+        }
+        if (total == all.length) {
+            return spliterator(after);
+        }
+        return new MergeSpliterator(Arrays.copyOf(sources, sourceCount), after);
+    }
+
+    /**
+     * Gets the number of indexed movies.
+     *
+     * @return the movie count
+     */
+    public int size() {
+        return all.length;
+    }
+
+    /**
+     * Derives an index with a movie added or replaced.
+     *
+     * @param movie the new or updated movie
+     * @param replaced the movie it replaces, or null if it is new
+     * @return the updated index
+     */
+    public RatingIndex withUpsert(Movie movie, Movie replaced) {
+        Movie[] nextAll = all;
+        Movie[][] nextByRating = byRating.clone();
+        if (replaced != null) {
+            nextAll = remove(nextAll, replaced);
+            int r = replaced.getRating().ordinal();
+            nextByRating[r] = remove(nextByRating[r], replaced);
+        }
+        nextAll = insert(nextAll, movie);
+        int r = movie.getRating().ordinal();
+        nextByRating[r] = insert(nextByRating[r], movie);
+        return new RatingIndex(nextAll, nextByRating);
+    }
+
+    /**
+     * Derives an index with a movie removed.
+     *
+     * @param movie the movie to remove
+     * @return the updated index
+     */
+    public RatingIndex withRemoval(Movie movie) {
+        Movie[][] nextByRating = byRating.clone();
+        int r = movie.getRating().ordinal();
+        nextByRating[r] = remove(nextByRating[r], movie);
+        return new RatingIndex(remove(all, movie), nextByRating);
+    }
+
+    private static List<Movie> view(Movie[] movies) {
+        return Collections.unmodifiableList(Arrays.asList(movies));
+    }
+
+    private static Movie[] merge(Movie[][] sources, int sourceCount, int total) {
+        Movie[] merged = new Movie[total];
+        int[] positions = new int[sourceCount];
+        for (int out = 0; out < total; out++) {
+            int best = -1;
+            for (int s = 0; s < sourceCount; s++) {
+                if (positions[s] < sources[s].length
+                        && (best < 0 || TITLE_ORDER.compare(sources[s][positions[s]], sources[best][positions[best]]) < 0)) {
+                    best = s;
+                }
+            }
+            merged[out] = sources[best][positions[best]++];
+        }
+        return merged;
+    }
+
+    private static Movie[] insert(Movie[] movies, Movie movie) {
+        int position = Arrays.binarySearch(movies, movie, TITLE_ORDER);
+        if (position >= 0) {
+            Movie[] copy = movies.clone();
+            copy[position] = movie;
+            return copy;
+        }
+        position = -position - 1;
+        Movie[] copy = new Movie[movies.length + 1];
+        System.arraycopy(movies, 0, copy, 0, position);
+        copy[position] = movie;
+        System.arraycopy(movies, position, copy, position + 1, movies.length - position);
+        return copy;
+    }
+
+    /** Finds the first position in {@code [from, to)} whose movie sorts after the cursor. */
+    private static int positionAfter(Movie[] movies, int from, int to, PageCursor cursor) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cursor.compareTo(movies[mid]) >= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Finds the first position in {@code [from, to)} whose movie does not sort before {@code key}. */
+    private static int positionOf(Movie[] movies, int from, int to, Movie key) {
+        int position = Arrays.binarySearch(movies, from, to, key, TITLE_ORDER);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private static Movie[] remove(Movie[] movies, Movie movie) {
+        int position = Arrays.binarySearch(movies, movie, TITLE_ORDER);
+        if (position < 0) {
+            return movies;
+        }
+        if (movies.length == 1) {
+            return EMPTY;
+        }
+        Movie[] copy = new Movie[movies.length - 1];
+        System.arraycopy(movies, 0, copy, 0, position);
+        System.arraycopy(movies, position + 1, copy, position, movies.length - position - 1);
+        return copy;
+    }
+
+    /**
+     * Lazy k-way merge over title-ordered arrays. Each source keeps its own
+     * {@code [from, to)} range; splitting cuts every range at the same title, so
+     * both halves stay sorted and their sizes stay exact.
+     */
+    private static final class MergeSpliterator implements Spliterator<Movie> {
+        private final Movie[][] sources;
+        private final int[] from;
+        private final int[] to;
+
+        MergeSpliterator(Movie[][] sources, PageCursor after) {
+            this.sources = sources;
+            this.from = new int[sources.length];
+            this.to = new int[sources.length];
+            for (int s = 0; s < sources.length; s++) {
+                to[s] = sources[s].length;
+                from[s] = after == null ? 0 : positionAfter(sources[s], 0, to[s], after);
+            }
+        }
+
+        private MergeSpliterator(Movie[][] sources, int[] from, int[] to) {
+            this.sources = sources;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Movie> action) {
+            int best = -1;
+            for (int s = 0; s < sources.length; s++) {
+                if (from[s] < to[s]
+                        && (best < 0 || TITLE_ORDER.compare(sources[s][from[s]], sources[best][from[best]]) < 0)) {
+                    best = s;
+                }
+            }
+            if (best < 0) {
+                return false;
+            }
+            action.accept(sources[best][from[best]++]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Movie> action) {
+            if (sources.length == 1) {
+                Movie[] movies = sources[0];
+                int end = to[0];
+                for (int i = from[0]; i < end; i++) {
+                    action.accept(movies[i]);
+                }
+                from[0] = end;
+                return;
+            }
+            while (tryAdvance(action)) {
+                // merge until every source is drained
+            }
+        }
+
+        @Override
+        public Spliterator<Movie> trySplit() {
+            int largest = 0;
+            for (int s = 1; s < sources.length; s++) {
+                if (to[s] - from[s] > to[largest] - from[largest]) {
+                    largest = s;
+                }
+            }
+            if (to[largest] - from[largest] < 2) {
+                return null;
+            }
+            Movie pivot = sources[largest][(from[largest] + to[largest]) >>> 1];
+            int[] prefixFrom = from.clone();
+            int[] prefixTo = new int[sources.length];
+            for (int s = 0; s < sources.length; s++) {
+                prefixTo[s] = positionOf(sources[s], from[s], to[s], pivot);
+                from[s] = prefixTo[s];
+            }
+            return new MergeSpliterator(sources, prefixFrom, prefixTo);
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = 0;
+            for (int s = 0; s < sources.length; s++) {
+                size += to[s] - from[s];
+            }
+            return size;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super Movie> getComparator() {
+            return TITLE_ORDER;
+        }
+    }
+}
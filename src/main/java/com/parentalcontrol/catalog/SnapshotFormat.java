@@ -0,0 +1,70 @@
+package com.parentalcontrol.catalog;
+
+/**
+ * Layout constants for binary catalog snapshots.
+ * <p>
+ * A snapshot is a single big-endian file:
+ * <pre>
+ * header   magic:int version:int count:int genreCount:int hashSlots:int pad:int
+ *          recordsOffset:long hashOffset:long genresOffset:long stringsOffset:long
+ * records  count x { id:int rating:byte pad:byte year:short genre:short titleLength:short titleOffset:int }
+ *          sorted by id
+ * hash     hashSlots x { titleHash:int recordIndex+1:int }, open addressing, 0 = empty
+ * genres   genreCount x { length:short utf8 }
+ * strings  UTF-8 title bytes addressed by titleOffset
+ * </pre>
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+final class SnapshotFormat {
+    static final int MAGIC = 0x50434353; // "PCCS"
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 56;
+    static final int OFF_COUNT = 8;
+    static final int OFF_GENRE_COUNT = 12;
+    static final int OFF_HASH_SLOTS = 16;
+    static final int OFF_RECORDS = 24;
+    static final int OFF_HASH = 32;
+    static final int OFF_GENRES = 40;
+    static final int OFF_STRINGS = 48;
+
+    static final int RECORD_SIZE = 16;
+    static final int REC_ID = 0;
+    static final int REC_RATING = 4;
+    static final int REC_YEAR = 6;
+    static final int REC_GENRE = 8;
+    static final int REC_TITLE_LENGTH = 10;
+    static final int REC_TITLE_OFFSET = 12;
+
+    static final int SLOT_SIZE = 8;
+
+    private SnapshotFormat() {
+    }
+
+    /**
+     * Hashes a title key for the snapshot's title table.
+     *
+     * @param titleKey the normalized title
+     * @return the spread hash
+     */
+    static int titleHash(String titleKey) {
+        int h = titleKey.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Sizes the title table at no more than 50% load.
+     *
+     * @param count the number of titles
+     * @return a power-of-two slot count
+     */
+    static int hashSlots(int count) {
+        int slots = Integer.highestOneBit(Math.max(2, count) * 2 - 1) << 1;
+        if (slots <= 0) {
+            throw new IllegalArgumentException("Catalog too large for snapshot: " + count + " movies");
+        }
+        return slots;
+    }
+}
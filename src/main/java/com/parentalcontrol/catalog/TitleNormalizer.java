@@ -0,0 +1,96 @@
+package com.parentalcontrol.catalog;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Folds the many ways a title gets typed into one normalized form, for matching
+ * titles that are not exactly equal.
+ * <p>
+ * Normalization applies Unicode NFKC (so full-width and ligature forms match
+ * plain ones), removes accents, lower-cases, drops apostrophes ("Baby's" matches
+ * "Babys"), turns {@code &} into "and" and every other run of punctuation or
+ * whitespace into one space. A leading article is dropped, as is a trailing one
+ * in library form, so "The Dark Knight", "Dark Knight" and "Dark Knight, The" all
+ * normalize to {@code dark knight}.
+ * <p>
+ * This is looser than {@link MovieCatalog#titleKey(String)}, which stays the key
+ * for exact lookups and uniqueness.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class TitleNormalizer {
+
+    private static final String[] ARTICLES = {"the", "a", "an"};
+
+    private TitleNormalizer() {
+    }
+
+    /**
+     * Normalizes a title.
+     *
+     * @param title the raw title
+     * @return the normalized title; empty if the title has no letters or digits
+     */
+    public static String normalize(String title) {
+        String text = title;
+        if (!isAscii(text)) {
+            text = Normalizer.normalize(text, Normalizer.Form.NFKC);
+            text = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        }
+        text = text.toLowerCase(Locale.ROOT);
+
+        StringBuilder folded = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isApostrophe(c)) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c) || c == '&') {
+                if (pendingSpace && folded.length() > 0) {
+                    folded.append(' ');
+                }
+                pendingSpace = false;
+                if (c == '&') {
+                    folded.append("and");
+                    pendingSpace = true;
+                } else {
+                    folded.append(c);
+                }
+            } else {
+                pendingSpace = true;
+            }
+        }
+
+        String key = folded.toString();
+        // "Dark Knight, The": only the comma tells a moved article from a title ending in "a".
+        String trimmed = text.trim();
+        for (String article : ARTICLES) {
+            if (trimmed.endsWith(", " + article) && key.length() > article.length() + 1) {
+                key = key.substring(0, key.length() - article.length() - 1);
+                break;
+            }
+        }
+        for (String article : ARTICLES) {
+            if (key.length() > article.length() + 1 && key.startsWith(article) && key.charAt(article.length()) == ' ') {
+                return key.substring(article.length() + 1);
+            }
+        }
+        return key;
+    }
+
+    private static boolean isApostrophe(char c) {
+        return c == '\'' || c == '‘' || c == '’' || c == '`' || c == '´' || c == 'ʼ';
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
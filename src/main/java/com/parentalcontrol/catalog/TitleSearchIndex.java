@@ -0,0 +1,523 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Title search index answering substring and prefix queries without scanning
+ * the catalog.
+ * <p>
+ * Movies are numbered in rank order (shorter titles first, then alphabetically),
+ * so every posting list and every candidate set is already ranked and a query can
+ * stop as soon as it has enough results. Two structures sit over that numbering:
+ * <ul>
+ *   <li>an inverted trigram index: substring queries of three or more characters
+ *       intersect the posting lists of their trigrams and verify the survivors;</li>
+ *   <li>a prefix index: the title keys in lexicographic order, a flattened trie in
+ *       which every prefix maps to one contiguous range found by binary search.</li>
+ * </ul>
+ * Results list prefix matches first, then other substring matches, each group
+ * ordered by title length.
+ * <p>
+ * An index is immutable. {@link #withUpsert(Movie, Movie)} and
+ * {@link #withRemoval(Movie)} derive a new index that shares these structures,
+ * hides the replaced and removed movies, and searches the added ones in a small
+ * index of their own, merging both in rank order. Once the changes outgrow
+ * {@link IndexChanges#exceeds(int)} the derived index is rebuilt instead.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class TitleSearchIndex {
+
+    /** Largest prefix range that is ranked directly rather than by a filtered scan. */
+    private static final int DIRECT_RANK_LIMIT = 4096;
+
+    private static final int[] NO_DOCS = new int[0];
+
+    private final Movie[] movies;
+    private final String[] keys;
+    private final String[] sortedKeys;
+    private final int[] sortedDocs;
+    private final TrigramTable trigrams;
+    private final IndexChanges changes;
+    // Index of the movies added since the structures above were built, or null
+    private final TitleSearchIndex added;
+
+    private TitleSearchIndex(Movie[] movies, String[] keys, String[] sortedKeys, int[] sortedDocs,
+                             TrigramTable trigrams, IndexChanges changes, TitleSearchIndex added) {
+        this.movies = movies;
+        this.keys = keys;
+        this.sortedKeys = sortedKeys;
+        this.sortedDocs = sortedDocs;
+        this.trigrams = trigrams;
+        this.changes = changes;
+        this.added = added;
+    }
+
+    /**
+     * Builds the index for a catalog. Both orderings are sorted in parallel on the
+     * fork-join pool of the calling task, or the common pool.
+     *
+     * @param catalog the catalog to index
+     * @return the index
+     */
+    public static TitleSearchIndex build(MovieCatalog catalog) {
+        return build(catalog.stream().toArray(Movie[]::new));
+    }
+
+    private static TitleSearchIndex build(Movie[] movies) {
+        String[] keyOf = new String[movies.length];
+        Integer[] order = new Integer[movies.length];
+        for (int i = 0; i < movies.length; i++) {
+            keyOf[i] = MovieCatalog.titleKey(movies[i].getTitle());
+            order[i] = i;
+        }
+        Arrays.parallelSort(order, Comparator.<Integer>comparingInt(i -> keyOf[i].length())
+                .thenComparing(i -> keyOf[i])
+                .thenComparingInt(i -> movies[i].getId()));
+
+        Movie[] ranked = new Movie[movies.length];
+        String[] keys = new String[movies.length];
+        for (int doc = 0; doc < order.length; doc++) {
+            ranked[doc] = movies[order[doc]];
+            keys[doc] = keyOf[order[doc]];
+        }
+
+        Integer[] lexical = new Integer[keys.length];
+        for (int doc = 0; doc < keys.length; doc++) {
+            lexical[doc] = doc;
+        }
+        Arrays.parallelSort(lexical, Comparator.comparing(doc -> keys[doc]));
+        String[] sortedKeys = new String[keys.length];
+        int[] sortedDocs = new int[keys.length];
+        for (int i = 0; i < lexical.length; i++) {
+            sortedDocs[i] = lexical[i];
+            sortedKeys[i] = keys[lexical[i]];
+        }
+
+        return new TitleSearchIndex(ranked, keys, sortedKeys, sortedDocs, TrigramTable.build(keys),
+                                    IndexChanges.NONE, null);
+    }
+
+    /**
+     * Derives an index with a movie added or replaced.
+     *
+     * @param movie the new or updated movie
+     * @param replaced the movie it replaces, or null if it is new
+     * @return the updated index
+     */
+    public TitleSearchIndex withUpsert(Movie movie, Movie replaced) {
+        return derive(changes.withUpsert(movie, replaced));
+    }
+
+    /**
+     * Derives an index with a movie removed.
+     *
+     * @param movie the movie to remove
+     * @return the updated index
+     */
+    public TitleSearchIndex withRemoval(Movie movie) {
+        return derive(changes.withRemoval(movie));
+    }
+
+    private TitleSearchIndex derive(IndexChanges next) {
+        if (next.exceeds(movies.length)) {
+            List<Movie> visible = new ArrayList<>(movies.length + next.sizeDelta());
+            for (Movie movie : movies) {
+                if (!next.hides(movie.getId())) {
+                    visible.add(movie);
+                }
+            }
+            visible.addAll(Arrays.asList(next.addedMovies()));
+            return build(visible.toArray(new Movie[0]));
+        }
+        Movie[] addedMovies = next.addedMovies();
+        return new TitleSearchIndex(movies, keys, sortedKeys, sortedDocs, trigrams, next,
+                                    addedMovies.length == 0 ? null : build(addedMovies));
+    }
+
+    /**
+     * Finds titles containing the query, prefix matches first.
+     *
+     * @param query the text to search for (case-insensitive)
+     * @param limit the maximum number of results
+     * @return matching movies in rank order
+     */
+    public List<Movie> search(String query, int limit) {
+        return search(query, null, limit);
+    }
+
+    /**
+     * Finds titles containing the query, prefix matches first, resuming after the
+     * last movie of a previous page.
+     * <p>
+     * A movie's rank is its group (prefix match or not) followed by its document
+     * number, and the cursor's title and ID determine both, so the next page
+     * starts with a binary search rather than by re-finding the earlier pages.
+     *
+     * @param query the text to search for (case-insensitive)
+     * @param after the cursor to resume after, or null for the first page
+     * @param limit the maximum number of results
+     * @return matching movies in rank order
+     */
+    public List<Movie> search(String query, PageCursor after, int limit) {
+        if (changes.isEmpty()) {
+            return searchIndexed(query, after, limit);
+        }
+        String q = MovieCatalog.titleKey(query);
+        List<Movie> indexed = visiblePages(cursor -> searchIndexed(query, cursor, limit), after, limit);
+        return merge(q, indexed, added == null ? List.of() : added.search(query, after, limit), limit);
+    }
+
+    /** Searches this index's own structures, ignoring later changes. */
+    private List<Movie> searchIndexed(String query, PageCursor after, int limit) {
+        String q = MovieCatalog.titleKey(query);
+        List<Movie> results = new ArrayList<>(Math.min(limit, 16));
+        if (q.isEmpty() || limit <= 0) {
+            return results;
+        }
+
+        int[] candidates = q.length() >= 3 ? trigrams.intersect(q) : null;
+        int fromDoc = after == null ? 0 : rankAfter(after);
+        boolean inPrefixGroup = after == null || MovieCatalog.titleKey(after.getTitle()).startsWith(q);
+        if (inPrefixGroup) {
+            collectPrefixMatches(q, fromDoc, limit, candidates, results);
+        }
+        if (results.size() < limit) {
+            int count = candidates != null ? candidates.length : keys.length;
+            int from = inPrefixGroup ? 0 : fromDoc;
+            for (int i = candidates != null ? firstAtOrAfter(candidates, from) : from;
+                    i < count && results.size() < limit; i++) {
+                int doc = candidates != null ? candidates[i] : i;
+                String key = keys[doc];
+                if (!key.startsWith(q) && key.contains(q)) {
+                    results.add(movies[doc]);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Finds titles starting with the prefix.
+     *
+     * @param prefix the title prefix (case-insensitive)
+     * @param limit the maximum number of results
+     * @return matching movies in rank order
+     */
+    public List<Movie> prefixSearch(String prefix, int limit) {
+        if (changes.isEmpty()) {
+            return prefixSearchIndexed(prefix, null, limit);
+        }
+        List<Movie> indexed = visiblePages(cursor -> prefixSearchIndexed(prefix, cursor, limit), null, limit);
+        return merge(MovieCatalog.titleKey(prefix), indexed,
+                     added == null ? List.of() : added.prefixSearch(prefix, limit), limit);
+    }
+
+    private List<Movie> prefixSearchIndexed(String prefix, PageCursor after, int limit) {
+        String q = MovieCatalog.titleKey(prefix);
+        List<Movie> results = new ArrayList<>(Math.min(limit, 16));
+        if (q.isEmpty() || limit <= 0) {
+            return results;
+        }
+        collectPrefixMatches(q, after == null ? 0 : rankAfter(after), limit,
+                             q.length() >= 3 ? trigrams.intersect(q) : null, results);
+        return results;
+    }
+
+    /**
+     * Gets the number of indexed movies.
+     *
+     * @return the movie count
+     */
+    public int size() {
+        return movies.length + changes.sizeDelta();
+    }
+
+    /**
+     * Collects up to {@code limit} results that are still visible, fetching further
+     * pages after the last result while hidden movies leave a page short.
+     */
+    private List<Movie> visiblePages(Function<PageCursor, List<Movie>> pages, PageCursor after, int limit) {
+        List<Movie> results = new ArrayList<>(Math.min(limit, 16));
+        PageCursor cursor = after;
+        while (true) {
+            List<Movie> page = pages.apply(cursor);
+            for (Movie movie : page) {
+                if (!changes.hides(movie.getId())) {
+                    results.add(movie);
+                    if (results.size() == limit) {
+                        return results;
+                    }
+                }
+            }
+            if (page.isEmpty() || page.size() < limit) {
+                return results;
+            }
+            cursor = PageCursor.after(page.get(page.size() - 1));
+        }
+    }
+
+    /** Merges two result lists already in rank order for the query. */
+    private static List<Movie> merge(String q, List<Movie> first, List<Movie> second, int limit) {
+        if (second.isEmpty()) {
+            return first;
+        }
+        Comparator<Movie> rank = Comparator.<Movie>comparingInt(m -> MovieCatalog.titleKey(m.getTitle())
+                        .startsWith(q) ? 0 : 1)
+                .thenComparingInt(m -> MovieCatalog.titleKey(m.getTitle()).length())
+                .thenComparing(m -> MovieCatalog.titleKey(m.getTitle()))
+                .thenComparingInt(Movie::getId);
+        List<Movie> results = new ArrayList<>(Math.min(limit, first.size() + second.size()));
+        int i = 0;
+        int j = 0;
+        while (results.size() < limit && (i < first.size() || j < second.size())) {
+            if (j == second.size() || (i < first.size() && rank.compare(first.get(i), second.get(j)) <= 0)) {
+                results.add(first.get(i++));
+            } else {
+                results.add(second.get(j++));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Adds up to {@code limit} prefix matches from document {@code fromDoc} on to
+     * {@code results} in rank order. Small prefix ranges are ranked directly; large
+     * ones are dense enough that a ranked scan over the candidates finds the first
+     * matches quickly.
+     */
+    private void collectPrefixMatches(String q, int fromDoc, int limit, int[] candidates, List<Movie> results) {
+        int low = lowerBound(q);
+        int high = lowerBound(q + Character.MAX_VALUE);
+        int rangeSize = high - low;
+        if (rangeSize == 0) {
+            return;
+        }
+
+        if (rangeSize <= DIRECT_RANK_LIMIT || rangeSize <= limit) {
+            int[] docs = Arrays.copyOfRange(sortedDocs, low, high);
+            Arrays.sort(docs); // document order is rank order
+            for (int i = firstAtOrAfter(docs, fromDoc); i < docs.length && results.size() < limit; i++) {
+                results.add(movies[docs[i]]);
+            }
+            return;
+        }
+
+        int count = candidates != null ? candidates.length : keys.length;
+        for (int i = candidates != null ? firstAtOrAfter(candidates, fromDoc) : fromDoc;
+                i < count && results.size() < limit; i++) {
+            int doc = candidates != null ? candidates[i] : i;
+            if (keys[doc].startsWith(q)) {
+                results.add(movies[doc]);
+            }
+        }
+    }
+
+    /** Finds the first document ranked after the cursor's movie. */
+    private int rankAfter(PageCursor cursor) {
+        String key = MovieCatalog.titleKey(cursor.getTitle());
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int order = Integer.compare(keys[mid].length(), key.length());
+            if (order == 0) {
+                order = keys[mid].compareTo(key);
+            }
+            if (order == 0) {
+                order = Integer.compare(movies[mid].getId(), cursor.getId());
+            }
+            if (order <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int firstAtOrAfter(int[] docs, int fromDoc) {
+        if (fromDoc == 0) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(docs, fromDoc);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = sortedKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedKeys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Open-addressing map from a packed trigram to its sorted posting list.
+     */
+    private static final class TrigramTable {
+        private long[] grams;
+        private int[] ids;
+        private int mask;
+        private int size;
+        private int[][] postings;
+
+        private TrigramTable() {
+            this.grams = new long[1024];
+            this.ids = new int[1024];
+            this.mask = grams.length - 1;
+        }
+
+        static TrigramTable build(String[] keys) {
+            TrigramTable table = new TrigramTable();
+
+            // First pass: assign trigram ids and count documents per trigram
+            int[] counts = new int[256];
+            int[] lastDoc = new int[256];
+            for (int doc = 0; doc < keys.length; doc++) {
+                String key = keys[doc];
+                for (int i = 0; i + 3 <= key.length(); i++) {
+                    int id = table.addIfAbsent(pack(key, i));
+                    if (id == counts.length) {
+                        counts = Arrays.copyOf(counts, id * 2);
+                        lastDoc = Arrays.copyOf(lastDoc, id * 2);
+                    }
+                    if (counts[id] == 0 || lastDoc[id] != doc) {
+                        lastDoc[id] = doc;
+                        counts[id]++;
+                    }
+                }
+            }
+
+            // Second pass: fill exact-size posting lists in document order
+            table.postings = new int[table.size][];
+            for (int id = 0; id < table.size; id++) {
+                table.postings[id] = new int[counts[id]];
+                counts[id] = 0;
+            }
+            for (int doc = 0; doc < keys.length; doc++) {
+                String key = keys[doc];
+                for (int i = 0; i + 3 <= key.length(); i++) {
+                    int id = table.idOf(pack(key, i));
+                    int[] list = table.postings[id];
+                    if (counts[id] == 0 || list[counts[id] - 1] != doc) {
+                        list[counts[id]++] = doc;
+                    }
+                }
+            }
+            return table;
+        }
+
+        /**
+         * Intersects the posting lists of every trigram in the query.
+         *
+         * @param q the query key, at least three characters
+         * @return candidate documents in rank order
+         */
+        int[] intersect(String q) {
+            int gramCount = q.length() - 2;
+            int[][] lists = new int[gramCount][];
+            for (int i = 0; i < gramCount; i++) {
+                int id = idOf(pack(q, i));
+                if (id < 0) {
+                    return NO_DOCS;
+                }
+                lists[i] = postings[id];
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+
+            int[] result = lists[0].clone();
+            int size = result.length;
+            for (int l = 1; l < lists.length && size > 0; l++) {
+                int[] list = lists[l];
+                if (list == lists[l - 1]) {
+                    continue; // repeated trigram
+                }
+                int kept = 0;
+                int position = 0;
+                for (int i = 0; i < size; i++) {
+                    int doc = result[i];
+                    position = gallop(list, position, doc);
+                    if (position < list.length && list[position] == doc) {
+                        result[kept++] = doc;
+                    }
+                }
+                size = kept;
+            }
+            return size == result.length ? result : Arrays.copyOf(result, size);
+        }
+
+        private int idOf(long gram) {
+            int slot = slot(gram, grams, mask);
+            return grams[slot] == gram ? ids[slot] : -1;
+        }
+
+        private int addIfAbsent(long gram) {
+            int slot = slot(gram, grams, mask);
+            if (grams[slot] == gram) {
+                return ids[slot];
+            }
+            grams[slot] = gram;
+            ids[slot] = size;
+            if (++size > grams.length / 2) {
+                resize();
+            }
+            return size - 1;
+        }
+
+        private void resize() {
+            long[] oldGrams = grams;
+            int[] oldIds = ids;
+            grams = new long[oldGrams.length * 2];
+            ids = new int[oldGrams.length * 2];
+            mask = grams.length - 1;
+            for (int i = 0; i < oldGrams.length; i++) {
+                if (oldGrams[i] != 0) {
+                    int slot = slot(oldGrams[i], grams, mask);
+                    grams[slot] = oldGrams[i];
+                    ids[slot] = oldIds[i];
+                }
+            }
+        }
+
+        private static int slot(long gram, long[] grams, int mask) {
+            int slot = (int) (gram * 0x9E3779B97F4A7C15L >>> 40) & mask;
+            while (grams[slot] != 0 && grams[slot] != gram) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /** Packs three characters into a non-zero key. */
+        private static long pack(String key, int i) {
+            return 1L << 48 | (long) key.charAt(i) << 32 | (long) key.charAt(i + 1) << 16 | key.charAt(i + 2);
+        }
+
+        /** Finds the first position at or after {@code from} whose value is not below {@code target}. */
+        private static int gallop(int[] list, int from, int target) {
+            int step = 1;
+            int high = from;
+            while (high < list.length && list[high] < target) {
+                from = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, list.length);
+            int index = Arrays.binarySearch(list, from, high, target);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
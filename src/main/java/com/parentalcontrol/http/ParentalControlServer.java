@@ -0,0 +1,361 @@
+package com.parentalcontrol.http;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.User;
+import com.parentalcontrol.service.AccessDecision;
+import com.parentalcontrol.service.BrowseQuery;
+import com.parentalcontrol.service.MovieService;
+import com.parentalcontrol.service.ParentalControlService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded HTTP front end for {@link ParentalControlService}, built on the JDK's
+ * {@code com.sun.net.httpserver}.
+ * <p>
+ * Endpoints (all {@code GET}, all answering JSON):
+ * <ul>
+ *   <li>{@code /access?user=&age=&maxRating=&title=} - access check; {@code maxRating}
+ *       defaults to the age-appropriate rating, and a user registered in the
+ *       service's {@code UserService} needs neither {@code age} nor {@code maxRating}</li>
+ *   <li>{@code /search?q=&limit=} - title search</li>
+ *   <li>{@code /movies/accessible?maxRating=&genre=&fromYear=&toYear=} - browse list</li>
+ *   <li>{@code /stats/ratings} - movie count per rating</li>
+ *   <li>{@code /health} - liveness</li>
+ * </ul>
+ * Bodies are streamed with chunked transfer encoding straight from a Jackson
+ * {@link JsonGenerator}, so large listings are never buffered whole, and
+ * connections are kept alive between requests.
+ * <p>
+ * Requests run on virtual threads when the JDK provides them (21+). On older
+ * JDKs they run on a bounded pool; when its queue is full the accepting thread
+ * runs the request itself, which pushes back on new connections instead of
+ * queueing without limit.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class ParentalControlServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ParentalControlServer.class);
+
+    /** Default listening port. */
+    public static final int DEFAULT_PORT = 8080;
+
+    /** Queue length of the fallback pool used when virtual threads are unavailable. */
+    static final int FALLBACK_QUEUE_SIZE = 1024;
+
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final ParentalControlService service;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    private ParentalControlServer(ParentalControlService service, HttpServer server, ExecutorService executor,
+                                  boolean virtualThreads) {
+        this.service = service;
+        this.server = server;
+        this.executor = executor;
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Binds a server to an address and starts it.
+     *
+     * @param address the address to listen on; port 0 picks a free port
+     * @param service the service to expose
+     * @return the running server
+     */
+    public static ParentalControlServer start(InetSocketAddress address, ParentalControlService service) {
+        if (address == null) {
+            throw new IllegalArgumentException("Address cannot be null");
+        }
+        if (service == null) {
+            throw new IllegalArgumentException("Service cannot be null");
+        }
+        // Responses are written in several small chunks; without TCP_NODELAY the
+        // last one waits on the client's delayed ACK and each request costs ~40 ms.
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        HttpServer server;
+        try {
+            server = HttpServer.create(address, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not bind HTTP server to " + address, e);
+        }
+        ExecutorService virtual = newVirtualThreadExecutor();
+        ExecutorService executor = virtual != null ? virtual : newBoundedExecutor();
+        ParentalControlServer frontEnd = new ParentalControlServer(service, server, executor, virtual != null);
+
+        server.createContext("/access", exchange -> frontEnd.handle(exchange, frontEnd::access));
+        server.createContext("/search", exchange -> frontEnd.handle(exchange, frontEnd::search));
+        server.createContext("/movies/accessible", exchange -> frontEnd.handle(exchange, frontEnd::accessible));
+        server.createContext("/stats/ratings", exchange -> frontEnd.handle(exchange, frontEnd::ratingStats));
+        server.createContext("/health", exchange -> frontEnd.handle(exchange, params -> json -> {
+            json.writeStartObject();
+            json.writeStringField("status", "UP");
+            json.writeNumberField("catalogVersion", service.getMovieService().getCatalogVersion());
+            json.writeEndObject();
+        }));
+        // Unmatched paths would otherwise be rejected by the JDK server, which closes
+        // the connection under a keep-alive client; answer them here instead.
+        server.createContext("/", exchange -> {
+            try (exchange) {
+                sendError(exchange, 404, "Not found");
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+        logger.info("HTTP server listening on {} ({})", server.getAddress(),
+                   frontEnd.virtualThreads ? "virtual threads" : "bounded pool");
+        return frontEnd;
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor through reflection, so the code
+     * still compiles and runs on JDK 17.
+     *
+     * @return the executor, or null if this JDK has no virtual threads
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    static ExecutorService newBoundedExecutor() {
+        int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(FALLBACK_QUEUE_SIZE),
+                task -> {
+                    Thread thread = new Thread(task, "http-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Checks whether requests run on virtual threads.
+     *
+     * @return true on JDK 21+, false when the bounded pool is used
+     */
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stops accepting connections, waits up to a second for requests in flight
+     * and releases the worker threads.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        logger.info("HTTP server on {} stopped", server.getAddress());
+    }
+
+    private Body access(Map<String, String> params) {
+        String title = required(params, "title");
+        int userId = params.containsKey("age") ? -1 : service.getUserService().getUserId(params.get("user"));
+        User user = userId < 0 ? userFrom(params) : null;
+        String username = userId < 0 ? user.getUsername() : service.getUserService().getUsername(userId);
+        return json -> {
+            ParentalControlService.AccessResult result = userId < 0 ? service.checkAccess(user, title)
+                                                                    : service.checkAccess(userId, title);
+            AccessDecision decision = result.getDecision();
+            json.writeStartObject();
+            json.writeStringField("user", username);
+            json.writeStringField("title", title);
+            json.writeStringField("verdict", decision.getVerdict().name());
+            json.writeBooleanField("allowed", result.isAllowed());
+            json.writeStringField("reason", result.getReason());
+            json.writeEndObject();
+        };
+    }
+
+    private Body search(Map<String, String> params) {
+        String query = required(params, "q");
+        int limit = intParam(params, "limit", DEFAULT_SEARCH_LIMIT);
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit cannot be negative");
+        }
+        return json -> writeMovies(json, service.getMovieService().searchMoviesByTitle(query, limit));
+    }
+
+    private Body accessible(Map<String, String> params) {
+        BrowseQuery query = BrowseQuery.accessibleWith(Rating.fromString(required(params, "maxRating")));
+        if (params.containsKey("genre")) {
+            query = query.withGenres(params.get("genre").split(","));
+        }
+        if (params.containsKey("fromYear") || params.containsKey("toYear")) {
+            query = query.withYears(intParam(params, "fromYear", Integer.MIN_VALUE),
+                                    intParam(params, "toYear", Integer.MAX_VALUE));
+        }
+        BrowseQuery browse = query;
+        return json -> writeMovies(json, service.getMovieService().browse(browse));
+    }
+
+    private Body ratingStats(Map<String, String> params) {
+        MovieService movieService = service.getMovieService();
+        return json -> {
+            Map<Rating, Long> counts = movieService.getMovieCountByRating();
+            json.writeStartObject();
+            for (Rating rating : Rating.values()) {
+                json.writeNumberField(rating.name(), counts.getOrDefault(rating, 0L));
+            }
+            json.writeEndObject();
+        };
+    }
+
+    private static void writeMovies(JsonGenerator json, List<Movie> movies) throws IOException {
+        json.writeStartArray();
+        for (Movie movie : movies) {
+            json.writeStartObject();
+            json.writeNumberField("id", movie.getId());
+            json.writeStringField("title", movie.getTitle());
+            json.writeStringField("rating", movie.getRating().name());
+            json.writeStringField("genre", movie.getGenre());
+            json.writeNumberField("releaseYear", movie.getReleaseYear());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+    }
+
+    private static User userFrom(Map<String, String> params) {
+        String username = params.getOrDefault("user", "anonymous");
+        int age = intParam(params, "age", -1);
+        if (age < 0) {
+            throw new IllegalArgumentException("age is required");
+        }
+        String maxRating = params.get("maxRating");
+        return maxRating == null ? User.createWithDefaultRating(username, age)
+                                 : new User(username, age, Rating.fromString(maxRating));
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return value;
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue) {
+        String value = params.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be an integer: " + value);
+        }
+    }
+
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.putIfAbsent(name, value);
+        }
+        return params;
+    }
+
+    /**
+     * Validates the request, then streams the response. Parameter errors are
+     * raised before the status line is sent, so they still become a 400.
+     */
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                sendError(exchange, 405, "Method not allowed");
+                return;
+            }
+            if (!exchange.getRequestURI().getPath().equals(exchange.getHttpContext().getPath())) {
+                sendError(exchange, 404, "Not found");
+                return;
+            }
+            Body body;
+            try {
+                body = endpoint.prepare(parseQuery(exchange.getRequestURI().getRawQuery()));
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody();
+                 JsonGenerator json = JSON.createGenerator(out)) {
+                body.write(json);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Request {} failed: {}", exchange.getRequestURI(), e.getMessage(), e);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, 0);
+        try (OutputStream out = exchange.getResponseBody();
+             JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("error", message);
+            json.writeEndObject();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+        Body prepare(Map<String, String> params);
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void write(JsonGenerator json) throws IOException;
+    }
+}
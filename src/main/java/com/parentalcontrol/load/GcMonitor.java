@@ -0,0 +1,149 @@
+package com.parentalcontrol.load;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Listens to the platform's garbage collection notifications while a load run is
+ * measured: the number and length of collector pauses, and the heap in use after
+ * each collection.
+ * <p>
+ * Concurrent cycles ("ZGC Cycles", "Shenandoah Cycles", "G1 Concurrent GC") are
+ * not pauses, but their heap-after-collection readings are kept. The lowest of
+ * those readings per interval is the live-set floor whose rise over a soak run
+ * reveals slow memory growth.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+final class GcMonitor implements NotificationListener, AutoCloseable {
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final Set<String> heapPools = new HashSet<>();
+    private volatile boolean active;
+    private long pauses;
+    private long pauseMillis;
+    private long maxPauseMillis;
+    private long firstHeapAfterGc = -1;
+    private long lastHeapAfterGc = -1;
+    private long intervalFloor = -1;
+
+    private GcMonitor() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPools.add(pool.getName());
+            }
+        }
+    }
+
+    /**
+     * Subscribes to every collector that emits notifications. Nothing is counted
+     * until {@link #activate()}.
+     *
+     * @return the monitor
+     */
+    static GcMonitor start() {
+        GcMonitor monitor = new GcMonitor();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(monitor, null, null);
+                monitor.emitters.add(emitter);
+            }
+        }
+        return monitor;
+    }
+
+    void activate() {
+        active = true;
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        String type = notification.getType();
+        if (!active || !GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(type)) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from(
+                (CompositeData) notification.getUserData());
+        long heap = 0;
+        for (Map.Entry<String, MemoryUsage> pool : info.getGcInfo().getMemoryUsageAfterGc().entrySet()) {
+            if (heapPools.contains(pool.getKey())) {
+                heap += pool.getValue().getUsed();
+            }
+        }
+        String name = info.getGcName();
+        boolean pause = !name.contains("Cycles") && !name.contains("Concurrent");
+        long millis = info.getGcInfo().getDuration();
+        synchronized (this) {
+            if (firstHeapAfterGc < 0) {
+                firstHeapAfterGc = heap;
+            }
+            lastHeapAfterGc = heap;
+            intervalFloor = intervalFloor < 0 ? heap : Math.min(intervalFloor, heap);
+            if (pause) {
+                pauses++;
+                pauseMillis += millis;
+                maxPauseMillis = Math.max(maxPauseMillis, millis);
+            }
+        }
+    }
+
+    /**
+     * Gets the lowest heap in use after a collection since the last call, and
+     * starts a new interval.
+     *
+     * @return the bytes in use, or -1 if nothing was collected in the interval
+     */
+    synchronized long takeIntervalFloor() {
+        long floor = intervalFloor;
+        intervalFloor = -1;
+        return floor;
+    }
+
+    synchronized long getPauses() {
+        return pauses;
+    }
+
+    synchronized long getPauseMillis() {
+        return pauseMillis;
+    }
+
+    synchronized long getMaxPauseMillis() {
+        return maxPauseMillis;
+    }
+
+    synchronized long getFirstHeapAfterGc() {
+        return firstHeapAfterGc;
+    }
+
+    synchronized long getLastHeapAfterGc() {
+        return lastHeapAfterGc;
+    }
+
+    @Override
+    public void close() {
+        active = false;
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(this);
+            } catch (ListenerNotFoundException e) {
+                // Already gone
+            }
+        }
+        emitters.clear();
+    }
+}
@@ -0,0 +1,252 @@
+package com.parentalcontrol.load;
+
+import com.parentalcontrol.metrics.LatencyHistogram;
+import com.parentalcontrol.model.ProfilePolicy;
+import com.parentalcontrol.model.User;
+import com.parentalcontrol.service.AccessDecision;
+import com.parentalcontrol.service.MovieService;
+import com.parentalcontrol.service.ParentalControlService;
+import com.sun.management.ThreadMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Closed-loop load generator for capacity planning and soak tests.
+ * <p>
+ * The generator builds a {@link SyntheticCatalog} and registers a population of
+ * users as its {@link LoadProfile} describes, then drives
+ * {@link ParentalControlService#checkAccess(int, String)} and title searches
+ * from a fixed number of threads, each issuing its next operation as soon as the
+ * last returns. After an unmeasured warmup every operation is timed into a
+ * per-thread {@link LatencyHistogram}, and the allocations of the load threads
+ * and the collector's pauses are recorded, for a fixed duration.
+ * <p>
+ * Latencies are those of a closed loop: a stall delays the operations queued
+ * behind it rather than showing up in their latencies, so the high percentiles
+ * understate what an open-loop client would see during a pause. Progress lines
+ * during long runs carry the interval throughput and the lowest heap in use
+ * after a collection, whose rise over hours is the sign of a leak.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final int POOL_SIZE = 4096;
+    private static final int SEARCH_LIMIT = 20;
+    private static final String[] SEARCH_TERMS = {"the", "dark", "ret", "star 1", "king", "garden", "iron f", "xyz"};
+
+    private final LoadProfile profile;
+    private final ParentalControlService service;
+    private final int[] userIds;
+    private final String[] hitTitles = new String[POOL_SIZE];
+    private final String[] missTitles = new String[POOL_SIZE];
+
+    /**
+     * Builds the catalog and registers the users of a profile.
+     *
+     * @param profile the load profile
+     */
+    public LoadGenerator(LoadProfile profile) {
+        if (profile == null) {
+            throw new IllegalArgumentException("Load profile cannot be null");
+        }
+        this.profile = profile;
+        SplittableRandom random = new SplittableRandom(profile.getSeed());
+        MovieService movieService = new MovieService(SyntheticCatalog.generate(profile.getCatalogSize(),
+                                                                               profile.getSeed()));
+        movieService.getSnapshot().warm();
+        this.service = new ParentalControlService(movieService);
+
+        this.userIds = new int[profile.getUsers()];
+        for (int i = 0; i < userIds.length; i++) {
+            User user = User.createWithDefaultRating("load" + i, 5 + random.nextInt(56));
+            userIds[i] = service.getUserService().register(user);
+            if (random.nextDouble() < profile.getPolicyShare()) {
+                service.setProfilePolicy(user, ProfilePolicy.of(user).blockGenre("Horror"));
+            }
+        }
+        for (int i = 0; i < POOL_SIZE; i++) {
+            hitTitles[i] = movieService.findMovieById(1 + random.nextInt(profile.getCatalogSize())).getTitle();
+            missTitles[i] = SyntheticCatalog.missingTitle(i);
+        }
+        logger.info("Load generator ready: {} movies, {} users", profile.getCatalogSize(), userIds.length);
+    }
+
+    /**
+     * Gets the service under load, for example to register its MBeans.
+     *
+     * @return the service
+     */
+    public ParentalControlService getService() {
+        return service;
+    }
+
+    /**
+     * Runs the profile: warmup, then the measured duration.
+     *
+     * @param progress receives a line per report interval while measured
+     * @return the report of the measured part
+     * @throws IllegalStateException if interrupted
+     */
+    public LoadReport run(Consumer<String> progress) {
+        long start = System.nanoTime();
+        long measureStart = start + profile.getWarmup().toNanos();
+        long end = measureStart + profile.getDuration().toNanos();
+        LongAdder completed = new LongAdder();
+        SplittableRandom seeds = new SplittableRandom(profile.getSeed());
+        Worker[] workers = new Worker[profile.getThreads()];
+        Thread[] threads = new Thread[workers.length];
+        GcMonitor gc = GcMonitor.start();
+        try {
+            for (int i = 0; i < workers.length; i++) {
+                workers[i] = new Worker(seeds.split(), measureStart, end, completed);
+                threads[i] = new Thread(workers[i], "load-" + i);
+                threads[i].start();
+            }
+            sleepUntil(measureStart);
+            gc.activate();
+            gc.takeIntervalFloor();
+            reportProgress(progress, measureStart, end, completed, gc);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Worker worker : workers) {
+                if (worker != null) {
+                    worker.stopped = true;
+                }
+            }
+            throw new IllegalStateException("Load run interrupted", e);
+        } finally {
+            gc.close();
+        }
+
+        LatencyHistogram accessLatency = new LatencyHistogram();
+        LatencyHistogram searchLatency = new LatencyHistogram();
+        long allowed = 0;
+        long denied = 0;
+        long notFound = 0;
+        long allocated = 0;
+        for (Worker worker : workers) {
+            accessLatency.add(worker.accessLatency);
+            searchLatency.add(worker.searchLatency);
+            allowed += worker.allowed;
+            denied += worker.denied;
+            notFound += worker.notFound;
+            allocated = allocated < 0 || worker.allocatedBytes < 0 ? -1 : allocated + worker.allocatedBytes;
+        }
+        return new LoadReport(profile, end - measureStart, allowed, denied, notFound, searchLatency.getSampleCount(),
+                              accessLatency, searchLatency, allocated, gc);
+    }
+
+    private void reportProgress(Consumer<String> progress, long measureStart, long end, LongAdder completed,
+                                GcMonitor gc) throws InterruptedException {
+        long interval = profile.getReportInterval().toNanos();
+        if (interval == 0) {
+            return;
+        }
+        long last = measureStart;
+        long lastCount = 0;
+        for (long next = measureStart + interval; next <= end; next += interval) {
+            sleepUntil(next);
+            long count = completed.sum();
+            long floor = gc.takeIntervalFloor();
+            progress.accept(String.format(Locale.ROOT, "%8.0fs %,14.0f ops/s   heap after GC %s",
+                    (next - measureStart) / 1e9, (count - lastCount) * 1e9 / (next - last),
+                    floor < 0 ? "-" : String.format(Locale.ROOT, "%,d MB", floor >> 20)));
+            last = next;
+            lastCount = count;
+        }
+    }
+
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    /**
+     * One load thread. Its counters and histograms are read only after it has
+     * been joined.
+     */
+    private final class Worker implements Runnable {
+        private final SplittableRandom random;
+        private final long measureStart;
+        private final long end;
+        private final LongAdder completed;
+        private final LatencyHistogram accessLatency = new LatencyHistogram();
+        private final LatencyHistogram searchLatency = new LatencyHistogram();
+        private volatile boolean stopped;
+        private long allowed;
+        private long denied;
+        private long notFound;
+        private long allocatedBytes = -1;
+        private long resultSize;
+
+        Worker(SplittableRandom random, long measureStart, long end, LongAdder completed) {
+            this.random = random;
+            this.measureStart = measureStart;
+            this.end = end;
+            this.completed = completed;
+        }
+
+        @Override
+        public void run() {
+            ThreadMXBean allocations = ManagementFactory.getThreadMXBean() instanceof ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled() ? bean : null;
+            boolean measuring = false;
+            long allocatedAtStart = 0;
+            double searchShare = profile.getSearchShare();
+            double hitRatio = profile.getHitRatio();
+            while (!stopped) {
+                long started = System.nanoTime();
+                if (started - end >= 0) {
+                    break;
+                }
+                if (!measuring && started - measureStart >= 0) {
+                    measuring = true;
+                    allocatedAtStart = allocations == null ? 0 : allocations.getCurrentThreadAllocatedBytes();
+                }
+                if (random.nextDouble() < searchShare) {
+                    String term = SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)];
+                    resultSize += service.getMovieService().searchMoviesByTitle(term, SEARCH_LIMIT).size();
+                    if (measuring) {
+                        searchLatency.recordSince(started);
+                        completed.increment();
+                    }
+                } else {
+                    int userId = userIds[random.nextInt(userIds.length)];
+                    String title = random.nextDouble() < hitRatio ? hitTitles[random.nextInt(POOL_SIZE)]
+                                                                  : missTitles[random.nextInt(POOL_SIZE)];
+                    AccessDecision.Verdict verdict = service.checkAccess(userId, title).getDecision().getVerdict();
+                    if (measuring) {
+                        accessLatency.recordSince(started);
+                        completed.increment();
+                        switch (verdict) {
+                            case ALLOWED -> allowed++;
+                            case DENIED -> denied++;
+                            default -> notFound++;
+                        }
+                    }
+                }
+            }
+            if (measuring && allocations != null) {
+                allocatedBytes = allocations.getCurrentThreadAllocatedBytes() - allocatedAtStart;
+            } else if (!measuring) {
+                allocatedBytes = 0;
+            }
+            logger.debug("Load thread finished, {} search results seen", resultSize);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.parentalcontrol.load;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Immutable description of a load run: the synthetic catalog and users to set
+ * up, the mix of operations to drive, and how long and on how many threads to
+ * drive it.
+ * <p>
+ * Profiles start from {@link #defaults()} and are narrowed with the
+ * {@code with} methods, or parsed from {@code key=value} arguments with
+ * {@link #parse(String...)}.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class LoadProfile {
+    private final int catalogSize;
+    private final int users;
+    private final double policyShare;
+    private final double hitRatio;
+    private final double searchShare;
+    private final int threads;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Duration reportInterval;
+    private final long seed;
+
+    private LoadProfile(int catalogSize, int users, double policyShare, double hitRatio, double searchShare,
+                        int threads, Duration duration, Duration warmup, Duration reportInterval, long seed) {
+        this.catalogSize = catalogSize;
+        this.users = users;
+        this.policyShare = policyShare;
+        this.hitRatio = hitRatio;
+        this.searchShare = searchShare;
+        this.threads = threads;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.reportInterval = reportInterval;
+        this.seed = seed;
+    }
+
+    /**
+     * Creates the default profile: 100K movies, 10K users of whom a tenth have a
+     * profile policy, 90% of checks for existing titles, 5% of operations
+     * searches, one thread per processor, 10 seconds of warmup, then 60 seconds
+     * measured and reported every 10 seconds.
+     *
+     * @return the default profile
+     */
+    public static LoadProfile defaults() {
+        return new LoadProfile(100_000, 10_000, 0.1, 0.9, 0.05, Runtime.getRuntime().availableProcessors(),
+                               Duration.ofSeconds(60), Duration.ofSeconds(10), Duration.ofSeconds(10), 42);
+    }
+
+    /**
+     * Parses {@code key=value} arguments over the defaults. Keys are
+     * {@code catalog}, {@code users}, {@code policies}, {@code hits},
+     * {@code search}, {@code threads}, {@code duration}, {@code warmup},
+     * {@code report} and {@code seed}; durations take a unit, as in
+     * {@code 500ms}, {@code 90s}, {@code 30m} or {@code 12h}.
+     *
+     * @param args the arguments
+     * @return the profile
+     * @throws IllegalArgumentException if an argument is malformed or out of range
+     */
+    public static LoadProfile parse(String... args) {
+        LoadProfile profile = defaults();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            String key = arg.substring(0, separator).trim().toLowerCase(Locale.ROOT);
+            String value = arg.substring(separator + 1).trim();
+            try {
+                profile = switch (key) {
+                    case "catalog" -> profile.withCatalogSize(Integer.parseInt(value));
+                    case "users" -> profile.withUsers(Integer.parseInt(value));
+                    case "policies" -> profile.withPolicyShare(Double.parseDouble(value));
+                    case "hits" -> profile.withHitRatio(Double.parseDouble(value));
+                    case "search" -> profile.withSearchShare(Double.parseDouble(value));
+                    case "threads" -> profile.withThreads(Integer.parseInt(value));
+                    case "duration" -> profile.withDuration(parseDuration(value));
+                    case "warmup" -> profile.withWarmup(parseDuration(value));
+                    case "report" -> profile.withReportInterval(parseDuration(value));
+                    case "seed" -> profile.withSeed(Long.parseLong(value));
+                    default -> throw new IllegalArgumentException("Unknown load option: " + key);
+                };
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for " + key + ": " + value, e);
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Derives a profile with a catalog of the given size.
+     *
+     * @param size the number of movies
+     * @return the derived profile
+     */
+    public LoadProfile withCatalogSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Catalog size must be positive");
+        }
+        return new LoadProfile(size, users, policyShare, hitRatio, searchShare, threads, duration, warmup,
+                               reportInterval, seed);
+    }
+
+    /**
+     * Derives a profile with the given number of registered users.
+     *
+     * @param count the number of users
+     * @return the derived profile
+     */
+    public LoadProfile withUsers(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("User count must be positive");
+        }
+        return new LoadProfile(catalogSize, count, policyShare, hitRatio, searchShare, threads, duration, warmup,
+                               reportInterval, seed);
+    }
+
+    /**
+     * Derives a profile in which a share of the users have a profile policy that
+     * blocks a genre, so that their checks go through compiled entitlements.
+     *
+     * @param share the share of users, between 0 and 1
+     * @return the derived profile
+     */
+    public LoadProfile withPolicyShare(double share) {
+        return new LoadProfile(catalogSize, users, share("Policy share", share), hitRatio, searchShare, threads,
+                               duration, warmup, reportInterval, seed);
+    }
+
+    /**
+     * Derives a profile in which a share of the access checks name an existing
+     * title; the others name a title missing from the catalog.
+     *
+     * @param ratio the share of checks, between 0 and 1
+     * @return the derived profile
+     */
+    public LoadProfile withHitRatio(double ratio) {
+        return new LoadProfile(catalogSize, users, policyShare, share("Hit ratio", ratio), searchShare, threads,
+                               duration, warmup, reportInterval, seed);
+    }
+
+    /**
+     * Derives a profile in which a share of the operations are title searches
+     * rather than access checks.
+     *
+     * @param share the share of operations, between 0 and 1
+     * @return the derived profile
+     */
+    public LoadProfile withSearchShare(double share) {
+        return new LoadProfile(catalogSize, users, policyShare, hitRatio, share("Search share", share), threads,
+                               duration, warmup, reportInterval, seed);
+    }
+
+    /**
+     * Derives a profile driven by the given number of threads.
+     *
+     * @param count the number of threads
+     * @return the derived profile
+     */
+    public LoadProfile withThreads(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        return new LoadProfile(catalogSize, users, policyShare, hitRatio, searchShare, count, duration, warmup,
+                               reportInterval, seed);
+    }
+
+    /**
+     * Derives a profile measured for the given time after warmup.
+     *
+     * @param time the measured time
+     * @return the derived profile
+     */
+    public LoadProfile withDuration(Duration time) {
+        if (time == null || time.isNegative() || time.isZero()) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        return new LoadProfile(catalogSize, users, policyShare, hitRatio, searchShare, threads, time, warmup,
+                               reportInterval, seed);
+    }
+
+    /**
+     * Derives a profile that runs unmeasured for the given time first.
+     *
+     * @param time the warmup time, possibly zero
+     * @return the derived profile
+     */
+    public LoadProfile withWarmup(Duration time) {
+        if (time == null || time.isNegative()) {
+            throw new IllegalArgumentException("Warmup cannot be negative");
+        }
+        return new LoadProfile(catalogSize, users, policyShare, hitRatio, searchShare, threads, duration, time,
+                               reportInterval, seed);
+    }
+
+    /**
+     * Derives a profile that reports progress at the given interval while it is
+     * measured.
+     *
+     * @param interval the interval, or zero for no progress reports
+     * @return the derived profile
+     */
+    public LoadProfile withReportInterval(Duration interval) {
+        if (interval == null || interval.isNegative()) {
+            throw new IllegalArgumentException("Report interval cannot be negative");
+        }
+        return new LoadProfile(catalogSize, users, policyShare, hitRatio, searchShare, threads, duration, warmup,
+                               interval, seed);
+    }
+
+    /**
+     * Derives a profile with a different random seed for the catalog, the users
+     * and the operations.
+     *
+     * @param value the seed
+     * @return the derived profile
+     */
+    public LoadProfile withSeed(long value) {
+        return new LoadProfile(catalogSize, users, policyShare, hitRatio, searchShare, threads, duration, warmup,
+                               reportInterval, value);
+    }
+
+    private static double share(String name, double value) {
+        if (!(value >= 0 && value <= 1)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1");
+        }
+        return value;
+    }
+
+    static Duration parseDuration(String text) {
+        String value = text.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (value.startsWith("p")) {
+                return Duration.parse(value);
+            }
+            if (value.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+            }
+            long amount = Long.parseLong(value.substring(0, value.length() - 1));
+            return switch (value.charAt(value.length() - 1)) {
+                case 's' -> Duration.ofSeconds(amount);
+                case 'm' -> Duration.ofMinutes(amount);
+                case 'h' -> Duration.ofHours(amount);
+                default -> throw new IllegalArgumentException("Duration needs a unit of ms, s, m or h: " + text);
+            };
+        } catch (NumberFormatException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid duration: " + text, e);
+        }
+    }
+
+    public int getCatalogSize() {
+        return catalogSize;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public double getPolicyShare() {
+        return policyShare;
+    }
+
+    public double getHitRatio() {
+        return hitRatio;
+    }
+
+    public double getSearchShare() {
+        return searchShare;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getReportInterval() {
+        return reportInterval;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "LoadProfile{catalog=%d, users=%d, policies=%.2f, hits=%.2f, search=%.2f, threads=%d, "
+                        + "warmup=%ds, duration=%ds, seed=%d}",
+                catalogSize, users, policyShare, hitRatio, searchShare, threads, warmup.toSeconds(),
+                duration.toSeconds(), seed);
+    }
+}
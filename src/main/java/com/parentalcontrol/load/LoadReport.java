@@ -0,0 +1,202 @@
+package com.parentalcontrol.load;
+
+import com.parentalcontrol.metrics.LatencyHistogram;
+
+import java.util.Locale;
+
+/**
+ * Results of the measured part of a load run: operation counts, throughput,
+ * latency percentiles per operation type, allocation and garbage collection.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class LoadReport {
+    private final LoadProfile profile;
+    private final long elapsedNanos;
+    private final long allowed;
+    private final long denied;
+    private final long notFound;
+    private final long searches;
+    private final LatencyHistogram accessLatency;
+    private final LatencyHistogram searchLatency;
+    private final long allocatedBytes;
+    private final long gcPauses;
+    private final long gcPauseMillis;
+    private final long maxGcPauseMillis;
+    private final long firstHeapAfterGc;
+    private final long lastHeapAfterGc;
+
+    LoadReport(LoadProfile profile, long elapsedNanos, long allowed, long denied, long notFound, long searches,
+               LatencyHistogram accessLatency, LatencyHistogram searchLatency, long allocatedBytes, GcMonitor gc) {
+        this.profile = profile;
+        this.elapsedNanos = elapsedNanos;
+        this.allowed = allowed;
+        this.denied = denied;
+        this.notFound = notFound;
+        this.searches = searches;
+        this.accessLatency = accessLatency;
+        this.searchLatency = searchLatency;
+        this.allocatedBytes = allocatedBytes;
+        this.gcPauses = gc.getPauses();
+        this.gcPauseMillis = gc.getPauseMillis();
+        this.maxGcPauseMillis = gc.getMaxPauseMillis();
+        this.firstHeapAfterGc = gc.getFirstHeapAfterGc();
+        this.lastHeapAfterGc = gc.getLastHeapAfterGc();
+    }
+
+    public LoadProfile getProfile() {
+        return profile;
+    }
+
+    public double getElapsedSeconds() {
+        return elapsedNanos / 1e9;
+    }
+
+    /**
+     * Gets the number of operations completed while measured.
+     *
+     * @return access checks plus searches
+     */
+    public long getOperations() {
+        return getAccessChecks() + searches;
+    }
+
+    public long getAccessChecks() {
+        return allowed + denied + notFound;
+    }
+
+    public long getAllowed() {
+        return allowed;
+    }
+
+    public long getDenied() {
+        return denied;
+    }
+
+    public long getNotFound() {
+        return notFound;
+    }
+
+    public long getSearches() {
+        return searches;
+    }
+
+    /**
+     * Gets the throughput over all threads.
+     *
+     * @return operations per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getOperations() / getElapsedSeconds();
+    }
+
+    public LatencyHistogram getAccessLatency() {
+        return accessLatency;
+    }
+
+    public LatencyHistogram getSearchLatency() {
+        return searchLatency;
+    }
+
+    /**
+     * Gets the bytes the load threads allocated while measured.
+     *
+     * @return the bytes, or -1 if the JVM does not count allocations per thread
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Gets the allocation rate of the load threads.
+     *
+     * @return bytes per second, or -1 if unknown
+     */
+    public double getAllocationRate() {
+        return allocatedBytes < 0 || elapsedNanos == 0 ? -1 : allocatedBytes / getElapsedSeconds();
+    }
+
+    /**
+     * Gets the bytes allocated per operation, including the load loop's own.
+     *
+     * @return bytes per operation, or -1 if unknown
+     */
+    public double getAllocatedBytesPerOperation() {
+        return allocatedBytes < 0 || getOperations() == 0 ? -1 : (double) allocatedBytes / getOperations();
+    }
+
+    public long getGcPauses() {
+        return gcPauses;
+    }
+
+    public long getGcPauseMillis() {
+        return gcPauseMillis;
+    }
+
+    public long getMaxGcPauseMillis() {
+        return maxGcPauseMillis;
+    }
+
+    /**
+     * Gets the heap in use after the first collection that was measured.
+     *
+     * @return the bytes, or -1 if nothing was collected
+     */
+    public long getFirstHeapAfterGc() {
+        return firstHeapAfterGc;
+    }
+
+    /**
+     * Gets the heap in use after the last collection that was measured.
+     *
+     * @return the bytes, or -1 if nothing was collected
+     */
+    public long getLastHeapAfterGc() {
+        return lastHeapAfterGc;
+    }
+
+    /**
+     * Formats the report as a few lines of text for the console.
+     *
+     * @return the summary
+     */
+    public String summary() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "Operations: %,d in %.1fs, %,.0f ops/s on %d threads%n",
+                getOperations(), getElapsedSeconds(), getThroughput(), profile.getThreads()));
+        text.append(String.format(Locale.ROOT, "Access checks: %,d (allowed %,d, denied %,d, not found %,d)%n",
+                getAccessChecks(), allowed, denied, notFound));
+        text.append(latencyLine("Access latency", accessLatency));
+        text.append(String.format(Locale.ROOT, "Searches: %,d%n", searches));
+        text.append(latencyLine("Search latency", searchLatency));
+        if (allocatedBytes >= 0) {
+            text.append(String.format(Locale.ROOT, "Allocation: %,.1f MB/s, %,.0f bytes/op%n",
+                    getAllocationRate() / (1 << 20), getAllocatedBytesPerOperation()));
+        } else {
+            text.append("Allocation: not measured by this JVM").append(System.lineSeparator());
+        }
+        text.append(String.format(Locale.ROOT, "GC pauses: %,d, %,d ms total, %,d ms max%n",
+                gcPauses, gcPauseMillis, maxGcPauseMillis));
+        if (firstHeapAfterGc >= 0) {
+            text.append(String.format(Locale.ROOT, "Heap after GC: %,d MB first, %,d MB last%n",
+                    firstHeapAfterGc >> 20, lastHeapAfterGc >> 20));
+        }
+        return text.toString();
+    }
+
+    private static String latencyLine(String label, LatencyHistogram histogram) {
+        if (histogram.getSampleCount() == 0) {
+            return "";
+        }
+        return String.format(Locale.ROOT, "%s: p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n", label,
+                histogram.getP50Micros(), histogram.getP99Micros(), histogram.getP999Micros(),
+                histogram.getMaxMicros());
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "LoadReport{operations=%d, throughput=%.0f/s, accessP99=%.1fus}",
+                getOperations(), getThroughput(), accessLatency.getP99Micros());
+    }
+}
@@ -0,0 +1,65 @@
+package com.parentalcontrol.load;
+
+import com.parentalcontrol.catalog.HeapCatalog;
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of synthetic movie catalogs for benchmarks and load tests.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class SyntheticCatalog {
+    private static final String[] WORDS = {
+        "the", "dark", "night", "return", "of", "king", "star", "lost", "city", "river",
+        "last", "summer", "shadow", "secret", "garden", "iron", "fire", "ocean", "dream", "empire"
+    };
+    private static final String[] GENRES = {
+        "Action", "Animation", "Comedy", "Drama", "Family", "Horror", "Romance", "Sci-Fi", "Thriller"
+    };
+    private static final Rating[] RATINGS = Rating.values();
+
+    private SyntheticCatalog() {
+    }
+
+    /**
+     * Generates a catalog with unique titles.
+     *
+     * @param size the number of movies
+     * @param seed the random seed
+     * @return the catalog
+     */
+    public static HeapCatalog generate(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        HeapCatalog catalog = new HeapCatalog();
+        for (int id = 1; id <= size; id++) {
+            catalog.add(new Movie(id, title(id, random), RATINGS[random.nextInt(RATINGS.length)],
+                                  GENRES[random.nextInt(GENRES.length)], 1950 + random.nextInt(75)));
+        }
+        catalog.compact();
+        return catalog;
+    }
+
+    /**
+     * Builds a title that no generated movie uses.
+     *
+     * @param n a sequence number
+     * @return a missing title
+     */
+    public static String missingTitle(int n) {
+        return "Missing Feature " + n;
+    }
+
+    private static String title(int id, SplittableRandom random) {
+        StringBuilder title = new StringBuilder();
+        int words = 1 + random.nextInt(4);
+        for (int w = 0; w < words; w++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            title.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length()).append(' ');
+        }
+        return title.append(id).toString();
+    }
+}
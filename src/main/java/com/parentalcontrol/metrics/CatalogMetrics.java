@@ -0,0 +1,67 @@
+package com.parentalcontrol.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Catalog gauges: size and version read from the live catalog, plus reload
+ * durations recorded when a new version is published.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class CatalogMetrics implements CatalogMetricsMXBean {
+    private final LongSupplier movieCount;
+    private final LongSupplier catalogVersion;
+    private final LongAdder reloads = new LongAdder();
+    private final AtomicLong lastReloadNanos = new AtomicLong();
+    private final AtomicLong maxReloadNanos = new AtomicLong();
+
+    /**
+     * Creates catalog metrics over live gauges.
+     *
+     * @param movieCount reads the current number of movies
+     * @param catalogVersion reads the current catalog version
+     */
+    public CatalogMetrics(LongSupplier movieCount, LongSupplier catalogVersion) {
+        this.movieCount = movieCount;
+        this.catalogVersion = catalogVersion;
+    }
+
+    /**
+     * Records a completed reload.
+     *
+     * @param nanos how long the reload took
+     */
+    public void recordReload(long nanos) {
+        reloads.increment();
+        lastReloadNanos.set(nanos);
+        maxReloadNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    @Override
+    public long getMovieCount() {
+        return movieCount.getAsLong();
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return catalogVersion.getAsLong();
+    }
+
+    @Override
+    public long getReloadCount() {
+        return reloads.sum();
+    }
+
+    @Override
+    public double getLastReloadMillis() {
+        return lastReloadNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public double getMaxReloadMillis() {
+        return maxReloadNanos.get() / 1_000_000.0;
+    }
+}
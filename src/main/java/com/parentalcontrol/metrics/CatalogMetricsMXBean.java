@@ -0,0 +1,25 @@
+package com.parentalcontrol.metrics;
+
+/**
+ * JMX view of {@link CatalogMetrics}.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public interface CatalogMetricsMXBean {
+
+    long getMovieCount();
+
+    long getCatalogVersion();
+
+    long getReloadCount();
+
+    /**
+     * Gets how long the most recent reload took.
+     *
+     * @return the duration in milliseconds, or 0 if there was no reload
+     */
+    double getLastReloadMillis();
+
+    double getMaxReloadMillis();
+}
@@ -0,0 +1,120 @@
+package com.parentalcontrol.metrics;
+
+import com.parentalcontrol.model.Rating;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts access decisions by verdict and movie rating.
+ * <p>
+ * Each counter is a {@link LongAdder}, so threads recording decisions at the
+ * same time update separate cells instead of contending on one word.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class DecisionCounters implements DecisionCountersMXBean {
+    private static final Rating[] RATINGS = Rating.values();
+
+    private final LongAdder[] granted = adders();
+    private final LongAdder[] denied = adders();
+    private final LongAdder notFound = new LongAdder();
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[RATINGS.length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    public void recordGranted(Rating movieRating) {
+        granted[movieRating.ordinal()].increment();
+    }
+
+    public void recordDenied(Rating movieRating) {
+        denied[movieRating.ordinal()].increment();
+    }
+
+    public void recordNotFound() {
+        notFound.increment();
+    }
+
+    @Override
+    public long getGranted() {
+        return sum(granted);
+    }
+
+    @Override
+    public long getDenied() {
+        return sum(denied);
+    }
+
+    @Override
+    public long getNotFound() {
+        return notFound.sum();
+    }
+
+    @Override
+    public Map<String, Long> getGrantedByRating() {
+        return byRating(granted);
+    }
+
+    @Override
+    public Map<String, Long> getDeniedByRating() {
+        return byRating(denied);
+    }
+
+    /**
+     * Gets the granted count for one movie rating.
+     *
+     * @param movieRating the movie rating
+     * @return the count
+     */
+    public long getGranted(Rating movieRating) {
+        return granted[movieRating.ordinal()].sum();
+    }
+
+    /**
+     * Gets the denied count for one movie rating.
+     *
+     * @param movieRating the movie rating
+     * @return the count
+     */
+    public long getDenied(Rating movieRating) {
+        return denied[movieRating.ordinal()].sum();
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < RATINGS.length; i++) {
+            granted[i].reset();
+            denied[i].reset();
+        }
+        notFound.reset();
+    }
+
+    private static long sum(LongAdder[] adders) {
+        long total = 0;
+        for (LongAdder adder : adders) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    private static Map<String, Long> byRating(LongAdder[] adders) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Rating rating : RATINGS) {
+            counts.put(rating.name(), adders[rating.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DecisionCounters{granted=%d, denied=%d, notFound=%d}",
+                           getGranted(), getDenied(), getNotFound());
+    }
+}
@@ -0,0 +1,37 @@
+package com.parentalcontrol.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link DecisionCounters}.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public interface DecisionCountersMXBean {
+
+    long getGranted();
+
+    long getDenied();
+
+    long getNotFound();
+
+    /**
+     * Gets granted checks by movie rating.
+     *
+     * @return counts keyed by rating name
+     */
+    Map<String, Long> getGrantedByRating();
+
+    /**
+     * Gets denied checks by movie rating.
+     *
+     * @return counts keyed by rating name
+     */
+    Map<String, Long> getDeniedByRating();
+
+    /**
+     * Resets every counter to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,41 @@
+package com.parentalcontrol.metrics;
+
+/**
+ * JMX view of a {@link LatencyHistogram}.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public interface LatencyHistogramMXBean {
+
+    /**
+     * Gets the number of recorded samples.
+     *
+     * @return the sample count
+     */
+    long getSampleCount();
+
+    /**
+     * Gets how many calls there are per recorded sample.
+     *
+     * @return the sampling interval, 1 if every call is recorded
+     */
+    int getSampleInterval();
+
+    double getMeanMicros();
+
+    double getMaxMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    /**
+     * Clears all recorded samples.
+     */
+    void reset();
+}
@@ -0,0 +1,100 @@
+package com.parentalcontrol.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+/**
+ * Publishes metrics as MBeans on the platform {@link MBeanServer}.
+ * <p>
+ * Names follow {@code com.parentalcontrol:scope=<scope>,type=<type>,name=<name>};
+ * the scope tells apart several service instances in one process. Registering a
+ * name that is already taken replaces the previous bean. JMX failures are logged
+ * and never propagate, since metrics must not take the service down.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class MetricsRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+
+    /** JMX domain of every bean published by the system. */
+    public static final String DOMAIN = "com.parentalcontrol";
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Builds the object name of a metrics bean.
+     *
+     * @param scope the service instance, e.g. "default"
+     * @param type the bean type, e.g. "Latency"
+     * @param name the metric name, e.g. "checkAccess"
+     * @return the object name
+     */
+    public static ObjectName objectName(String scope, String type, String name) {
+        try {
+            return new ObjectName(DOMAIN + ":scope=" + ObjectName.quote(scope)
+                                  + ",type=" + type + ",name=" + ObjectName.quote(name));
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Invalid metrics name: " + scope + "/" + type + "/" + name, e);
+        }
+    }
+
+    /**
+     * Registers a bean with the platform MBean server, replacing any bean already
+     * registered under the same name.
+     *
+     * @param name the object name
+     * @param mbean the bean
+     * @return true if the bean was registered
+     */
+    public static boolean register(ObjectName name, Object mbean) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mbean, name);
+            return true;
+        } catch (JMException e) {
+            logger.warn("Could not register metrics bean {}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Unregisters every bean of a scope.
+     *
+     * @param scope the service instance
+     * @return the number of beans removed
+     */
+    public static int unregisterAll(String scope) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Set<ObjectName> names;
+        try {
+            names = server.queryNames(new ObjectName(DOMAIN + ":scope=" + ObjectName.quote(scope) + ",*"), null);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Invalid metrics scope: " + scope, e);
+        }
+        int removed = 0;
+        for (ObjectName name : names) {
+            try {
+                server.unregisterMBean(name);
+                removed++;
+            } catch (InstanceNotFoundException e) {
+                // unregistered concurrently
+            } catch (JMException e) {
+                logger.warn("Could not unregister metrics bean {}: {}", name, e.getMessage());
+            }
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,587 @@
+package com.parentalcontrol.model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable, compressed set of movie IDs in the style of a Roaring bitmap.
+ * <p>
+ * IDs are split by their high 16 bits into containers of up to 65,536 IDs. A
+ * container holding at most {@value #ARRAY_MAX} IDs is a sorted {@code char[]}
+ * of their low 16 bits (2 bytes per ID); a fuller one is a fixed 8 KB bitmap.
+ * A profile's handful of explicit overrides therefore costs tens of bytes rather
+ * than the ~50 bytes per ID of a {@code HashSet<Integer>}, and a set covering
+ * most of a catalog costs about one bit per ID.
+ * <p>
+ * Set operations combine matching containers and share the others, so the
+ * result of {@link #or(MovieIdSet)} with a small set copies one container, not
+ * the whole set. {@link #with(int)} and {@link #without(int)} likewise copy only
+ * the container they change. IDs are visited in ascending order; negative IDs,
+ * which catalogs do not use, sort after positive ones.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class MovieIdSet {
+
+    /** Containers with at most this many IDs are sorted arrays; fuller ones are bitmaps. */
+    static final int ARRAY_MAX = 4096;
+
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    /** The set without IDs. */
+    public static final MovieIdSet EMPTY = new MovieIdSet(new char[0], new Object[0], 0);
+
+    // keys[i] holds the high 16 bits of every ID in containers[i]: a char[] or a long[BITMAP_WORDS].
+    private final char[] keys;
+    private final Object[] containers;
+    private final int size;
+
+    private MovieIdSet(char[] keys, Object[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    /**
+     * Creates a set of IDs.
+     *
+     * @param movieIds the IDs, in any order and possibly repeated
+     * @return the set
+     */
+    public static MovieIdSet of(int... movieIds) {
+        Builder builder = new Builder();
+        for (int movieId : movieIds) {
+            builder.add(movieId);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates the set of bits set in a bitmap addressed by ID.
+     *
+     * @param words the bitmap; bit {@code id & 63} of word {@code id >>> 6} stands for an ID
+     * @return the set
+     */
+    public static MovieIdSet fromBits(long[] words) {
+        int chunks = (words.length + BITMAP_WORDS - 1) / BITMAP_WORDS;
+        char[] keys = new char[chunks];
+        Object[] containers = new Object[chunks];
+        int count = 0;
+        int size = 0;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            long[] bits = new long[BITMAP_WORDS];
+            int from = chunk * BITMAP_WORDS;
+            System.arraycopy(words, from, bits, 0, Math.min(BITMAP_WORDS, words.length - from));
+            Object container = normalize(bits);
+            if (container != null) {
+                keys[count] = (char) chunk;
+                containers[count++] = container;
+                size += cardinality(container);
+            }
+        }
+        return new MovieIdSet(Arrays.copyOf(keys, count), Arrays.copyOf(containers, count), size);
+    }
+
+    /**
+     * Checks whether the set contains an ID.
+     *
+     * @param movieId the movie ID
+     * @return true if the ID is in the set
+     */
+    public boolean contains(int movieId) {
+        if (keys.length == 0) {
+            return false;
+        }
+        int i = Arrays.binarySearch(keys, (char) (movieId >>> 16));
+        return i >= 0 && containerContains(containers[i], (char) movieId);
+    }
+
+    /**
+     * Derives a set with an ID added.
+     *
+     * @param movieId the movie ID
+     * @return the derived set, or this set if it already contains the ID
+     */
+    public MovieIdSet with(int movieId) {
+        if (contains(movieId)) {
+            return this;
+        }
+        char key = (char) (movieId >>> 16);
+        char low = (char) movieId;
+        int i = Arrays.binarySearch(keys, key);
+        if (i >= 0) {
+            Object[] copy = containers.clone();
+            copy[i] = added(containers[i], low);
+            return new MovieIdSet(keys, copy, size + 1);
+        }
+        int at = -i - 1;
+        char[] newKeys = new char[keys.length + 1];
+        Object[] newContainers = new Object[keys.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, at);
+        System.arraycopy(containers, 0, newContainers, 0, at);
+        newKeys[at] = key;
+        newContainers[at] = new char[] {low};
+        System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+        System.arraycopy(containers, at, newContainers, at + 1, keys.length - at);
+        return new MovieIdSet(newKeys, newContainers, size + 1);
+    }
+
+    /**
+     * Derives a set without an ID.
+     *
+     * @param movieId the movie ID
+     * @return the derived set, or this set if it does not contain the ID
+     */
+    public MovieIdSet without(int movieId) {
+        if (!contains(movieId)) {
+            return this;
+        }
+        int i = Arrays.binarySearch(keys, (char) (movieId >>> 16));
+        Object container = removed(containers[i], (char) movieId);
+        if (container != null) {
+            Object[] copy = containers.clone();
+            copy[i] = container;
+            return new MovieIdSet(keys, copy, size - 1);
+        }
+        char[] newKeys = new char[keys.length - 1];
+        Object[] newContainers = new Object[keys.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, i);
+        System.arraycopy(containers, 0, newContainers, 0, i);
+        System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+        System.arraycopy(containers, i + 1, newContainers, i, keys.length - i - 1);
+        return new MovieIdSet(newKeys, newContainers, size - 1);
+    }
+
+    /**
+     * Computes the union with another set.
+     *
+     * @param other the other set
+     * @return the IDs in either set
+     */
+    public MovieIdSet or(MovieIdSet other) {
+        if (other.size == 0) {
+            return this;
+        }
+        if (size == 0) {
+            return other;
+        }
+        Merge merge = new Merge(keys.length + other.keys.length);
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                merge.add(keys[i], containers[i++]);
+            } else if (i == keys.length || other.keys[j] < keys[i]) {
+                merge.add(other.keys[j], other.containers[j++]);
+            } else {
+                merge.add(keys[i], orContainers(containers[i++], other.containers[j++]));
+            }
+        }
+        return merge.build();
+    }
+
+    /**
+     * Computes the intersection with another set.
+     *
+     * @param other the other set
+     * @return the IDs in both sets
+     */
+    public MovieIdSet and(MovieIdSet other) {
+        Merge merge = new Merge(Math.min(keys.length, other.keys.length));
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (other.keys[j] < keys[i]) {
+                j++;
+            } else {
+                merge.add(keys[i], andContainers(containers[i++], other.containers[j++]));
+            }
+        }
+        return merge.build();
+    }
+
+    /**
+     * Computes the difference with another set.
+     *
+     * @param other the IDs to remove
+     * @return the IDs in this set but not in the other
+     */
+    public MovieIdSet andNot(MovieIdSet other) {
+        if (other.size == 0 || size == 0) {
+            return this;
+        }
+        Merge merge = new Merge(keys.length);
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < keys[i]) {
+                j++;
+            }
+            boolean overlaps = j < other.keys.length && other.keys[j] == keys[i];
+            merge.add(keys[i], overlaps ? andNotContainers(containers[i], other.containers[j]) : containers[i]);
+        }
+        return merge.build();
+    }
+
+    /**
+     * Computes the symmetric difference with another set.
+     *
+     * @param other the other set
+     * @return the IDs in exactly one of the sets
+     */
+    public MovieIdSet xor(MovieIdSet other) {
+        return or(other).andNot(and(other));
+    }
+
+    /**
+     * Visits every ID in ascending order.
+     *
+     * @param action receives each ID
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            int high = keys[i] << 16;
+            Object container = containers[i];
+            if (container instanceof char[]) {
+                for (char low : (char[]) container) {
+                    action.accept(high | low);
+                }
+            } else {
+                long[] bits = (long[]) container;
+                for (int w = 0; w < bits.length; w++) {
+                    for (long word = bits[w]; word != 0; word &= word - 1) {
+                        action.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the IDs into an array.
+     *
+     * @return the IDs in ascending order
+     */
+    public int[] toArray() {
+        int[] ids = new int[size];
+        int[] fill = new int[1];
+        forEach(id -> ids[fill[0]++] = id);
+        return ids;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Estimates the heap footprint of the set, assuming compressed object
+     * pointers (the default for heaps under 32 GB). Containers shared with other
+     * sets are counted in full.
+     *
+     * @return the estimated size in bytes
+     */
+    public long getSizeInBytes() {
+        if (size == 0) {
+            return 0;
+        }
+        long bytes = align(12 + 4 + 4 + 4) + align(16 + 2L * keys.length) + align(16 + 4L * containers.length);
+        for (Object container : containers) {
+            bytes += container instanceof char[] ? align(16 + 2L * ((char[]) container).length)
+                                                 : 16 + 8L * BITMAP_WORDS;
+        }
+        return bytes;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static boolean containerContains(Object container, char low) {
+        if (container instanceof char[]) {
+            return Arrays.binarySearch((char[]) container, low) >= 0;
+        }
+        return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    private static int cardinality(Object container) {
+        if (container instanceof char[]) {
+            return ((char[]) container).length;
+        }
+        int count = 0;
+        for (long word : (long[]) container) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static Object added(Object container, char low) {
+        if (container instanceof char[]) {
+            char[] values = (char[]) container;
+            if (values.length < ARRAY_MAX) {
+                int at = -Arrays.binarySearch(values, low) - 1;
+                char[] copy = new char[values.length + 1];
+                System.arraycopy(values, 0, copy, 0, at);
+                copy[at] = low;
+                System.arraycopy(values, at, copy, at + 1, values.length - at);
+                return copy;
+            }
+        }
+        long[] bits = toBitmap(container);
+        bits[low >>> 6] |= 1L << low;
+        return bits;
+    }
+
+    private static Object removed(Object container, char low) {
+        if (container instanceof char[]) {
+            char[] values = (char[]) container;
+            if (values.length == 1) {
+                return null;
+            }
+            int at = Arrays.binarySearch(values, low);
+            char[] copy = new char[values.length - 1];
+            System.arraycopy(values, 0, copy, 0, at);
+            System.arraycopy(values, at + 1, copy, at, values.length - at - 1);
+            return copy;
+        }
+        long[] bits = ((long[]) container).clone();
+        bits[low >>> 6] &= ~(1L << low);
+        return normalize(bits);
+    }
+
+    private static Object orContainers(Object a, Object b) {
+        if (a instanceof char[] && b instanceof char[]) {
+            char[] x = (char[]) a;
+            char[] y = (char[]) b;
+            if (x.length + y.length <= ARRAY_MAX) {
+                char[] union = new char[x.length + y.length];
+                int i = 0;
+                int j = 0;
+                int n = 0;
+                while (i < x.length || j < y.length) {
+                    if (j == y.length || (i < x.length && x[i] < y[j])) {
+                        union[n++] = x[i++];
+                    } else if (i == x.length || y[j] < x[i]) {
+                        union[n++] = y[j++];
+                    } else {
+                        union[n++] = x[i++];
+                        j++;
+                    }
+                }
+                return n == union.length ? union : Arrays.copyOf(union, n);
+            }
+        }
+        long[] bits = toBitmap(a);
+        if (b instanceof char[]) {
+            for (char low : (char[]) b) {
+                bits[low >>> 6] |= 1L << low;
+            }
+        } else {
+            long[] other = (long[]) b;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                bits[w] |= other[w];
+            }
+        }
+        return normalize(bits);
+    }
+
+    private static Object andContainers(Object a, Object b) {
+        if (a instanceof long[] && b instanceof long[]) {
+            long[] x = (long[]) a;
+            long[] y = (long[]) b;
+            long[] bits = new long[BITMAP_WORDS];
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                bits[w] = x[w] & y[w];
+            }
+            return normalize(bits);
+        }
+        char[] values = (char[]) (a instanceof char[] ? a : b);
+        return filter(values, a instanceof char[] ? b : a, true);
+    }
+
+    private static Object andNotContainers(Object a, Object b) {
+        if (a instanceof char[]) {
+            return filter((char[]) a, b, false);
+        }
+        long[] bits = ((long[]) a).clone();
+        if (b instanceof char[]) {
+            for (char low : (char[]) b) {
+                bits[low >>> 6] &= ~(1L << low);
+            }
+        } else {
+            long[] other = (long[]) b;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                bits[w] &= ~other[w];
+            }
+        }
+        return normalize(bits);
+    }
+
+    // Keeps the values the other container does (keep == true) or does not contain.
+    private static Object filter(char[] values, Object other, boolean keep) {
+        char[] kept = new char[values.length];
+        int n = 0;
+        for (char low : values) {
+            if (containerContains(other, low) == keep) {
+                kept[n++] = low;
+            }
+        }
+        return n == 0 ? null : n == values.length ? values : Arrays.copyOf(kept, n);
+    }
+
+    private static long[] toBitmap(Object container) {
+        if (container instanceof long[]) {
+            return ((long[]) container).clone();
+        }
+        long[] bits = new long[BITMAP_WORDS];
+        for (char low : (char[]) container) {
+            bits[low >>> 6] |= 1L << low;
+        }
+        return bits;
+    }
+
+    // Picks the container form for a bitmap's cardinality: null when empty.
+    private static Object normalize(long[] bits) {
+        int count = cardinality(bits);
+        if (count == 0) {
+            return null;
+        }
+        if (count > ARRAY_MAX) {
+            return bits;
+        }
+        char[] values = new char[count];
+        int n = 0;
+        for (int w = 0; w < BITMAP_WORDS; w++) {
+            for (long word = bits[w]; word != 0; word &= word - 1) {
+                values[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Collects the non-empty containers of a set operation's result.
+     */
+    private static final class Merge {
+        private final char[] keys;
+        private final Object[] containers;
+        private int count;
+        private int size;
+
+        Merge(int capacity) {
+            this.keys = new char[capacity];
+            this.containers = new Object[capacity];
+        }
+
+        void add(char key, Object container) {
+            if (container != null) {
+                keys[count] = key;
+                containers[count++] = container;
+                size += cardinality(container);
+            }
+        }
+
+        MovieIdSet build() {
+            return count == 0 ? EMPTY : new MovieIdSet(Arrays.copyOf(keys, count), Arrays.copyOf(containers, count),
+                                                       size);
+        }
+    }
+
+    /**
+     * Collects IDs in any order, for building a set in one pass.
+     */
+    public static final class Builder {
+        private int[] ids = new int[16];
+        private int count;
+
+        /**
+         * Adds an ID; repeats are ignored.
+         *
+         * @param movieId the movie ID
+         * @return this builder
+         */
+        public Builder add(int movieId) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            ids[count++] = movieId;
+            return this;
+        }
+
+        /**
+         * Builds the set of the IDs added so far.
+         *
+         * @return the set
+         */
+        public MovieIdSet build() {
+            int[] sorted = Arrays.copyOf(ids, count);
+            // Flipping the sign bit makes a signed sort order IDs as unsigned, like the containers.
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] ^= Integer.MIN_VALUE;
+            }
+            Arrays.sort(sorted);
+            Merge merge = new Merge(sorted.length);
+            int start = 0;
+            while (start < sorted.length) {
+                int key = (sorted[start] ^ Integer.MIN_VALUE) >>> 16;
+                int end = start;
+                char[] values = new char[Math.min(sorted.length - start, 1 << 16)];
+                int n = 0;
+                while (end < sorted.length && ((sorted[end] ^ Integer.MIN_VALUE) >>> 16) == key) {
+                    char low = (char) (sorted[end++] ^ Integer.MIN_VALUE);
+                    if (n == 0 || values[n - 1] != low) {
+                        values[n++] = low;
+                    }
+                }
+                merge.add((char) key, n <= ARRAY_MAX ? Arrays.copyOf(values, n) : toBitmap(Arrays.copyOf(values, n)));
+                start = end;
+            }
+            return merge.build();
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof MovieIdSet)) return false;
+        MovieIdSet other = (MovieIdSet) obj;
+        if (size != other.size || !Arrays.equals(keys, other.keys)) {
+            return false;
+        }
+        for (int i = 0; i < containers.length; i++) {
+            Object a = containers[i];
+            Object b = other.containers[i];
+            boolean same = a instanceof char[] ? b instanceof char[] && Arrays.equals((char[]) a, (char[]) b)
+                                               : b instanceof long[] && Arrays.equals((long[]) a, (long[]) b);
+            if (!same) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = size;
+        for (int i = 0; i < containers.length; i++) {
+            Object container = containers[i];
+            hash = 31 * hash + keys[i];
+            hash = 31 * hash + (container instanceof char[] ? Arrays.hashCode((char[]) container)
+                                                            : Arrays.hashCode((long[]) container));
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        if (size <= 16) {
+            return "MovieIdSet" + Arrays.toString(toArray());
+        }
+        return String.format("MovieIdSet{size=%d, containers=%d, bytes=%d}", size, keys.length, getSizeInBytes());
+    }
+}
@@ -0,0 +1,292 @@
+package com.parentalcontrol.model;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable viewing policy of one household profile.
+ * <p>
+ * A movie is permitted if its ID is explicitly allowed, or if it is not
+ * explicitly denied and passes every rule: its rating is within the maximum
+ * rating, its genre is not blocked and it was released within the year range.
+ * Explicit overrides therefore win over the rules, and a title is never both
+ * allowed and denied.
+ * <p>
+ * Every change derives a new policy, so two policies can be compared rule by
+ * rule to find what changed. Genres are compared case-insensitively. Title
+ * overrides are kept as {@link MovieIdSet}s, so a profile with a few dozen of
+ * them costs a few hundred bytes.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class ProfilePolicy {
+    private final Rating maxRating;
+    private final Set<String> blockedGenres;
+    private final int fromYear;
+    private final int toYear;
+    private final MovieIdSet allowedTitles;
+    private final MovieIdSet deniedTitles;
+
+    private ProfilePolicy(Rating maxRating, Set<String> blockedGenres, int fromYear, int toYear,
+                          MovieIdSet allowedTitles, MovieIdSet deniedTitles) {
+        this.maxRating = maxRating;
+        this.blockedGenres = blockedGenres;
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.allowedTitles = allowedTitles;
+        this.deniedTitles = deniedTitles;
+    }
+
+    /**
+     * Creates a policy that only limits the rating.
+     *
+     * @param maxRating the maximum allowed rating
+     * @return the policy
+     */
+    public static ProfilePolicy ratedUpTo(Rating maxRating) {
+        if (maxRating == null) {
+            throw new IllegalArgumentException("Max rating cannot be null");
+        }
+        return new ProfilePolicy(maxRating, Collections.emptySet(), Integer.MIN_VALUE, Integer.MAX_VALUE,
+                                 MovieIdSet.EMPTY, MovieIdSet.EMPTY);
+    }
+
+    /**
+     * Creates the policy equivalent to a user's rating ceiling.
+     *
+     * @param user the user
+     * @return the policy
+     */
+    public static ProfilePolicy of(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        return ratedUpTo(user.getMaxAllowedRating());
+    }
+
+    /**
+     * Derives a policy with a different maximum rating.
+     *
+     * @param rating the maximum allowed rating
+     * @return the derived policy
+     */
+    public ProfilePolicy withMaxRating(Rating rating) {
+        if (rating == null) {
+            throw new IllegalArgumentException("Max rating cannot be null");
+        }
+        return new ProfilePolicy(rating, blockedGenres, fromYear, toYear, allowedTitles, deniedTitles);
+    }
+
+    /**
+     * Derives a policy that blocks a genre.
+     *
+     * @param genre the genre to block
+     * @return the derived policy
+     */
+    public ProfilePolicy blockGenre(String genre) {
+        Set<String> genres = new TreeSet<>(blockedGenres);
+        genres.add(genreKey(genre));
+        return new ProfilePolicy(maxRating, Collections.unmodifiableSet(genres), fromYear, toYear,
+                                 allowedTitles, deniedTitles);
+    }
+
+    /**
+     * Derives a policy that no longer blocks a genre.
+     *
+     * @param genre the genre to unblock
+     * @return the derived policy
+     */
+    public ProfilePolicy unblockGenre(String genre) {
+        Set<String> genres = new TreeSet<>(blockedGenres);
+        genres.remove(genreKey(genre));
+        return new ProfilePolicy(maxRating, Collections.unmodifiableSet(genres), fromYear, toYear,
+                                 allowedTitles, deniedTitles);
+    }
+
+    /**
+     * Derives a policy limited to movies released within a range of years.
+     *
+     * @param from the first permitted year
+     * @param to the last permitted year
+     * @return the derived policy
+     */
+    public ProfilePolicy withYears(int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("Year range is empty: " + from + " to " + to);
+        }
+        return new ProfilePolicy(maxRating, blockedGenres, from, to, allowedTitles, deniedTitles);
+    }
+
+    /**
+     * Derives a policy without a release-year limit.
+     *
+     * @return the derived policy
+     */
+    public ProfilePolicy withoutYearLimit() {
+        return withYears(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Derives a policy that always permits a title, whatever the rules say.
+     *
+     * @param movieId the movie ID
+     * @return the derived policy
+     */
+    public ProfilePolicy allowTitle(int movieId) {
+        return new ProfilePolicy(maxRating, blockedGenres, fromYear, toYear,
+                                 allowedTitles.with(movieId), deniedTitles.without(movieId));
+    }
+
+    /**
+     * Derives a policy that never permits a title, whatever the rules say.
+     *
+     * @param movieId the movie ID
+     * @return the derived policy
+     */
+    public ProfilePolicy denyTitle(int movieId) {
+        return new ProfilePolicy(maxRating, blockedGenres, fromYear, toYear,
+                                 allowedTitles.without(movieId), deniedTitles.with(movieId));
+    }
+
+    /**
+     * Derives a policy that leaves a title to the rules again.
+     *
+     * @param movieId the movie ID
+     * @return the derived policy
+     */
+    public ProfilePolicy clearOverride(int movieId) {
+        return new ProfilePolicy(maxRating, blockedGenres, fromYear, toYear,
+                                 allowedTitles.without(movieId), deniedTitles.without(movieId));
+    }
+
+    /**
+     * Derives a policy that always permits many titles at once.
+     *
+     * @param movieIds the movie IDs
+     * @return the derived policy
+     */
+    public ProfilePolicy allowTitles(MovieIdSet movieIds) {
+        if (movieIds == null) {
+            throw new IllegalArgumentException("Movie IDs cannot be null");
+        }
+        return new ProfilePolicy(maxRating, blockedGenres, fromYear, toYear,
+                                 allowedTitles.or(movieIds), deniedTitles.andNot(movieIds));
+    }
+
+    /**
+     * Derives a policy that never permits many titles at once.
+     *
+     * @param movieIds the movie IDs
+     * @return the derived policy
+     */
+    public ProfilePolicy denyTitles(MovieIdSet movieIds) {
+        if (movieIds == null) {
+            throw new IllegalArgumentException("Movie IDs cannot be null");
+        }
+        return new ProfilePolicy(maxRating, blockedGenres, fromYear, toYear,
+                                 allowedTitles.andNot(movieIds), deniedTitles.or(movieIds));
+    }
+
+    /**
+     * Checks whether the policy has rules that depend on more than a movie's
+     * rating: blocked genres or a release-year limit. A policy without them is
+     * decided from the rating and the overrides alone.
+     *
+     * @return true if a genre or year rule is set
+     */
+    public boolean hasCatalogRules() {
+        return !blockedGenres.isEmpty() || fromYear != Integer.MIN_VALUE || toYear != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Checks whether the policy permits a movie.
+     *
+     * @param movie the movie
+     * @param scheme the rating scheme that orders ratings
+     * @return true if the movie is permitted
+     */
+    public boolean permits(Movie movie, RatingScheme scheme) {
+        int id = movie.getId();
+        if (deniedTitles.contains(id)) {
+            return false;
+        }
+        if (allowedTitles.contains(id)) {
+            return true;
+        }
+        int year = movie.getReleaseYear();
+        return scheme.allows(movie.getRating(), maxRating)
+                && year >= fromYear && year <= toYear
+                && (blockedGenres.isEmpty() || !blockedGenres.contains(movie.getGenre().toLowerCase()));
+    }
+
+    public Rating getMaxRating() {
+        return maxRating;
+    }
+
+    /**
+     * Gets the blocked genres.
+     *
+     * @return unmodifiable set of trimmed, lower-cased genres
+     */
+    public Set<String> getBlockedGenres() {
+        return blockedGenres;
+    }
+
+    public int getFromYear() {
+        return fromYear;
+    }
+
+    public int getToYear() {
+        return toYear;
+    }
+
+    /**
+     * Gets the IDs of the titles that are always permitted.
+     *
+     * @return the movie IDs
+     */
+    public MovieIdSet getAllowedTitles() {
+        return allowedTitles;
+    }
+
+    /**
+     * Gets the IDs of the titles that are never permitted.
+     *
+     * @return the movie IDs
+     */
+    public MovieIdSet getDeniedTitles() {
+        return deniedTitles;
+    }
+
+    private static String genreKey(String genre) {
+        if (genre == null || genre.trim().isEmpty()) {
+            throw new IllegalArgumentException("Genre cannot be null or empty");
+        }
+        return genre.trim().toLowerCase();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        ProfilePolicy other = (ProfilePolicy) obj;
+        return maxRating == other.maxRating && fromYear == other.fromYear && toYear == other.toYear
+                && blockedGenres.equals(other.blockedGenres) && allowedTitles.equals(other.allowedTitles)
+                && deniedTitles.equals(other.deniedTitles);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxRating, blockedGenres, fromYear, toYear, allowedTitles, deniedTitles);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ProfilePolicy{maxRating=%s, blockedGenres=%s, years=%d..%d, allowed=%d, denied=%d}",
+                           maxRating.name(), blockedGenres, fromYear, toYear,
+                           allowedTitles.size(), deniedTitles.size());
+    }
+}
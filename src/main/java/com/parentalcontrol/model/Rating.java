@@ -1,8 +1,9 @@
 package com.parentalcontrol.model;
 
 /**
- * Enum representing parental control ratings in order of restrictiveness.
- * Lower ordinal values are less restrictive.
+ * Enum representing parental control ratings. How restrictive each rating is
+ * relative to the others is defined by a {@link RatingScheme}; the methods here
+ * use {@link RatingScheme#DEFAULT}, which orders ratings by minimum age.
  * 
  * @author Parag Chatterjee (Modernized)
  * @version 2.0
@@ -45,7 +46,7 @@ public enum Rating {
      * @return true if this rating is more restrictive
      */
     public boolean isMoreRestrictiveThan(Rating other) {
-        return this.ordinal() > other.ordinal();
+        return RatingScheme.DEFAULT.isMoreRestrictive(this, other);
     }
 
     /**
@@ -55,7 +56,7 @@ public enum Rating {
      * @return true if this rating is accessible with the given parental control level
      */
     public boolean isAccessibleWith(Rating other) {
-        return this.ordinal() <= other.ordinal();
+        return RatingScheme.DEFAULT.allows(this, other);
     }
 
     /**
@@ -0,0 +1,213 @@
+package com.parentalcontrol.model;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ordering of ratings by restrictiveness, as used by one classification board.
+ * <p>
+ * A scheme assigns every rating a rank; a movie is accessible with a ceiling when
+ * its rank does not exceed the ceiling's. Ratings from another board are placed
+ * in the tier of their closest local equivalent, so they may share a rank. At
+ * construction the ranks are compiled into a dense decision matrix: one
+ * {@code long} per ceiling with a bit set for every accessible movie rating, so
+ * an access check is a single array probe whatever scheme is in use.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class RatingScheme {
+    private static final Rating[] RATINGS = Rating.values();
+
+    /** Ratings ordered by minimum age. */
+    public static final RatingScheme MINIMUM_AGE = ordered("MINIMUM_AGE",
+            Rating.U, Rating.PG, Rating.TWELVE, Rating.PG_13, Rating.FIFTEEN, Rating.R, Rating.EIGHTEEN);
+
+    /** Ratings ordered as the {@link Rating} constants are declared, as in version 1. */
+    public static final RatingScheme DECLARED_ORDER = ordered("DECLARED_ORDER", RATINGS);
+
+    /**
+     * British Board of Film Classification: U, PG, 12, 15, 18. R admits minors only
+     * when accompanied, which the BBFC has no tier for above 12A, so it ranks as 18.
+     */
+    public static final RatingScheme BBFC = tiered("BBFC",
+            new Rating[] {Rating.U},
+            new Rating[] {Rating.PG},
+            new Rating[] {Rating.TWELVE, Rating.PG_13},
+            new Rating[] {Rating.FIFTEEN},
+            new Rating[] {Rating.EIGHTEEN, Rating.R});
+
+    /** Motion Picture Association: G, PG, PG-13, R, NC-17; 15 ranks with R and 18 with NC-17. */
+    public static final RatingScheme MPAA = tiered("MPAA",
+            new Rating[] {Rating.U},
+            new Rating[] {Rating.PG},
+            new Rating[] {Rating.TWELVE, Rating.PG_13},
+            new Rating[] {Rating.FIFTEEN, Rating.R},
+            new Rating[] {Rating.EIGHTEEN});
+
+    /** The scheme used by {@link Rating#isAccessibleWith(Rating)} and {@link User#canWatch(Rating)}. */
+    public static final RatingScheme DEFAULT = MINIMUM_AGE;
+
+    private static final Map<String, RatingScheme> BUILT_IN = new LinkedHashMap<>();
+
+    static {
+        for (RatingScheme scheme : new RatingScheme[] {MINIMUM_AGE, DECLARED_ORDER, BBFC, MPAA}) {
+            BUILT_IN.put(scheme.name, scheme);
+        }
+    }
+
+    private final String name;
+    private final byte[] ranks;
+    private final long[] allowed;
+
+    private RatingScheme(String name, int[] ranks) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Scheme name cannot be null or empty");
+        }
+        this.name = name.trim();
+        this.ranks = new byte[RATINGS.length];
+        this.allowed = new long[RATINGS.length];
+        for (int r = 0; r < RATINGS.length; r++) {
+            if (ranks[r] < 0) {
+                throw new IllegalArgumentException("Scheme " + name + " does not rank " + RATINGS[r].name());
+            }
+            this.ranks[r] = (byte) ranks[r];
+        }
+        for (int ceiling = 0; ceiling < RATINGS.length; ceiling++) {
+            for (int movie = 0; movie < RATINGS.length; movie++) {
+                if (ranks[movie] <= ranks[ceiling]) {
+                    allowed[ceiling] |= 1L << movie;
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a scheme with one rating per tier, least restrictive first.
+     *
+     * @param name the scheme name
+     * @param order every rating exactly once, least restrictive first
+     * @return the compiled scheme
+     * @throws IllegalArgumentException if a rating is missing or repeated
+     */
+    public static RatingScheme ordered(String name, Rating... order) {
+        Rating[][] tiers = new Rating[order.length][];
+        for (int i = 0; i < order.length; i++) {
+            tiers[i] = new Rating[] {order[i]};
+        }
+        return tiered(name, tiers);
+    }
+
+    /**
+     * Creates a scheme from tiers of equally restrictive ratings.
+     *
+     * @param name the scheme name
+     * @param tiers every rating exactly once, grouped into tiers, least restrictive first
+     * @return the compiled scheme
+     * @throws IllegalArgumentException if a rating is missing or repeated
+     */
+    public static RatingScheme tiered(String name, Rating[]... tiers) {
+        Map<Rating, Integer> ranks = new EnumMap<>(Rating.class);
+        for (int tier = 0; tier < tiers.length; tier++) {
+            for (Rating rating : tiers[tier]) {
+                if (rating == null) {
+                    throw new IllegalArgumentException("Scheme " + name + " contains a null rating");
+                }
+                if (ranks.put(rating, tier) != null) {
+                    throw new IllegalArgumentException("Scheme " + name + " ranks " + rating.name() + " twice");
+                }
+            }
+        }
+        return ranked(name, ranks);
+    }
+
+    /**
+     * Creates a scheme from explicit ranks; lower ranks are less restrictive.
+     *
+     * @param name the scheme name
+     * @param ranks a rank between 0 and 127 for every rating
+     * @return the compiled scheme
+     * @throws IllegalArgumentException if a rating is missing or a rank is out of range
+     */
+    public static RatingScheme ranked(String name, Map<Rating, Integer> ranks) {
+        int[] byOrdinal = new int[RATINGS.length];
+        for (Rating rating : RATINGS) {
+            Integer rank = ranks.get(rating);
+            if (rank != null && (rank < 0 || rank > Byte.MAX_VALUE)) {
+                throw new IllegalArgumentException("Rank for " + rating.name() + " must be between 0 and 127");
+            }
+            byOrdinal[rating.ordinal()] = rank == null ? -1 : rank;
+        }
+        return new RatingScheme(name, byOrdinal);
+    }
+
+    /**
+     * Finds a built-in scheme by name.
+     *
+     * @param name the scheme name, e.g. "BBFC" (case-insensitive)
+     * @return the scheme
+     * @throws IllegalArgumentException if no built-in scheme has that name
+     */
+    public static RatingScheme forName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Scheme name cannot be null or empty");
+        }
+        RatingScheme scheme = BUILT_IN.get(name.trim().toUpperCase());
+        if (scheme == null) {
+            throw new IllegalArgumentException("Unknown rating scheme: " + name);
+        }
+        return scheme;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets a rating's rank in this scheme.
+     *
+     * @param rating the rating
+     * @return the rank; lower ranks are less restrictive
+     */
+    public int rank(Rating rating) {
+        return ranks[rating.ordinal()];
+    }
+
+    /**
+     * Checks whether a movie rating is accessible with a user's ceiling.
+     *
+     * @param movieRating the movie's rating
+     * @param ceiling the user's maximum allowed rating
+     * @return true if the movie may be watched
+     */
+    public boolean allows(Rating movieRating, Rating ceiling) {
+        return (allowed[ceiling.ordinal()] & 1L << movieRating.ordinal()) != 0;
+    }
+
+    /**
+     * Checks whether one rating is more restrictive than another.
+     *
+     * @param rating the rating to check
+     * @param other the rating to compare against
+     * @return true if {@code rating} ranks strictly above {@code other}
+     */
+    public boolean isMoreRestrictive(Rating rating, Rating other) {
+        return ranks[rating.ordinal()] > ranks[other.ordinal()];
+    }
+
+    /**
+     * Gets the movie ratings a ceiling allows as a bit mask over rating ordinals.
+     *
+     * @param ceiling the user's maximum allowed rating
+     * @return mask with bit {@code r.ordinal()} set for every allowed rating {@code r}
+     */
+    public long allowedMask(Rating ceiling) {
+        return allowed[ceiling.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        return "RatingScheme{" + name + "}";
+    }
+}
@@ -81,7 +81,18 @@ public class User {
      * @return true if the user can watch the movie
      */
     public boolean canWatch(Rating movieRating) {
-        return movieRating.isAccessibleWith(maxAllowedRating);
+        return RatingScheme.DEFAULT.allows(movieRating, maxAllowedRating);
+    }
+
+    /**
+     * Checks if this user can watch a movie with the given rating under a scheme.
+     *
+     * @param movieRating the rating of the movie to check
+     * @param scheme the rating scheme to apply
+     * @return true if the user can watch the movie
+     */
+    public boolean canWatch(Rating movieRating, RatingScheme scheme) {
+        return scheme.allows(movieRating, maxAllowedRating);
     }
 
     @Override
@@ -0,0 +1,178 @@
+package com.parentalcontrol.service;
+
+import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.RatingScheme;
+
+/**
+ * Outcome of an access check, coded by verdict and the ratings involved.
+ * <p>
+ * Every possible decision is a preallocated, immutable constant, so producing a
+ * decision never allocates. Whether a rating pair is allowed comes from the
+ * {@link RatingScheme} in force, so the same constants serve every scheme. The
+ * human-readable reason is only rendered when a caller asks for it via
+ * {@link #reason(String)}.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class AccessDecision {
+
+    /**
+     * The verdict of an access check.
+     */
+    public enum Verdict {
+        ALLOWED,
+        DENIED,
+        NOT_FOUND
+    }
+
+    private static final Rating[] RATINGS = Rating.values();
+    private static final AccessDecision[][] ALLOWED = new AccessDecision[RATINGS.length][RATINGS.length];
+    private static final AccessDecision[][] DENIED = new AccessDecision[RATINGS.length][RATINGS.length];
+    private static final AccessDecision[][] BLOCKED = new AccessDecision[RATINGS.length][RATINGS.length];
+    private static final AccessDecision NOT_FOUND = new AccessDecision(Verdict.NOT_FOUND, null, null, false);
+
+    static {
+        for (Rating movieRating : RATINGS) {
+            for (Rating userMaxRating : RATINGS) {
+                int m = movieRating.ordinal();
+                int u = userMaxRating.ordinal();
+                ALLOWED[m][u] = new AccessDecision(Verdict.ALLOWED, movieRating, userMaxRating, false);
+                DENIED[m][u] = new AccessDecision(Verdict.DENIED, movieRating, userMaxRating, false);
+                BLOCKED[m][u] = new AccessDecision(Verdict.DENIED, movieRating, userMaxRating, true);
+            }
+        }
+    }
+
+    private final Verdict verdict;
+    private final Rating movieRating;
+    private final Rating userMaxRating;
+    private final boolean blockedByPolicy;
+
+    private AccessDecision(Verdict verdict, Rating movieRating, Rating userMaxRating, boolean blockedByPolicy) {
+        this.verdict = verdict;
+        this.movieRating = movieRating;
+        this.userMaxRating = userMaxRating;
+        this.blockedByPolicy = blockedByPolicy;
+    }
+
+    /**
+     * Gets the decision for a movie rating against a user's maximum rating under
+     * the default rating scheme.
+     *
+     * @param movieRating the movie's rating
+     * @param userMaxRating the user's maximum allowed rating
+     * @return the shared decision constant
+     */
+    public static AccessDecision of(Rating movieRating, Rating userMaxRating) {
+        return of(movieRating, userMaxRating, RatingScheme.DEFAULT);
+    }
+
+    /**
+     * Gets the decision for a movie rating against a user's maximum rating.
+     *
+     * @param movieRating the movie's rating
+     * @param userMaxRating the user's maximum allowed rating
+     * @param scheme the rating scheme to apply
+     * @return the shared decision constant
+     */
+    public static AccessDecision of(Rating movieRating, Rating userMaxRating, RatingScheme scheme) {
+        int m = movieRating.ordinal();
+        int u = userMaxRating.ordinal();
+        return scheme.allows(movieRating, userMaxRating) ? ALLOWED[m][u] : DENIED[m][u];
+    }
+
+    /**
+     * Gets the decision for a movie a profile policy was checked against. A denial
+     * the rating alone would not explain is reported as blocked by the policy.
+     *
+     * @param permitted whether the compiled policy permits the movie
+     * @param movieRating the movie's rating
+     * @param policyMaxRating the policy's maximum rating
+     * @param scheme the rating scheme to apply
+     * @return the shared decision constant
+     */
+    public static AccessDecision of(boolean permitted, Rating movieRating, Rating policyMaxRating,
+                                    RatingScheme scheme) {
+        int m = movieRating.ordinal();
+        int u = policyMaxRating.ordinal();
+        if (permitted) {
+            return ALLOWED[m][u];
+        }
+        return scheme.allows(movieRating, policyMaxRating) ? BLOCKED[m][u] : DENIED[m][u];
+    }
+
+    /**
+     * Gets the decision for a movie that does not exist.
+     *
+     * @return the shared not-found decision
+     */
+    public static AccessDecision notFound() {
+        return NOT_FOUND;
+    }
+
+    public Verdict getVerdict() {
+        return verdict;
+    }
+
+    public boolean isAllowed() {
+        return verdict == Verdict.ALLOWED;
+    }
+
+    /**
+     * Checks whether the movie was denied by a profile policy rule or override
+     * rather than by its rating.
+     *
+     * @return true for a policy denial
+     */
+    public boolean isBlockedByPolicy() {
+        return blockedByPolicy;
+    }
+
+    /**
+     * Gets the movie's rating.
+     *
+     * @return the movie rating, or null if the movie was not found
+     */
+    public Rating getMovieRating() {
+        return movieRating;
+    }
+
+    /**
+     * Gets the user's maximum allowed rating.
+     *
+     * @return the user's rating ceiling, or null if the movie was not found
+     */
+    public Rating getUserMaxRating() {
+        return userMaxRating;
+    }
+
+    /**
+     * Renders the human-readable reason for this decision.
+     *
+     * @param movieTitle the title the decision was made for
+     * @return the reason text
+     */
+    public String reason(String movieTitle) {
+        switch (verdict) {
+            case ALLOWED:
+                return String.format("Access granted. You can watch '%s' (rated %s)",
+                                   movieTitle, movieRating.getDisplayName());
+            case DENIED:
+                if (blockedByPolicy) {
+                    return String.format("Access denied. '%s' is blocked by your profile's viewing policy",
+                                       movieTitle);
+                }
+                return String.format("Access denied. '%s' is rated %s, but your maximum allowed rating is %s",
+                                   movieTitle, movieRating.getDisplayName(), userMaxRating.getDisplayName());
+            default:
+                return "Movie not found: " + movieTitle;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AccessDecision{verdict=%s, movieRating=%s, userMaxRating=%s, blockedByPolicy=%s}",
+                           verdict, movieRating, userMaxRating, blockedByPolicy);
+    }
+}
@@ -0,0 +1,143 @@
+package com.parentalcontrol.service;
+
+/**
+ * Bitmap of access decisions for a batch of users against a batch of movies.
+ * <p>
+ * Row {@code r} holds the decisions for the r-th user and column {@code c} the
+ * decisions for the c-th movie or title, in request order. Each row is packed
+ * into 64-bit words, so a 6 x 500 household listing fits in 48 longs.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class AccessMatrix {
+    private final int rows;
+    private final int columns;
+    private final int wordsPerRow;
+    private final long[] allowed;
+    private final long[] found;
+
+    AccessMatrix(int rows, int columns) {
+        if ((long) rows * wordsFor(columns) > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Access matrix too large: " + rows + " x " + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.wordsPerRow = wordsFor(columns);
+        this.allowed = new long[rows * wordsPerRow];
+        this.found = new long[wordsPerRow];
+    }
+
+    static int wordsFor(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    long[] allowedWords() {
+        return allowed;
+    }
+
+    long[] foundWords() {
+        return found;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Checks whether a user may watch a movie.
+     *
+     * @param row the user's position in the request
+     * @param column the movie's position in the request
+     * @return true if access is allowed
+     */
+    public boolean isAllowed(int row, int column) {
+        checkRow(row);
+        checkColumn(column);
+        return (allowed[row * wordsPerRow + (column >>> 6)] & (1L << column)) != 0;
+    }
+
+    /**
+     * Checks whether a requested movie exists.
+     *
+     * @param column the movie's position in the request
+     * @return true if the movie was found in the catalog
+     */
+    public boolean isFound(int column) {
+        checkColumn(column);
+        return (found[column >>> 6] & (1L << column)) != 0;
+    }
+
+    /**
+     * Counts the movies a user may watch.
+     *
+     * @param row the user's position in the request
+     * @return the number of allowed columns in the row
+     */
+    public int countAllowed(int row) {
+        checkRow(row);
+        int count = 0;
+        for (int w = row * wordsPerRow, end = w + wordsPerRow; w < end; w++) {
+            count += Long.bitCount(allowed[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the positions of the movies a user may watch.
+     *
+     * @param row the user's position in the request
+     * @return allowed column indexes in ascending order
+     */
+    public int[] allowedColumns(int row) {
+        int[] result = new int[countAllowed(row)];
+        int n = 0;
+        for (int w = 0; w < wordsPerRow; w++) {
+            long word = allowed[row * wordsPerRow + w];
+            while (word != 0) {
+                result[n++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets a copy of a user's row as packed 64-bit words; bit {@code c % 64} of word
+     * {@code c / 64} is set when column {@code c} is allowed.
+     *
+     * @param row the user's position in the request
+     * @return the packed row
+     */
+    public long[] rowBits(int row) {
+        checkRow(row);
+        long[] bits = new long[wordsPerRow];
+        System.arraycopy(allowed, row * wordsPerRow, bits, 0, wordsPerRow);
+        return bits;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " outside " + rows + " x " + columns + " matrix");
+        }
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Column " + column + " outside " + rows + " x " + columns + " matrix");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AccessMatrix{rows=%d, columns=%d}", rows, columns);
+    }
+}
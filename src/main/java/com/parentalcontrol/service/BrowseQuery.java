@@ -0,0 +1,159 @@
+package com.parentalcontrol.service;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.RatingScheme;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable description of a browse list: the movies accessible with a maximum
+ * rating, optionally narrowed to some genres and a range of release years.
+ * <p>
+ * Queries are value objects, so equal filters share one materialized view in the
+ * {@link MovieService} browse cache. Genres are compared case-insensitively.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class BrowseQuery {
+    private final Rating maxRating;
+    private final RatingScheme scheme;
+    private final Set<String> genres;
+    private final int fromYear;
+    private final int toYear;
+
+    private BrowseQuery(Rating maxRating, RatingScheme scheme, Set<String> genres, int fromYear, int toYear) {
+        this.maxRating = maxRating;
+        this.scheme = scheme;
+        this.genres = genres;
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+    }
+
+    /**
+     * Creates a query for every movie accessible with a maximum rating under the
+     * default rating scheme.
+     *
+     * @param maxRating the maximum allowed rating
+     * @return the query
+     */
+    public static BrowseQuery accessibleWith(Rating maxRating) {
+        if (maxRating == null) {
+            throw new IllegalArgumentException("Max rating cannot be null");
+        }
+        return new BrowseQuery(maxRating, RatingScheme.DEFAULT, Collections.emptySet(),
+                               Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Derives a query that applies a different rating scheme.
+     *
+     * @param ratingScheme the rating scheme
+     * @return the derived query
+     */
+    public BrowseQuery withScheme(RatingScheme ratingScheme) {
+        if (ratingScheme == null) {
+            throw new IllegalArgumentException("Rating scheme cannot be null");
+        }
+        return new BrowseQuery(maxRating, ratingScheme, genres, fromYear, toYear);
+    }
+
+    /**
+     * Derives a query limited to movies in any of the given genres.
+     *
+     * @param genreNames the genres to keep; none means every genre
+     * @return the derived query
+     */
+    public BrowseQuery withGenres(String... genreNames) {
+        Set<String> keys = new TreeSet<>();
+        for (String genre : genreNames) {
+            if (genre == null || genre.trim().isEmpty()) {
+                throw new IllegalArgumentException("Genre cannot be null or empty");
+            }
+            keys.add(genre.trim().toLowerCase());
+        }
+        return new BrowseQuery(maxRating, scheme, Collections.unmodifiableSet(keys), fromYear, toYear);
+    }
+
+    /**
+     * Derives a query limited to movies released within a range of years.
+     *
+     * @param from the first year to keep
+     * @param to the last year to keep
+     * @return the derived query
+     */
+    public BrowseQuery withYears(int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("Year range is empty: " + from + " to " + to);
+        }
+        return new BrowseQuery(maxRating, scheme, genres, from, to);
+    }
+
+    public Rating getMaxRating() {
+        return maxRating;
+    }
+
+    public RatingScheme getScheme() {
+        return scheme;
+    }
+
+    public Set<String> getGenres() {
+        return genres;
+    }
+
+    public int getFromYear() {
+        return fromYear;
+    }
+
+    public int getToYear() {
+        return toYear;
+    }
+
+    /**
+     * Checks whether the query filters on anything besides the rating.
+     *
+     * @return true if a genre or year filter is set
+     */
+    public boolean hasFilters() {
+        return !genres.isEmpty() || fromYear != Integer.MIN_VALUE || toYear != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Checks whether a movie passes the genre and year filters. The rating is not
+     * checked; views start from the movies the rating index already allows.
+     *
+     * @param movie the movie
+     * @return true if the movie passes the filters
+     */
+    boolean matchesFilters(Movie movie) {
+        int year = movie.getReleaseYear();
+        if (year < fromYear || year > toYear) {
+            return false;
+        }
+        return genres.isEmpty() || (movie.getGenre() != null && genres.contains(movie.getGenre().trim().toLowerCase()));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        BrowseQuery other = (BrowseQuery) obj;
+        return maxRating == other.maxRating && scheme == other.scheme && fromYear == other.fromYear
+                && toYear == other.toYear && genres.equals(other.genres);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxRating, scheme, genres, fromYear, toYear);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BrowseQuery{maxRating=%s, scheme=%s, genres=%s, years=%d..%d}",
+                           maxRating.name(), scheme.getName(), genres, fromYear, toYear);
+    }
+}
@@ -0,0 +1,123 @@
+package com.parentalcontrol.service;
+
+import com.parentalcontrol.catalog.MovieCatalog;
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.MovieIdSet;
+import com.parentalcontrol.model.ProfilePolicy;
+
+/**
+ * A profile's policy in the form access checks read it.
+ * <p>
+ * A policy with genre or year rules is compiled against one catalog version into
+ * the {@link MovieIdSet} of the movie IDs it permits, so checking access is a
+ * single set probe however many rules the policy has. The set's size follows the
+ * permitted movies, not the range of their IDs: sparse, huge and negative IDs
+ * cost the same as a compact range.
+ * <p>
+ * A policy with only a rating ceiling and title overrides is not compiled: a
+ * check probes the denied and allowed {@link com.parentalcontrol.model.MovieIdSet}s
+ * and then the rating mask. Such entitlements cost only the overrides and never
+ * need recompiling, which keeps millions of override-only profiles affordable.
+ * <p>
+ * Entitlements are immutable; {@link PolicyEngine} derives new ones when the
+ * policy or the catalog changes.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class Entitlements {
+    private final ProfilePolicy policy;
+    private final long catalogVersion;
+    private final MovieCatalog catalog;
+    private final MovieIdSet permittedIds;
+    private final long ratingMask;
+
+    Entitlements(ProfilePolicy policy, long catalogVersion, MovieCatalog catalog, MovieIdSet permittedIds) {
+        this.policy = policy;
+        this.catalogVersion = catalogVersion;
+        this.catalog = catalog;
+        this.permittedIds = permittedIds;
+        this.ratingMask = 0;
+    }
+
+    Entitlements(ProfilePolicy policy, long ratingMask) {
+        this.policy = policy;
+        this.catalogVersion = -1;
+        this.catalog = null;
+        this.permittedIds = null;
+        this.ratingMask = ratingMask;
+    }
+
+    /**
+     * Checks whether the policy permits a movie.
+     *
+     * @param movie the movie
+     * @return true if the movie is permitted
+     */
+    public boolean permits(Movie movie) {
+        return permits(movie.getId(), movie.getRating().ordinal());
+    }
+
+    boolean permits(int movieId, int ratingOrdinal) {
+        MovieIdSet ids = permittedIds;
+        if (ids != null) {
+            return ids.contains(movieId);
+        }
+        if (policy.getDeniedTitles().contains(movieId)) {
+            return false;
+        }
+        return policy.getAllowedTitles().contains(movieId) || ((ratingMask >>> ratingOrdinal) & 1) != 0;
+    }
+
+    /**
+     * Checks whether the policy was compiled into a set of IDs for a catalog version.
+     *
+     * @return true if compiled, false if decided from the rating and overrides
+     */
+    public boolean isCompiled() {
+        return permittedIds != null;
+    }
+
+    public ProfilePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Gets the catalog version the permitted IDs were compiled against.
+     *
+     * @return the version, or -1 if the entitlements are not compiled
+     */
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    /**
+     * Estimates the heap footprint of the entitlements, their policy and its
+     * overrides, assuming compressed object pointers. Blocked genres are not
+     * counted.
+     *
+     * @return the estimated size in bytes
+     */
+    public long getSizeInBytes() {
+        long bytes = 40 + 40 + policy.getAllowedTitles().getSizeInBytes() + policy.getDeniedTitles().getSizeInBytes();
+        return permittedIds == null ? bytes : bytes + permittedIds.getSizeInBytes();
+    }
+
+    MovieCatalog getCatalog() {
+        return catalog;
+    }
+
+    MovieIdSet permittedIds() {
+        return permittedIds;
+    }
+
+    long ratingMask() {
+        return ratingMask;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Entitlements{compiled=%s, catalogVersion=%d, policy=%s}",
+                           isCompiled(), catalogVersion, policy);
+    }
+}
@@ -0,0 +1,53 @@
+package com.parentalcontrol.service;
+
+import com.parentalcontrol.model.Movie;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a result list and the cursor that fetches the next one.
+ * <p>
+ * The cursor is an opaque token holding the key of the page's last movie (see
+ * {@link com.parentalcontrol.catalog.PageCursor}); pass it back unchanged to the
+ * method that produced the page.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class MoviePage {
+    private final List<Movie> movies;
+    private final String nextCursor;
+
+    MoviePage(List<Movie> movies, String nextCursor) {
+        this.movies = Collections.unmodifiableList(movies);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the movies on this page.
+     *
+     * @return unmodifiable list, in the order of the underlying result list
+     */
+    public List<Movie> getMovies() {
+        return movies;
+    }
+
+    /**
+     * Gets the cursor of the next page.
+     *
+     * @return the cursor, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "MoviePage{movies=" + movies.size() + ", nextCursor=" + nextCursor + "}";
+    }
+}
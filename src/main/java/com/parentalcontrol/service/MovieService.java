@@ -1,56 +1,393 @@
 package com.parentalcontrol.service;
 
+import com.parentalcontrol.cache.CacheStats;
+import com.parentalcontrol.cache.WTinyLfuCache;
+import com.parentalcontrol.catalog.CatalogCompiler;
+import com.parentalcontrol.catalog.CatalogImporter;
+import com.parentalcontrol.catalog.CatalogSnapshot;
+import com.parentalcontrol.catalog.CatalogStatistics;
+import com.parentalcontrol.catalog.CatalogStore;
+import com.parentalcontrol.catalog.ColumnarCatalog;
+import com.parentalcontrol.catalog.HeapCatalog;
+import com.parentalcontrol.catalog.MappedCatalog;
+import com.parentalcontrol.catalog.MovieCatalog;
+import com.parentalcontrol.catalog.OverlayCatalog;
+import com.parentalcontrol.catalog.PageCursor;
+import com.parentalcontrol.catalog.RatingIndex;
+import com.parentalcontrol.catalog.TitleSearchIndex;
+import com.parentalcontrol.metrics.CatalogMetrics;
+import com.parentalcontrol.metrics.LatencyHistogram;
+import com.parentalcontrol.metrics.MetricsRegistry;
 import com.parentalcontrol.model.Movie;
 import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.RatingScheme;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Service for managing movie data and operations.
+ * <p>
+ * The catalog is held as an immutable {@link CatalogSnapshot} published through
+ * an atomic reference: every read works against whichever snapshot was current
+ * when it started and never takes a lock, while {@link #reload(Supplier)} builds
+ * a replacement off to the side and swaps it in.
+ * <p>
+ * Browse lists are materialized once per catalog version and kept in a bounded
+ * W-TinyLFU cache, so popular profiles are served without rescanning the catalog.
+ * Publishing a new version drops the views of the old one.
+ * <p>
+ * Movies can be added, replaced and deleted one at a time. Each change publishes
+ * a new version whose indexes are derived from the previous version's; a service
+ * opened on a data directory also journals every change before publishing it.
+ * <p>
+ * Lists can also be read a page at a time with a keyset cursor, or as lazy
+ * streams; both walk the snapshot's title-ordered indexes directly, so their cost
+ * and memory follow the number of movies read rather than the number that match.
  * 
  * @author Parag Chatterjee (Modernized)
  * @version 2.0
  */
-public class MovieService {
+public class MovieService implements AutoCloseable {
     private static final Logger logger = LoggerFactory.getLogger(MovieService.class);
+
+    /** Classpath resource holding the bundled sample catalog. */
+    public static final String DEFAULT_CATALOG_RESOURCE = "movies.json";
+
+    /** Maximum number of materialized browse views kept in memory. */
+    static final int BROWSE_CACHE_SIZE = 512;
+
+    /** Title lookups take well under a microsecond, so only one in this many is timed. */
+    static final int LOOKUP_SAMPLE_INTERVAL = 16;
+
+    /** Journaled changes after which a stored catalog is compacted into a new snapshot. */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 10_000;
+
+    /** Largest page a paginated query returns, which bounds the memory of one request. */
+    public static final int MAX_PAGE_SIZE = 1_000;
+
+    /** Number of search results a search stream fetches from the index at a time. */
+    static final int SEARCH_STREAM_BATCH = 256;
     
-    private final Map<Integer, Movie> movies;
-    private final Map<String, Movie> moviesByTitle;
+    private final AtomicReference<CatalogSnapshot> current;
+    private final ReentrantLock reloadLock = new ReentrantLock(); // serializes every writer
+    private final CatalogStore store;
+    private final int compactionThreshold;
+    private final WTinyLfuCache<ViewKey, List<Movie>> browseViews = new WTinyLfuCache<>(BROWSE_CACHE_SIZE);
+    private final LatencyHistogram findByTitleLatency = new LatencyHistogram(LOOKUP_SAMPLE_INTERVAL);
+    private final LatencyHistogram searchLatency = new LatencyHistogram();
+    private final CatalogMetrics catalogMetrics;
 
+    /**
+     * Creates a service backed by the bundled sample catalog.
+     */
     public MovieService() {
-        this.movies = new HashMap<>();
-        this.moviesByTitle = new HashMap<>();
-        initializeMovies();
+        this(HeapCatalog.fromResource(DEFAULT_CATALOG_RESOURCE));
     }
 
     /**
-     * Initialize the movie database with sample data.
-     * In a real application, this would load from a database or external source.
+     * Creates a service backed by a JSON catalog file.
+     *
+     * @param catalogFile the catalog to stream in
      */
-    private void initializeMovies() {
-        addMovie(new Movie(1, "Baby's Day Out", Rating.U, "Comedy", 1994));
-        addMovie(new Movie(2, "Notting Hill", Rating.PG_13, "Romance", 1999));
-        addMovie(new Movie(3, "The Lion King", Rating.PG, "Animation", 1994));
-        addMovie(new Movie(4, "Inception", Rating.PG_13, "Sci-Fi", 2010));
-        addMovie(new Movie(5, "The Matrix", Rating.R, "Action", 1999));
-        addMovie(new Movie(6, "Finding Nemo", Rating.U, "Animation", 2003));
-        addMovie(new Movie(7, "The Dark Knight", Rating.PG_13, "Action", 2008));
-        addMovie(new Movie(8, "Deadpool", Rating.R, "Action", 2016));
-        
-        logger.info("Initialized movie database with {} movies", movies.size());
+    public MovieService(Path catalogFile) {
+        this(HeapCatalog.fromFile(requireFile(catalogFile, "Catalog file cannot be null")));
     }
 
     /**
-     * Adds a movie to the service.
-     * 
-     * @param movie the movie to add
+     * Creates a service backed by an existing catalog.
+     *
+     * @param catalog the catalog to serve
+     */
+    public MovieService(MovieCatalog catalog) {
+        this(catalog, null, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    private MovieService(MovieCatalog catalog, CatalogStore store, int compactionThreshold) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        this.store = store;
+        this.compactionThreshold = compactionThreshold;
+        this.current = new AtomicReference<>(new CatalogSnapshot(1, catalog));
+        this.catalogMetrics = new CatalogMetrics(() -> current.get().getCatalog().size(),
+                                                 () -> current.get().getVersion());
+    }
+
+    /**
+     * Creates a service that serves lookups straight from a memory-mapped binary
+     * snapshot written by {@link CatalogCompiler}.
+     *
+     * @param snapshotFile the snapshot file
+     * @return a new MovieService
+     */
+    public static MovieService fromSnapshot(Path snapshotFile) {
+        return new MovieService(MappedCatalog.open(requireFile(snapshotFile, "Snapshot file cannot be null")));
+    }
+
+    /**
+     * Creates a service whose catalog changes are durable, stored in a data
+     * directory as a snapshot plus a write-ahead journal (see {@link CatalogStore}).
+     * A new directory starts from the bundled sample catalog.
+     *
+     * @param dataDirectory the data directory
+     * @return a new MovieService; close it to release the journal
+     */
+    public static MovieService open(Path dataDirectory) {
+        return open(dataDirectory, () -> HeapCatalog.fromResource(DEFAULT_CATALOG_RESOURCE),
+                    DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Creates a service whose catalog changes are durable, stored in a data
+     * directory as a snapshot plus a write-ahead journal.
+     *
+     * @param dataDirectory the data directory
+     * @param initial builds the catalog a new directory starts from
+     * @param compactionThreshold journaled changes after which the journal is
+     *                            folded into a new snapshot
+     * @return a new MovieService; close it to release the journal
+     */
+    public static MovieService open(Path dataDirectory, Supplier<? extends MovieCatalog> initial,
+                                    int compactionThreshold) {
+        if (compactionThreshold < 1) {
+            throw new IllegalArgumentException("Compaction threshold must be positive");
+        }
+        CatalogStore store = CatalogStore.open(dataDirectory, initial);
+        return new MovieService(store.getRecoveredCatalog(), store, compactionThreshold);
+    }
+
+    private static Path requireFile(Path file, String message) {
+        if (file == null) {
+            throw new IllegalArgumentException(message);
+        }
+        return file;
+    }
+
+    /**
+     * Gets the catalog snapshot currently served to readers.
+     *
+     * @return the current snapshot
+     */
+    public CatalogSnapshot getSnapshot() {
+        return current.get();
+    }
+
+    /**
+     * Gets the version of the catalog currently served to readers.
+     *
+     * @return the catalog version, starting at 1
+     */
+    public long getCatalogVersion() {
+        return current.get().getVersion();
+    }
+
+    /**
+     * Builds a new catalog and publishes it atomically.
+     * <p>
+     * The catalog is built on the calling thread while readers keep using the
+     * previous snapshot; readers never block. Concurrent reloads are serialized so
+     * versions are published in order. If the loader fails, the current snapshot
+     * stays in place. A service opened on a data directory also persists the new
+     * catalog as its snapshot.
+     *
+     * @param loader builds the replacement catalog
+     * @return the newly published snapshot
+     */
+    public CatalogSnapshot reload(Supplier<? extends MovieCatalog> loader) {
+        if (loader == null) {
+            throw new IllegalArgumentException("Catalog loader cannot be null");
+        }
+        reloadLock.lock();
+        try {
+            long start = System.nanoTime();
+            MovieCatalog catalog = loader.get();
+            if (catalog == null) {
+                throw new IllegalArgumentException("Catalog loader returned null");
+            }
+            MovieCatalog served = store != null ? store.compact(catalog) : catalog;
+            return publishReplacement(current.get().next(served), start);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the catalog with a full feed in CSV or JSON Lines format (see
+     * {@link CatalogImporter}).
+     * <p>
+     * The feed is parsed, deduplicated and indexed in parallel on the common
+     * fork-join pool while readers and writers keep using the current catalog.
+     * The result is then published as one new version, with every index already
+     * built. If the import fails, the current catalog stays in place.
+     *
+     * @param feedFile the feed, its format taken from the extension
+     * @return the import report: rows read, rejected and deduplicated, and rows per second
+     * @throws IllegalArgumentException if the format is unknown or a CSV header is incomplete
      */
-    private void addMovie(Movie movie) {
-        movies.put(movie.getId(), movie);
-        moviesByTitle.put(movie.getTitle().toLowerCase(), movie);
+    public CatalogImporter.ImportReport importCatalog(Path feedFile) {
+        long start = System.nanoTime();
+        CatalogImporter.ImportedCatalog imported =
+                CatalogImporter.importFile(requireFile(feedFile, "Feed file cannot be null"));
+        reloadLock.lock();
+        try {
+            MovieCatalog served = store != null ? store.compact(imported.getCatalog()) : imported.getCatalog();
+            publishReplacement(imported.toSnapshot(current.get().getVersion() + 1, served), start);
+            return imported.getReport();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private CatalogSnapshot publishReplacement(CatalogSnapshot next, long start) {
+        current.set(next.warm());
+        browseViews.invalidateIf(key -> key.version < next.getVersion());
+        long elapsed = System.nanoTime() - start;
+        catalogMetrics.recordReload(elapsed);
+        logger.info("Published catalog version {} ({} movies) in {} ms",
+                   next.getVersion(), next.getCatalog().size(), elapsed / 1_000_000);
+        return next;
+    }
+
+    /**
+     * Adds a movie, or replaces the movie with the same ID, and publishes the
+     * result as a new catalog version. Titles are unique: a movie with the same
+     * title under another ID is removed, as a catalog reload would drop it.
+     * <p>
+     * On a service opened on a data directory the change is journaled and forced
+     * to disk before it becomes visible. The indexes and statistics of the new
+     * version are derived from the previous ones rather than rebuilt, and any the
+     * previous version lacked are built before it is published.
+     *
+     * @param movie the movie
+     * @return the movie it replaced, or null if the ID is new
+     */
+    public Movie upsertMovie(Movie movie) {
+        if (movie == null) {
+            throw new IllegalArgumentException("Movie cannot be null");
+        }
+        reloadLock.lock();
+        try {
+            CatalogSnapshot snapshot = current.get();
+            OverlayCatalog catalog = overlayOf(snapshot);
+            Movie replaced = catalog.findById(movie.getId());
+            Movie displaced = catalog.findByTitle(MovieCatalog.titleKey(movie.getTitle()));
+            if (displaced != null && displaced.getId() == movie.getId()) {
+                displaced = null;
+            }
+            if (store != null) {
+                store.logUpsert(movie);
+            }
+            publish(snapshot.withUpsert(catalog.withUpsert(movie), movie, replaced, displaced));
+            return replaced;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes a movie and publishes the result as a new catalog version.
+     *
+     * @param movieId the ID of the movie to delete
+     * @return true if the movie existed
+     * @see #upsertMovie(Movie)
+     */
+    public boolean deleteMovie(int movieId) {
+        reloadLock.lock();
+        try {
+            CatalogSnapshot snapshot = current.get();
+            OverlayCatalog catalog = overlayOf(snapshot);
+            Movie removed = catalog.findById(movieId);
+            if (removed == null) {
+                return false;
+            }
+            if (store != null) {
+                store.logDelete(movieId);
+            }
+            publish(snapshot.withRemoval(catalog.withRemoval(movieId), removed));
+            return true;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Folds the journal into a new snapshot now instead of waiting for the
+     * compaction threshold. Readers keep their snapshot; the published catalog
+     * keeps its version and its indexes because its content does not change.
+     *
+     * @throws IllegalStateException if the service was not opened on a data directory
+     */
+    public void compactCatalog() {
+        if (store == null) {
+            throw new IllegalStateException("Catalog is not backed by a data directory");
+        }
+        reloadLock.lock();
+        try {
+            CatalogSnapshot snapshot = current.get();
+            current.set(snapshot.withCatalog(store.compact(snapshot.getCatalog())));
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of changes journaled since the last compaction.
+     *
+     * @return the journal length, or 0 if the service was not opened on a data directory
+     */
+    public long getJournalEntryCount() {
+        return store == null ? 0 : store.getJournalEntryCount();
+    }
+
+    /**
+     * Releases the journal of a service opened on a data directory. Other
+     * services need not be closed.
+     */
+    @Override
+    public void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private static OverlayCatalog overlayOf(CatalogSnapshot snapshot) {
+        MovieCatalog catalog = snapshot.getCatalog();
+        return catalog instanceof OverlayCatalog ? (OverlayCatalog) catalog : OverlayCatalog.over(catalog);
+    }
+
+    private void publish(CatalogSnapshot next) {
+        current.set(next.warm());
+        browseViews.invalidateIf(key -> key.version < next.getVersion());
+        if (store != null && store.getJournalEntryCount() >= compactionThreshold) {
+            compactCatalog();
+        }
+    }
+
+    /**
+     * Builds and publishes a new catalog in the background.
+     *
+     * @param loader builds the replacement catalog
+     * @param executor runs the reload
+     * @return a future completed with the newly published snapshot
+     */
+    public CompletableFuture<CatalogSnapshot> reloadAsync(Supplier<? extends MovieCatalog> loader, Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        return CompletableFuture.supplyAsync(() -> reload(loader), executor);
     }
 
     /**
@@ -65,7 +402,12 @@ public class MovieService {
             throw new IllegalArgumentException("Movie title cannot be null or empty");
         }
         
-        Movie movie = moviesByTitle.get(title.trim().toLowerCase());
+        boolean timed = findByTitleLatency.sample();
+        long start = timed ? System.nanoTime() : 0;
+        Movie movie = lookupMovieByTitle(title).orElse(null);
+        if (timed) {
+            findByTitleLatency.recordSince(start);
+        }
         if (movie == null) {
             logger.warn("Movie not found: {}", title);
             throw new IllegalArgumentException("Movie not found: " + title);
@@ -83,7 +425,7 @@ public class MovieService {
      * @throws IllegalArgumentException if the movie is not found
      */
     public Movie findMovieById(int movieId) {
-        Movie movie = movies.get(movieId);
+        Movie movie = lookupMovieById(movieId).orElse(null);
         if (movie == null) {
             logger.warn("Movie not found with ID: {}", movieId);
             throw new IllegalArgumentException("Movie not found with ID: " + movieId);
@@ -93,79 +435,455 @@ public class MovieService {
         return movie;
     }
 
+    /**
+     * Looks up a movie by its title (case-insensitive) without throwing.
+     * <p>
+     * A title that matches no movie exactly is retried in
+     * {@link com.parentalcontrol.catalog.TitleNormalizer normalized} form, so
+     * "Babys Day Out" and "Dark Knight" find "Baby's Day Out" and "The Dark Knight".
+     * The retry normalizes the title and binary-searches the snapshot's normalized
+     * keys, which {@link CatalogSnapshot#warm()} builds before a snapshot is
+     * published; typos are never guessed. A miss builds no exception and logs nothing.
+     *
+     * @param title the movie title to look up
+     * @return the movie, or empty if the title is null, blank or unknown
+     */
+    public Optional<Movie> lookupMovieByTitle(String title) {
+        if (title == null) {
+            return Optional.empty();
+        }
+        CatalogSnapshot snapshot = current.get();
+        Movie movie = snapshot.getCatalog().findByTitle(MovieCatalog.titleKey(title));
+        if (movie == null && !title.isBlank()) {
+            movie = snapshot.getFuzzyTitleIndex().find(title);
+        }
+        return Optional.ofNullable(movie);
+    }
+
+    /**
+     * Resolves a title that may be misspelled, without throwing.
+     * <p>
+     * Tries {@link #lookupMovieByTitle(String)} first, then accepts the closest
+     * title if exactly one is within the allowed edit distance (none for titles
+     * of up to three characters, one below 16, two beyond), so "Incepton" and
+     * "The Matirx" resolve while a query equally close to two titles does not.
+     * Candidates come from a symmetric-delete index, never from a catalog scan.
+     * The first typo lookup after a reload or import builds that index, which
+     * takes seconds at a million titles. Later lookups reuse it, including those
+     * on versions derived by upserts and deletes.
+     *
+     * @param title the movie title to resolve
+     * @return the movie, or empty if no title is close enough or the closest is ambiguous
+     */
+    public Optional<Movie> resolveMovieTitle(String title) {
+        if (title == null) {
+            return Optional.empty();
+        }
+        CatalogSnapshot snapshot = current.get();
+        Movie movie = snapshot.getCatalog().findByTitle(MovieCatalog.titleKey(title));
+        if (movie == null && !title.isBlank()) {
+            movie = snapshot.getFuzzyTitleIndex().resolve(title);
+        }
+        return Optional.ofNullable(movie);
+    }
+
+    /**
+     * Suggests titles close to one that was not found, for "did you mean" prompts.
+     *
+     * @param title the title as entered
+     * @param limit the maximum number of suggestions
+     * @return movies with an equal or nearby normalized title, closest first
+     */
+    public List<Movie> suggestTitles(String title, int limit) {
+        if (title == null || title.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return current.get().getFuzzyTitleIndex().similar(title, limit);
+    }
+
+    /**
+     * Looks up a movie by its ID without throwing.
+     *
+     * @param movieId the movie ID
+     * @return the movie, or empty if the ID is unknown
+     */
+    public Optional<Movie> lookupMovieById(int movieId) {
+        return Optional.ofNullable(current.get().getCatalog().findById(movieId));
+    }
+
     /**
      * Searches for movies by partial title match (case-insensitive).
      * 
      * @param partialTitle the partial title to search for
-     * @return list of matching movies
+     * @return list of matching movies, prefix matches first, then shorter titles
      */
     public List<Movie> searchMoviesByTitle(String partialTitle) {
+        return searchMoviesByTitle(partialTitle, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Searches for movies by partial title match (case-insensitive), returning at
+     * most {@code limit} results.
+     * <p>
+     * Answered from the snapshot's trigram index, so latency depends on the
+     * number of candidates rather than catalog size.
+     *
+     * @param partialTitle the partial title to search for
+     * @param limit the maximum number of results
+     * @return list of matching movies, prefix matches first, then shorter titles
+     */
+    public List<Movie> searchMoviesByTitle(String partialTitle, int limit) {
         if (partialTitle == null || partialTitle.trim().isEmpty()) {
             return new ArrayList<>();
         }
         
-        String searchTerm = partialTitle.trim().toLowerCase();
-        List<Movie> results = movies.values().stream()
-                .filter(movie -> movie.getTitle().toLowerCase().contains(searchTerm))
-                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        List<Movie> results = current.get().getSearchIndex().search(partialTitle, limit);
+        searchLatency.recordSince(start);
         
         logger.debug("Search for '{}' returned {} results", partialTitle, results.size());
         return results;
     }
 
+    /**
+     * Finds movies whose title starts with the given prefix (case-insensitive),
+     * for autocomplete.
+     *
+     * @param prefix the title prefix
+     * @param limit the maximum number of results
+     * @return list of matching movies, shorter titles first
+     */
+    public List<Movie> findMoviesByTitlePrefix(String prefix, int limit) {
+        if (prefix == null || prefix.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return current.get().getSearchIndex().prefixSearch(prefix, limit);
+    }
+
     /**
      * Gets all movies with a specific rating.
      * 
      * @param rating the rating to filter by
-     * @return list of movies with the specified rating
+     * @return unmodifiable list of movies with the specified rating, sorted by title
      */
     public List<Movie> getMoviesByRating(Rating rating) {
         if (rating == null) {
             return new ArrayList<>();
         }
         
-        return movies.values().stream()
-                .filter(movie -> movie.getRating() == rating)
-                .sorted(Comparator.comparing(Movie::getTitle))
-                .collect(Collectors.toList());
+        return current.get().getRatingIndex().byRating(rating);
     }
 
     /**
      * Gets all movies that are accessible with the given parental control rating.
      * 
      * @param maxRating the maximum allowed rating
-     * @return list of accessible movies
+     * @return unmodifiable list of accessible movies, sorted by title
      */
     public List<Movie> getAccessibleMovies(Rating maxRating) {
         if (maxRating == null) {
             return new ArrayList<>();
         }
         
-        return movies.values().stream()
-                .filter(movie -> movie.getRating().isAccessibleWith(maxRating))
-                .sorted(Comparator.comparing(Movie::getTitle))
-                .collect(Collectors.toList());
+        return browse(BrowseQuery.accessibleWith(maxRating));
+    }
+
+    /**
+     * Gets all movies that are accessible with the given rating under a rating scheme.
+     *
+     * @param maxRating the maximum allowed rating
+     * @param scheme the rating scheme to apply
+     * @return unmodifiable list of accessible movies, sorted by title
+     */
+    public List<Movie> getAccessibleMovies(Rating maxRating, RatingScheme scheme) {
+        if (maxRating == null) {
+            return new ArrayList<>();
+        }
+        if (scheme == null) {
+            throw new IllegalArgumentException("Rating scheme cannot be null");
+        }
+
+        return browse(BrowseQuery.accessibleWith(maxRating).withScheme(scheme));
+    }
+
+    /**
+     * Gets a browse list, served from the view cache when this catalog version
+     * has materialized it before.
+     *
+     * @param query the rating, genre and year filters
+     * @return unmodifiable list of matching movies, sorted by title
+     */
+    public List<Movie> browse(BrowseQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Browse query cannot be null");
+        }
+        CatalogSnapshot snapshot = current.get();
+        ViewKey key = new ViewKey(query, snapshot.getVersion());
+        List<Movie> view = browseViews.getIfPresent(key);
+        if (view == null) {
+            view = materialize(snapshot, query);
+            if (current.get() == snapshot) { // a view of a superseded version would never be read
+                browseViews.put(key, view);
+            }
+        }
+        return view;
+    }
+
+    /**
+     * Gets one page of every movie, in title order.
+     *
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param limit the page size, at most {@link #MAX_PAGE_SIZE}
+     * @return the page
+     * @throws IllegalArgumentException if the limit is out of range or the cursor is invalid
+     */
+    public MoviePage getAllMoviesPage(String cursor, int limit) {
+        checkPageSize(limit);
+        return page(current.get().getRatingIndex().spliterator(decodeCursor(cursor)), null, limit);
+    }
+
+    /**
+     * Gets one page of the movies accessible with a maximum rating, in title order.
+     *
+     * @param maxRating the maximum allowed rating
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param limit the page size, at most {@link #MAX_PAGE_SIZE}
+     * @return the page
+     * @throws IllegalArgumentException if the limit is out of range or the cursor is invalid
+     */
+    public MoviePage getAccessibleMoviesPage(Rating maxRating, String cursor, int limit) {
+        if (maxRating == null) {
+            throw new IllegalArgumentException("Max rating cannot be null");
+        }
+        return browsePage(BrowseQuery.accessibleWith(maxRating), cursor, limit);
+    }
+
+    /**
+     * Gets one page of a browse list, in title order.
+     * <p>
+     * The page is read from the rating index starting at the cursor, without
+     * materializing the list. A page costs O(page size) plus, for genre and year
+     * filters, the non-matching movies skipped along the way.
+     *
+     * @param query the rating, genre and year filters
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param limit the page size, at most {@link #MAX_PAGE_SIZE}
+     * @return the page
+     * @throws IllegalArgumentException if the limit is out of range or the cursor is invalid
+     */
+    public MoviePage browsePage(BrowseQuery query, String cursor, int limit) {
+        if (query == null) {
+            throw new IllegalArgumentException("Browse query cannot be null");
+        }
+        checkPageSize(limit);
+        Spliterator<Movie> movies = current.get().getRatingIndex()
+                .spliterator(query.getMaxRating(), query.getScheme(), decodeCursor(cursor));
+        return page(movies, query.hasFilters() ? query::matchesFilters : null, limit);
+    }
+
+    /**
+     * Gets one page of title search results, in the order of
+     * {@link #searchMoviesByTitle(String, int)}.
+     *
+     * @param partialTitle the partial title to search for
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param limit the page size, at most {@link #MAX_PAGE_SIZE}
+     * @return the page
+     * @throws IllegalArgumentException if the limit is out of range or the cursor is invalid
+     */
+    public MoviePage searchMoviesByTitlePage(String partialTitle, String cursor, int limit) {
+        checkPageSize(limit);
+        PageCursor after = decodeCursor(cursor);
+        if (partialTitle == null || partialTitle.trim().isEmpty()) {
+            return new MoviePage(new ArrayList<>(), null);
+        }
+
+        long start = System.nanoTime();
+        List<Movie> results = current.get().getSearchIndex().search(partialTitle, after, limit + 1);
+        searchLatency.recordSince(start);
+        return toPage(results, limit);
+    }
+
+    /**
+     * Streams every movie in title order. The stream reads the catalog version
+     * current when it was created, produces movies lazily and splits evenly for
+     * parallel consumers.
+     *
+     * @return a sized, sorted stream
+     */
+    public Stream<Movie> streamAllMovies() {
+        return StreamSupport.stream(current.get().getRatingIndex().spliterator(null), false);
+    }
+
+    /**
+     * Streams the movies accessible with a maximum rating in title order.
+     *
+     * @param maxRating the maximum allowed rating
+     * @return a sorted stream
+     * @see #browseStream(BrowseQuery)
+     */
+    public Stream<Movie> streamAccessibleMovies(Rating maxRating) {
+        if (maxRating == null) {
+            throw new IllegalArgumentException("Max rating cannot be null");
+        }
+        return browseStream(BrowseQuery.accessibleWith(maxRating));
+    }
+
+    /**
+     * Streams a browse list in title order. Unlike {@link #browse(BrowseQuery)}
+     * nothing is materialized or cached: the accessible ratings' index arrays are
+     * merged as the stream is consumed.
+     *
+     * @param query the rating, genre and year filters
+     * @return a sorted stream
+     */
+    public Stream<Movie> browseStream(BrowseQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Browse query cannot be null");
+        }
+        Stream<Movie> movies = StreamSupport.stream(
+                current.get().getRatingIndex().spliterator(query.getMaxRating(), query.getScheme(), null), false);
+        return query.hasFilters() ? movies.filter(query::matchesFilters) : movies;
+    }
+
+    /**
+     * Streams title search results in the order of {@link #searchMoviesByTitle(String)},
+     * fetching them from the search index {@value #SEARCH_STREAM_BATCH} at a time.
+     *
+     * @param partialTitle the partial title to search for
+     * @return an ordered stream
+     */
+    public Stream<Movie> streamSearchResults(String partialTitle) {
+        if (partialTitle == null || partialTitle.trim().isEmpty()) {
+            return Stream.empty();
+        }
+        Iterator<Movie> results = new SearchResultIterator(current.get().getSearchIndex(), partialTitle);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                results, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    private static void checkPageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ": " + limit);
+        }
+    }
+
+    private static PageCursor decodeCursor(String cursor) {
+        return cursor == null ? null : PageCursor.decode(cursor);
+    }
+
+    /** Reads up to {@code limit + 1} matching movies, the extra one telling whether a next page exists. */
+    private static MoviePage page(Spliterator<Movie> movies, Predicate<Movie> filter, int limit) {
+        List<Movie> page = new ArrayList<>(Math.min(limit + 1, 64));
+        Consumer<Movie> collect = filter == null ? page::add : movie -> {
+            if (filter.test(movie)) {
+                page.add(movie);
+            }
+        };
+        while (page.size() <= limit && movies.tryAdvance(collect)) {
+            // advance to the next match
+        }
+        return toPage(page, limit);
+    }
+
+    private static MoviePage toPage(List<Movie> movies, int limit) {
+        if (movies.size() <= limit) {
+            return new MoviePage(movies, null);
+        }
+        movies.remove(limit);
+        return new MoviePage(movies, PageCursor.after(movies.get(limit - 1)).encode());
+    }
+
+    /**
+     * Gets the browse view cache statistics.
+     *
+     * @return hit, miss and eviction counts
+     */
+    public CacheStats getBrowseCacheStats() {
+        return browseViews.stats();
+    }
+
+    /**
+     * Gets the latency of {@link #findMovieByTitle(String)}, sampled.
+     *
+     * @return the latency histogram
+     */
+    public LatencyHistogram getFindByTitleLatency() {
+        return findByTitleLatency;
+    }
+
+    /**
+     * Gets the latency of {@link #searchMoviesByTitle(String, int)}.
+     *
+     * @return the latency histogram
+     */
+    public LatencyHistogram getSearchLatency() {
+        return searchLatency;
+    }
+
+    /**
+     * Gets the catalog size, version and reload-duration gauges.
+     *
+     * @return the catalog metrics
+     */
+    public CatalogMetrics getCatalogMetrics() {
+        return catalogMetrics;
+    }
+
+    /**
+     * Publishes this service's metrics as MBeans on the platform MBean server.
+     *
+     * @param scope distinguishes this service instance from others in the process
+     */
+    public void registerMBeans(String scope) {
+        MetricsRegistry.register(MetricsRegistry.objectName(scope, "Latency", "findMovieByTitle"), findByTitleLatency);
+        MetricsRegistry.register(MetricsRegistry.objectName(scope, "Latency", "searchMoviesByTitle"), searchLatency);
+        MetricsRegistry.register(MetricsRegistry.objectName(scope, "Catalog", "catalog"), catalogMetrics);
+    }
+
+    private static List<Movie> materialize(CatalogSnapshot snapshot, BrowseQuery query) {
+        if (!query.hasFilters()) {
+            return snapshot.getRatingIndex().accessible(query.getMaxRating(), query.getScheme());
+        }
+        if (snapshot.getCatalog() instanceof ColumnarCatalog) {
+            List<Movie> selected = ((ColumnarCatalog) snapshot.getCatalog()).select(
+                    query.getScheme().allowedMask(query.getMaxRating()), query.getGenres(),
+                    query.getFromYear(), query.getToYear());
+            selected.sort(RatingIndex.TITLE_ORDER);
+            return Collections.unmodifiableList(selected);
+        }
+        return snapshot.getRatingIndex().accessible(query.getMaxRating(), query.getScheme()).stream()
+                .filter(query::matchesFilters)
+                .collect(Collectors.toUnmodifiableList());
     }
 
     /**
      * Gets all movies in the database.
      * 
-     * @return list of all movies
+     * @return unmodifiable list of all movies, sorted by title
      */
     public List<Movie> getAllMovies() {
-        return movies.values().stream()
-                .sorted(Comparator.comparing(Movie::getTitle))
-                .collect(Collectors.toList());
+        return current.get().getRatingIndex().all();
     }
 
     /**
      * Gets movie statistics by rating.
      * 
-     * @return map of rating to count
+     * @return unmodifiable map of rating to count, leaving out ratings no movie has
      */
     public Map<Rating, Long> getMovieCountByRating() {
-        return movies.values().stream()
-                .collect(Collectors.groupingBy(Movie::getRating, Collectors.counting()));
+        return current.get().getStatistics().getCountByRating();
+    }
+
+    /**
+     * Gets the statistics of the current catalog: counts per rating, genre and
+     * release decade and per rating ceiling. Every count in the result describes
+     * the same catalog version.
+     *
+     * @return the statistics
+     */
+    public CatalogStatistics getCatalogStatistics() {
+        return current.get().getStatistics();
     }
 
     /**
@@ -178,6 +896,72 @@ public class MovieService {
         if (title == null || title.trim().isEmpty()) {
             return false;
         }
-        return moviesByTitle.containsKey(title.trim().toLowerCase());
+        return lookupMovieByTitle(title).isPresent();
+    }
+
+    /**
+     * Walks search results in batches, resuming each batch after the last movie
+     * of the previous one.
+     */
+    private static final class SearchResultIterator implements Iterator<Movie> {
+        private final TitleSearchIndex index;
+        private final String query;
+        private List<Movie> batch = Collections.emptyList();
+        private int position;
+        private boolean exhausted;
+
+        SearchResultIterator(TitleSearchIndex index, String query) {
+            this.index = index;
+            this.query = query;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (position < batch.size()) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            PageCursor after = batch.isEmpty() ? null : PageCursor.after(batch.get(batch.size() - 1));
+            batch = index.search(query, after, SEARCH_STREAM_BATCH);
+            position = 0;
+            exhausted = batch.size() < SEARCH_STREAM_BATCH;
+            return !batch.isEmpty();
+        }
+
+        @Override
+        public Movie next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return batch.get(position++);
+        }
+    }
+
+    /**
+     * Cache key of a browse view: the query and the catalog version it was built from.
+     */
+    private static final class ViewKey {
+        private final BrowseQuery query;
+        private final long version;
+
+        ViewKey(BrowseQuery query, long version) {
+            this.query = query;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof ViewKey)) return false;
+            ViewKey other = (ViewKey) obj;
+            return version == other.version && query.equals(other.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * query.hashCode() + Long.hashCode(version);
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,40 @@
 package com.parentalcontrol.service;
 
+import com.parentalcontrol.audit.AuditSink;
+import com.parentalcontrol.catalog.CatalogSnapshot;
+import com.parentalcontrol.catalog.MovieCatalog;
+import com.parentalcontrol.metrics.DecisionCounters;
+import com.parentalcontrol.metrics.LatencyHistogram;
+import com.parentalcontrol.metrics.MetricsRegistry;
 import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.MovieIdSet;
+import com.parentalcontrol.model.ProfilePolicy;
 import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.RatingScheme;
 import com.parentalcontrol.model.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
 /**
  * Main service for parental control functionality.
+ * <p>
+ * Each service applies one {@link RatingScheme}, so a process serving several
+ * regions holds one service per scheme over a shared {@link MovieService}.
+ * <p>
+ * A user whose username has a {@link ProfilePolicy} in the service's
+ * {@link PolicyEngine} is checked against that policy's
+ * {@link Entitlements} instead of the user's rating ceiling.
+ * <p>
+ * Users registered in the service's {@link UserService} can also be checked by
+ * ID; their rating ceiling is read from the user store without building a
+ * {@link User}.
  * 
  * @author Parag Chatterjee (Modernized)
  * @version 2.0
@@ -15,27 +42,146 @@ import org.slf4j.LoggerFactory;
 public class ParentalControlService {
     private static final Logger logger = LoggerFactory.getLogger(ParentalControlService.class);
     
+    /** Batches with at least this many cells are split across the fork/join pool. */
+    static final int PARALLEL_CELL_THRESHOLD = 1 << 16;
+
+    /** Rating code used in batch loops for titles that were not found; no ceiling allows it. */
+    private static final byte NOT_FOUND_CODE = (byte) Rating.values().length;
+
+    /** The users behind the legacy API, one per rating, so legacy checks don't build one per call. */
+    private static final User[] LEGACY_USERS = Arrays.stream(Rating.values())
+                                                     .map(rating -> new User("legacy_user", 18, rating))
+                                                     .toArray(User[]::new);
+
     private final MovieService movieService;
+    private final RatingScheme ratingScheme;
+    private final ForkJoinPool batchPool;
+    private final AuditSink auditSink;
+    private final PolicyEngine policyEngine;
+    private final UserService userService;
+    private final DecisionCounters decisionCounters = new DecisionCounters();
+    private final LatencyHistogram checkAccessLatency = new LatencyHistogram(MovieService.LOOKUP_SAMPLE_INTERVAL);
 
     public ParentalControlService(MovieService movieService) {
+        this(movieService, RatingScheme.DEFAULT, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a service that runs large batch checks on the given pool.
+     *
+     * @param movieService the movie service
+     * @param batchPool the pool for parallel batch checks
+     */
+    public ParentalControlService(MovieService movieService, ForkJoinPool batchPool) {
+        this(movieService, RatingScheme.DEFAULT, batchPool);
+    }
+
+    /**
+     * Creates a service that decides access under the given rating scheme.
+     *
+     * @param movieService the movie service
+     * @param ratingScheme the rating scheme to apply
+     */
+    public ParentalControlService(MovieService movieService, RatingScheme ratingScheme) {
+        this(movieService, ratingScheme, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a service with a rating scheme and a pool for large batch checks.
+     *
+     * @param movieService the movie service
+     * @param ratingScheme the rating scheme to apply
+     * @param batchPool the pool for parallel batch checks
+     */
+    public ParentalControlService(MovieService movieService, RatingScheme ratingScheme, ForkJoinPool batchPool) {
+        this(movieService, ratingScheme, batchPool, AuditSink.NONE);
+    }
+
+    /**
+     * Creates a service that records every single access decision to an audit sink.
+     *
+     * @param movieService the movie service
+     * @param ratingScheme the rating scheme to apply
+     * @param batchPool the pool for parallel batch checks
+     * @param auditSink receives a record of every grant, deny and not-found check
+     */
+    public ParentalControlService(MovieService movieService, RatingScheme ratingScheme, ForkJoinPool batchPool,
+                                  AuditSink auditSink) {
+        this(movieService, ratingScheme, batchPool, auditSink, new UserService());
+    }
+
+    /**
+     * Creates a service that resolves user IDs against a user registry.
+     *
+     * @param movieService the movie service
+     * @param userService the registry of users checked by ID
+     */
+    public ParentalControlService(MovieService movieService, UserService userService) {
+        this(movieService, RatingScheme.DEFAULT, ForkJoinPool.commonPool(), AuditSink.NONE, userService);
+    }
+
+    /**
+     * Creates a service with every collaborator given.
+     *
+     * @param movieService the movie service
+     * @param ratingScheme the rating scheme to apply
+     * @param batchPool the pool for parallel batch checks
+     * @param auditSink receives a record of every grant, deny and not-found check
+     * @param userService the registry of users checked by ID
+     */
+    public ParentalControlService(MovieService movieService, RatingScheme ratingScheme, ForkJoinPool batchPool,
+                                  AuditSink auditSink, UserService userService) {
+        if (ratingScheme == null) {
+            throw new IllegalArgumentException("Rating scheme cannot be null");
+        }
+        if (batchPool == null) {
+            throw new IllegalArgumentException("Batch pool cannot be null");
+        }
+        if (auditSink == null) {
+            throw new IllegalArgumentException("Audit sink cannot be null");
+        }
+        if (userService == null) {
+            throw new IllegalArgumentException("User service cannot be null");
+        }
         this.movieService = movieService;
+        this.ratingScheme = ratingScheme;
+        this.batchPool = batchPool;
+        this.auditSink = auditSink;
+        this.policyEngine = new PolicyEngine(movieService, ratingScheme);
+        this.userService = userService;
     }
 
     /**
      * Default constructor with new MovieService instance.
      */
     public ParentalControlService() {
-        this.movieService = new MovieService();
+        this(new MovieService());
     }
 
     /**
      * Checks if a user can watch a specific movie.
+     * <p>
+     * The title is looked up with {@link MovieService#lookupMovieByTitle(String)},
+     * so it matches exactly or in normalized form but is never guessed from a typo,
+     * which could check a different movie; the result names the movie that was
+     * checked. Callers that want typo resolution use
+     * {@link MovieService#resolveMovieTitle(String)} first.
      * 
      * @param user the user requesting access
      * @param movieTitle the title of the movie
      * @return AccessResult containing the decision and reason
      */
     public AccessResult checkAccess(User user, String movieTitle) {
+        boolean timed = checkAccessLatency.sample();
+        long start = timed ? System.nanoTime() : 0;
+        AccessResult result = resolveAndCheck(user, movieTitle);
+        if (timed) {
+            checkAccessLatency.recordSince(start);
+        }
+        return result;
+    }
+
+    private AccessResult resolveAndCheck(User user, String movieTitle) {
         if (user == null) {
             logger.error("Access check failed: user is null");
             throw new IllegalArgumentException("User cannot be null");
@@ -46,13 +192,110 @@ public class ParentalControlService {
             throw new IllegalArgumentException("Movie title cannot be null or empty");
         }
 
-        try {
-            Movie movie = movieService.findMovieByTitle(movieTitle);
-            return checkAccess(user, movie);
-        } catch (IllegalArgumentException e) {
-            logger.warn("Movie not found for access check: {} (user: {})", movieTitle, user.getUsername());
-            return AccessResult.denied("Movie not found: " + movieTitle);
+        Movie movie = movieService.lookupMovieByTitle(movieTitle).orElse(null);
+        if (movie == null) {
+            logger.debug("Movie not found for access check: {} (user: {})", movieTitle, user.getUsername());
+            recordNotFound(user.getUsername(), user.getMaxAllowedRating(), movieTitle);
+            return AccessResult.of(AccessDecision.notFound(), movieTitle);
         }
+        return checkAccess(user, movie);
+    }
+
+    /**
+     * Decides if a user can watch a movie by title without throwing on a miss.
+     * <p>
+     * An unknown title yields {@link AccessDecision.Verdict#NOT_FOUND} through the
+     * same path as a hit; no exception is created and nothing is logged. Titles
+     * are looked up as in {@link #checkAccess(User, String)}.
+     *
+     * @param user the user requesting access
+     * @param movieTitle the title of the movie
+     * @return the access decision
+     */
+    public AccessDecision decide(User user, String movieTitle) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        Movie movie = movieService.lookupMovieByTitle(movieTitle).orElse(null);
+        if (movie == null) {
+            recordNotFound(user.getUsername(), user.getMaxAllowedRating(), movieTitle);
+            return AccessDecision.notFound();
+        }
+        return decide(user, movie);
+    }
+
+    /**
+     * Checks if a registered user can watch a specific movie.
+     *
+     * @param userId the user's ID in the service's {@link UserService}
+     * @param movieTitle the title of the movie
+     * @return AccessResult containing the decision and reason
+     * @throws IllegalArgumentException if the ID is not registered or the title is empty
+     */
+    public AccessResult checkAccess(int userId, String movieTitle) {
+        boolean timed = checkAccessLatency.sample();
+        long start = timed ? System.nanoTime() : 0;
+        if (movieTitle == null || movieTitle.trim().isEmpty()) {
+            throw new IllegalArgumentException("Movie title cannot be null or empty");
+        }
+        Rating maxRating = userService.getMaxAllowedRating(userId);
+        Movie movie = movieService.lookupMovieByTitle(movieTitle).orElse(null);
+        AccessResult result;
+        if (movie == null) {
+            recordNotFound(usernameIfNeeded(userId), maxRating, movieTitle);
+            result = AccessResult.of(AccessDecision.notFound(), movieTitle);
+        } else {
+            result = AccessResult.of(decide(usernameIfNeeded(userId), maxRating, movie), movie.getTitle());
+        }
+        if (timed) {
+            checkAccessLatency.recordSince(start);
+        }
+        return result;
+    }
+
+    /**
+     * Decides if a registered user can watch a movie by title without throwing on
+     * a miss.
+     *
+     * @param userId the user's ID in the service's {@link UserService}
+     * @param movieTitle the title of the movie
+     * @return the access decision
+     * @throws IllegalArgumentException if the ID is not registered
+     */
+    public AccessDecision decide(int userId, String movieTitle) {
+        Rating maxRating = userService.getMaxAllowedRating(userId);
+        Movie movie = movieService.lookupMovieByTitle(movieTitle).orElse(null);
+        if (movie == null) {
+            recordNotFound(usernameIfNeeded(userId), maxRating, movieTitle);
+            return AccessDecision.notFound();
+        }
+        return decide(usernameIfNeeded(userId), maxRating, movie);
+    }
+
+    /**
+     * Decides if a registered user can watch a specific movie.
+     * <p>
+     * The rating ceiling is read from the user store. The username is decoded
+     * only when a profile policy, the audit log or debug logging needs it, so with
+     * none of those the check allocates nothing.
+     *
+     * @param userId the user's ID in the service's {@link UserService}
+     * @param movie the movie
+     * @return the access decision
+     * @throws IllegalArgumentException if the ID is not registered
+     */
+    public AccessDecision decide(int userId, Movie movie) {
+        Rating maxRating = userService.getMaxAllowedRating(userId);
+        if (movie == null) {
+            throw new IllegalArgumentException("Movie cannot be null");
+        }
+        return decide(usernameIfNeeded(userId), maxRating, movie);
+    }
+
+    private String usernameIfNeeded(int userId) {
+        boolean needed = policyEngine.getProfileCount() > 0 || auditSink != AuditSink.NONE
+                         || logger.isDebugEnabled();
+        return needed ? userService.getUsername(userId) : null;
     }
 
     /**
@@ -63,32 +306,255 @@ public class ParentalControlService {
      * @return AccessResult containing the decision and reason
      */
     public AccessResult checkAccess(User user, Movie movie) {
+        AccessDecision decision = decide(user, movie);
+        return AccessResult.of(decision, movie.getTitle());
+    }
+
+    /**
+     * Decides if a user can watch a specific movie without allocating.
+     * <p>
+     * This is the hot path behind {@link #checkAccess(User, Movie)}: the result is
+     * a shared {@link AccessDecision} constant and no reason text is rendered.
+     *
+     * @param user the user requesting access
+     * @param movie the movie
+     * @return the access decision
+     */
+    public AccessDecision decide(User user, Movie movie) {
         if (user == null) {
             throw new IllegalArgumentException("User cannot be null");
         }
         if (movie == null) {
             throw new IllegalArgumentException("Movie cannot be null");
         }
+        return decide(user.getUsername(), user.getMaxAllowedRating(), movie);
+    }
 
-        Rating movieRating = movie.getRating();
-        Rating userMaxRating = user.getMaxAllowedRating();
-        
-        boolean canWatch = user.canWatch(movieRating);
-        
-        if (canWatch) {
-            logger.info("Access granted: {} can watch '{}' (rating: {})", 
-                       user.getUsername(), movie.getTitle(), movieRating);
-            return AccessResult.allowed(
-                String.format("Access granted. You can watch '%s' (rated %s)", 
-                             movie.getTitle(), movieRating.getDisplayName())
-            );
+    // The username is null only when no policy, audit sink or debug log could use it.
+    private AccessDecision decide(String username, Rating maxRating, Movie movie) {
+        Entitlements entitlements = username == null ? null : policyEngine.entitlementsOf(username);
+        AccessDecision decision = entitlements == null
+            ? AccessDecision.of(movie.getRating(), maxRating, ratingScheme)
+            : AccessDecision.of(entitlements.permits(movie), movie.getRating(),
+                                entitlements.getPolicy().getMaxRating(), ratingScheme);
+        if (decision.isAllowed()) {
+            decisionCounters.recordGranted(movie.getRating());
+        } else {
+            decisionCounters.recordDenied(movie.getRating());
+        }
+        auditSink.append(username, decision.getUserMaxRating(), movie.getTitle(), movie.getId(),
+                         movie.getRating(), decision.getVerdict().name());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Access {}: {} -> '{}' (movie rating: {}, user max: {})",
+                        decision.getVerdict(), username, movie.getTitle(),
+                        decision.getMovieRating(), decision.getUserMaxRating());
+        }
+        return decision;
+    }
+
+    private void recordNotFound(String username, Rating maxRating, String movieTitle) {
+        decisionCounters.recordNotFound();
+        auditSink.append(username, maxRating, movieTitle, -1, null,
+                         AccessDecision.Verdict.NOT_FOUND.name());
+    }
+
+    /**
+     * Checks which of many titles one user can watch.
+     *
+     * @param user the user requesting access
+     * @param movieTitles the titles to check
+     * @return a one-row matrix with a column per title, in request order
+     */
+    public AccessMatrix checkAccessBatch(User user, List<String> movieTitles) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        return checkAccessMatrixForTitles(List.of(user), movieTitles);
+    }
+
+    /**
+     * Checks which of many titles each of many users can watch.
+     * <p>
+     * Every title is resolved once against a single catalog snapshot, exactly or
+     * in normalized form but never by guessing at a typo; decisions
+     * are then computed over rating ordinals, splitting large batches across the
+     * fork/join pool. Rows of users with a profile policy are then filled from
+     * their entitlements.
+     *
+     * @param users the users requesting access
+     * @param movieTitles the titles to check; unknown titles are denied and not found
+     * @return a matrix with a row per user and a column per title, in request order
+     */
+    public AccessMatrix checkAccessMatrixForTitles(List<User> users, List<String> movieTitles) {
+        if (movieTitles == null) {
+            throw new IllegalArgumentException("Movie titles cannot be null");
+        }
+        CatalogSnapshot snapshot = movieService.getSnapshot();
+        MovieCatalog catalog = snapshot.getCatalog();
+        byte[] ratings = new byte[movieTitles.size()];
+        int[] movieIds = new int[ratings.length];
+        IntConsumer resolve = i -> {
+            String title = movieTitles.get(i);
+            Movie movie = title == null ? null : catalog.findByTitle(MovieCatalog.titleKey(title));
+            if (movie == null && title != null && !title.isBlank()) {
+                movie = snapshot.getFuzzyTitleIndex().find(title);
+            }
+            ratings[i] = movie == null ? NOT_FOUND_CODE : (byte) movie.getRating().ordinal();
+            movieIds[i] = movie == null ? -1 : movie.getId();
+        };
+        if (ratings.length >= PARALLEL_CELL_THRESHOLD / 16) {
+            batchPool.submit(() -> IntStream.range(0, ratings.length).parallel().forEach(resolve)).join();
         } else {
-            logger.info("Access denied: {} cannot watch '{}' (movie rating: {}, user max: {})", 
-                       user.getUsername(), movie.getTitle(), movieRating, userMaxRating);
-            return AccessResult.denied(
-                String.format("Access denied. '%s' is rated %s, but your maximum allowed rating is %s", 
-                             movie.getTitle(), movieRating.getDisplayName(), userMaxRating.getDisplayName())
-            );
+            for (int i = 0; i < ratings.length; i++) {
+                resolve.accept(i);
+            }
+        }
+        return decideAll(users, ratings, movieIds);
+    }
+
+    /**
+     * Checks which of many movies each of many users can watch.
+     *
+     * @param users the users requesting access
+     * @param movies the movies to check
+     * @return a matrix with a row per user and a column per movie, in request order
+     */
+    public AccessMatrix checkAccessMatrix(List<User> users, List<Movie> movies) {
+        if (movies == null) {
+            throw new IllegalArgumentException("Movies cannot be null");
+        }
+        byte[] ratings = new byte[movies.size()];
+        int[] movieIds = new int[ratings.length];
+        for (int i = 0; i < ratings.length; i++) {
+            Movie movie = movies.get(i);
+            if (movie == null) {
+                throw new IllegalArgumentException("Movie cannot be null");
+            }
+            ratings[i] = (byte) movie.getRating().ordinal();
+            movieIds[i] = movie.getId();
+        }
+        return decideAll(users, ratings, movieIds);
+    }
+
+    private AccessMatrix decideAll(List<User> users, byte[] ratings, int[] movieIds) {
+        if (users == null) {
+            throw new IllegalArgumentException("Users cannot be null");
+        }
+        int[] masks = new int[users.size()];
+        Entitlements[] entitlements = null;
+        for (int i = 0; i < masks.length; i++) {
+            User user = users.get(i);
+            if (user == null) {
+                throw new IllegalArgumentException("User cannot be null");
+            }
+            masks[i] = (int) ratingScheme.allowedMask(user.getMaxAllowedRating());
+            Entitlements profile = policyEngine.entitlementsOf(user.getUsername());
+            if (profile != null) {
+                if (entitlements == null) {
+                    entitlements = new Entitlements[masks.length];
+                }
+                entitlements[i] = profile;
+            }
+        }
+
+        AccessMatrix matrix = new AccessMatrix(masks.length, ratings.length);
+        long[] found = matrix.foundWords();
+        for (int c = 0; c < ratings.length; c++) {
+            if (ratings[c] != NOT_FOUND_CODE) {
+                found[c >>> 6] |= 1L << c;
+            }
+        }
+
+        MatrixFillTask task = new MatrixFillTask(ratings, masks, matrix, 0, masks.length, 0, matrix.getWordsPerRow());
+        if ((long) masks.length * ratings.length >= PARALLEL_CELL_THRESHOLD) {
+            batchPool.invoke(task);
+        } else {
+            task.compute();
+        }
+        if (entitlements != null) {
+            fillFromEntitlements(matrix, entitlements, ratings, movieIds);
+        }
+        return matrix;
+    }
+
+    private static void fillFromEntitlements(AccessMatrix matrix, Entitlements[] entitlements, byte[] ratings,
+                                             int[] movieIds) {
+        long[] allowed = matrix.allowedWords();
+        int wordsPerRow = matrix.getWordsPerRow();
+        for (int row = 0; row < entitlements.length; row++) {
+            Entitlements profile = entitlements[row];
+            if (profile == null) {
+                continue;
+            }
+            int rowOffset = row * wordsPerRow;
+            Arrays.fill(allowed, rowOffset, rowOffset + wordsPerRow, 0L);
+            for (int c = 0; c < ratings.length; c++) {
+                if (ratings[c] != NOT_FOUND_CODE && profile.permits(movieIds[c], ratings[c])) {
+                    allowed[rowOffset + (c >>> 6)] |= 1L << c;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills a block of rows by 64-column words. Blocks are split along word
+     * boundaries, so parallel subtasks never write the same word.
+     */
+    private static final class MatrixFillTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] ratings;
+        private final int[] masks;
+        private final AccessMatrix matrix;
+        private final int rowFrom;
+        private final int rowTo;
+        private final int wordFrom;
+        private final int wordTo;
+
+        MatrixFillTask(byte[] ratings, int[] masks, AccessMatrix matrix,
+                       int rowFrom, int rowTo, int wordFrom, int wordTo) {
+            this.ratings = ratings;
+            this.masks = masks;
+            this.matrix = matrix;
+            this.rowFrom = rowFrom;
+            this.rowTo = rowTo;
+            this.wordFrom = wordFrom;
+            this.wordTo = wordTo;
+        }
+
+        @Override
+        protected void compute() {
+            int rowCount = rowTo - rowFrom;
+            int wordCount = wordTo - wordFrom;
+            if ((long) rowCount * wordCount * 64 <= PARALLEL_CELL_THRESHOLD || (rowCount <= 1 && wordCount <= 1)) {
+                fill();
+            } else if (wordCount >= rowCount) {
+                int mid = wordFrom + wordCount / 2;
+                invokeAll(new MatrixFillTask(ratings, masks, matrix, rowFrom, rowTo, wordFrom, mid),
+                          new MatrixFillTask(ratings, masks, matrix, rowFrom, rowTo, mid, wordTo));
+            } else {
+                int mid = rowFrom + rowCount / 2;
+                invokeAll(new MatrixFillTask(ratings, masks, matrix, rowFrom, mid, wordFrom, wordTo),
+                          new MatrixFillTask(ratings, masks, matrix, mid, rowTo, wordFrom, wordTo));
+            }
+        }
+
+        private void fill() {
+            long[] allowed = matrix.allowedWords();
+            int wordsPerRow = matrix.getWordsPerRow();
+            for (int row = rowFrom; row < rowTo; row++) {
+                int mask = masks[row];
+                int rowOffset = row * wordsPerRow;
+                for (int w = wordFrom; w < wordTo; w++) {
+                    int base = w << 6;
+                    int end = Math.min(base + 64, ratings.length);
+                    long bits = 0;
+                    for (int c = base; c < end; c++) {
+                        bits |= (long) ((mask >>> ratings[c]) & 1) << (c - base);
+                    }
+                    allowed[rowOffset + w] = bits;
+                }
+            }
         }
     }
 
@@ -106,8 +572,11 @@ public class ParentalControlService {
         
         try {
             Rating rating = Rating.fromString(userRating);
-            User user = new User("legacy_user", 18, rating);
+            User user = LEGACY_USERS[rating.ordinal()];
             AccessResult result = checkAccess(user, movieTitle);
+            if (result.getDecision().getVerdict() == AccessDecision.Verdict.NOT_FOUND) {
+                return "Error: " + result.getReason();
+            }
             
             return result.isAllowed() ? 
                 "You have permission for this movie" : 
@@ -118,6 +587,96 @@ public class ParentalControlService {
         }
     }
 
+    /**
+     * Gets the counts of granted, denied and not-found single access checks.
+     *
+     * @return the decision counters
+     */
+    public DecisionCounters getDecisionCounters() {
+        return decisionCounters;
+    }
+
+    /**
+     * Gets the latency of {@link #checkAccess(User, String)}, sampled.
+     *
+     * @return the latency histogram
+     */
+    public LatencyHistogram getCheckAccessLatency() {
+        return checkAccessLatency;
+    }
+
+    /**
+     * Publishes this service's metrics, and those of its movie service, as MBeans
+     * on the platform MBean server.
+     *
+     * @param scope distinguishes this service instance from others in the process
+     */
+    public void registerMBeans(String scope) {
+        MetricsRegistry.register(MetricsRegistry.objectName(scope, "AccessDecisions", "checkAccess"), decisionCounters);
+        MetricsRegistry.register(MetricsRegistry.objectName(scope, "Latency", "checkAccess"), checkAccessLatency);
+        movieService.registerMBeans(scope);
+    }
+
+    /**
+     * Gets the engine holding the profile policies this service enforces.
+     *
+     * @return the policy engine
+     */
+    public PolicyEngine getPolicyEngine() {
+        return policyEngine;
+    }
+
+    /**
+     * Gets the registry of users this service can check by ID.
+     *
+     * @return the user service
+     */
+    public UserService getUserService() {
+        return userService;
+    }
+
+    /**
+     * Sets a profile policy for a user, replacing the user's rating ceiling in
+     * every check this service makes for them.
+     *
+     * @param user the user the policy applies to
+     * @param policy the policy
+     * @return the entitlements
+     */
+    public Entitlements setProfilePolicy(User user, ProfilePolicy policy) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        return policyEngine.setPolicy(user.getUsername(), policy);
+    }
+
+    /**
+     * Gets the IDs of everything a user can watch in the current catalog, under
+     * their profile policy if they have one and their rating ceiling otherwise.
+     * Combine the sets of several users with {@link MovieIdSet#and(MovieIdSet)}
+     * to find what all of them can watch together.
+     *
+     * @param user the user
+     * @return the IDs of the movies the user can watch
+     */
+    public MovieIdSet getWatchableMovieIds(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        Entitlements entitlements = policyEngine.entitlementsOf(user.getUsername());
+        return entitlements == null ? policyEngine.idsRatedWithin(user.getMaxAllowedRating())
+                                    : policyEngine.permittedIds(entitlements);
+    }
+
+    /**
+     * Gets the rating scheme this service applies.
+     *
+     * @return the rating scheme
+     */
+    public RatingScheme getRatingScheme() {
+        return ratingScheme;
+    }
+
     /**
      * Gets the movie service instance.
      * 
@@ -129,32 +688,63 @@ public class ParentalControlService {
 
     /**
      * Result class for access control decisions.
+     * <p>
+     * Wraps an {@link AccessDecision}; the reason text is rendered on first use.
      */
     public static class AccessResult {
+        private final AccessDecision decision;
         private final boolean allowed;
-        private final String reason;
+        private final String movieTitle;
         private final long timestamp;
+        private String reason;
 
-        private AccessResult(boolean allowed, String reason) {
+        private AccessResult(AccessDecision decision, boolean allowed, String movieTitle, String reason) {
+            this.decision = decision;
             this.allowed = allowed;
+            this.movieTitle = movieTitle;
             this.reason = reason;
             this.timestamp = System.currentTimeMillis();
         }
 
         public static AccessResult allowed(String reason) {
-            return new AccessResult(true, reason);
+            return new AccessResult(null, true, null, reason);
         }
 
         public static AccessResult denied(String reason) {
-            return new AccessResult(false, reason);
+            return new AccessResult(null, false, null, reason);
+        }
+
+        /**
+         * Wraps a decision made for the given title.
+         *
+         * @param decision the access decision
+         * @param movieTitle the title used when rendering the reason
+         * @return the wrapping result
+         */
+        public static AccessResult of(AccessDecision decision, String movieTitle) {
+            return new AccessResult(decision, decision.isAllowed(), movieTitle, null);
         }
 
         public boolean isAllowed() {
             return allowed;
         }
 
+        /**
+         * Gets the underlying decision.
+         *
+         * @return the decision, or null if this result was built from a reason string
+         */
+        public AccessDecision getDecision() {
+            return decision;
+        }
+
         public String getReason() {
-            return reason;
+            String rendered = reason;
+            if (rendered == null) {
+                rendered = decision.reason(movieTitle);
+                reason = rendered;
+            }
+            return rendered;
         }
 
         public long getTimestamp() {
@@ -163,7 +753,7 @@ public class ParentalControlService {
 
         @Override
         public String toString() {
-            return String.format("AccessResult{allowed=%s, reason='%s'}", allowed, reason);
+            return String.format("AccessResult{allowed=%s, reason='%s'}", allowed, getReason());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,464 @@
+package com.parentalcontrol.service;
+
+import com.parentalcontrol.catalog.CatalogSnapshot;
+import com.parentalcontrol.catalog.FacetIndex;
+import com.parentalcontrol.catalog.MovieCatalog;
+import com.parentalcontrol.catalog.OverlayCatalog;
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.MovieIdSet;
+import com.parentalcontrol.model.ProfilePolicy;
+import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.RatingScheme;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Household profile policies, each kept compiled into {@link Entitlements} for
+ * the catalog currently served.
+ * <p>
+ * Compiling is incremental in both directions. When a policy changes, the old and
+ * new policies are compared rule by rule and only the movies a changed rule
+ * touches are re-evaluated: the movies of the ratings that flipped (from the
+ * {@link com.parentalcontrol.catalog.RatingIndex}), of the genres blocked or
+ * unblocked and of the years that entered or left the range (from the
+ * {@link FacetIndex}), and the titles whose override changed. When the catalog
+ * changes through upserts and deletes, only the changed IDs are re-evaluated (see
+ * {@link OverlayCatalog#changedSince(MovieCatalog)}). Either way the new set of
+ * permitted IDs is derived from the old one with those IDs patched, sharing every
+ * container the change does not touch, so readers of the old one are never
+ * disturbed. Once a change touches a quarter of the catalog a full compile
+ * is cheaper and is used instead.
+ * <p>
+ * Catalog changes are picked up lazily: a profile is recompiled by the first check
+ * that sees a newer catalog, so idle profiles cost nothing. Policies with only a
+ * rating ceiling and title overrides are never compiled (see {@link Entitlements}).
+ * <p>
+ * {@link #permittedIds(String)} answers "everything this profile can see" as a
+ * {@link MovieIdSet}, which callers can combine with other profiles' sets.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public final class PolicyEngine {
+    private static final Logger logger = LoggerFactory.getLogger(PolicyEngine.class);
+
+    /** A change touching at least 1/FULL_COMPILE_DIVISOR of the catalog triggers a full compile. */
+    static final int FULL_COMPILE_DIVISOR = 4;
+
+    private static final Rating[] RATINGS = Rating.values();
+
+    private final MovieService movieService;
+    private final RatingScheme ratingScheme;
+    private final ConcurrentHashMap<String, Entitlements> profiles = new ConcurrentHashMap<>();
+    private final LongAdder fullCompiles = new LongAdder();
+    private final LongAdder incrementalCompiles = new LongAdder();
+    private volatile RatingIds ratingIds;
+
+    /**
+     * Creates an engine that compiles policies against a service's catalog.
+     *
+     * @param movieService the movie service
+     * @param ratingScheme the scheme that orders ratings for every policy
+     */
+    public PolicyEngine(MovieService movieService, RatingScheme ratingScheme) {
+        if (ratingScheme == null) {
+            throw new IllegalArgumentException("Rating scheme cannot be null");
+        }
+        this.movieService = movieService;
+        this.ratingScheme = ratingScheme;
+    }
+
+    /**
+     * Sets a profile's policy and compiles it if it has genre or year rules.
+     *
+     * @param profile the profile name, matched against {@link com.parentalcontrol.model.User#getUsername()}
+     * @param policy the policy
+     * @return the entitlements
+     */
+    public Entitlements setPolicy(String profile, ProfilePolicy policy) {
+        checkProfile(profile);
+        if (policy == null) {
+            throw new IllegalArgumentException("Policy cannot be null");
+        }
+        CatalogSnapshot snapshot = movieService.getSnapshot();
+        return profiles.compute(profile, (name, old) -> derive(old, policy, snapshot));
+    }
+
+    /**
+     * Changes a profile's policy atomically, for example to add one rule.
+     *
+     * @param profile the profile name
+     * @param change derives the new policy from the current one
+     * @return the updated entitlements
+     * @throws IllegalArgumentException if the profile has no policy
+     */
+    public Entitlements updatePolicy(String profile, UnaryOperator<ProfilePolicy> change) {
+        checkProfile(profile);
+        if (change == null) {
+            throw new IllegalArgumentException("Policy change cannot be null");
+        }
+        CatalogSnapshot snapshot = movieService.getSnapshot();
+        Entitlements updated = profiles.computeIfPresent(profile, (name, old) -> {
+            ProfilePolicy policy = change.apply(old.getPolicy());
+            if (policy == null) {
+                throw new IllegalArgumentException("Policy cannot be null");
+            }
+            return derive(old, policy, snapshot);
+        });
+        if (updated == null) {
+            throw new IllegalArgumentException("No policy for profile: " + profile);
+        }
+        return updated;
+    }
+
+    /**
+     * Removes a profile's policy; the profile falls back to its user's rating.
+     *
+     * @param profile the profile name
+     * @return true if the profile had a policy
+     */
+    public boolean removePolicy(String profile) {
+        return profile != null && profiles.remove(profile) != null;
+    }
+
+    /**
+     * Gets a profile's policy.
+     *
+     * @param profile the profile name
+     * @return the policy, or null if the profile has none
+     */
+    public ProfilePolicy getPolicy(String profile) {
+        Entitlements entitlements = profile == null ? null : profiles.get(profile);
+        return entitlements == null ? null : entitlements.getPolicy();
+    }
+
+    /**
+     * Gets a profile's entitlements for the catalog currently served, recompiling
+     * them first if the catalog changed since they were compiled.
+     *
+     * @param profile the profile name
+     * @return the entitlements, or null if the profile has no policy
+     */
+    public Entitlements entitlementsOf(String profile) {
+        Entitlements entitlements = profiles.get(profile);
+        if (entitlements == null) {
+            return null;
+        }
+        MovieCatalog compiledFor = entitlements.getCatalog();
+        if (compiledFor == null) {
+            return entitlements;
+        }
+        CatalogSnapshot snapshot = movieService.getSnapshot();
+        if (compiledFor == snapshot.getCatalog()) {
+            return entitlements;
+        }
+        Entitlements refreshed = profiles.computeIfPresent(profile, (name, old) -> refresh(old, snapshot));
+        return refreshed != null ? refreshed : entitlements;
+    }
+
+    /**
+     * Checks whether a profile's policy permits a movie.
+     *
+     * @param profile the profile name
+     * @param movieId the movie ID
+     * @return true if the movie is permitted
+     * @throws IllegalArgumentException if the profile has no policy
+     */
+    public boolean isEntitled(String profile, int movieId) {
+        Entitlements entitlements = requireEntitlements(profile);
+        Movie movie = movieService.getSnapshot().getCatalog().findById(movieId);
+        return movie != null && entitlements.permits(movie);
+    }
+
+    /**
+     * Gets the IDs of every movie in the current catalog a profile's policy
+     * permits.
+     *
+     * @param profile the profile name
+     * @return the permitted IDs
+     * @throws IllegalArgumentException if the profile has no policy
+     */
+    public MovieIdSet permittedIds(String profile) {
+        return permittedIds(requireEntitlements(profile));
+    }
+
+    /**
+     * Gets the IDs of every movie in the current catalog whose rating is within a
+     * ceiling, the set a user without a policy can see.
+     *
+     * @param maxRating the maximum allowed rating
+     * @return the IDs
+     */
+    public MovieIdSet idsRatedWithin(Rating maxRating) {
+        if (maxRating == null) {
+            throw new IllegalArgumentException("Max rating cannot be null");
+        }
+        MovieIdSet[] byRating = ratingIds(movieService.getSnapshot());
+        MovieIdSet ids = MovieIdSet.EMPTY;
+        for (Rating rating : RATINGS) {
+            if (ratingScheme.allows(rating, maxRating)) {
+                ids = ids.or(byRating[rating.ordinal()]);
+            }
+        }
+        return ids;
+    }
+
+    MovieIdSet permittedIds(Entitlements entitlements) {
+        if (entitlements.isCompiled()) {
+            return entitlements.permittedIds();
+        }
+        ProfilePolicy policy = entitlements.getPolicy();
+        MovieCatalog catalog = movieService.getSnapshot().getCatalog();
+        MovieIdSet.Builder allowed = new MovieIdSet.Builder();
+        policy.getAllowedTitles().forEach(movieId -> {
+            if (catalog.findById(movieId) != null) {
+                allowed.add(movieId);
+            }
+        });
+        return idsRatedWithin(policy.getMaxRating()).or(allowed.build()).andNot(policy.getDeniedTitles());
+    }
+
+    private Entitlements requireEntitlements(String profile) {
+        Entitlements entitlements = profile == null ? null : entitlementsOf(profile);
+        if (entitlements == null) {
+            throw new IllegalArgumentException("No policy for profile: " + profile);
+        }
+        return entitlements;
+    }
+
+    // The per-rating ID sets of the last catalog asked for, built on first use.
+    private MovieIdSet[] ratingIds(CatalogSnapshot snapshot) {
+        RatingIds cached = ratingIds;
+        if (cached == null || cached.catalog != snapshot.getCatalog()) {
+            MovieIdSet[] byRating = new MovieIdSet[RATINGS.length];
+            for (Rating rating : RATINGS) {
+                MovieIdSet.Builder ids = new MovieIdSet.Builder();
+                for (Movie movie : snapshot.getRatingIndex().byRating(rating)) {
+                    ids.add(movie.getId());
+                }
+                byRating[rating.ordinal()] = ids.build();
+            }
+            cached = new RatingIds(snapshot.getCatalog(), byRating);
+            ratingIds = cached;
+        }
+        return cached.byRating;
+    }
+
+    public int getProfileCount() {
+        return profiles.size();
+    }
+
+    /**
+     * Counts the compiles that evaluated the policy against the whole catalog.
+     *
+     * @return the full compile count
+     */
+    public long getFullCompileCount() {
+        return fullCompiles.sum();
+    }
+
+    /**
+     * Counts the compiles that only re-evaluated the movies a change touched.
+     *
+     * @return the incremental compile count
+     */
+    public long getIncrementalCompileCount() {
+        return incrementalCompiles.sum();
+    }
+
+    public RatingScheme getRatingScheme() {
+        return ratingScheme;
+    }
+
+    private static void checkProfile(String profile) {
+        if (profile == null || profile.trim().isEmpty()) {
+            throw new IllegalArgumentException("Profile cannot be null or empty");
+        }
+    }
+
+    private Entitlements derive(Entitlements old, ProfilePolicy policy, CatalogSnapshot snapshot) {
+        if (!policy.hasCatalogRules()) {
+            return new Entitlements(policy, ratingScheme.allowedMask(policy.getMaxRating()));
+        }
+        if (old == null || !old.isCompiled()) {
+            return compile(policy, snapshot);
+        }
+        return recompile(refresh(old, snapshot), policy, snapshot);
+    }
+
+    private Entitlements compile(ProfilePolicy policy, CatalogSnapshot snapshot) {
+        MovieCatalog catalog = snapshot.getCatalog();
+        MovieIdSet.Builder permitted = new MovieIdSet.Builder();
+        for (Rating rating : RATINGS) {
+            if (ratingScheme.allows(rating, policy.getMaxRating())) {
+                for (Movie movie : snapshot.getRatingIndex().byRating(rating)) {
+                    if (policy.permits(movie, ratingScheme)) {
+                        permitted.add(movie.getId());
+                    }
+                }
+            }
+        }
+        policy.getAllowedTitles().forEach(movieId -> {
+            Movie movie = catalog.findById(movieId);
+            if (movie != null && policy.permits(movie, ratingScheme)) {
+                permitted.add(movieId);
+            }
+        });
+        fullCompiles.increment();
+        return new Entitlements(policy, snapshot.getVersion(), catalog, permitted.build());
+    }
+
+    /**
+     * Brings entitlements to a catalog snapshot by re-evaluating the movies that
+     * changed since the catalog they were compiled against.
+     */
+    private Entitlements refresh(Entitlements old, CatalogSnapshot snapshot) {
+        MovieCatalog catalog = snapshot.getCatalog();
+        if (!old.isCompiled() || old.getCatalog() == catalog || old.getCatalogVersion() > snapshot.getVersion()) {
+            return old;
+        }
+        if (old.getCatalogVersion() == snapshot.getVersion()) {
+            // Compaction republishes the same content under the same version.
+            return new Entitlements(old.getPolicy(), snapshot.getVersion(), catalog, old.permittedIds());
+        }
+        int[] changed = catalog instanceof OverlayCatalog ? ((OverlayCatalog) catalog).changedSince(old.getCatalog())
+                                                          : null;
+        if (changed == null || changed.length >= catalog.size() / FULL_COMPILE_DIVISOR) {
+            return compile(old.getPolicy(), snapshot);
+        }
+        Patch patch = new Patch();
+        ProfilePolicy policy = old.getPolicy();
+        for (int movieId : changed) {
+            Movie movie = catalog.findById(movieId);
+            patch.set(movieId, movie != null && policy.permits(movie, ratingScheme));
+        }
+        incrementalCompiles.increment();
+        logger.debug("Refreshed entitlements for {} changed movies (catalog version {})",
+                    changed.length, snapshot.getVersion());
+        return new Entitlements(policy, snapshot.getVersion(), catalog, patch.applyTo(old.permittedIds()));
+    }
+
+    /**
+     * Derives entitlements for a new policy from those of the old policy against
+     * the same catalog, re-evaluating only the movies a changed rule touches.
+     */
+    private Entitlements recompile(Entitlements old, ProfilePolicy policy, CatalogSnapshot snapshot) {
+        ProfilePolicy previous = old.getPolicy();
+        if (previous.equals(policy)) {
+            return old;
+        }
+        if (old.getCatalog() != snapshot.getCatalog()) {
+            return compile(policy, snapshot);
+        }
+        MovieCatalog catalog = snapshot.getCatalog();
+        FacetIndex facets = snapshot.getFacetIndex();
+        Set<String> genres = symmetricDifference(previous.getBlockedGenres(), policy.getBlockedGenres());
+        MovieIdSet titles = previous.getAllowedTitles().xor(policy.getAllowedTitles())
+                                    .or(previous.getDeniedTitles().xor(policy.getDeniedTitles()));
+        int[][] years = changedYears(previous, policy);
+
+        long touched = titles.size();
+        for (Rating rating : RATINGS) {
+            if (ratingFlipped(rating, previous, policy)) {
+                touched += snapshot.getRatingIndex().byRating(rating).size();
+            }
+        }
+        for (String genre : genres) {
+            touched += facets.countInGenre(genre);
+        }
+        for (int[] range : years) {
+            touched += facets.countReleasedBetween(range[0], range[1]);
+        }
+        if (touched >= catalog.size() / FULL_COMPILE_DIVISOR) {
+            return compile(policy, snapshot);
+        }
+
+        Patch patch = new Patch();
+        for (Rating rating : RATINGS) {
+            if (ratingFlipped(rating, previous, policy)) {
+                for (Movie movie : snapshot.getRatingIndex().byRating(rating)) {
+                    patch.set(movie.getId(), policy.permits(movie, ratingScheme));
+                }
+            }
+        }
+        IntConsumer reevaluate = movieId -> {
+            Movie movie = catalog.findById(movieId);
+            patch.set(movieId, movie != null && policy.permits(movie, ratingScheme));
+        };
+        for (String genre : genres) {
+            facets.forEachInGenre(genre, reevaluate);
+        }
+        for (int[] range : years) {
+            facets.forEachReleasedBetween(range[0], range[1], reevaluate);
+        }
+        titles.forEach(reevaluate);
+        incrementalCompiles.increment();
+        return new Entitlements(policy, snapshot.getVersion(), catalog, patch.applyTo(old.permittedIds()));
+    }
+
+    private boolean ratingFlipped(Rating rating, ProfilePolicy previous, ProfilePolicy policy) {
+        return ratingScheme.allows(rating, previous.getMaxRating()) != ratingScheme.allows(rating, policy.getMaxRating());
+    }
+
+    // Years inside exactly one of the two policies' ranges: at most one run below and one above.
+    private static int[][] changedYears(ProfilePolicy previous, ProfilePolicy policy) {
+        int[][] ranges = new int[2][];
+        int count = 0;
+        if (previous.getFromYear() != policy.getFromYear()) {
+            int low = Math.min(previous.getFromYear(), policy.getFromYear());
+            int high = Math.max(previous.getFromYear(), policy.getFromYear());
+            ranges[count++] = new int[] {low, high - 1};
+        }
+        if (previous.getToYear() != policy.getToYear()) {
+            int low = Math.min(previous.getToYear(), policy.getToYear());
+            int high = Math.max(previous.getToYear(), policy.getToYear());
+            ranges[count++] = new int[] {low + 1, high};
+        }
+        return Arrays.copyOf(ranges, count);
+    }
+
+    private static <T> Set<T> symmetricDifference(Set<T> a, Set<T> b) {
+        Set<T> result = new HashSet<>(a);
+        result.addAll(b);
+        Set<T> common = new HashSet<>(a);
+        common.retainAll(b);
+        result.removeAll(common);
+        return result;
+    }
+
+    private static final class RatingIds {
+        private final MovieCatalog catalog;
+        private final MovieIdSet[] byRating;
+
+        RatingIds(MovieCatalog catalog, MovieIdSet[] byRating) {
+            this.catalog = catalog;
+            this.byRating = byRating;
+        }
+    }
+
+    /**
+     * Re-evaluated IDs collected by one compile and applied to the previous
+     * permitted IDs in one pass, copying only the containers they fall in. An ID
+     * re-evaluated twice, say for its rating and its genre, gets the same verdict.
+     */
+    private static final class Patch {
+        private final MovieIdSet.Builder permitted = new MovieIdSet.Builder();
+        private final MovieIdSet.Builder denied = new MovieIdSet.Builder();
+
+        void set(int movieId, boolean allowed) {
+            (allowed ? permitted : denied).add(movieId);
+        }
+
+        MovieIdSet applyTo(MovieIdSet ids) {
+            return ids.andNot(denied.build()).or(permitted.build());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.parentalcontrol.service;
+
+import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.User;
+import com.parentalcontrol.user.UserStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Service for registering users and resolving them by username or ID.
+ * <p>
+ * Profiles are kept in a {@link UserStore}: a username, an age byte and a rating
+ * ordinal per user, memory-mapped when the service is opened on a file. Each
+ * registered user gets a dense ID, and the ID-based access checks of
+ * {@link ParentalControlService} read the rating ceiling straight from the store
+ * without building a {@link User}. {@code User} objects are only made for callers
+ * that ask for one.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+public class UserService implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
+    private final UserStore store;
+
+    /**
+     * Creates a service whose users are kept on the heap and lost at exit.
+     */
+    public UserService() {
+        this(UserStore.inMemory());
+    }
+
+    /**
+     * Creates a service over a user store.
+     *
+     * @param store the store
+     */
+    public UserService(UserStore store) {
+        if (store == null) {
+            throw new IllegalArgumentException("User store cannot be null");
+        }
+        this.store = store;
+    }
+
+    /**
+     * Creates a service whose users persist in a memory-mapped file.
+     *
+     * @param file the store file, created if missing
+     * @return a new UserService; close it to release the file
+     */
+    public static UserService open(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("User store file cannot be null");
+        }
+        return new UserService(UserStore.open(file));
+    }
+
+    /**
+     * Registers a user, or updates the age and rating of a registered username.
+     *
+     * @param user the user
+     * @return the user's ID
+     */
+    public int register(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        int userId = store.put(user.getUsername(), user.getAge(), user.getMaxAllowedRating());
+        logger.debug("Registered user {} as ID {}", user.getUsername(), userId);
+        return userId;
+    }
+
+    /**
+     * Gets the ID of a registered username without throwing.
+     *
+     * @param username the username
+     * @return the user ID, or -1 if the username is not registered
+     */
+    public int getUserId(String username) {
+        return username == null ? -1 : store.idOf(username.trim());
+    }
+
+    /**
+     * Finds a user by ID.
+     *
+     * @param userId the user ID
+     * @return the user
+     * @throws IllegalArgumentException if the ID is not registered
+     */
+    public User findUserById(int userId) {
+        return new User(store.getUsername(userId), store.getAge(userId), store.getMaxAllowedRating(userId));
+    }
+
+    /**
+     * Looks up a user by username without throwing.
+     *
+     * @param username the username
+     * @return the user, or empty if the username is not registered
+     */
+    public Optional<User> lookupUser(String username) {
+        int userId = getUserId(username);
+        return userId < 0 ? Optional.empty() : Optional.of(findUserById(userId));
+    }
+
+    /**
+     * Gets a user's rating ceiling without allocating.
+     *
+     * @param userId the user ID
+     * @return the maximum allowed rating
+     * @throws IllegalArgumentException if the ID is not registered
+     */
+    public Rating getMaxAllowedRating(int userId) {
+        return store.getMaxAllowedRating(userId);
+    }
+
+    /**
+     * Gets a user's username.
+     *
+     * @param userId the user ID
+     * @return the username
+     * @throws IllegalArgumentException if the ID is not registered
+     */
+    public String getUsername(int userId) {
+        return store.getUsername(userId);
+    }
+
+    public int getUserCount() {
+        return store.size();
+    }
+
+    /**
+     * Gets the store holding the users.
+     *
+     * @return the user store
+     */
+    public UserStore getStore() {
+        return store;
+    }
+
+    /**
+     * Releases the store file, forcing registered users to disk.
+     */
+    @Override
+    public void close() {
+        store.close();
+    }
+}
@@ -0,0 +1,59 @@
+package com.parentalcontrol.user;
+
+/**
+ * Layout constants for user store files.
+ * <p>
+ * A store is a single big-endian file:
+ * <pre>
+ * header   magic:int version:int count:int pad:int
+ * records  count x { nameHash:int age:byte rating:byte nameLength:short utf8 pad }
+ *          in user ID order, each padded to a multiple of 4 bytes
+ * </pre>
+ * Records are appended and the count is written after the record, so a store
+ * left by a crash mid-append ends at the last complete record. Bytes past the
+ * last record are unused capacity.
+ *
+ * @author Parag Chatterjee (Modernized)
+ * @version 2.0
+ */
+final class UserStoreFormat {
+    static final int MAGIC = 0x50435553; // "PCUS"
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 16;
+    static final int OFF_COUNT = 8;
+
+    static final int REC_HASH = 0;
+    static final int REC_AGE = 4;
+    static final int REC_RATING = 5;
+    static final int REC_NAME_LENGTH = 6;
+    static final int REC_NAME = 8;
+
+    private UserStoreFormat() {
+    }
+
+    /**
+     * Hashes a username's UTF-8 bytes. The hash is stored in the file, so it must
+     * not depend on the JVM.
+     *
+     * @param name the UTF-8 bytes
+     * @return the spread hash
+     */
+    static int nameHash(byte[] name) {
+        int h = 0x811C9DC5;
+        for (byte b : name) {
+            h = (h ^ (b & 0xFF)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Gets the size of a record, padded so the next record's hash is aligned.
+     *
+     * @param nameLength the username length in bytes
+     * @return the record size in bytes
+     */
+    static int recordSize(int nameLength) {
+        return (REC_NAME + nameLength + 3) & ~3;
+    }
+}
@@ -0,0 +1,120 @@
+package com.parentalcontrol.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parentalcontrol.model.Rating;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unit tests for AuditLog.
+ */
+class AuditLogTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static List<JsonNode> readRecords(Path file) throws IOException {
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            records.add(MAPPER.readTree(line));
+        }
+        return records;
+    }
+
+    @Test
+    @DisplayName("Should write one JSON line per decision")
+    void testWritesRecords(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("audit.jsonl");
+        try (AuditLog log = AuditLog.open(file, 1024, FsyncPolicy.EVERY_BATCH)) {
+            assertTrue(log.append("alice", Rating.PG, "Finding Nemo", 7, Rating.U, "ALLOWED"));
+            assertTrue(log.append("bob", Rating.U, "Nope", -1, null, "NOT_FOUND"));
+        }
+
+        List<JsonNode> records = readRecords(file);
+        assertEquals(2, records.size());
+        assertEquals("alice", records.get(0).get("user").asText());
+        assertEquals("PG", records.get(0).get("maxRating").asText());
+        assertEquals(7, records.get(0).get("movieId").asInt());
+        assertEquals("U", records.get(0).get("rating").asText());
+        assertEquals("ALLOWED", records.get(0).get("verdict").asText());
+        assertTrue(records.get(0).get("ts").asLong() > 0);
+        assertFalse(records.get(1).has("rating"));
+        assertEquals("NOT_FOUND", records.get(1).get("verdict").asText());
+    }
+
+    @Test
+    @DisplayName("Should keep every record from concurrent writers and append across reopen")
+    void testConcurrentAppends(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("audit.jsonl");
+        AuditLog log = AuditLog.open(file, 1 << 16, FsyncPolicy.every(Duration.ofMillis(5)));
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            String user = "user" + t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    log.append(user, Rating.EIGHTEEN, "Title " + i, i, Rating.R, "ALLOWED");
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        log.close();
+        assertFalse(log.append("late", Rating.U, "Up", 1, Rating.U, "ALLOWED"));
+
+        assertEquals(20_000, log.getWritten() + log.getDropped() - 1);
+        Set<String> seen = new HashSet<>();
+        for (JsonNode record : readRecords(file)) {
+            seen.add(record.get("user").asText() + "/" + record.get("movieId").asInt());
+        }
+        assertEquals(log.getWritten(), seen.size());
+
+        try (AuditLog reopened = AuditLog.open(file, 16, FsyncPolicy.NEVER)) {
+            reopened.append("carol", Rating.PG, "Up", 1, Rating.U, "ALLOWED");
+        }
+        assertEquals(log.getWritten() + 1, Files.readAllLines(file).size());
+    }
+
+    @Test
+    @DisplayName("Should drop and count records when the ring is full")
+    void testDropsWhenFull(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("audit.jsonl");
+        AuditLog log = new AuditLog(file, 8, FsyncPolicy.NEVER); // writer not started
+
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (log.append("alice", Rating.PG, "Title " + i, i, Rating.U, "ALLOWED")) {
+                accepted++;
+            }
+        }
+        assertEquals(8, accepted);
+        assertEquals(2, log.getDropped());
+
+        log.close();
+        assertEquals(8, log.getWritten());
+        assertEquals(8, readRecords(file).size());
+        assertEquals("Title 7", readRecords(file).get(7).get("title").asText());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid configuration")
+    void testInvalidConfiguration(@TempDir Path tempDir) {
+        Path file = tempDir.resolve("audit.jsonl");
+        assertThrows(IllegalArgumentException.class, () -> AuditLog.open(null, 16, FsyncPolicy.NEVER));
+        assertThrows(IllegalArgumentException.class, () -> AuditLog.open(file, 1, FsyncPolicy.NEVER));
+        assertThrows(IllegalArgumentException.class, () -> AuditLog.open(file, 16, null));
+        assertThrows(IllegalArgumentException.class, () -> FsyncPolicy.every(Duration.ofMillis(-1)));
+    }
+}
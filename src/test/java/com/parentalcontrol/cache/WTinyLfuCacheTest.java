@@ -0,0 +1,105 @@
+package com.parentalcontrol.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for WTinyLfuCache.
+ */
+class WTinyLfuCacheTest {
+
+    @Test
+    @DisplayName("Should return cached values and count hits and misses")
+    void testGetAndStats() {
+        WTinyLfuCache<String, Integer> cache = new WTinyLfuCache<>(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(3, cache.get("abc", key -> { loads.incrementAndGet(); return key.length(); }));
+        assertEquals(3, cache.get("abc", key -> loads.incrementAndGet()));
+        assertNull(cache.getIfPresent("missing"));
+
+        CacheStats stats = cache.stats();
+        assertEquals(1, loads.get());
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getSize());
+        assertEquals(1.0 / 3, stats.getHitRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should never exceed its maximum size")
+    void testBounded() {
+        WTinyLfuCache<Integer, Integer> cache = new WTinyLfuCache<>(50);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+            assertTrue(cache.size() <= 50);
+        }
+        assertEquals(50, cache.size());
+        assertEquals(950, cache.stats().getEvictions());
+
+        WTinyLfuCache<Integer, Integer> single = new WTinyLfuCache<>(1);
+        single.put(1, 1);
+        single.put(2, 2);
+        assertEquals(1, single.size());
+    }
+
+    @Test
+    @DisplayName("Should keep frequently used entries through a scan")
+    void testScanResistance() {
+        WTinyLfuCache<Integer, Integer> cache = new WTinyLfuCache<>(100);
+        for (int round = 0; round < 5; round++) {
+            for (int hot = 0; hot < 50; hot++) {
+                cache.get(hot, key -> key);
+            }
+        }
+        for (int cold = 1000; cold < 11000; cold++) {
+            cache.get(cold, key -> key);
+            if (cold % 4 == 0) {
+                cache.get(cold / 4 % 50, key -> key); // hot keys stay popular during the scan
+            }
+        }
+
+        int survivors = 0;
+        for (int hot = 0; hot < 50; hot++) {
+            if (cache.getIfPresent(hot) != null) {
+                survivors++;
+            }
+        }
+        assertEquals(50, survivors);
+    }
+
+    @Test
+    @DisplayName("Should invalidate matching entries")
+    void testInvalidate() {
+        WTinyLfuCache<Integer, String> cache = new WTinyLfuCache<>(100);
+        for (int i = 0; i < 20; i++) {
+            cache.put(i, "v" + i);
+        }
+        assertEquals(10, cache.invalidateIf(key -> key % 2 == 0));
+        assertNull(cache.getIfPresent(4));
+        assertEquals("v5", cache.getIfPresent(5));
+        cache.put(5, "updated");
+        assertEquals("updated", cache.getIfPresent(5));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(20, cache.stats().getInvalidations());
+        for (int i = 0; i < 200; i++) {
+            cache.put(i, "again");
+        }
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid arguments")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new WTinyLfuCache<String, String>(0));
+        WTinyLfuCache<String, String> cache = new WTinyLfuCache<>(4);
+        assertThrows(IllegalArgumentException.class, () -> cache.put(null, "x"));
+        assertThrows(IllegalArgumentException.class, () -> cache.put("x", null));
+        assertNull(cache.get("x", key -> null));
+        assertEquals(0, cache.size());
+    }
+}
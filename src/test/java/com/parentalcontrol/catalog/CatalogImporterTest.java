@@ -0,0 +1,152 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for CatalogImporter.
+ */
+class CatalogImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path write(String name, String content) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<Movie> byId(MovieCatalog catalog) {
+        return catalog.stream().sorted(Comparator.comparingInt(Movie::getId)).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should import CSV rows, rejecting invalid ones and dropping duplicates")
+    void testCsv() throws IOException {
+        Path file = write("feed.csv", "﻿ReleaseYear,ID,Title,Rating,Genre\r\n"
+                + "1994,1,The Lion King,U,Animation\r\n"
+                + "1999,2,\"Crouching Tiger, Hidden Dragon\",15,Action\r\n"
+                + "2001,3,\"Amelie \"\"Poulain\"\"\",PG,Romance\r\n"
+                + "2000,4,Gladiator,X,Action\r\n"
+                + "2000,five,Memento,15,Thriller\r\n"
+                + "2000,6,,PG,Drama\r\n"
+                + "\r\n"
+                + "2019,7,the lion king,PG,Animation\r\n"
+                + "2019,1,Paddington,PG,Family\r\n"
+                + ",8,Paddington,PG,Family");
+
+        CatalogImporter.ImportedCatalog imported = CatalogImporter.importFile(file);
+        CatalogImporter.ImportReport report = imported.getReport();
+        HeapCatalog catalog = imported.getCatalog();
+
+        assertEquals(9, report.getRows());
+        assertEquals(4, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertEquals(2, report.getDuplicates());
+        assertEquals(3, report.getRejections().size());
+        assertTrue(report.getRejections().get(0).contains("Unknown rating: X"), report.getRejections().toString());
+        assertTrue(report.getRowsPerSecond() > 0);
+
+        assertEquals(4, catalog.size());
+        assertEquals("The Lion King", catalog.findById(1).getTitle());
+        assertEquals("Crouching Tiger, Hidden Dragon", catalog.findById(2).getTitle());
+        assertEquals(Rating.FIFTEEN, catalog.findById(2).getRating());
+        assertEquals("Amelie \"Poulain\"", catalog.findById(3).getTitle());
+        assertEquals(0, catalog.findById(8).getReleaseYear());
+        assertNull(catalog.findById(7));
+    }
+
+    @Test
+    @DisplayName("Should import JSON Lines rows")
+    void testJsonLines() throws IOException {
+        Path file = write("feed.jsonl",
+                "{\"id\": 1, \"title\": \"The Lion King\", \"rating\": \"U\", \"genre\": \"Animation\", \"releaseYear\": 1994}\n"
+                + "{\"id\": 2, \"title\": \"Heat\", \"rating\": \"18\", \"extra\": {\"nested\": [1, 2]}}\n"
+                + "{\"id\": 3, \"title\": \"Broken\"\n"
+                + "[1, 2, 3]\n"
+                + "{\"title\": \"No Id\", \"rating\": \"PG\"}\n");
+
+        CatalogImporter.ImportedCatalog imported = CatalogImporter.importFile(file);
+        assertEquals(5, imported.getReport().getRows());
+        assertEquals(2, imported.getReport().getImported());
+        assertEquals(3, imported.getReport().getRejected());
+        assertEquals(Rating.EIGHTEEN, imported.getCatalog().findById(2).getRating());
+        assertEquals("", imported.getCatalog().findById(2).getGenre());
+    }
+
+    @Test
+    @DisplayName("Should give the same catalog however the file is cut into chunks")
+    void testChunkBoundaries() throws IOException {
+        Random random = new Random(5);
+        Rating[] ratings = Rating.values();
+        StringBuilder csv = new StringBuilder("id,title,rating,genre,releaseYear\n");
+        StringBuilder jsonl = new StringBuilder();
+        for (int id = 1; id <= 3_000; id++) {
+            String title = "Film " + random.nextInt(2_500) + (random.nextInt(10) == 0 ? " – Ünïcode" : "");
+            Rating rating = ratings[random.nextInt(ratings.length)];
+            csv.append(id).append(",\"").append(title).append("\",").append(rating.name())
+               .append(",Drama,").append(1950 + random.nextInt(70)).append('\n');
+            jsonl.append("{\"id\":").append(id).append(",\"title\":\"").append(title)
+                 .append("\",\"rating\":\"").append(rating.name()).append("\"}\n");
+        }
+        Path csvFile = write("large.csv", csv.toString());
+        Path jsonlFile = write("large.jsonl", jsonl.toString());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (Path file : List.of(csvFile, jsonlFile)) {
+                CatalogImporter.Format format = CatalogImporter.Format.of(file);
+                CatalogImporter.ImportedCatalog reference = CatalogImporter.importFile(file, format, pool, 1 << 30);
+                assertEquals(3_000, reference.getReport().getRows());
+                assertEquals(0, reference.getReport().getRejected());
+                for (int chunkSize : new int[] {1, 7, 64, 1000, 4096}) {
+                    CatalogImporter.ImportedCatalog chunked = CatalogImporter.importFile(file, format, pool, chunkSize);
+                    assertEquals(byId(reference.getCatalog()), byId(chunked.getCatalog()), file + " / " + chunkSize);
+                    assertEquals(reference.getReport().getDuplicates(), chunked.getReport().getDuplicates());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should build every index of the imported catalog")
+    void testIndexes() throws IOException {
+        Path file = write("feed.csv", "id,title,rating\n1,Heat,18\n2,Up,U\n3,Big,PG\n");
+        CatalogImporter.ImportedCatalog imported = CatalogImporter.importFile(file);
+        CatalogSnapshot snapshot = imported.toSnapshot(7, imported.getCatalog());
+
+        assertEquals(7, snapshot.getVersion());
+        assertEquals(List.of("Big", "Heat", "Up"),
+                     snapshot.getRatingIndex().all().stream().map(Movie::getTitle).collect(Collectors.toList()));
+        assertEquals(3, snapshot.getStatistics().getTotal());
+        assertEquals("Heat", snapshot.getSearchIndex().search("ea", 5).get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown formats and incomplete CSV headers")
+    void testInvalidInput() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> CatalogImporter.Format.of(Path.of("feed.xml")));
+        Path noRating = write("feed.csv", "id,title\n1,Heat\n");
+        assertThrows(IllegalArgumentException.class, () -> CatalogImporter.importFile(noRating));
+        List<String> fields = new ArrayList<>();
+        CatalogImporter.splitCsv("a,\"b,c\",,\"d\"\"e\"", fields);
+        assertEquals(List.of("a", "b,c", "", "d\"e"), fields);
+    }
+}
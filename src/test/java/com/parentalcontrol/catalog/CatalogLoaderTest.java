@@ -0,0 +1,151 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for CatalogLoader.
+ */
+class CatalogLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static InputStream json(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should load the bundled catalog resource")
+    void testLoadBundledResource() {
+        List<Movie> movies = new ArrayList<>();
+        CatalogLoader.LoadReport report = CatalogLoader.loadResource("movies.json", movies::add);
+
+        assertEquals(8, report.getLoaded());
+        assertEquals(0, report.getRejected());
+        assertEquals(8, movies.size());
+        assertEquals("Baby's Day Out", movies.get(0).getTitle());
+        assertEquals(Rating.PG_13, movies.get(1).getRating());
+    }
+
+    @Test
+    @DisplayName("Should accept a top-level array and skip unknown fields")
+    void testTopLevelArray() throws IOException {
+        List<Movie> movies = new ArrayList<>();
+        CatalogLoader.load(json("[{\"id\":7,\"title\":\"Up\",\"rating\":\"Universal\","
+                + "\"cast\":[\"a\",{\"b\":1}],\"genre\":\"Animation\",\"releaseYear\":2009}]"), movies::add);
+
+        assertEquals(1, movies.size());
+        Movie movie = movies.get(0);
+        assertEquals(7, movie.getId());
+        assertEquals(Rating.U, movie.getRating());
+        assertEquals("Animation", movie.getGenre());
+        assertEquals(2009, movie.getReleaseYear());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid records without aborting the load")
+    void testRejectsInvalidRecords() throws IOException {
+        List<Movie> movies = new ArrayList<>();
+        CatalogLoader.LoadReport report = CatalogLoader.load(json("{\"movies\":["
+                + "{\"title\":\"No Id\",\"rating\":\"U\"},"
+                + "{\"id\":2,\"title\":\"Bad Rating\",\"rating\":\"XYZ\"},"
+                + "{\"id\":3,\"title\":\"\",\"rating\":\"U\"},"
+                + "42,"
+                + "{\"id\":5,\"title\":{\"en\":\"Nested\",\"id\":6},\"rating\":\"U\"},"
+                + "{\"id\":[7,{\"title\":\"Inner\"}],\"title\":\"Array Id\",\"rating\":\"U\"},"
+                + "{\"id\":4,\"title\":\"Good\",\"rating\":\"R\"}]}"), movies::add);
+
+        assertEquals(1, report.getLoaded());
+        assertEquals(6, report.getRejected());
+        assertEquals(1, movies.size());
+        assertEquals("Good", movies.get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName("Should reject records with numbers beyond int range without aborting the load")
+    void testRejectsOutOfRangeNumbers() throws IOException {
+        List<Movie> movies = new ArrayList<>();
+        CatalogLoader.LoadReport report = CatalogLoader.load(json("["
+                + "{\"id\":1,\"title\":\"First\",\"rating\":\"U\"},"
+                + "{\"id\":99999999999,\"title\":\"Huge Id\",\"rating\":\"U\"},"
+                + "{\"id\":2,\"title\":\"Huge Year\",\"rating\":\"U\",\"releaseYear\":-3000000000},"
+                + "{\"id\":3,\"title\":\"Third\",\"rating\":\"U\",\"releaseYear\":2001}]"), movies::add);
+
+        assertEquals(2, report.getLoaded());
+        assertEquals(2, report.getRejected());
+        assertEquals(1, movies.get(0).getId());
+        assertEquals(3, movies.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Should keep the first of repeated records when loading into a heap catalog")
+    void testDuplicatesIntoHeapCatalog() throws IOException {
+        Path file = tempDir.resolve("duplicates.json");
+        Files.writeString(file, "["
+                + "{\"id\":1,\"title\":\"Up\",\"rating\":\"U\"},"
+                + "{\"id\":2,\"title\":\" UP \",\"rating\":\"PG\"},"
+                + "{\"id\":1,\"title\":\"Cars\",\"rating\":\"PG\"},"
+                + "{\"id\":3,\"title\":\"Coco\",\"rating\":\"U\"}]");
+
+        HeapCatalog catalog = new HeapCatalog();
+        CatalogLoader.LoadReport report = CatalogLoader.loadFile(file, catalog);
+
+        assertEquals(2, report.getLoaded());
+        assertEquals(2, report.getDuplicates());
+        assertEquals(report.getLoaded(), catalog.size());
+        assertEquals("Up", catalog.findById(1).getTitle());
+        assertNull(catalog.findById(2));
+        assertEquals(2, HeapCatalog.fromFile(file).size());
+
+        List<Movie> movies = new ArrayList<>();
+        assertEquals(0, CatalogLoader.loadFile(file, movies::add).getDuplicates());
+        assertEquals(4, movies.size());
+    }
+
+    @Test
+    @DisplayName("Should load from a file and report throughput")
+    void testLoadFile() throws IOException {
+        StringBuilder sb = new StringBuilder("{\"movies\":[");
+        for (int i = 0; i < 1000; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(i).append(",\"title\":\"Movie ").append(i)
+              .append("\",\"rating\":\"PG\",\"genre\":\"Drama\",\"releaseYear\":2000}");
+        }
+        sb.append("]}");
+        Path file = tempDir.resolve("catalog.json");
+        Files.writeString(file, sb);
+
+        List<Movie> movies = new ArrayList<>();
+        CatalogLoader.LoadReport report = CatalogLoader.loadFile(file, movies::add);
+
+        assertEquals(1000, report.getLoaded());
+        assertTrue(report.getRecordsPerSecond() > 0);
+        assertSame(movies.get(0).getGenre(), movies.get(999).getGenre());
+    }
+
+    @Test
+    @DisplayName("Should fail for missing resource or malformed JSON")
+    void testErrors() {
+        assertThrows(IllegalArgumentException.class, () ->
+            CatalogLoader.loadResource("does-not-exist.json", m -> { }));
+        assertThrows(IOException.class, () ->
+            CatalogLoader.load(json("\"just a string\""), m -> { }));
+        assertThrows(IOException.class, () ->
+            CatalogLoader.load(json("{\"movies\":[{\"id\":1,"), m -> { }));
+    }
+}
@@ -0,0 +1,91 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.RatingScheme;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for CatalogStatistics.
+ */
+class CatalogStatisticsTest {
+
+    private HeapCatalog catalog;
+    private CatalogStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        catalog = HeapCatalog.fromResource("movies.json");
+        statistics = CatalogStatistics.build(catalog);
+    }
+
+    private static void assertDescribes(MovieCatalog expected, CatalogStatistics actual) {
+        assertEquals(expected.size(), actual.getTotal());
+        assertEquals(expected.stream().collect(Collectors.groupingBy(Movie::getRating, Collectors.counting())),
+                     actual.getCountByRating());
+        assertEquals(expected.stream().collect(Collectors.groupingBy(Movie::getGenre, Collectors.counting())),
+                     actual.getCountByGenre());
+        assertEquals(expected.stream().collect(Collectors.groupingBy(
+                             m -> CatalogStatistics.decadeOf(m.getReleaseYear()), Collectors.counting())),
+                     actual.getCountByDecade());
+        for (Rating ceiling : Rating.values()) {
+            assertEquals(expected.stream().filter(m -> m.getRating().isAccessibleWith(ceiling)).count(),
+                         actual.getAccessibleCount(ceiling), ceiling.name());
+            assertEquals(expected.stream().filter(m -> RatingScheme.BBFC.allows(m.getRating(), ceiling)).count(),
+                         actual.getAccessibleCount(ceiling, RatingScheme.BBFC), ceiling.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Should match grouping over the catalog")
+    void testBuild() {
+        assertDescribes(catalog, statistics);
+        assertEquals(catalog.size(), statistics.getAccessibleCount(Rating.EIGHTEEN));
+        assertThrows(UnsupportedOperationException.class, () -> statistics.getCountByRating().clear());
+    }
+
+    @Test
+    @DisplayName("Should follow adds, updates and removals incrementally")
+    void testIncrementalUpdates() {
+        Movie added = new Movie(100, "Paddington", Rating.PG, "Family", 2014);
+        catalog.add(added);
+        CatalogStatistics next = statistics.withUpsert(added, null);
+        assertDescribes(catalog, next);
+
+        Movie matrix = catalog.findById(5);
+        Movie recut = new Movie(5, matrix.getTitle(), Rating.FIFTEEN, "Sci-Fi", 1989);
+        catalog.add(recut);
+        next = next.withUpsert(recut, matrix);
+        assertDescribes(catalog, next);
+
+        HeapCatalog remaining = new HeapCatalog();
+        catalog.stream().filter(m -> m.getId() != 100).forEach(remaining::add);
+        next = next.withRemoval(added);
+        assertDescribes(remaining, next);
+        assertFalse(next.getCountByGenre().containsKey("Family"));
+
+        assertDescribes(HeapCatalog.fromResource("movies.json"), statistics);
+    }
+
+    @Test
+    @DisplayName("Should group release years by decade")
+    void testDecadeOf() {
+        assertEquals(1990, CatalogStatistics.decadeOf(1999));
+        assertEquals(2000, CatalogStatistics.decadeOf(2000));
+        assertEquals(-10, CatalogStatistics.decadeOf(-1));
+    }
+
+    @Test
+    @DisplayName("Should describe an empty catalog")
+    void testEmpty() {
+        CatalogStatistics empty = CatalogStatistics.build(new HeapCatalog());
+        assertEquals(0, empty.getTotal());
+        assertEquals(Map.of(), empty.getCountByRating());
+        assertEquals(0, empty.getAccessibleCount(Rating.EIGHTEEN));
+    }
+}
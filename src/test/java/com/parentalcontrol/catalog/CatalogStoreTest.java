@@ -0,0 +1,148 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for CatalogJournal and CatalogStore.
+ */
+class CatalogStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private CatalogStore open() {
+        return CatalogStore.open(tempDir, () -> HeapCatalog.fromResource("movies.json"));
+    }
+
+    @Test
+    @DisplayName("Should initialize a new directory from the initial catalog")
+    void testInitialize() {
+        try (CatalogStore store = open()) {
+            assertEquals(8, store.getRecoveredCatalog().size());
+            assertEquals(0, store.getSequence());
+            assertTrue(Files.exists(CatalogStore.snapshotFile(tempDir, 0)));
+        }
+        try (CatalogStore store = CatalogStore.open(tempDir, () -> {
+            throw new AssertionError("an initialized directory must not be seeded again");
+        })) {
+            assertEquals(8, store.getRecoveredCatalog().size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should replay journaled changes on reopen")
+    void testRecovery() {
+        try (CatalogStore store = open()) {
+            assertEquals(1, store.logUpsert(new Movie(100, "Paddington", Rating.PG, "Family", 2014)));
+            assertEquals(2, store.logUpsert(new Movie(5, "The Matrix", Rating.FIFTEEN, "Action", 1999)));
+            assertEquals(3, store.logDelete(1));
+        }
+        try (CatalogStore store = open()) {
+            MovieCatalog catalog = store.getRecoveredCatalog();
+            assertEquals(3, store.getSequence());
+            assertEquals(3, store.getJournalEntryCount());
+            assertEquals("Paddington", catalog.findById(100).getTitle());
+            assertEquals(Rating.FIFTEEN, catalog.findByTitle("the matrix").getRating());
+            assertNull(catalog.findById(1));
+            assertEquals(8, catalog.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should fold the journal into a snapshot and replay only later changes")
+    void testCompaction() {
+        try (CatalogStore store = open()) {
+            OverlayCatalog catalog = store.getRecoveredCatalog();
+            for (int id = 100; id < 110; id++) {
+                Movie movie = new Movie(id, "Sequel " + id, Rating.PG, "Family", 2020);
+                store.logUpsert(movie);
+                catalog = catalog.withUpsert(movie);
+            }
+            OverlayCatalog compacted = store.compact(catalog);
+            assertEquals(0, store.getJournalEntryCount());
+            assertEquals(10, store.getSnapshotSequence());
+            assertEquals(0, compacted.getChangeCount());
+            assertEquals(18, compacted.size());
+            assertFalse(Files.exists(CatalogStore.snapshotFile(tempDir, 0)));
+
+            store.logDelete(100);
+        }
+        try (CatalogStore store = open()) {
+            assertEquals(11, store.getSequence());
+            assertEquals(1, store.getJournalEntryCount());
+            assertEquals(17, store.getRecoveredCatalog().size());
+            assertNull(store.getRecoveredCatalog().findById(100));
+            assertNotNull(store.getRecoveredCatalog().findById(101));
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip journal entries a snapshot already covers")
+    void testCrashBetweenSnapshotAndJournalReset() throws IOException {
+        Path journal = tempDir.resolve(CatalogStore.JOURNAL_FILE);
+        try (CatalogStore store = open()) {
+            store.logUpsert(new Movie(100, "Paddington", Rating.PG, "Family", 2014));
+            store.logUpsert(new Movie(101, "Paddington 2", Rating.PG, "Family", 2017));
+        }
+        byte[] journaled = Files.readAllBytes(journal);
+        try (CatalogStore store = open()) {
+            store.compact(store.getRecoveredCatalog());
+        }
+        Files.write(journal, journaled); // as if the crash came before the reset
+        try (CatalogStore store = open()) {
+            assertEquals(10, store.getRecoveredCatalog().size());
+            assertEquals(0, store.getRecoveredCatalog().getChangeCount());
+            assertEquals(2, store.getSequence());
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop a torn entry at the end of the journal")
+    void testTornTail() throws IOException {
+        try (CatalogStore store = open()) {
+            store.logUpsert(new Movie(100, "Paddington", Rating.PG, "Family", 2014));
+            store.logUpsert(new Movie(101, "Paddington 2", Rating.PG, "Family", 2017));
+        }
+        Path journal = tempDir.resolve(CatalogStore.JOURNAL_FILE);
+        long intactLength;
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            intactLength = channel.size();
+            channel.truncate(channel.size() - 3);
+        }
+
+        List<Integer> replayed = new ArrayList<>();
+        try (CatalogJournal reopened = CatalogJournal.open(journal, new CatalogJournal.Replay() {
+            @Override
+            public void upsert(long sequence, Movie movie) {
+                replayed.add(movie.getId());
+            }
+
+            @Override
+            public void delete(long sequence, int movieId) {
+                fail("no deletes were journaled");
+            }
+        })) {
+            assertEquals(List.of(100), replayed);
+            assertEquals(1, reopened.getEntryCount());
+            assertTrue(Files.size(journal) < intactLength - 3);
+            reopened.appendDelete(2, 100);
+        }
+        try (CatalogStore store = open()) {
+            assertEquals(2, store.getSequence());
+            assertNull(store.getRecoveredCatalog().findById(100));
+            assertNull(store.getRecoveredCatalog().findById(101));
+        }
+    }
+}
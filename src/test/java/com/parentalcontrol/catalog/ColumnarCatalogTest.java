@@ -0,0 +1,111 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.RatingScheme;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for ColumnarCatalog.
+ */
+class ColumnarCatalogTest {
+
+    private HeapCatalog source;
+    private ColumnarCatalog columnar;
+
+    @BeforeEach
+    void setUp() {
+        source = new HeapCatalog();
+        CatalogLoader.loadResource("movies.json", source::add);
+        source.add(new Movie(1000, "Amélie", Rating.FIFTEEN, "Romance", 2001));
+        source.add(new Movie(-5, "Negative Id", Rating.TWELVE, null, -300));
+        columnar = ColumnarCatalog.of(source);
+    }
+
+    @Test
+    @DisplayName("Should round-trip every movie in ID order")
+    void testRoundTrip() {
+        List<String> expected = source.stream().sorted(Comparator.comparingInt(Movie::getId))
+                .map(Movie::toString).collect(Collectors.toList());
+        assertEquals(expected, columnar.stream().map(Movie::toString).collect(Collectors.toList()));
+        assertEquals(source.size(), columnar.size());
+    }
+
+    @Test
+    @DisplayName("Should look movies up by ID and title key")
+    void testLookups() {
+        assertEquals("The Matrix", columnar.findById(5).getTitle());
+        assertEquals(-300, columnar.findById(-5).getReleaseYear());
+        assertEquals("", columnar.findById(-5).getGenre());
+        assertNull(columnar.findById(999));
+
+        assertEquals(1, columnar.findByTitle("baby's day out").getId());
+        assertEquals(1000, columnar.findByTitle("amélie").getId());
+        assertNull(columnar.findByTitle("unknown"));
+        assertNull(columnar.findByTitle(null));
+    }
+
+    @Test
+    @DisplayName("Should count movies per rating and per ceiling like a scan over objects")
+    void testCounts() {
+        long[] counts = columnar.countByRating();
+        for (Rating rating : Rating.values()) {
+            assertEquals(source.stream().filter(m -> m.getRating() == rating).count(),
+                         counts[rating.ordinal()], rating.name());
+            for (RatingScheme scheme : new RatingScheme[] {RatingScheme.DEFAULT, RatingScheme.BBFC}) {
+                assertEquals(source.stream().filter(m -> scheme.allows(m.getRating(), rating)).count(),
+                             columnar.countAccessible(rating, scheme), rating + " " + scheme);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should select by rating mask, genre and year range")
+    void testSelect() {
+        long mask = RatingScheme.DEFAULT.allowedMask(Rating.FIFTEEN);
+        List<Movie> selected = columnar.select(mask, Set.of("romance", "animation"), 1990, 2005);
+        List<Movie> expected = source.stream()
+                .filter(m -> RatingScheme.DEFAULT.allows(m.getRating(), Rating.FIFTEEN))
+                .filter(m -> Set.of("romance", "animation").contains(m.getGenre().toLowerCase()))
+                .filter(m -> m.getReleaseYear() >= 1990 && m.getReleaseYear() <= 2005)
+                .sorted(Comparator.comparingInt(Movie::getId))
+                .collect(Collectors.toList());
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, selected);
+
+        assertEquals(source.size(), columnar.select(-1L, Set.of(), Integer.MIN_VALUE, Integer.MAX_VALUE).size());
+        assertTrue(columnar.select(0L, Set.of(), Integer.MIN_VALUE, Integer.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should encode each genre once")
+    void testGenreDictionary() {
+        assertEquals(source.stream().map(Movie::getGenre).distinct().count(), columnar.getGenres().size());
+    }
+
+    @Test
+    @DisplayName("Should reject release years that do not fit the year column")
+    void testYearRange() {
+        HeapCatalog future = new HeapCatalog();
+        future.add(new Movie(1, "Far Future", Rating.U, "Sci-Fi", 40_000));
+        assertThrows(IllegalArgumentException.class, () -> ColumnarCatalog.of(future));
+        assertThrows(IllegalArgumentException.class, () -> ColumnarCatalog.of(null));
+    }
+
+    @Test
+    @DisplayName("Should handle an empty catalog")
+    void testEmpty() {
+        ColumnarCatalog empty = ColumnarCatalog.of(new HeapCatalog());
+        assertEquals(0, empty.size());
+        assertNull(empty.findById(1));
+        assertNull(empty.findByTitle("anything"));
+        assertEquals(0, empty.countAccessible(Rating.EIGHTEEN, RatingScheme.DEFAULT));
+    }
+}
@@ -0,0 +1,91 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Unit tests for FacetIndex.
+ */
+class FacetIndexTest {
+
+    private FacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = FacetIndex.build(HeapCatalog.fromResource("movies.json"));
+    }
+
+    private static List<Integer> collect(Consumer<IntConsumer> source) {
+        List<Integer> ids = new ArrayList<>();
+        source.accept(ids::add);
+        ids.sort(null);
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Should group movie IDs by genre case-insensitively")
+    void testGenres() {
+        assertEquals(List.of(3, 6), collect(action -> index.forEachInGenre("animation", action)));
+        assertEquals(2, index.countInGenre(" ANIMATION "));
+        assertEquals(0, index.countInGenre("Western"));
+        assertTrue(collect(action -> index.forEachInGenre("Western", action)).isEmpty());
+        assertEquals(8, index.size());
+    }
+
+    @Test
+    @DisplayName("Should find movie IDs by release-year range")
+    void testYears() {
+        assertEquals(List.of(1, 2, 3, 5), collect(action -> index.forEachReleasedBetween(1994, 1999, action)));
+        assertEquals(4, index.countReleasedBetween(1994, 1999));
+        assertEquals(2, index.countReleasedBetween(1994, 1994));
+        assertEquals(0, index.countReleasedBetween(2000, 1999));
+        assertEquals(8, index.countReleasedBetween(Integer.MIN_VALUE, Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should stay consistent with a rebuilt index under random updates")
+    void testRandomUpdates() {
+        Random random = new Random(17);
+        String[] genres = {"Drama", "comedy", "Horror", ""};
+        MovieCatalog shadow = OverlayCatalog.over(new HeapCatalog());
+        FacetIndex incremental = FacetIndex.build(shadow);
+
+        for (int i = 0; i < 600; i++) {
+            int id = random.nextInt(80);
+            Movie previous = shadow.findById(id);
+            if (previous != null && random.nextInt(3) == 0) {
+                incremental = incremental.withRemoval(previous);
+                shadow = ((OverlayCatalog) shadow).withRemoval(id);
+            } else {
+                Movie movie = new Movie(id, "Title " + id, Rating.U, genres[random.nextInt(genres.length)],
+                                        1990 + random.nextInt(10));
+                incremental = incremental.withUpsert(movie, previous);
+                shadow = ((OverlayCatalog) shadow).withUpsert(movie);
+            }
+        }
+
+        FacetIndex rebuilt = FacetIndex.build(shadow);
+        FacetIndex derived = incremental;
+        assertEquals(rebuilt.size(), derived.size());
+        for (String genre : genres) {
+            assertEquals(rebuilt.countInGenre(genre), derived.countInGenre(genre), genre);
+            assertEquals(collect(action -> rebuilt.forEachInGenre(genre, action)),
+                         collect(action -> derived.forEachInGenre(genre, action)), genre);
+        }
+        List<Integer> expectedYears = new ArrayList<>();
+        List<Integer> actualYears = new ArrayList<>();
+        rebuilt.forEachReleasedBetween(1992, 1996, expectedYears::add);
+        derived.forEachReleasedBetween(1992, 1996, actualYears::add);
+        assertEquals(expectedYears, actualYears);
+        assertEquals(rebuilt.countReleasedBetween(1992, 1996), derived.countReleasedBetween(1992, 1996));
+    }
+}
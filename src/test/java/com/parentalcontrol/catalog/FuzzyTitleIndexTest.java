@@ -0,0 +1,213 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for FuzzyTitleIndex.
+ */
+class FuzzyTitleIndexTest {
+
+    private HeapCatalog catalog;
+    private FuzzyTitleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        catalog = HeapCatalog.fromResource("movies.json");
+        catalog.add(new Movie(20, "The Heat", Rating.R, "Comedy", 2013));
+        catalog.add(new Movie(21, "Heat", Rating.R, "Crime", 1995));
+        catalog.add(new Movie(22, "Deadpoll", Rating.PG, "Comedy", 2020));
+        index = FuzzyTitleIndex.build(catalog);
+    }
+
+    private static List<String> titles(List<Movie> movies) {
+        return movies.stream().map(Movie::getTitle).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should find titles by their normalized form")
+    void testNormalizedFind() {
+        assertEquals("Baby's Day Out", index.find("babys day out").getTitle());
+        assertEquals("The Dark Knight", index.find("Dark Knight").getTitle());
+        assertEquals("The Dark Knight", index.find("Dark Knight, The").getTitle());
+        assertEquals("Heat", index.find("The Heat").getTitle()); // both normalize to "heat"; the shorter title wins
+        assertNull(index.find("Incepton"));
+        assertNull(index.find("--"));
+        assertEquals(catalog.size(), index.size());
+        assertFalse(index.hasDictionaries()); // normalized lookups never build them
+    }
+
+    @Test
+    @DisplayName("Should build the deletion dictionaries once, on the first typo lookup")
+    void testDictionaries() {
+        assertEquals("Inception", index.resolve("Incepton").getTitle());
+        assertTrue(index.hasDictionaries());
+
+        FuzzyTitleIndex warmed = FuzzyTitleIndex.build(catalog).buildDictionaries();
+        assertTrue(warmed.hasDictionaries());
+        assertSame(warmed, warmed.buildDictionaries());
+
+        CatalogSnapshot snapshot = new CatalogSnapshot(1, catalog).warm();
+        FuzzyTitleIndex published = snapshot.getFuzzyTitleIndex();
+        assertFalse(published.hasDictionaries()); // warm-up builds the keys only
+        Movie added = new Movie(30, "Paddington", Rating.PG, "Family", 2014);
+        FuzzyTitleIndex derived = published.withUpsert(added, null);
+        assertEquals(added, derived.resolve("Padington"));
+        assertTrue(derived.hasDictionaries());
+        assertTrue(published.hasDictionaries()); // shared with the index it derives from
+    }
+
+    @Test
+    @DisplayName("Should resolve unambiguous typos")
+    void testResolve() {
+        assertEquals("Inception", index.resolve("Incepton").getTitle());
+        assertEquals("The Matrix", index.resolve("The Matirx").getTitle());
+        assertEquals("The Lion King", index.resolve("lion kign").getTitle());
+        assertEquals("Notting Hill", index.resolve("Noting Hill").getTitle());
+        assertEquals("Finding Nemo", index.resolve("Findnig Nemo").getTitle());
+    }
+
+    @Test
+    @DisplayName("Should refuse distant, short or ambiguous queries")
+    void testResolveMisses() {
+        assertNull(index.resolve("NonExistentMovie"));
+        assertNull(index.resolve("Any Movie"));
+        assertNull(index.resolve("Hat")); // three characters tolerate no edit
+        assertNull(index.resolve("Deadpol")); // one edit from both Deadpool and Deadpoll
+        assertEquals("Deadpool", index.resolve("Deadpool").getTitle());
+    }
+
+    @Test
+    @DisplayName("Should suggest the closest titles first")
+    void testSimilar() {
+        assertEquals(List.of("Deadpoll", "Deadpool"), titles(index.similar("Deadpol", 10))); // equally close: key order
+        assertEquals(List.of("Deadpool", "Deadpoll"), titles(index.similar("deadpool", 10)));
+        assertEquals(List.of("Heat", "The Heat"), titles(index.similar("heat", 10)));
+        assertEquals(List.of("Heat"), titles(index.similar("heat", 1)));
+        assertTrue(index.similar("heat", 0).isEmpty());
+        assertTrue(index.similar("zzzzzzzz", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should compute the optimal string alignment distance")
+    void testDistance() {
+        assertEquals(0, FuzzyTitleIndex.distance("matrix", "matrix", 2));
+        assertEquals(1, FuzzyTitleIndex.distance("matrix", "matirx", 2)); // adjacent transposition
+        assertEquals(1, FuzzyTitleIndex.distance("nemo", "neemo", 2));
+        assertEquals(2, FuzzyTitleIndex.distance("kitten", "sittin", 2));
+        assertEquals(3, FuzzyTitleIndex.distance("kitten", "sitting", 2)); // capped at max + 1
+        assertEquals(2, FuzzyTitleIndex.distance("ab", "abcdef", 1));
+    }
+
+    @Test
+    @DisplayName("Should match a linear scan on a dense catalog")
+    void testAgainstLinearScan() {
+        Random random = new Random(11);
+        HeapCatalog dense = new HeapCatalog();
+        Set<String> seen = new TreeSet<>();
+        while (dense.size() < 3000) {
+            String title = randomTitle(random);
+            if (seen.add(TitleNormalizer.normalize(title))) {
+                dense.add(new Movie(dense.size() + 1, title, Rating.U, "", 2000));
+            }
+        }
+        FuzzyTitleIndex denseIndex = FuzzyTitleIndex.build(dense);
+        List<String> keys = dense.stream().map(m -> TitleNormalizer.normalize(m.getTitle()))
+                .collect(Collectors.toList());
+
+        for (int q = 0; q < 500; q++) {
+            String query = typo(keys.get(random.nextInt(keys.size())), random);
+            String key = TitleNormalizer.normalize(query);
+            int maxDistance = FuzzyTitleIndex.allowedDistance(key.length());
+            Set<String> expected = keys.stream()
+                    .filter(k -> FuzzyTitleIndex.distance(key, k, maxDistance) <= maxDistance)
+                    .collect(Collectors.toCollection(TreeSet::new));
+            Set<String> actual = denseIndex.similar(query, Integer.MAX_VALUE).stream()
+                    .map(m -> TitleNormalizer.normalize(m.getTitle()))
+                    .collect(Collectors.toCollection(TreeSet::new));
+            assertEquals(expected, actual, query);
+        }
+    }
+
+    @Test
+    @DisplayName("Should stay consistent with a rebuilt index under random updates")
+    void testRandomUpdates() {
+        Random random = new Random(13);
+        MovieCatalog shadow = OverlayCatalog.over(new HeapCatalog());
+        FuzzyTitleIndex incremental = FuzzyTitleIndex.build(shadow).buildDictionaries();
+
+        for (int i = 0; i < 600; i++) {
+            int id = random.nextInt(80);
+            Movie previous = shadow.findById(id);
+            if (previous != null && random.nextInt(3) == 0) {
+                incremental = incremental.withRemoval(previous);
+                shadow = ((OverlayCatalog) shadow).withRemoval(id);
+            } else {
+                String title = shortTitle(random);
+                Movie movie = new Movie(id, random.nextBoolean() ? title : " " + title + "  ", Rating.U, "", 2000);
+                Movie displaced = shadow.findByTitle(MovieCatalog.titleKey(movie.getTitle()));
+                if (displaced != null && displaced.getId() != id) {
+                    incremental = incremental.withRemoval(displaced);
+                }
+                incremental = incremental.withUpsert(movie, previous);
+                shadow = ((OverlayCatalog) shadow).withUpsert(movie);
+            }
+
+            if (i % 50 == 49) {
+                FuzzyTitleIndex rebuilt = FuzzyTitleIndex.build(shadow);
+                assertEquals(rebuilt.size(), incremental.size());
+                for (int q = 0; q < 40; q++) {
+                    String query = typo(shortTitle(random), random);
+                    assertEquals(rebuilt.find(query), incremental.find(query), query);
+                    assertEquals(rebuilt.resolve(query), incremental.resolve(query), query);
+                    assertEquals(rebuilt.similar(query, 10), incremental.similar(query, 10), query);
+                }
+            }
+        }
+    }
+
+    /** Titles over a four-letter alphabet, so that near neighbours are plentiful. */
+    private static String randomTitle(Random random) {
+        int length = 2 + random.nextInt(24);
+        StringBuilder title = new StringBuilder("x");
+        for (int i = 1; i < length; i++) {
+            title.append(random.nextInt(6) == 0 ? ' ' : (char) ('a' + random.nextInt(4)));
+        }
+        return title.toString();
+    }
+
+    /** Short titles, so that equal and neighbouring keys recur across updates. */
+    private static String shortTitle(Random random) {
+        String title = randomTitle(random);
+        return title.substring(0, Math.min(title.length(), 1 + random.nextInt(6)));
+    }
+
+    /** Applies up to three random edits: insertions, deletions, substitutions and transpositions. */
+    private static String typo(String title, Random random) {
+        StringBuilder text = new StringBuilder(title);
+        int edits = random.nextInt(4);
+        for (int e = 0; e < edits && text.length() > 1; e++) {
+            int position = random.nextInt(text.length() - 1);
+            switch (random.nextInt(4)) {
+                case 0 -> text.insert(position, (char) ('a' + random.nextInt(4)));
+                case 1 -> text.deleteCharAt(position);
+                case 2 -> text.setCharAt(position, (char) ('a' + random.nextInt(4)));
+                default -> {
+                    char c = text.charAt(position);
+                    text.setCharAt(position, text.charAt(position + 1));
+                    text.setCharAt(position + 1, c);
+                }
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,76 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for HeapCatalog.
+ */
+class HeapCatalogTest {
+
+    private static List<String> titles(MovieCatalog catalog) {
+        return catalog.stream().map(Movie::getTitle).sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should drop the old title when an ID is added again")
+    void testReplaceById() {
+        HeapCatalog catalog = new HeapCatalog();
+        catalog.add(new Movie(1, "Up", Rating.U, "Animation", 2009));
+        catalog.add(new Movie(1, "Cars", Rating.U, "Animation", 2006));
+
+        assertEquals(1, catalog.size());
+        assertEquals("Cars", catalog.findById(1).getTitle());
+        assertNull(catalog.findByTitle(MovieCatalog.titleKey("Up")));
+        assertEquals(1, catalog.findByTitle(MovieCatalog.titleKey("CARS")).getId());
+    }
+
+    @Test
+    @DisplayName("Should drop the old ID when a title is added again")
+    void testReplaceByTitle() {
+        HeapCatalog catalog = new HeapCatalog();
+        catalog.add(new Movie(1, "Up", Rating.U, "Animation", 2009));
+        catalog.add(new Movie(2, "UP", Rating.PG, "Animation", 2009));
+
+        assertEquals(1, catalog.size());
+        assertNull(catalog.findById(1));
+        assertEquals(2, catalog.findByTitle(MovieCatalog.titleKey("Up")).getId());
+        assertEquals(List.of("UP"), titles(catalog));
+    }
+
+    @Test
+    @DisplayName("Should drop both movies a new one displaces by ID and by title")
+    void testReplaceBoth() {
+        HeapCatalog catalog = new HeapCatalog();
+        catalog.add(new Movie(1, "Up", Rating.U, "Animation", 2009));
+        catalog.add(new Movie(2, "Cars", Rating.U, "Animation", 2006));
+        catalog.add(new Movie(3, "Coco", Rating.U, "Animation", 2017));
+        catalog.add(new Movie(1, "Cars", Rating.PG, "Animation", 2006));
+
+        assertEquals(2, catalog.size());
+        assertNull(catalog.findById(2));
+        assertNull(catalog.findByTitle(MovieCatalog.titleKey("Up")));
+        assertEquals(Rating.PG, catalog.findById(1).getRating());
+        assertSame(catalog.findById(1), catalog.findByTitle(MovieCatalog.titleKey("Cars")));
+        assertEquals(List.of("Cars", "Coco"), titles(catalog));
+    }
+
+    @Test
+    @DisplayName("Should keep the first movie for an ID or title when adding if absent")
+    void testAddIfAbsent() {
+        HeapCatalog catalog = new HeapCatalog();
+        assertTrue(catalog.addIfAbsent(new Movie(1, "Up", Rating.U, "Animation", 2009)));
+        assertFalse(catalog.addIfAbsent(new Movie(1, "Cars", Rating.U, "Animation", 2006)));
+        assertFalse(catalog.addIfAbsent(new Movie(2, " up", Rating.PG, "Animation", 2009)));
+        assertTrue(catalog.addIfAbsent(new Movie(2, "Cars", Rating.U, "Animation", 2006)));
+
+        assertEquals(2, catalog.size());
+        assertEquals("Up", catalog.findById(1).getTitle());
+        assertEquals(List.of("Cars", "Up"), titles(catalog));
+    }
+}
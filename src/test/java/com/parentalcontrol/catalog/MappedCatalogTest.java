@@ -0,0 +1,94 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for CatalogCompiler and MappedCatalog.
+ */
+class MappedCatalogTest {
+
+    @TempDir
+    Path tempDir;
+
+    private HeapCatalog source;
+    private MappedCatalog mapped;
+
+    @BeforeEach
+    void setUp() {
+        source = new HeapCatalog();
+        CatalogLoader.loadResource("movies.json", source::add);
+        source.add(new Movie(1000, "Amélie", Rating.FIFTEEN, "Romance", 2001));
+        source.add(new Movie(-5, "Negative Id", Rating.TWELVE, null, -300));
+
+        Path snapshot = tempDir.resolve("catalog.bin");
+        assertEquals(10, CatalogCompiler.compile(source, snapshot));
+        mapped = MappedCatalog.open(snapshot);
+    }
+
+    @Test
+    @DisplayName("Should serve lookups by ID from the mapped snapshot")
+    void testFindById() {
+        assertEquals(10, mapped.size());
+        Movie movie = mapped.findById(5);
+        assertEquals("The Matrix", movie.getTitle());
+        assertEquals(Rating.R, movie.getRating());
+        assertEquals("Action", movie.getGenre());
+        assertEquals(1999, movie.getReleaseYear());
+
+        Movie negative = mapped.findById(-5);
+        assertEquals("", negative.getGenre());
+        assertEquals(-300, negative.getReleaseYear());
+
+        assertNull(mapped.findById(999));
+    }
+
+    @Test
+    @DisplayName("Should serve lookups by title key including non-ASCII titles")
+    void testFindByTitle() {
+        assertEquals(1, mapped.findByTitle("baby's day out").getId());
+        assertEquals(1000, mapped.findByTitle("amélie").getId());
+        assertNull(mapped.findByTitle("unknown"));
+        assertNull(mapped.findByTitle(null));
+    }
+
+    @Test
+    @DisplayName("Should round-trip every movie")
+    void testRoundTrip() {
+        List<String> expected = source.stream().sorted(Comparator.comparingInt(Movie::getId))
+                .map(Movie::toString).collect(Collectors.toList());
+        List<String> actual = mapped.stream()
+                .map(Movie::toString).collect(Collectors.toList());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Should compile a JSON catalog file")
+    void testCompileJsonFile() throws IOException {
+        Path json = tempDir.resolve("catalog.json");
+        Files.writeString(json, "[{\"id\":3,\"title\":\"Heat\",\"rating\":\"R\"}]");
+        Path snapshot = tempDir.resolve("nested/heat.bin");
+
+        assertEquals(1, CatalogCompiler.compile(json, snapshot));
+        assertEquals("Heat", MappedCatalog.open(snapshot).findById(3).getTitle());
+    }
+
+    @Test
+    @DisplayName("Should reject files that are not snapshots")
+    void testRejectsInvalidFile() throws IOException {
+        Path bogus = tempDir.resolve("bogus.bin");
+        Files.write(bogus, new byte[64]);
+        assertThrows(IllegalArgumentException.class, () -> MappedCatalog.open(bogus));
+    }
+}
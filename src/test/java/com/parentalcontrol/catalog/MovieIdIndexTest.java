@@ -0,0 +1,219 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for MovieIdIndex.
+ */
+class MovieIdIndexTest {
+
+    private static final int FOOTPRINT_MOVIES = 1 << 20;
+
+    private static Movie movie(int id) {
+        return new Movie(id, "Movie", Rating.PG, "Drama", 2000);
+    }
+
+    @Test
+    @DisplayName("Should stay dense for compact IDs and stream them in order")
+    void testDense() {
+        MovieIdIndex index = new MovieIdIndex();
+        for (int id = 1; id <= 1000; id++) {
+            assertNull(index.put(movie(id)));
+        }
+        assertTrue(index.isDense());
+        assertEquals(1000, index.size());
+        assertEquals(500, index.get(500).getId());
+        assertNull(index.get(0));
+        assertNull(index.get(1001));
+        assertNull(index.get(-1));
+        assertNull(index.get(Integer.MAX_VALUE));
+        List<Integer> ids = index.stream().map(Movie::getId).collect(Collectors.toList());
+        assertEquals(1000, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(i + 1, ids.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should switch to a hash table for sparse or negative IDs")
+    void testHashed() {
+        MovieIdIndex index = new MovieIdIndex();
+        index.put(movie(1));
+        index.put(movie(1_000_000_000));
+        assertFalse(index.isDense());
+        index.put(movie(-7));
+        assertEquals(3, index.size());
+        assertEquals(1_000_000_000, index.get(1_000_000_000).getId());
+        assertEquals(-7, index.get(-7).getId());
+        assertEquals(1, index.get(1).getId());
+        assertNull(index.get(2));
+    }
+
+    @Test
+    @DisplayName("Should replace the movie stored under an existing ID")
+    void testReplace() {
+        for (int firstId : new int[] {5, 1 << 30}) {
+            MovieIdIndex index = new MovieIdIndex();
+            index.put(movie(firstId));
+            Movie replacement = new Movie(firstId, "Other", Rating.R, "Drama", 2001);
+            assertNotNull(index.put(replacement));
+            assertEquals(1, index.size());
+            assertSame(replacement, index.get(firstId));
+        }
+    }
+
+    @Test
+    @DisplayName("Should remove movies in either form and keep the others reachable")
+    void testRemove() {
+        Random random = new Random(7);
+        for (boolean dense : new boolean[] {true, false}) {
+            MovieIdIndex index = new MovieIdIndex();
+            Map<Integer, Movie> expected = new HashMap<>();
+            for (int i = 0; i < 5_000; i++) {
+                Movie movie = movie(dense ? i : random.nextInt(20_000) * 100_000);
+                expected.put(movie.getId(), movie);
+                index.put(movie);
+            }
+            assertEquals(dense, index.isDense());
+            for (int id : expected.keySet().stream().filter(id -> id % 3 == 0).collect(Collectors.toList())) {
+                assertSame(expected.remove(id), index.remove(id));
+                assertNull(index.remove(id));
+            }
+            assertNull(index.remove(-5));
+            assertEquals(expected.size(), index.size());
+            assertEquals(expected.size(), index.stream().count());
+            for (Map.Entry<Integer, Movie> entry : expected.entrySet()) {
+                assertSame(entry.getValue(), index.get(entry.getKey()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should return to a trimmed array once shuffled IDs turn out compact")
+    void testCompact() {
+        MovieIdIndex index = new MovieIdIndex();
+        index.put(movie(10_000));
+        for (int id = 1; id < 10_000; id++) {
+            index.put(movie(id));
+        }
+        assertFalse(index.isDense());
+        index.compact();
+        assertTrue(index.isDense());
+        for (int id = 1; id <= 10_000; id++) {
+            assertEquals(id, index.get(id).getId());
+        }
+        assertNull(index.get(10_001));
+    }
+
+    @Test
+    @DisplayName("Should agree with a HashMap on random IDs")
+    void testMatchesHashMap() {
+        Random random = new Random(42);
+        MovieIdIndex index = new MovieIdIndex();
+        Map<Integer, Movie> expected = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            Movie movie = movie(random.nextInt());
+            assertEquals(expected.put(movie.getId(), movie), index.put(movie));
+        }
+        assertEquals(expected.size(), index.size());
+        for (int i = 0; i < 2; i++) {
+            for (Map.Entry<Integer, Movie> entry : expected.entrySet()) {
+                assertSame(entry.getValue(), index.get(entry.getKey()));
+            }
+            index.compact();
+        }
+        assertEquals(expected.size(), index.stream().count());
+    }
+
+    @Test
+    @DisplayName("Should look up IDs without allocating")
+    void testLookupDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        MovieIdIndex dense = new MovieIdIndex();
+        MovieIdIndex hashed = new MovieIdIndex();
+        for (int id = 0; id < 10_000; id++) {
+            dense.put(movie(id));
+            hashed.put(movie(id * 7919 + 1_000_000));
+        }
+        long found = 0;
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < 1_000_000; i++) {
+            int id = i % 20_000;
+            found += dense.get(id) != null ? 1 : 0;
+            found += hashed.get(id * 7919 + 1_000_000) != null ? 1 : 0;
+        }
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        assertEquals(1_000_000, found);
+        assertTrue(allocated < 64 * 1024, "allocated " + allocated + " bytes");
+    }
+
+    @Test
+    @DisplayName("Should use a fraction of the heap of a HashMap keyed by Integer")
+    void testFootprint() {
+        Movie[] movies = new Movie[FOOTPRINT_MOVIES];
+        Movie[] sparse = new Movie[FOOTPRINT_MOVIES];
+        Random random = new Random(7);
+        for (int i = 0; i < FOOTPRINT_MOVIES; i++) {
+            movies[i] = movie(i + 1);
+            sparse[i] = movie(random.nextInt(Integer.MAX_VALUE));
+        }
+
+        long base = usedHeap();
+        Map<Integer, Movie> map = new HashMap<>();
+        for (Movie movie : movies) {
+            map.put(movie.getId(), movie);
+        }
+        long mapBytes = usedHeap() - base;
+        assertEquals(FOOTPRINT_MOVIES, map.size());
+        Reference.reachabilityFence(map);
+        map = null;
+
+        base = usedHeap();
+        MovieIdIndex dense = new MovieIdIndex();
+        for (Movie movie : movies) {
+            dense.put(movie);
+        }
+        dense.compact();
+        long denseBytes = usedHeap() - base;
+        assertTrue(dense.isDense());
+        Reference.reachabilityFence(dense);
+        dense = null;
+
+        base = usedHeap();
+        MovieIdIndex hashed = new MovieIdIndex();
+        for (Movie movie : sparse) {
+            hashed.put(movie);
+        }
+        hashed.compact();
+        long hashedBytes = usedHeap() - base;
+        assertFalse(hashed.isDense());
+        Reference.reachabilityFence(hashed);
+
+        // HashMap: ~48 bytes of node and boxed key per movie; dense: 4-8 bytes; hashed: 16-24 bytes.
+        String report = String.format("HashMap %d KB, dense %d KB, hashed %d KB",
+                                      mapBytes / 1024, denseBytes / 1024, hashedBytes / 1024);
+        assertTrue(denseBytes * 4 < mapBytes, report);
+        assertTrue(hashedBytes * 2 < mapBytes, report);
+        Reference.reachabilityFence(movies);
+        Reference.reachabilityFence(sparse);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,123 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for OverlayCatalog.
+ */
+class OverlayCatalogTest {
+
+    private HeapCatalog base;
+    private OverlayCatalog overlay;
+
+    @BeforeEach
+    void setUp() {
+        base = HeapCatalog.fromResource("movies.json");
+        overlay = OverlayCatalog.over(base);
+    }
+
+    private static List<Movie> sorted(MovieCatalog catalog) {
+        return catalog.stream().sorted(Comparator.comparingInt(Movie::getId)).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should read through to the base catalog without changes")
+    void testNoChanges() {
+        assertEquals(base.size(), overlay.size());
+        assertEquals(sorted(base), sorted(overlay));
+        assertSame(base.findById(5), overlay.findById(5));
+        assertEquals(0, overlay.getChangeCount());
+        assertSame(overlay, overlay.withRemoval(999));
+    }
+
+    @Test
+    @DisplayName("Should add, replace and delete movies without touching earlier versions")
+    void testChanges() {
+        Movie added = new Movie(100, "Paddington", Rating.PG, "Family", 2014);
+        Movie retitled = new Movie(5, "The Matrix Reloaded", Rating.FIFTEEN, "Action", 2003);
+
+        OverlayCatalog next = overlay.withUpsert(added).withUpsert(retitled).withRemoval(1);
+
+        assertEquals(base.size(), next.size());
+        assertSame(added, next.findById(100));
+        assertSame(added, next.findByTitle("paddington"));
+        assertSame(retitled, next.findById(5));
+        assertSame(retitled, next.findByTitle("the matrix reloaded"));
+        assertNull(next.findByTitle("the matrix"));
+        assertNull(next.findById(1));
+        assertNull(next.findByTitle("baby's day out"));
+        assertEquals(next.size(), next.stream().count());
+        assertEquals(4, next.getChangeCount()); // two upserts, the replaced and the deleted base movie
+
+        assertEquals(sorted(base), sorted(overlay));
+        assertEquals("The Matrix", overlay.findById(5).getTitle());
+    }
+
+    @Test
+    @DisplayName("Should drop the movie whose title a new ID takes, as a heap catalog does")
+    void testUpsertDisplacesTitle() {
+        Movie sameTitle = new Movie(100, "BABY'S DAY OUT", Rating.PG, "Comedy", 1994);
+        OverlayCatalog next = overlay.withUpsert(sameTitle);
+
+        assertEquals(base.size(), next.size());
+        assertNull(next.findById(1));
+        assertSame(sameTitle, next.findByTitle("baby's day out"));
+        assertEquals(next.size(), next.stream().count());
+
+        Movie again = new Movie(101, "Baby's Day Out", Rating.U, "Comedy", 1994);
+        OverlayCatalog twice = next.withUpsert(again);
+        assertEquals(base.size(), twice.size());
+        assertNull(twice.findById(100));
+        assertSame(again, twice.findByTitle("baby's day out"));
+
+        HeapCatalog reloaded = new HeapCatalog();
+        overlay.stream().forEach(reloaded::add);
+        reloaded.add(sameTitle);
+        reloaded.add(again);
+        assertEquals(sorted(reloaded), sorted(twice));
+    }
+
+    @Test
+    @DisplayName("Should forget an added movie that is deleted again")
+    void testAddThenDelete() {
+        Movie added = new Movie(100, "Paddington", Rating.PG, "Family", 2014);
+        OverlayCatalog next = overlay.withUpsert(added).withRemoval(100);
+        assertNull(next.findById(100));
+        assertNull(next.findByTitle("paddington"));
+        assertEquals(base.size(), next.size());
+        assertEquals(0, next.getChangeCount());
+
+        Movie renamed = new Movie(100, "Paddington 2", Rating.PG, "Family", 2017);
+        next = overlay.withUpsert(added).withUpsert(renamed);
+        assertNull(next.findByTitle("paddington"));
+        assertSame(renamed, next.findByTitle("paddington 2"));
+        assertEquals(base.size() + 1, next.size());
+    }
+
+    @Test
+    @DisplayName("Should list the IDs that changed between two overlays over one base")
+    void testChangedSince() {
+        Movie added = new Movie(100, "Paddington", Rating.PG, "Family", 2014);
+        OverlayCatalog first = overlay.withUpsert(added);
+        OverlayCatalog second = first.withRemoval(5).withUpsert(new Movie(1, "Baby's Day Out", Rating.PG, "Comedy", 1994));
+
+        assertArrayEquals(new int[] {100}, first.changedSince(base));
+        assertArrayEquals(new int[0], first.changedSince(first));
+        int[] changed = second.changedSince(first);
+        Arrays.sort(changed);
+        assertArrayEquals(new int[] {1, 5}, changed);
+        changed = second.changedSince(overlay);
+        Arrays.sort(changed);
+        assertArrayEquals(new int[] {1, 5, 100}, changed);
+        assertNull(second.changedSince(HeapCatalog.fromResource("movies.json")));
+    }
+}
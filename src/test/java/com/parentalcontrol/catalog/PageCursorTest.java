@@ -0,0 +1,44 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PageCursor.
+ */
+class PageCursorTest {
+
+    @Test
+    @DisplayName("Should round-trip through its token")
+    void testEncodeDecode() {
+        PageCursor cursor = PageCursor.after(new Movie(42, "Amélie: 2 + 2 = 5?", Rating.PG, "Romance", 2001));
+        String token = cursor.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, PageCursor.decode(token));
+        assertEquals("Amélie: 2 + 2 = 5?", PageCursor.decode(token).getTitle());
+        assertEquals(42, PageCursor.decode(token).getId());
+    }
+
+    @Test
+    @DisplayName("Should order like the title index")
+    void testCompareTo() {
+        PageCursor cursor = PageCursor.after(new Movie(5, "The Matrix", Rating.R, "Action", 1999));
+        assertEquals(0, cursor.compareTo(new Movie(5, "The Matrix", Rating.R, "Action", 1999)));
+        assertTrue(cursor.compareTo(new Movie(6, "The Matrix", Rating.R, "Action", 1999)) < 0);
+        assertTrue(cursor.compareTo(new Movie(1, "The Lion King", Rating.U, "Animation", 1994)) > 0);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed tokens")
+    void testInvalidTokens() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(""));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("bm8tY29sb24"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("eDpUaXRsZQ"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.after(null));
+    }
+}
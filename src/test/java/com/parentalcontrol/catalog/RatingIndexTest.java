@@ -0,0 +1,182 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.RatingScheme;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Unit tests for RatingIndex.
+ */
+class RatingIndexTest {
+
+    private HeapCatalog catalog;
+    private RatingIndex index;
+
+    @BeforeEach
+    void setUp() {
+        catalog = HeapCatalog.fromResource("movies.json");
+        index = RatingIndex.build(catalog);
+    }
+
+    private List<Movie> expectedAccessible(MovieCatalog source, Rating maxRating) {
+        return source.stream()
+                .filter(movie -> movie.getRating().isAccessibleWith(maxRating))
+                .sorted(RatingIndex.TITLE_ORDER)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should match a filter-and-sort for every rating")
+    void testMatchesFilterAndSort() {
+        for (Rating rating : Rating.values()) {
+            assertEquals(expectedAccessible(catalog, rating), index.accessible(rating), rating.name());
+            assertEquals(catalog.stream().filter(m -> m.getRating() == rating).sorted(RatingIndex.TITLE_ORDER)
+                    .collect(Collectors.toList()), index.byRating(rating));
+        }
+        assertEquals(catalog.stream().sorted(RatingIndex.TITLE_ORDER).collect(Collectors.toList()), index.all());
+    }
+
+    @Test
+    @DisplayName("Should filter accessible movies by the given rating scheme")
+    void testAccessibleUnderScheme() {
+        for (RatingScheme scheme : new RatingScheme[] {RatingScheme.BBFC, RatingScheme.MPAA, RatingScheme.DECLARED_ORDER}) {
+            for (Rating rating : Rating.values()) {
+                assertEquals(catalog.stream().filter(m -> scheme.allows(m.getRating(), rating))
+                        .sorted(RatingIndex.TITLE_ORDER).collect(Collectors.toList()),
+                        index.accessible(rating, scheme));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should return unmodifiable lists")
+    void testUnmodifiable() {
+        assertThrows(UnsupportedOperationException.class, () -> index.all().clear());
+        assertThrows(UnsupportedOperationException.class, () -> index.accessible(Rating.PG).remove(0));
+    }
+
+    @Test
+    @DisplayName("Should update incrementally on upsert and removal")
+    void testIncrementalUpdates() {
+        Movie matrix = catalog.findById(5);
+        Movie rerated = new Movie(5, "The Matrix", Rating.FIFTEEN, "Action", 1999);
+        Movie added = new Movie(50, "Amelie", Rating.PG, "Romance", 2001);
+
+        RatingIndex updated = index.withUpsert(rerated, matrix).withUpsert(added, null);
+
+        assertEquals(9, updated.size());
+        assertFalse(updated.byRating(Rating.R).contains(matrix));
+        assertTrue(updated.byRating(Rating.FIFTEEN).contains(rerated));
+        assertEquals("Amelie", updated.all().get(0).getTitle());
+        assertEquals(8, index.size()); // original is untouched
+
+        RatingIndex removed = updated.withRemoval(added);
+        assertEquals(8, removed.size());
+        assertFalse(removed.all().contains(added));
+        assertEquals(8, removed.withRemoval(new Movie(99, "Missing", Rating.U, "", 2000)).size());
+    }
+
+    @Test
+    @DisplayName("Should stay consistent with a rebuilt index under random updates")
+    void testRandomUpdates() {
+        Random random = new Random(42);
+        HeapCatalog shadow = new HeapCatalog();
+        RatingIndex incremental = RatingIndex.build(shadow);
+        Rating[] ratings = Rating.values();
+
+        for (int i = 0; i < 500; i++) {
+            int id = random.nextInt(60);
+            Movie previous = shadow.findById(id);
+            Movie movie = new Movie(id, "Title " + random.nextInt(40) + " #" + id,
+                                    ratings[random.nextInt(ratings.length)], "", 2000);
+            if (previous != null && random.nextBoolean()) {
+                incremental = incremental.withRemoval(previous);
+                HeapCatalog next = new HeapCatalog();
+                shadow.stream().filter(m -> m.getId() != id).forEach(next::add);
+                shadow = next;
+            } else {
+                incremental = incremental.withUpsert(movie, previous);
+                HeapCatalog next = new HeapCatalog();
+                shadow.stream().filter(m -> m.getId() != id).forEach(next::add);
+                next.add(movie);
+                shadow = next;
+            }
+        }
+
+        RatingIndex rebuilt = RatingIndex.build(shadow);
+        assertEquals(rebuilt.all(), incremental.all());
+        for (Rating rating : ratings) {
+            assertEquals(rebuilt.accessible(rating), incremental.accessible(rating));
+        }
+    }
+
+    private static HeapCatalog randomCatalog(int size, long seed) {
+        Random random = new Random(seed);
+        Rating[] ratings = Rating.values();
+        HeapCatalog generated = new HeapCatalog();
+        for (int id = 1; id <= size; id++) {
+            generated.add(new Movie(id, "Title " + random.nextInt(size / 2) + " #" + id,
+                                    ratings[random.nextInt(ratings.length)], "", 2000));
+        }
+        return generated;
+    }
+
+    @Test
+    @DisplayName("Should page through every accessible list with keyset cursors")
+    void testSpliteratorPaging() {
+        RatingIndex large = RatingIndex.build(randomCatalog(2_000, 7));
+        for (RatingScheme scheme : new RatingScheme[] {RatingScheme.DEFAULT, RatingScheme.MPAA}) {
+            for (Rating rating : Rating.values()) {
+                List<Movie> paged = new ArrayList<>();
+                PageCursor cursor = null;
+                while (true) {
+                    Spliterator<Movie> movies = large.spliterator(rating, scheme, cursor);
+                    List<Movie> page = new ArrayList<>();
+                    while (page.size() < 37 && movies.tryAdvance(page::add)) {
+                        // fill the page
+                    }
+                    if (page.isEmpty()) {
+                        break;
+                    }
+                    paged.addAll(page);
+                    cursor = PageCursor.after(page.get(page.size() - 1));
+                }
+                assertEquals(large.accessible(rating, scheme), paged, rating + " " + scheme);
+            }
+        }
+        assertEquals(large.all(), StreamSupport.stream(large.spliterator(null), false).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Should split into exactly sized, title-ordered halves")
+    void testSpliteratorSplits() {
+        RatingIndex large = RatingIndex.build(randomCatalog(5_000, 11));
+        Spliterator<Movie> whole = large.spliterator(Rating.PG_13, RatingScheme.DEFAULT, null);
+        long size = whole.estimateSize();
+        assertEquals(large.accessible(Rating.PG_13).size(), size);
+        assertTrue(whole.hasCharacteristics(Spliterator.SORTED | Spliterator.SIZED | Spliterator.SUBSIZED));
+
+        Spliterator<Movie> prefix = whole.trySplit();
+        assertNotNull(prefix);
+        assertEquals(size, prefix.estimateSize() + whole.estimateSize());
+        assertTrue(prefix.estimateSize() > size / 4 && whole.estimateSize() > size / 4);
+        List<Movie> rejoined = new ArrayList<>();
+        prefix.forEachRemaining(rejoined::add);
+        whole.forEachRemaining(rejoined::add);
+        assertEquals(large.accessible(Rating.PG_13), rejoined);
+
+        assertEquals(large.accessible(Rating.PG_13),
+                     StreamSupport.stream(large.spliterator(Rating.PG_13, RatingScheme.DEFAULT, null), true)
+                             .collect(Collectors.toList()));
+    }
+}
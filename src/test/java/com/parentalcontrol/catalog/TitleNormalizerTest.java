@@ -0,0 +1,50 @@
+package com.parentalcontrol.catalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TitleNormalizer.
+ */
+class TitleNormalizerTest {
+
+    @Test
+    @DisplayName("Should lower-case, drop apostrophes and collapse punctuation")
+    void testPunctuation() {
+        assertEquals("babys day out", TitleNormalizer.normalize("Baby's Day Out"));
+        assertEquals("babys day out", TitleNormalizer.normalize("  BABY’S   day-out! "));
+        assertEquals("spider man no way home", TitleNormalizer.normalize("Spider-Man: No Way Home"));
+        assertEquals("fast and furious", TitleNormalizer.normalize("Fast & Furious"));
+        assertEquals("wall e", TitleNormalizer.normalize("WALL·E"));
+    }
+
+    @Test
+    @DisplayName("Should fold compatibility forms and accents")
+    void testUnicode() {
+        assertEquals("amelie", TitleNormalizer.normalize("Amélie"));
+        assertEquals("inception", TitleNormalizer.normalize("ＩＮＣＥＰＴＩＯＮ"));
+        assertEquals("final fantasy", TitleNormalizer.normalize("ﬁnal fantasy"));
+        assertEquals("crouching tiger", TitleNormalizer.normalize("Crouching Tiger"));
+    }
+
+    @Test
+    @DisplayName("Should drop a leading or trailing article")
+    void testArticles() {
+        assertEquals("dark knight", TitleNormalizer.normalize("The Dark Knight"));
+        assertEquals("dark knight", TitleNormalizer.normalize("Dark Knight, The"));
+        assertEquals("beautiful mind", TitleNormalizer.normalize("A Beautiful Mind"));
+        assertEquals("american tail", TitleNormalizer.normalize("An American Tail"));
+        assertEquals("theodore rex", TitleNormalizer.normalize("Theodore Rex"));
+        assertEquals("the", TitleNormalizer.normalize("The"));
+        assertEquals("mamma mia", TitleNormalizer.normalize("Mamma Mia"));
+    }
+
+    @Test
+    @DisplayName("Should normalize titles without letters or digits to an empty key")
+    void testEmpty() {
+        assertEquals("", TitleNormalizer.normalize(""));
+        assertEquals("", TitleNormalizer.normalize(" -- '' "));
+        assertEquals("9", TitleNormalizer.normalize("9"));
+    }
+}
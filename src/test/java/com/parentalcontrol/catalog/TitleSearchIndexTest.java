@@ -0,0 +1,164 @@
+package com.parentalcontrol.catalog;
+
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.Rating;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for TitleSearchIndex.
+ */
+class TitleSearchIndexTest {
+
+    private HeapCatalog catalog;
+    private TitleSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        catalog = HeapCatalog.fromResource("movies.json");
+        catalog.add(new Movie(20, "Theodore Rex", Rating.PG, "Comedy", 1995));
+        catalog.add(new Movie(21, "Them!", Rating.PG, "Horror", 1954));
+        catalog.add(new Movie(22, "Lion", Rating.PG_13, "Drama", 2016));
+        index = TitleSearchIndex.build(catalog);
+    }
+
+    private static List<String> titles(List<Movie> movies) {
+        return movies.stream().map(Movie::getTitle).collect(Collectors.toList());
+    }
+
+    /** Brute-force reference ranking: prefix matches, then substring matches, each by length. */
+    private static List<Movie> expected(MovieCatalog source, String query, int limit) {
+        String q = query.trim().toLowerCase();
+        Comparator<Movie> rank = Comparator.<Movie>comparingInt(m -> m.getTitle().length())
+                .thenComparing(m -> m.getTitle().toLowerCase())
+                .thenComparingInt(Movie::getId);
+        Stream<Movie> prefix = source.stream()
+                .filter(m -> m.getTitle().toLowerCase().startsWith(q)).sorted(rank);
+        Stream<Movie> substring = source.stream()
+                .filter(m -> !m.getTitle().toLowerCase().startsWith(q) && m.getTitle().toLowerCase().contains(q))
+                .sorted(rank);
+        return Stream.concat(prefix, substring).limit(limit).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should rank prefix matches first, then shorter titles")
+    void testRanking() {
+        assertEquals(List.of("Them!", "The Matrix", "Theodore Rex", "The Lion King", "The Dark Knight"),
+                     titles(index.search("the", 10)));
+        assertEquals(List.of("Lion", "The Lion King"), titles(index.search("LION", 10)));
+    }
+
+    @Test
+    @DisplayName("Should apply result limits")
+    void testLimit() {
+        assertEquals(List.of("Them!", "The Matrix"), titles(index.search("the", 2)));
+        assertTrue(index.search("the", 0).isEmpty());
+        assertEquals(List.of("The Matrix"), titles(index.prefixSearch("the m", 5)));
+    }
+
+    @Test
+    @DisplayName("Should answer short and unmatched queries")
+    void testShortAndMissingQueries() {
+        assertEquals(expected(catalog, "n", 100), index.search("n", 100));
+        assertEquals(expected(catalog, "de", 100), index.search("de", 100));
+        assertTrue(index.search("xyz", 10).isEmpty());
+        assertTrue(index.search("   ", 10).isEmpty());
+        assertTrue(index.prefixSearch("zz", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should agree with a linear scan on a larger catalog")
+    void testAgainstLinearScan() {
+        Random random = new Random(7);
+        String[] words = {"the", "night", "dark", "star", "return", "of", "lion", "king", "an", "a", "nemo", "tale"};
+        HeapCatalog large = new HeapCatalog();
+        for (int id = 0; id < 60000; id++) {
+            StringBuilder title = new StringBuilder();
+            int wordCount = 1 + random.nextInt(4);
+            for (int w = 0; w < wordCount; w++) {
+                title.append(w == 0 ? "" : " ").append(words[random.nextInt(words.length)]);
+            }
+            title.append(' ').append(id % 97);
+            large.add(new Movie(id, title.toString(), Rating.U, "", 2000));
+        }
+        TitleSearchIndex largeIndex = TitleSearchIndex.build(large);
+
+        for (String query : new String[] {"the", "the ", "night 4", "ar", "k", "return of", "tale 9", "zzz", "star"}) {
+            assertEquals(expected(large, query, 25), largeIndex.search(query, 25), query);
+            List<Movie> prefix = expected(large, query, Integer.MAX_VALUE).stream()
+                    .filter(m -> m.getTitle().toLowerCase().startsWith(query.trim())).limit(25)
+                    .collect(Collectors.toList());
+            assertEquals(prefix, largeIndex.prefixSearch(query, 25), query);
+        }
+    }
+
+    @Test
+    @DisplayName("Should resume search results after a cursor")
+    void testSearchPaging() {
+        Random random = new Random(3);
+        HeapCatalog large = new HeapCatalog();
+        for (int id = 1; id <= 3_000; id++) {
+            large.add(new Movie(id, (random.nextBoolean() ? "Star " : "Lone Star ") + random.nextInt(500),
+                                Rating.PG, "", 2000));
+        }
+        TitleSearchIndex largeIndex = TitleSearchIndex.build(large);
+        for (String query : new String[] {"st", "star", "star 1", "lone", "one"}) {
+            List<Movie> paged = new ArrayList<>();
+            PageCursor cursor = null;
+            List<Movie> page;
+            while (!(page = largeIndex.search(query, cursor, 50)).isEmpty()) {
+                paged.addAll(page);
+                cursor = PageCursor.after(page.get(page.size() - 1));
+            }
+            assertEquals(expected(large, query, Integer.MAX_VALUE), paged, query);
+        }
+    }
+
+    @Test
+    @DisplayName("Should stay consistent with a rebuilt index under random updates")
+    void testRandomUpdates() {
+        Random random = new Random(5);
+        String[] words = {"star", "the", "night", "lone", "king", "a"};
+        MovieCatalog shadow = OverlayCatalog.over(new HeapCatalog());
+        TitleSearchIndex incremental = TitleSearchIndex.build(shadow);
+
+        for (int i = 0; i < 600; i++) {
+            int id = random.nextInt(80);
+            Movie previous = shadow.findById(id);
+            if (previous != null && random.nextInt(3) == 0) {
+                incremental = incremental.withRemoval(previous);
+                shadow = ((OverlayCatalog) shadow).withRemoval(id);
+            } else {
+                String title = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]
+                        + " " + random.nextInt(20);
+                Movie movie = new Movie(id, title, Rating.U, "", 2000);
+                Movie displaced = shadow.findByTitle(MovieCatalog.titleKey(movie.getTitle()));
+                if (displaced != null && displaced.getId() != id) {
+                    incremental = incremental.withRemoval(displaced);
+                }
+                incremental = incremental.withUpsert(movie, previous);
+                shadow = ((OverlayCatalog) shadow).withUpsert(movie);
+            }
+
+            if (i % 50 == 49) {
+                TitleSearchIndex rebuilt = TitleSearchIndex.build(shadow);
+                assertEquals(rebuilt.size(), incremental.size());
+                for (String query : new String[] {"st", "star", "the n", "ing", "a", "king 1", "zz"}) {
+                    assertEquals(rebuilt.search(query, 100), incremental.search(query, 100), query);
+                    assertEquals(rebuilt.prefixSearch(query, 7), incremental.prefixSearch(query, 7), query);
+                    PageCursor cursor = PageCursor.after(rebuilt.search(query, 100).stream().skip(3)
+                                                                .findFirst().orElse(new Movie(0, "a", Rating.U, "", 2000)));
+                    assertEquals(rebuilt.search(query, cursor, 5), incremental.search(query, cursor, 5), query);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.parentalcontrol.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parentalcontrol.model.User;
+import com.parentalcontrol.service.ParentalControlService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Unit tests for ParentalControlServer.
+ */
+class ParentalControlServerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ParentalControlService service;
+    private ParentalControlServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() {
+        service = new ParentalControlService();
+        server = ParentalControlServer.start(new InetSocketAddress("127.0.0.1", 0), service);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private HttpResponse<String> get(String pathAndQuery) throws IOException, InterruptedException {
+        URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + pathAndQuery);
+        return client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Should allow and deny access over HTTP")
+    void testAccess() throws Exception {
+        HttpResponse<String> allowed = get("/access?user=Alice&age=8&title=" + encode("Finding Nemo"));
+        assertEquals(200, allowed.statusCode());
+        assertEquals("application/json", allowed.headers().firstValue("Content-Type").orElse(null));
+        JsonNode body = MAPPER.readTree(allowed.body());
+        assertTrue(body.get("allowed").asBoolean());
+        assertEquals("ALLOWED", body.get("verdict").asText());
+
+        JsonNode denied = MAPPER.readTree(get("/access?user=Alice&age=8&title=" + encode("The Matrix")).body());
+        assertFalse(denied.get("allowed").asBoolean());
+        assertEquals("DENIED", denied.get("verdict").asText());
+
+        JsonNode overridden = MAPPER.readTree(
+                get("/access?user=Carol&age=30&maxRating=PG&title=" + encode("The Matrix")).body());
+        assertFalse(overridden.get("allowed").asBoolean());
+    }
+
+    @Test
+    @DisplayName("Should check registered users without an age")
+    void testRegisteredUser() throws Exception {
+        service.getUserService().register(User.createWithDefaultRating("Dora", 7));
+        JsonNode body = MAPPER.readTree(get("/access?user=Dora&title=" + encode("The Matrix")).body());
+        assertEquals("Dora", body.get("user").asText());
+        assertEquals("DENIED", body.get("verdict").asText());
+        assertEquals(400, get("/access?user=Nobody&title=" + encode("The Matrix")).statusCode());
+    }
+
+    @Test
+    @DisplayName("Should report movies that are not found")
+    void testAccessNotFound() throws Exception {
+        JsonNode body = MAPPER.readTree(get("/access?age=30&title=NoSuchMovie").body());
+        assertEquals("NOT_FOUND", body.get("verdict").asText());
+        assertFalse(body.get("allowed").asBoolean());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid parameters with 400")
+    void testBadRequest() throws Exception {
+        HttpResponse<String> missingTitle = get("/access?age=8");
+        assertEquals(400, missingTitle.statusCode());
+        assertTrue(MAPPER.readTree(missingTitle.body()).get("error").asText().contains("title"));
+
+        assertEquals(400, get("/access?age=eight&title=x").statusCode());
+        assertEquals(400, get("/movies/accessible?maxRating=NC17").statusCode());
+        assertEquals(400, get("/search?q=the&limit=-1").statusCode());
+    }
+
+    @Test
+    @DisplayName("Should answer 404 for unknown paths and 405 for other methods")
+    void testUnknownPathAndMethod() throws Exception {
+        assertEquals(404, get("/access/extra?age=8&title=x").statusCode());
+        assertEquals(404, get("/nothing").statusCode());
+
+        URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/health");
+        HttpResponse<String> post = client.send(
+                HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, post.statusCode());
+        assertEquals("GET", post.headers().firstValue("Allow").orElse(null));
+    }
+
+    @Test
+    @DisplayName("Should search titles with a limit")
+    void testSearch() throws Exception {
+        JsonNode all = MAPPER.readTree(get("/search?q=the").body());
+        assertTrue(all.isArray());
+        assertTrue(all.size() > 1);
+        for (JsonNode movie : all) {
+            assertTrue(movie.get("title").asText().toLowerCase().contains("the"));
+            assertTrue(movie.has("id"));
+            assertTrue(movie.has("rating"));
+        }
+        assertEquals(1, MAPPER.readTree(get("/search?q=the&limit=1").body()).size());
+    }
+
+    @Test
+    @DisplayName("Should stream accessible movies with filters")
+    void testAccessible() throws Exception {
+        JsonNode movies = MAPPER.readTree(get("/movies/accessible?maxRating=PG").body());
+        assertTrue(movies.size() > 0);
+        for (JsonNode movie : movies) {
+            String rating = movie.get("rating").asText();
+            assertTrue(rating.equals("U") || rating.equals("PG"), rating);
+        }
+
+        JsonNode recent = MAPPER.readTree(get("/movies/accessible?maxRating=EIGHTEEN&fromYear=2010").body());
+        for (JsonNode movie : recent) {
+            assertTrue(movie.get("releaseYear").asInt() >= 2010);
+        }
+    }
+
+    @Test
+    @DisplayName("Should report the movie count per rating")
+    void testRatingStats() throws Exception {
+        JsonNode stats = MAPPER.readTree(get("/stats/ratings").body());
+        long total = 0;
+        for (JsonNode count : stats) {
+            total += count.asLong();
+        }
+        assertEquals(new ParentalControlService().getMovieService().getAllMovies().size(), total);
+    }
+
+    @Test
+    @DisplayName("Should serve many requests over one keep-alive connection")
+    void testKeepAlive() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            HttpResponse<String> response = get("/health");
+            assertEquals(200, response.statusCode());
+            assertEquals("UP", MAPPER.readTree(response.body()).get("status").asText());
+        }
+    }
+
+    @Test
+    @DisplayName("Should decode query parameters")
+    void testParseQuery() {
+        Map<String, String> params = ParentalControlServer.parseQuery("title=The+Dark%20Knight&age=8&flag&age=9");
+        assertEquals("The Dark Knight", params.get("title"));
+        assertEquals("8", params.get("age"));
+        assertEquals("", params.get("flag"));
+        assertTrue(ParentalControlServer.parseQuery(null).isEmpty());
+    }
+}
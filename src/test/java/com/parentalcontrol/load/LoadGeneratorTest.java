@@ -0,0 +1,65 @@
+package com.parentalcontrol.load;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Unit tests for LoadGenerator.
+ */
+class LoadGeneratorTest {
+
+    private static LoadProfile shortRun() {
+        return LoadProfile.defaults()
+                .withCatalogSize(2_000)
+                .withUsers(100)
+                .withThreads(2)
+                .withWarmup(Duration.ofMillis(100))
+                .withDuration(Duration.ofMillis(400))
+                .withReportInterval(Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("Should drive the configured mix of operations")
+    void testRun() {
+        LoadReport report = new LoadGenerator(shortRun().withHitRatio(0.5).withSearchShare(0.2)).run(line -> { });
+
+        assertTrue(report.getOperations() > 0);
+        assertEquals(report.getAccessChecks() + report.getSearches(), report.getOperations());
+        assertEquals(report.getAccessChecks(), report.getAccessLatency().getSampleCount());
+        assertEquals(report.getSearches(), report.getSearchLatency().getSampleCount());
+        assertTrue(report.getAllowed() + report.getDenied() > 0);
+        assertTrue(report.getNotFound() > 0);
+        assertTrue(report.getSearches() > 0);
+        assertTrue(report.getThroughput() > 0);
+        assertEquals(0.4, report.getElapsedSeconds(), 1e-9);
+        assertTrue(report.getAccessLatency().getP999Micros() >= report.getAccessLatency().getP50Micros());
+        assertTrue(report.summary().contains("Access latency: p50"));
+    }
+
+    @Test
+    @DisplayName("Should only check existing titles at a hit ratio of one")
+    void testAllHits() {
+        LoadReport report = new LoadGenerator(shortRun().withHitRatio(1).withSearchShare(0)
+                                                        .withPolicyShare(1)).run(line -> { });
+
+        assertTrue(report.getAccessChecks() > 0);
+        assertEquals(0, report.getNotFound());
+        assertEquals(0, report.getSearches());
+        assertEquals(0, report.getSearchLatency().getSampleCount());
+    }
+
+    @Test
+    @DisplayName("Should report progress once per interval")
+    void testProgress() {
+        List<String> lines = new CopyOnWriteArrayList<>();
+        new LoadGenerator(shortRun().withThreads(1).withWarmup(Duration.ZERO)
+                                    .withReportInterval(Duration.ofMillis(100))).run(lines::add);
+
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(0).contains("ops/s"), lines.get(0));
+    }
+}
@@ -0,0 +1,57 @@
+package com.parentalcontrol.load;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.Duration;
+
+/**
+ * Unit tests for LoadProfile.
+ */
+class LoadProfileTest {
+
+    @Test
+    @DisplayName("Should parse options over the defaults")
+    void testParse() {
+        LoadProfile profile = LoadProfile.parse("catalog=1000000", "users=500", "policies=0", "hits=0.75",
+                                                "search=0.2", "threads=16", "duration=2h", "warmup=90s",
+                                                "report=5m", "seed=7");
+
+        assertEquals(1_000_000, profile.getCatalogSize());
+        assertEquals(500, profile.getUsers());
+        assertEquals(0.0, profile.getPolicyShare());
+        assertEquals(0.75, profile.getHitRatio());
+        assertEquals(0.2, profile.getSearchShare());
+        assertEquals(16, profile.getThreads());
+        assertEquals(Duration.ofHours(2), profile.getDuration());
+        assertEquals(Duration.ofSeconds(90), profile.getWarmup());
+        assertEquals(Duration.ofMinutes(5), profile.getReportInterval());
+        assertEquals(7, profile.getSeed());
+        assertEquals(LoadProfile.defaults().getCatalogSize(), LoadProfile.parse().getCatalogSize());
+    }
+
+    @Test
+    @DisplayName("Should parse durations with units")
+    void testDurations() {
+        assertEquals(Duration.ofMillis(250), LoadProfile.parseDuration("250ms"));
+        assertEquals(Duration.ofSeconds(30), LoadProfile.parseDuration("30S"));
+        assertEquals(Duration.ofMinutes(3), LoadProfile.parseDuration("PT3M"));
+        assertEquals(Duration.ZERO, LoadProfile.parseDuration("0s"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parseDuration("30"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parseDuration("s"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parseDuration("ten minutes"));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed and out of range options")
+    void testInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("catalog"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("rate=100"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("threads=many"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("threads=0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("hits=1.5"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("search=NaN"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("duration=0s"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.defaults().withWarmup(Duration.ofSeconds(-1)));
+    }
+}
@@ -0,0 +1,104 @@
+package com.parentalcontrol.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for LatencyHistogram.
+ */
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Should map values to buckets within 6.25%")
+    void testBucketBounds() {
+        for (long value : new long[] {0, 1, 15, 16, 17, 31, 32, 33, 1000, 123_456_789L, Long.MAX_VALUE / 3}) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long upper = LatencyHistogram.upperBoundOf(bucket);
+            assertTrue(upper >= value, "upper bound of " + value);
+            assertTrue(upper - value <= value / 16, "precision of " + value);
+            if (bucket > 0) {
+                assertTrue(LatencyHistogram.upperBoundOf(bucket - 1) < value, "lower bound of " + value);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should report percentiles, mean and max")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(1000, histogram.getSampleCount());
+        assertEquals(500.5, histogram.getMeanMicros(), 1e-9);
+        assertEquals(1000.0, histogram.getMaxMicros(), 1e-9);
+        assertEquals(500, histogram.getP50Micros(), 500 * 0.0625);
+        assertEquals(990, histogram.getP99Micros(), 990 * 0.0625);
+        assertEquals(1000.0, histogram.percentileNanos(1.0) / 1000.0, 1e-9);
+
+        histogram.reset();
+        assertEquals(0, histogram.getSampleCount());
+        assertEquals(0, histogram.getP99Micros());
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentileNanos(1.5));
+    }
+
+    @Test
+    @DisplayName("Should add the samples of another histogram")
+    void testAdd() {
+        LatencyHistogram low = new LatencyHistogram();
+        LatencyHistogram high = new LatencyHistogram();
+        for (int i = 1; i <= 500; i++) {
+            low.record(i * 1000L);
+            high.record((500 + i) * 1000L);
+        }
+
+        low.add(high);
+        assertEquals(1000, low.getSampleCount());
+        assertEquals(500.5, low.getMeanMicros(), 1e-9);
+        assertEquals(1000.0, low.getMaxMicros(), 1e-9);
+        assertEquals(990, low.getP99Micros(), 990 * 0.0625);
+        assertEquals(500, high.getSampleCount());
+    }
+
+    @Test
+    @DisplayName("Should record from many threads without losing samples")
+    void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(80_000, histogram.getSampleCount());
+        assertEquals(9_999 / 1000.0, histogram.getMaxMicros(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should sample roughly one call per interval")
+    void testSampling() {
+        LatencyHistogram every = new LatencyHistogram();
+        LatencyHistogram sampled = new LatencyHistogram(16);
+        int hits = 0;
+        for (int i = 0; i < 160_000; i++) {
+            assertTrue(every.sample());
+            if (sampled.sample()) {
+                hits++;
+            }
+        }
+        assertEquals(10_000, hits, 1_000);
+        assertEquals(16, sampled.getSampleInterval());
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(3));
+    }
+}
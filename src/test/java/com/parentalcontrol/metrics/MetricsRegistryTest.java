@@ -0,0 +1,65 @@
+package com.parentalcontrol.metrics;
+
+import com.parentalcontrol.model.Rating;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Unit tests for MetricsRegistry.
+ */
+class MetricsRegistryTest {
+
+    private static final String SCOPE = "registry-test";
+
+    @AfterEach
+    void tearDown() {
+        MetricsRegistry.unregisterAll(SCOPE);
+    }
+
+    @Test
+    @DisplayName("Should publish metrics readable through the platform MBean server")
+    void testRegister() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        DecisionCounters counters = new DecisionCounters();
+        counters.recordGranted(Rating.PG);
+        counters.recordGranted(Rating.PG);
+        counters.recordDenied(Rating.R);
+        ObjectName countersName = MetricsRegistry.objectName(SCOPE, "AccessDecisions", "checkAccess");
+        ObjectName latencyName = MetricsRegistry.objectName(SCOPE, "Latency", "checkAccess");
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(2_000);
+
+        assertTrue(MetricsRegistry.register(countersName, counters));
+        assertTrue(MetricsRegistry.register(latencyName, histogram));
+
+        assertEquals(2L, server.getAttribute(countersName, "Granted"));
+        assertEquals(1L, server.getAttribute(countersName, "Denied"));
+        assertTrue(server.getAttribute(countersName, "GrantedByRating") instanceof TabularData);
+        assertEquals(1L, server.getAttribute(latencyName, "SampleCount"));
+        assertEquals(2.0, (Double) server.getAttribute(latencyName, "MaxMicros"), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should replace beans registered twice and unregister by scope")
+    void testReplaceAndUnregister() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = MetricsRegistry.objectName(SCOPE, "Catalog", "catalog");
+
+        assertTrue(MetricsRegistry.register(name, new CatalogMetrics(() -> 1, () -> 1)));
+        CatalogMetrics replacement = new CatalogMetrics(() -> 42, () -> 7);
+        replacement.recordReload(3_000_000);
+        assertTrue(MetricsRegistry.register(name, replacement));
+
+        assertEquals(42L, server.getAttribute(name, "MovieCount"));
+        assertEquals(7L, server.getAttribute(name, "CatalogVersion"));
+        assertEquals(3.0, (Double) server.getAttribute(name, "LastReloadMillis"), 1e-9);
+        assertEquals(1, MetricsRegistry.unregisterAll(SCOPE));
+        assertFalse(server.isRegistered(name));
+    }
+}
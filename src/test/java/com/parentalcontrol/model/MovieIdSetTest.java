@@ -0,0 +1,125 @@
+package com.parentalcontrol.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+/**
+ * Unit tests for MovieIdSet.
+ */
+class MovieIdSetTest {
+
+    private static MovieIdSet random(SplittableRandom random, int count, int bound) {
+        MovieIdSet.Builder builder = new MovieIdSet.Builder();
+        for (int i = 0; i < count; i++) {
+            builder.add(random.nextInt(bound));
+        }
+        return builder.build();
+    }
+
+    private static TreeSet<Integer> toTreeSet(MovieIdSet set) {
+        TreeSet<Integer> ids = new TreeSet<>();
+        set.forEach(ids::add);
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Should add, remove and find IDs")
+    void testMembership() {
+        MovieIdSet set = MovieIdSet.of(5, 70_000, 5, 3);
+        assertEquals(3, set.size());
+        assertTrue(set.contains(3));
+        assertTrue(set.contains(70_000));
+        assertFalse(set.contains(4));
+        assertArrayEquals(new int[] {3, 5, 70_000}, set.toArray());
+
+        MovieIdSet changed = set.with(4).without(70_000);
+        assertArrayEquals(new int[] {3, 4, 5}, changed.toArray());
+        assertArrayEquals(new int[] {3, 5, 70_000}, set.toArray());
+        assertSame(set, set.with(5));
+        assertSame(set, set.without(6));
+        assertEquals(MovieIdSet.EMPTY, set.without(3).without(5).without(70_000));
+        assertFalse(MovieIdSet.EMPTY.contains(0));
+        assertTrue(MovieIdSet.EMPTY.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should switch containers between arrays and bitmaps by cardinality")
+    void testContainerForms() {
+        MovieIdSet.Builder builder = new MovieIdSet.Builder();
+        for (int id = 0; id < MovieIdSet.ARRAY_MAX; id++) {
+            builder.add(id * 2);
+        }
+        MovieIdSet array = builder.build();
+        MovieIdSet bitmap = array.with(1);
+        assertEquals(MovieIdSet.ARRAY_MAX + 1, bitmap.size());
+        assertTrue(bitmap.contains(1));
+        assertEquals(array.getSizeInBytes(), bitmap.getSizeInBytes());
+        assertEquals(array, bitmap.without(1));
+        assertEquals(array.hashCode(), bitmap.without(1).hashCode());
+
+        long[] words = new long[3000];
+        words[0] = 0b1011;
+        words[2999] = 1L << 63;
+        assertArrayEquals(new int[] {0, 1, 3, 2999 * 64 + 63}, MovieIdSet.fromBits(words).toArray());
+    }
+
+    @Test
+    @DisplayName("Should combine sets like java.util sets")
+    void testSetOperations() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int round = 0; round < 20; round++) {
+            int bound = round % 2 == 0 ? 200_000 : 20_000;
+            MovieIdSet a = random(random, random.nextInt(30_000), bound);
+            MovieIdSet b = random(random, random.nextInt(30_000), bound);
+            TreeSet<Integer> x = toTreeSet(a);
+            TreeSet<Integer> y = toTreeSet(b);
+
+            TreeSet<Integer> union = new TreeSet<>(x);
+            union.addAll(y);
+            TreeSet<Integer> intersection = new TreeSet<>(x);
+            intersection.retainAll(y);
+            TreeSet<Integer> difference = new TreeSet<>(x);
+            difference.removeAll(y);
+            TreeSet<Integer> symmetric = new TreeSet<>(union);
+            symmetric.removeAll(intersection);
+
+            assertEquals(union, toTreeSet(a.or(b)));
+            assertEquals(union.size(), a.or(b).size());
+            assertEquals(intersection, toTreeSet(a.and(b)));
+            assertEquals(intersection.size(), a.and(b).size());
+            assertEquals(difference, toTreeSet(a.andNot(b)));
+            assertEquals(difference.size(), a.andNot(b).size());
+            assertEquals(symmetric, toTreeSet(a.xor(b)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should order negative IDs after positive ones")
+    void testNegativeIds() {
+        MovieIdSet set = MovieIdSet.of(-1, 7, Integer.MIN_VALUE);
+        assertArrayEquals(new int[] {7, Integer.MIN_VALUE, -1}, set.toArray());
+        assertTrue(set.contains(-1));
+        assertFalse(set.contains(-2));
+    }
+
+    @Test
+    @DisplayName("Should keep a few overrides in a few dozen bytes")
+    void testFootprint() {
+        assertEquals(0, MovieIdSet.EMPTY.getSizeInBytes());
+        assertTrue(MovieIdSet.of(1, 2, 3).getSizeInBytes() <= 96);
+
+        BitSet dense = new BitSet();
+        MovieIdSet.Builder builder = new MovieIdSet.Builder();
+        for (int id = 0; id < 1_000_000; id += 2) {
+            builder.add(id);
+            dense.set(id);
+        }
+        MovieIdSet set = builder.build();
+        assertEquals(dense.cardinality(), set.size());
+        assertTrue(set.getSizeInBytes() < 1_000_000 / 8 * 11 / 10);
+    }
+}
@@ -0,0 +1,73 @@
+package com.parentalcontrol.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Set;
+
+/**
+ * Unit tests for ProfilePolicy.
+ */
+class ProfilePolicyTest {
+
+    private final Movie cartoon = new Movie(1, "Finding Nemo", Rating.U, "Animation", 2003);
+    private final Movie thriller = new Movie(2, "The Dark Knight", Rating.PG_13, "Action", 2008);
+    private final Movie classic = new Movie(3, "The Lion King", Rating.PG, "Animation", 1994);
+
+    @Test
+    @DisplayName("Should permit by rating only when no other rule is set")
+    void testRatingOnly() {
+        ProfilePolicy policy = ProfilePolicy.ratedUpTo(Rating.PG);
+        assertTrue(policy.permits(cartoon, RatingScheme.DEFAULT));
+        assertTrue(policy.permits(classic, RatingScheme.DEFAULT));
+        assertFalse(policy.permits(thriller, RatingScheme.DEFAULT));
+        assertEquals(ProfilePolicy.ratedUpTo(Rating.PG), ProfilePolicy.of(new User("Alice", 8, Rating.PG)));
+        assertThrows(IllegalArgumentException.class, () -> ProfilePolicy.ratedUpTo(null));
+    }
+
+    @Test
+    @DisplayName("Should apply blocked genres and release-year limits")
+    void testRules() {
+        ProfilePolicy policy = ProfilePolicy.ratedUpTo(Rating.PG_13).blockGenre(" ACTION ");
+        assertEquals(Set.of("action"), policy.getBlockedGenres());
+        assertFalse(policy.permits(thriller, RatingScheme.DEFAULT));
+        assertTrue(policy.unblockGenre("action").permits(thriller, RatingScheme.DEFAULT));
+
+        ProfilePolicy recent = ProfilePolicy.ratedUpTo(Rating.PG_13).withYears(2000, 2010);
+        assertTrue(recent.permits(cartoon, RatingScheme.DEFAULT));
+        assertFalse(recent.permits(classic, RatingScheme.DEFAULT));
+        assertTrue(recent.withoutYearLimit().permits(classic, RatingScheme.DEFAULT));
+        assertThrows(IllegalArgumentException.class, () -> recent.withYears(2010, 2000));
+        assertThrows(IllegalArgumentException.class, () -> recent.blockGenre(" "));
+    }
+
+    @Test
+    @DisplayName("Should let title overrides win over the rules")
+    void testOverrides() {
+        ProfilePolicy policy = ProfilePolicy.ratedUpTo(Rating.PG).allowTitle(2).denyTitle(1);
+        assertTrue(policy.permits(thriller, RatingScheme.DEFAULT));
+        assertFalse(policy.permits(cartoon, RatingScheme.DEFAULT));
+
+        ProfilePolicy flipped = policy.allowTitle(1);
+        assertEquals(MovieIdSet.of(1, 2), flipped.getAllowedTitles());
+        assertTrue(flipped.getDeniedTitles().isEmpty());
+        assertTrue(flipped.permits(cartoon, RatingScheme.DEFAULT));
+        assertFalse(flipped.clearOverride(2).permits(thriller, RatingScheme.DEFAULT));
+        assertEquals(ProfilePolicy.ratedUpTo(Rating.PG), policy.clearOverride(1).clearOverride(2));
+    }
+
+    @Test
+    @DisplayName("Should apply overrides in bulk and report whether catalog rules are set")
+    void testBulkOverrides() {
+        ProfilePolicy policy = ProfilePolicy.ratedUpTo(Rating.PG).denyTitles(MovieIdSet.of(1, 2, 3));
+        assertEquals(MovieIdSet.of(1, 2, 3), policy.getDeniedTitles());
+
+        ProfilePolicy allowed = policy.allowTitles(MovieIdSet.of(2, 3, 4));
+        assertEquals(MovieIdSet.of(1), allowed.getDeniedTitles());
+        assertEquals(MovieIdSet.of(2, 3, 4), allowed.getAllowedTitles());
+        assertFalse(allowed.hasCatalogRules());
+        assertTrue(allowed.blockGenre("Horror").hasCatalogRules());
+        assertTrue(allowed.withYears(2000, 2010).hasCatalogRules());
+        assertThrows(IllegalArgumentException.class, () -> policy.allowTitles(null));
+    }
+}
@@ -0,0 +1,85 @@
+package com.parentalcontrol.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Unit tests for RatingScheme.
+ */
+class RatingSchemeTest {
+
+    @Test
+    @DisplayName("Should order the default scheme by minimum age")
+    void testDefaultFollowsMinimumAge() {
+        for (Rating movie : Rating.values()) {
+            for (Rating ceiling : Rating.values()) {
+                assertEquals(movie.getMinimumAge() <= ceiling.getMinimumAge(),
+                             RatingScheme.DEFAULT.allows(movie, ceiling), movie + " with " + ceiling);
+                assertEquals(movie.getMinimumAge() > ceiling.getMinimumAge(),
+                             movie.isMoreRestrictiveThan(ceiling));
+            }
+        }
+        assertFalse(Rating.PG_13.isAccessibleWith(Rating.TWELVE));
+        assertTrue(Rating.R.isAccessibleWith(Rating.EIGHTEEN));
+    }
+
+    @Test
+    @DisplayName("Should keep the declared order available")
+    void testDeclaredOrder() {
+        for (Rating movie : Rating.values()) {
+            for (Rating ceiling : Rating.values()) {
+                assertEquals(movie.ordinal() <= ceiling.ordinal(), RatingScheme.DECLARED_ORDER.allows(movie, ceiling));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should treat ratings in the same tier as equivalent")
+    void testBoardSchemes() {
+        assertTrue(RatingScheme.BBFC.allows(Rating.PG_13, Rating.TWELVE));
+        assertTrue(RatingScheme.BBFC.allows(Rating.TWELVE, Rating.PG_13));
+        assertFalse(RatingScheme.BBFC.allows(Rating.R, Rating.FIFTEEN));
+        assertTrue(RatingScheme.MPAA.allows(Rating.R, Rating.FIFTEEN));
+        assertFalse(RatingScheme.MPAA.allows(Rating.EIGHTEEN, Rating.R));
+        assertEquals(RatingScheme.BBFC.rank(Rating.TWELVE), RatingScheme.BBFC.rank(Rating.PG_13));
+        assertFalse(RatingScheme.BBFC.isMoreRestrictive(Rating.PG_13, Rating.TWELVE));
+    }
+
+    @Test
+    @DisplayName("Should compile ceilings into allowed-rating masks")
+    void testAllowedMask() {
+        long mask = RatingScheme.MINIMUM_AGE.allowedMask(Rating.TWELVE);
+        assertEquals(1L << Rating.U.ordinal() | 1L << Rating.PG.ordinal() | 1L << Rating.TWELVE.ordinal(), mask);
+        assertEquals((1L << Rating.values().length) - 1, RatingScheme.MINIMUM_AGE.allowedMask(Rating.EIGHTEEN));
+    }
+
+    @Test
+    @DisplayName("Should build custom schemes and look up built-in ones")
+    void testCustomAndLookup() {
+        Map<Rating, Integer> ranks = new EnumMap<>(Rating.class);
+        for (Rating rating : Rating.values()) {
+            ranks.put(rating, rating == Rating.U ? 0 : 1);
+        }
+        RatingScheme lenient = RatingScheme.ranked("Lenient", ranks);
+        assertTrue(lenient.allows(Rating.EIGHTEEN, Rating.PG));
+        assertFalse(lenient.allows(Rating.PG, Rating.U));
+
+        assertSame(RatingScheme.BBFC, RatingScheme.forName("bbfc"));
+        assertSame(RatingScheme.MINIMUM_AGE, RatingScheme.forName(" MINIMUM_AGE "));
+        assertThrows(IllegalArgumentException.class, () -> RatingScheme.forName("ACB"));
+        assertThrows(IllegalArgumentException.class, () -> RatingScheme.forName(null));
+    }
+
+    @Test
+    @DisplayName("Should reject incomplete or repeated schemes")
+    void testInvalidSchemes() {
+        assertThrows(IllegalArgumentException.class, () -> RatingScheme.ordered("Short", Rating.U, Rating.PG));
+        assertThrows(IllegalArgumentException.class, () -> RatingScheme.ordered("Twice",
+                Rating.U, Rating.U, Rating.PG, Rating.PG_13, Rating.TWELVE, Rating.FIFTEEN, Rating.EIGHTEEN, Rating.R));
+        assertThrows(IllegalArgumentException.class, () -> RatingScheme.ranked("Negative", Map.of(Rating.U, -1)));
+        assertThrows(IllegalArgumentException.class, () -> RatingScheme.ordered(" ", Rating.values()));
+    }
+}
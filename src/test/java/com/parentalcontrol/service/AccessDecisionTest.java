@@ -0,0 +1,48 @@
+package com.parentalcontrol.service;
+
+import com.parentalcontrol.model.Rating;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AccessDecision.
+ */
+class AccessDecisionTest {
+
+    @Test
+    @DisplayName("Should return shared constants for every rating pair")
+    void testSharedConstants() {
+        for (Rating movieRating : Rating.values()) {
+            for (Rating userMaxRating : Rating.values()) {
+                AccessDecision decision = AccessDecision.of(movieRating, userMaxRating);
+
+                assertSame(decision, AccessDecision.of(movieRating, userMaxRating));
+                assertEquals(movieRating.isAccessibleWith(userMaxRating), decision.isAllowed());
+                assertEquals(movieRating, decision.getMovieRating());
+                assertEquals(userMaxRating, decision.getUserMaxRating());
+            }
+        }
+        assertSame(AccessDecision.notFound(), AccessDecision.notFound());
+    }
+
+    @Test
+    @DisplayName("Should render reasons on demand")
+    void testReason() {
+        assertEquals("Access granted. You can watch 'Up' (rated Universal)",
+                     AccessDecision.of(Rating.U, Rating.PG).reason("Up"));
+        assertEquals("Access denied. 'Heat' is rated Restricted, but your maximum allowed rating is Parental Guidance",
+                     AccessDecision.of(Rating.R, Rating.PG).reason("Heat"));
+        assertEquals("Movie not found: Nope", AccessDecision.notFound().reason("Nope"));
+    }
+
+    @Test
+    @DisplayName("Should expose verdicts")
+    void testVerdicts() {
+        assertEquals(AccessDecision.Verdict.ALLOWED, AccessDecision.of(Rating.U, Rating.U).getVerdict());
+        assertEquals(AccessDecision.Verdict.DENIED, AccessDecision.of(Rating.R, Rating.U).getVerdict());
+        assertEquals(AccessDecision.Verdict.NOT_FOUND, AccessDecision.notFound().getVerdict());
+        assertFalse(AccessDecision.notFound().isAllowed());
+        assertNull(AccessDecision.notFound().getMovieRating());
+    }
+}
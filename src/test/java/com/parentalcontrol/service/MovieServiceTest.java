@@ -1,13 +1,33 @@
 package com.parentalcontrol.service;
 
+import com.parentalcontrol.cache.CacheStats;
+import com.parentalcontrol.catalog.CatalogCompiler;
+import com.parentalcontrol.catalog.CatalogImporter;
+import com.parentalcontrol.catalog.CatalogSnapshot;
+import com.parentalcontrol.catalog.CatalogStatistics;
+import com.parentalcontrol.catalog.ColumnarCatalog;
+import com.parentalcontrol.catalog.HeapCatalog;
 import com.parentalcontrol.model.Movie;
 import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.RatingScheme;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  * Unit tests for MovieService.
@@ -194,4 +214,471 @@ class MovieServiceTest {
         assertEquals(Rating.U, nemo.getRating());
         assertEquals("Animation", nemo.getGenre());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should load catalog from a JSON file")
+    void testLoadFromFile(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("catalog.json");
+        Files.writeString(file, "{\"movies\":[{\"id\":42,\"title\":\"Spirited Away\","
+                + "\"rating\":\"PG\",\"genre\":\"Animation\",\"releaseYear\":2001}]}");
+
+        MovieService fileService = new MovieService(file);
+
+        assertEquals(1, fileService.getAllMovies().size());
+        assertEquals(42, fileService.findMovieByTitle("spirited away").getId());
+        assertThrows(IllegalArgumentException.class, () -> new MovieService((Path) null));
+    }
+
+    @Test
+    @DisplayName("Should serve lookups from a binary snapshot")
+    void testFromSnapshot(@TempDir Path tempDir) {
+        HeapCatalog catalog = HeapCatalog.fromResource(MovieService.DEFAULT_CATALOG_RESOURCE);
+        Path snapshot = tempDir.resolve("catalog.bin");
+        CatalogCompiler.compile(catalog, snapshot);
+
+        MovieService snapshotService = MovieService.fromSnapshot(snapshot);
+
+        assertEquals("The Lion King", snapshotService.findMovieById(3).getTitle());
+        assertEquals(Rating.R, snapshotService.findMovieByTitle("DEADPOOL").getRating());
+        assertEquals(movieService.getAllMovies(), snapshotService.getAllMovies());
+        assertEquals(movieService.getMovieCountByRating(), snapshotService.getMovieCountByRating());
+        assertThrows(IllegalArgumentException.class, () -> snapshotService.findMovieById(999));
+    }
+
+    @Test
+    @DisplayName("Should publish a reloaded catalog as a new version")
+    void testReload() {
+        assertEquals(1, movieService.getCatalogVersion());
+
+        HeapCatalog replacement = new HeapCatalog();
+        replacement.add(new Movie(100, "Paddington", Rating.PG, "Family", 2014));
+        CatalogSnapshot snapshot = movieService.reload(() -> replacement);
+
+        assertEquals(2, snapshot.getVersion());
+        assertSame(snapshot, movieService.getSnapshot());
+        assertEquals("Paddington", movieService.findMovieById(100).getTitle());
+        assertFalse(movieService.movieExists("The Matrix"));
+    }
+
+    @Test
+    @DisplayName("Should keep the current catalog when a reload fails")
+    void testFailedReload() {
+        assertThrows(IllegalStateException.class, () ->
+            movieService.reload(() -> { throw new IllegalStateException("feed unavailable"); }));
+        assertThrows(IllegalArgumentException.class, () -> movieService.reload(() -> null));
+
+        assertEquals(1, movieService.getCatalogVersion());
+        assertTrue(movieService.movieExists("The Matrix"));
+    }
+
+    @Test
+    @DisplayName("Should reload in the background while readers keep running")
+    void testReloadAsyncWithConcurrentReaders() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger inconsistent = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(4);
+        try {
+            for (int t = 0; t < 4; t++) {
+                executor.execute(() -> {
+                    started.countDown();
+                    while (running.get()) {
+                        // Each snapshot is either the original eight movies or the replacement two
+                        int size = movieService.getSnapshot().getCatalog().size();
+                        if (size != 8 && size != 2) {
+                            inconsistent.incrementAndGet();
+                        }
+                        movieService.searchMoviesByTitle("the");
+                    }
+                });
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 20; i++) {
+                HeapCatalog replacement = new HeapCatalog();
+                if (i % 2 == 0) {
+                    replacement.add(new Movie(1, "The Iron Giant", Rating.PG, "Animation", 1999));
+                    replacement.add(new Movie(2, "The Goonies", Rating.PG, "Adventure", 1985));
+                } else {
+                    HeapCatalog.fromResource(MovieService.DEFAULT_CATALOG_RESOURCE)
+                            .stream().forEach(replacement::add);
+                }
+                movieService.reloadAsync(() -> replacement, executor).get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            running.set(false);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(0, inconsistent.get());
+        assertEquals(21, movieService.getCatalogVersion());
+    }
+
+    @Test
+    @DisplayName("Should look up movies without throwing on a miss")
+    void testLookupWithoutExceptions() {
+        assertEquals(5, movieService.lookupMovieByTitle("the matrix").orElseThrow().getId());
+        assertEquals("Deadpool", movieService.lookupMovieById(8).orElseThrow().getTitle());
+
+        assertTrue(movieService.lookupMovieByTitle("Non-existent Movie").isEmpty());
+        assertTrue(movieService.lookupMovieByTitle(null).isEmpty());
+        assertTrue(movieService.lookupMovieByTitle("   ").isEmpty());
+        assertTrue(movieService.lookupMovieById(999).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should look up normalized titles and resolve typos")
+    void testNormalizedAndFuzzyLookup() {
+        assertEquals("Baby's Day Out", movieService.lookupMovieByTitle("Babys Day Out").orElseThrow().getTitle());
+        assertEquals("The Dark Knight", movieService.findMovieByTitle("Dark Knight, The").getTitle());
+        assertTrue(movieService.movieExists("dark knight"));
+        assertTrue(movieService.lookupMovieByTitle("Incepton").isEmpty()); // typos only through resolve
+
+        assertEquals("Inception", movieService.resolveMovieTitle("Incepton").orElseThrow().getTitle());
+        assertEquals("The Matrix", movieService.resolveMovieTitle("the matirx").orElseThrow().getTitle());
+        assertTrue(movieService.resolveMovieTitle("Non-existent Movie").isEmpty());
+        assertTrue(movieService.resolveMovieTitle(null).isEmpty());
+        assertTrue(movieService.resolveMovieTitle(" ").isEmpty());
+
+        assertEquals(List.of("Deadpool"),
+                     movieService.suggestTitles("Dedpool", 5).stream().map(Movie::getTitle).collect(Collectors.toList()));
+        assertTrue(movieService.suggestTitles("", 5).isEmpty());
+
+        HeapCatalog replacement = new HeapCatalog();
+        replacement.add(new Movie(100, "Paddington", Rating.PG, "Family", 2014));
+        movieService.reload(() -> replacement);
+        assertFalse(movieService.getSnapshot().getFuzzyTitleIndex().hasDictionaries()); // left to typo lookups
+        assertTrue(movieService.resolveMovieTitle("Incepton").isEmpty());
+        assertEquals(100, movieService.resolveMovieTitle("Padington").orElseThrow().getId());
+        assertTrue(movieService.getSnapshot().getFuzzyTitleIndex().hasDictionaries());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated browse queries from the view cache")
+    void testBrowseCache() {
+        BrowseQuery query = BrowseQuery.accessibleWith(Rating.PG_13).withGenres("romance", "ANIMATION");
+        List<Movie> first = movieService.browse(query);
+
+        assertFalse(first.isEmpty());
+        assertTrue(first.stream().allMatch(m -> m.getRating().isAccessibleWith(Rating.PG_13)));
+        assertTrue(first.stream().allMatch(m -> m.getGenre().equals("Romance") || m.getGenre().equals("Animation")));
+        assertSame(first, movieService.browse(BrowseQuery.accessibleWith(Rating.PG_13).withGenres("Animation", "Romance")));
+
+        List<Movie> nineties = movieService.browse(BrowseQuery.accessibleWith(Rating.EIGHTEEN).withYears(1990, 1999));
+        assertTrue(nineties.stream().allMatch(m -> m.getReleaseYear() >= 1990 && m.getReleaseYear() <= 1999));
+        assertEquals(movieService.getAccessibleMovies(Rating.PG, RatingScheme.BBFC),
+                     movieService.browse(BrowseQuery.accessibleWith(Rating.PG).withScheme(RatingScheme.BBFC)));
+
+        CacheStats stats = movieService.getBrowseCacheStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(3, stats.getMisses());
+        assertThrows(IllegalArgumentException.class, () -> movieService.browse(null));
+        assertThrows(IllegalArgumentException.class, () -> BrowseQuery.accessibleWith(Rating.U).withYears(2000, 1990));
+    }
+
+    @Test
+    @DisplayName("Should answer counts and filtered browse lists from a columnar catalog")
+    void testColumnarCatalog() {
+        MovieService columnar = new MovieService(ColumnarCatalog.of(movieService.getSnapshot().getCatalog()));
+        assertEquals(movieService.getMovieCountByRating(), columnar.getMovieCountByRating());
+        for (BrowseQuery query : List.of(
+                BrowseQuery.accessibleWith(Rating.PG_13).withGenres("romance", "ANIMATION"),
+                BrowseQuery.accessibleWith(Rating.EIGHTEEN).withYears(1990, 1999),
+                BrowseQuery.accessibleWith(Rating.PG).withScheme(RatingScheme.BBFC).withYears(2000, 2020))) {
+            assertEquals(movieService.browse(query), columnar.browse(query), query.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve statistics of the published catalog version")
+    void testCatalogStatistics() {
+        CatalogStatistics before = movieService.getCatalogStatistics();
+        assertSame(before, movieService.getCatalogStatistics());
+        assertEquals(movieService.getAllMovies().size(), before.getTotal());
+
+        HeapCatalog replacement = new HeapCatalog();
+        replacement.add(new Movie(100, "Paddington", Rating.PG, "Family", 2014));
+        CatalogSnapshot next = movieService.reload(() -> replacement);
+
+        assertSame(next.getStatistics(), movieService.getCatalogStatistics());
+        assertEquals(Map.of(Rating.PG, 1L), movieService.getMovieCountByRating());
+        assertEquals(Map.of(2010, 1L), movieService.getCatalogStatistics().getCountByDecade());
+        assertEquals(0, movieService.getCatalogStatistics().getAccessibleCount(Rating.U));
+    }
+
+    @Test
+    @DisplayName("Should publish a new version for each upsert and delete")
+    void testUpsertAndDelete() {
+        long version = movieService.getCatalogVersion();
+        long total = movieService.getCatalogStatistics().getTotal();
+        List<Movie> before = movieService.getAccessibleMovies(Rating.PG);
+
+        Movie added = new Movie(100, "Paddington", Rating.PG, "Family", 2014);
+        assertNull(movieService.upsertMovie(added));
+        assertEquals(version + 1, movieService.getCatalogVersion());
+        assertEquals(added, movieService.findMovieByTitle("paddington"));
+        assertEquals(added, movieService.findMovieById(100));
+        assertTrue(movieService.getAccessibleMovies(Rating.PG).contains(added));
+        assertEquals(before.size() + 1, movieService.getAccessibleMovies(Rating.PG).size());
+        assertEquals(total + 1, movieService.getCatalogStatistics().getTotal());
+
+        Movie rerated = new Movie(100, "Paddington", Rating.EIGHTEEN, "Family", 2014);
+        assertEquals(added, movieService.upsertMovie(rerated));
+        assertEquals(before, movieService.getAccessibleMovies(Rating.PG));
+        assertEquals(total + 1, movieService.getCatalogStatistics().getTotal());
+
+        assertTrue(movieService.deleteMovie(100));
+        assertFalse(movieService.deleteMovie(100));
+        assertTrue(movieService.lookupMovieById(100).isEmpty());
+        assertEquals(version + 3, movieService.getCatalogVersion());
+        assertEquals(total, movieService.getCatalogStatistics().getTotal());
+        assertEquals(CatalogStatistics.build(movieService.getSnapshot().getCatalog()).getCountByRating(),
+                     movieService.getMovieCountByRating());
+        assertEquals(0, movieService.getJournalEntryCount());
+        assertThrows(IllegalStateException.class, movieService::compactCatalog);
+    }
+
+    @Test
+    @DisplayName("Should keep changes made to a data directory across restarts")
+    void testDurableChanges(@TempDir Path tempDir) {
+        Movie added = new Movie(100, "Paddington", Rating.PG, "Family", 2014);
+        try (MovieService service = MovieService.open(tempDir)) {
+            service.upsertMovie(added);
+            service.deleteMovie(1);
+            assertEquals(2, service.getJournalEntryCount());
+        }
+        try (MovieService service = MovieService.open(tempDir)) {
+            assertEquals(added, service.findMovieById(100));
+            assertTrue(service.lookupMovieById(1).isEmpty());
+            assertEquals(2, service.getJournalEntryCount());
+
+            service.compactCatalog();
+            assertEquals(0, service.getJournalEntryCount());
+            assertEquals(added, service.findMovieByTitle("paddington"));
+        }
+        try (MovieService service = MovieService.open(tempDir)) {
+            assertEquals(added, service.findMovieById(100));
+            assertEquals(8, service.getAllMovies().size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should carry the title and facet indexes across changes and compaction")
+    void testIndexesCarriedAcrossChanges(@TempDir Path tempDir) {
+        try (MovieService service = MovieService.open(tempDir)) {
+            service.upsertMovie(new Movie(100, "Paddington", Rating.PG, "Family", 2014));
+            CatalogSnapshot snapshot = service.getSnapshot();
+            assertEquals(List.of("Paddington"),
+                         snapshot.getSearchIndex().search("padd", 10).stream().map(Movie::getTitle)
+                                 .collect(Collectors.toList()));
+            assertEquals(1, snapshot.getFacetIndex().countInGenre("family"));
+            assertEquals(100, service.resolveMovieTitle("Padington").orElseThrow().getId());
+            assertTrue(snapshot.getFuzzyTitleIndex().hasDictionaries());
+
+            service.deleteMovie(100);
+            assertTrue(service.searchMoviesByTitle("padd").isEmpty());
+            assertEquals(0, service.getSnapshot().getFacetIndex().countInGenre("family"));
+
+            CatalogSnapshot before = service.getSnapshot();
+            service.compactCatalog();
+            CatalogSnapshot after = service.getSnapshot();
+            assertEquals(before.getVersion(), after.getVersion());
+            assertSame(before.getSearchIndex(), after.getSearchIndex());
+            assertSame(before.getFacetIndex(), after.getFacetIndex());
+            assertSame(before.getFuzzyTitleIndex(), after.getFuzzyTitleIndex());
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop the movie whose title an upsert takes, across compaction, restart and reload")
+    void testUpsertDisplacesTitle(@TempDir Path tempDir) {
+        Movie sameTitle = new Movie(9999, "Baby's Day Out", Rating.PG, "Comedy", 1994);
+        try (MovieService service = MovieService.open(tempDir)) {
+            service.getSnapshot().warm();
+            assertNull(service.upsertMovie(sameTitle));
+
+            assertEquals(8, service.getAllMovies().size());
+            assertEquals(8, service.getCatalogStatistics().getTotal());
+            assertTrue(service.lookupMovieById(1).isEmpty());
+            assertEquals(sameTitle, service.findMovieByTitle("baby's day out"));
+            assertEquals(List.of(sameTitle), service.searchMoviesByTitle("baby"));
+            assertEquals(CatalogStatistics.build(service.getSnapshot().getCatalog()).getCountByRating(),
+                         service.getMovieCountByRating());
+
+            service.compactCatalog();
+            assertEquals(8, service.getAllMovies().size());
+        }
+        try (MovieService service = MovieService.open(tempDir)) {
+            assertEquals(8, service.getAllMovies().size());
+            assertTrue(service.lookupMovieById(1).isEmpty());
+            List<Movie> before = service.getAllMovies();
+
+            HeapCatalog reloaded = new HeapCatalog();
+            before.forEach(reloaded::add);
+            service.reload(() -> reloaded);
+            assertEquals(before, service.getAllMovies());
+            assertEquals(8, service.getCatalogStatistics().getTotal());
+        }
+    }
+
+    @Test
+    @DisplayName("Should compact the journal once it reaches the threshold")
+    void testCompactionThreshold(@TempDir Path tempDir) {
+        try (MovieService service = MovieService.open(tempDir, () -> HeapCatalog.fromResource("movies.json"), 3)) {
+            service.upsertMovie(new Movie(100, "Paddington", Rating.PG, "Family", 2014));
+            service.upsertMovie(new Movie(101, "Paddington 2", Rating.PG, "Family", 2017));
+            assertEquals(2, service.getJournalEntryCount());
+            long version = service.getCatalogVersion();
+
+            service.deleteMovie(100);
+            assertEquals(0, service.getJournalEntryCount());
+            assertEquals(version + 1, service.getCatalogVersion());
+            assertEquals(9, service.getAllMovies().size());
+        }
+        assertThrows(IllegalArgumentException.class,
+                     () -> MovieService.open(tempDir, () -> HeapCatalog.fromResource("movies.json"), 0));
+    }
+
+    @Test
+    @DisplayName("Should page through browse lists with cursors")
+    void testPaging() {
+        List<Movie> all = movieService.getAllMovies();
+        MoviePage first = movieService.getAllMoviesPage(null, 3);
+        assertEquals(all.subList(0, 3), first.getMovies());
+        assertTrue(first.hasNext());
+
+        List<Movie> paged = new ArrayList<>(first.getMovies());
+        MoviePage page = first;
+        while (page.hasNext()) {
+            page = movieService.getAllMoviesPage(page.getNextCursor(), 3);
+            paged.addAll(page.getMovies());
+        }
+        assertEquals(all, paged);
+        assertNull(movieService.getAllMoviesPage(null, all.size()).getNextCursor());
+
+        MoviePage accessible = movieService.getAccessibleMoviesPage(Rating.PG, null, 2);
+        assertEquals(movieService.getAccessibleMovies(Rating.PG).subList(0, 2), accessible.getMovies());
+        BrowseQuery query = BrowseQuery.accessibleWith(Rating.EIGHTEEN).withGenres("Action");
+        assertEquals(movieService.browse(query).subList(1, 2),
+                     movieService.browsePage(query, movieService.browsePage(query, null, 1).getNextCursor(), 1)
+                             .getMovies());
+
+        assertThrows(IllegalArgumentException.class, () -> movieService.getAllMoviesPage(null, 0));
+        assertThrows(IllegalArgumentException.class,
+                     () -> movieService.getAllMoviesPage(null, MovieService.MAX_PAGE_SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> movieService.getAllMoviesPage("%%%", 10));
+    }
+
+    @Test
+    @DisplayName("Should keep later pages stable when earlier movies change")
+    void testPagingAcrossVersions() {
+        MoviePage first = movieService.getAllMoviesPage(null, 4);
+        List<Movie> expectedRest = movieService.getAllMovies().subList(4, movieService.getAllMovies().size());
+
+        movieService.upsertMovie(new Movie(100, "Aardvark", Rating.U, "Animation", 2020));
+        movieService.deleteMovie(first.getMovies().get(0).getId());
+
+        assertEquals(expectedRest, movieService.getAllMoviesPage(first.getNextCursor(), 100).getMovies());
+    }
+
+    @Test
+    @DisplayName("Should page through title search results")
+    void testSearchPaging() {
+        List<Movie> all = movieService.searchMoviesByTitle("the");
+        assertTrue(all.size() > 2);
+        MoviePage first = movieService.searchMoviesByTitlePage("the", null, 1);
+        assertEquals(all.subList(0, 1), first.getMovies());
+        MoviePage second = movieService.searchMoviesByTitlePage("the", first.getNextCursor(), 1);
+        assertEquals(all.subList(1, 2), second.getMovies());
+        assertEquals(all.subList(1, all.size()),
+                     movieService.searchMoviesByTitlePage("the", first.getNextCursor(), 100).getMovies());
+        assertTrue(movieService.searchMoviesByTitlePage("  ", null, 2).getMovies().isEmpty());
+        assertEquals(all, movieService.streamSearchResults("the").collect(Collectors.toList()));
+        assertEquals(0, movieService.streamSearchResults(null).count());
+    }
+
+    @Test
+    @DisplayName("Should stream browse lists lazily in title order")
+    void testStreams() {
+        assertEquals(movieService.getAllMovies(), movieService.streamAllMovies().collect(Collectors.toList()));
+        for (Rating rating : Rating.values()) {
+            assertEquals(movieService.getAccessibleMovies(rating),
+                         movieService.streamAccessibleMovies(rating).collect(Collectors.toList()));
+            assertEquals(movieService.getAccessibleMovies(rating),
+                         movieService.streamAccessibleMovies(rating).parallel().collect(Collectors.toList()));
+        }
+        BrowseQuery query = BrowseQuery.accessibleWith(Rating.EIGHTEEN).withYears(1990, 1999);
+        int cached = movieService.getBrowseCacheStats().getSize();
+        List<Movie> streamed = movieService.browseStream(query).collect(Collectors.toList());
+        assertEquals(cached, movieService.getBrowseCacheStats().getSize()); // streams are not cached
+        assertEquals(movieService.browse(query), streamed);
+    }
+
+    @Test
+    @DisplayName("Should publish an imported feed as one new version")
+    void testImportCatalog(@TempDir Path tempDir) throws IOException {
+        Path feed = tempDir.resolve("feed.csv");
+        Files.writeString(feed, "id,title,rating,genre,releaseYear\n"
+                + "100,Paddington,PG,Family,2014\n"
+                + "101,Heat,18,Crime,1995\n"
+                + "102,Broken,Z,Drama,2000\n");
+        long version = movieService.getCatalogVersion();
+        movieService.browse(BrowseQuery.accessibleWith(Rating.PG));
+
+        CatalogImporter.ImportReport report = movieService.importCatalog(feed);
+
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals(version + 1, movieService.getCatalogVersion());
+        assertEquals(List.of("Heat", "Paddington"),
+                     movieService.getAllMovies().stream().map(Movie::getTitle).collect(Collectors.toList()));
+        assertEquals(List.of("Paddington"), movieService.getAccessibleMovies(Rating.PG).stream()
+                .map(Movie::getTitle).collect(Collectors.toList()));
+        assertEquals(1, movieService.getCatalogMetrics().getReloadCount());
+        assertThrows(IllegalArgumentException.class, () -> movieService.importCatalog(tempDir.resolve("feed.txt")));
+        assertEquals(version + 1, movieService.getCatalogVersion());
+
+        try (MovieService stored = MovieService.open(tempDir.resolve("data"))) {
+            stored.importCatalog(feed);
+        }
+        try (MovieService stored = MovieService.open(tempDir.resolve("data"))) {
+            assertEquals(2, stored.getAllMovies().size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop cached views when a new catalog is published")
+    void testBrowseCacheInvalidatedOnReload() {
+        BrowseQuery query = BrowseQuery.accessibleWith(Rating.PG);
+        List<Movie> before = movieService.browse(query);
+
+        HeapCatalog replacement = new HeapCatalog();
+        replacement.add(new Movie(100, "Paddington", Rating.PG, "Family", 2014));
+        movieService.reload(() -> replacement);
+
+        List<Movie> after = movieService.browse(query);
+        assertNotEquals(before, after);
+        assertEquals(List.of("Paddington"), after.stream().map(Movie::getTitle).collect(Collectors.toList()));
+        assertEquals(1, movieService.getBrowseCacheStats().getInvalidations());
+        assertEquals(1, movieService.getBrowseCacheStats().getSize());
+    }
+
+    @Test
+    @DisplayName("Should expose catalog gauges and search latency")
+    void testMetrics() {
+        movieService.searchMoviesByTitle("the");
+        assertEquals(1, movieService.getSearchLatency().getSampleCount());
+        assertEquals(movieService.getSnapshot().getCatalog().size(), movieService.getCatalogMetrics().getMovieCount());
+        assertEquals(0, movieService.getCatalogMetrics().getReloadCount());
+
+        HeapCatalog replacement = new HeapCatalog();
+        replacement.add(new Movie(100, "Paddington", Rating.PG, "Family", 2014));
+        movieService.reload(() -> replacement);
+
+        assertEquals(1, movieService.getCatalogMetrics().getMovieCount());
+        assertEquals(2, movieService.getCatalogMetrics().getCatalogVersion());
+        assertEquals(1, movieService.getCatalogMetrics().getReloadCount());
+        assertTrue(movieService.getCatalogMetrics().getLastReloadMillis() > 0);
+    }
+}
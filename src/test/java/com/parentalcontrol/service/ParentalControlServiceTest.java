@@ -1,12 +1,20 @@
 package com.parentalcontrol.service;
 
+import com.parentalcontrol.audit.AuditSink;
 import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.MovieIdSet;
+import com.parentalcontrol.model.ProfilePolicy;
 import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.RatingScheme;
 import com.parentalcontrol.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Unit tests for ParentalControlService.
@@ -57,6 +65,33 @@ class ParentalControlServiceTest {
         assertTrue(result.isAllowed());
     }
 
+    @Test
+    @DisplayName("Should match normalized titles but never guess at typos")
+    void testResolvesTitles() {
+        ParentalControlService.AccessResult result = service.checkAccess(childUser, "finding nemo!");
+        assertTrue(result.isAllowed());
+        assertTrue(result.getReason().contains("Finding Nemo"));
+        assertFalse(service.checkAccess(childUser, "Matrix, The").isAllowed());
+
+        assertEquals(AccessDecision.Verdict.NOT_FOUND,
+                     service.checkAccess(childUser, "Fiding Nemo").getDecision().getVerdict());
+        assertEquals(AccessDecision.Verdict.NOT_FOUND, service.decide(childUser, "The Matirx").getVerdict());
+
+        int userId = service.getUserService().register(childUser);
+        assertTrue(service.checkAccess(userId, "matrix").getReason().contains("The Matrix"));
+        assertEquals(AccessDecision.Verdict.NOT_FOUND,
+                     service.checkAccess(userId, "the matirx").getDecision().getVerdict());
+        assertEquals(AccessDecision.Verdict.NOT_FOUND, service.decide(userId, "the matirx").getVerdict());
+
+        // A typo is only resolved when the caller asks for it
+        Movie resolved = service.getMovieService().resolveMovieTitle("The Matirx").orElseThrow();
+        assertEquals(AccessDecision.Verdict.DENIED, service.decide(childUser, resolved).getVerdict());
+
+        AccessMatrix matrix = service.checkAccessBatch(childUser, Arrays.asList("finding nemo!", "Fiding Nemo"));
+        assertTrue(matrix.isAllowed(0, 0));
+        assertFalse(matrix.isFound(1));
+    }
+
     @Test
     @DisplayName("Should handle movie not found")
     void testMovieNotFound() {
@@ -150,4 +185,222 @@ class ParentalControlServiceTest {
         assertTrue(toString.contains("allowed=true"));
         assertTrue(toString.contains("reason="));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should decide access without building a result")
+    void testDecide() {
+        AccessDecision allowed = service.decide(childUser, childMovie);
+        AccessDecision denied = service.decide(childUser, adultMovie);
+
+        assertEquals(AccessDecision.Verdict.ALLOWED, allowed.getVerdict());
+        assertEquals(AccessDecision.Verdict.DENIED, denied.getVerdict());
+        assertEquals(Rating.R, denied.getMovieRating());
+        assertEquals(Rating.PG, denied.getUserMaxRating());
+        assertSame(denied, service.decide(childUser, adultMovie));
+        assertThrows(IllegalArgumentException.class, () -> service.decide(null, childMovie));
+        assertThrows(IllegalArgumentException.class, () -> service.decide(childUser, (Movie) null));
+    }
+
+    @Test
+    @DisplayName("Access result should wrap the decision")
+    void testAccessResultWrapsDecision() {
+        ParentalControlService.AccessResult result = service.checkAccess(childUser, "The Matrix");
+
+        assertSame(service.decide(childUser, adultMovie), result.getDecision());
+        assertSame(result.getReason(), result.getReason());
+        assertEquals(AccessDecision.Verdict.NOT_FOUND,
+                     service.checkAccess(childUser, "NonExistent Movie").getDecision().getVerdict());
+    }
+
+    @Test
+    @DisplayName("Should decide access by title including unknown titles")
+    void testDecideByTitle() {
+        assertEquals(AccessDecision.Verdict.ALLOWED, service.decide(childUser, "finding nemo").getVerdict());
+        assertEquals(AccessDecision.Verdict.DENIED, service.decide(childUser, "The Matrix").getVerdict());
+        assertSame(AccessDecision.notFound(), service.decide(childUser, "NonExistent Movie"));
+        assertSame(AccessDecision.notFound(), service.decide(childUser, (String) null));
+        assertThrows(IllegalArgumentException.class, () -> service.decide(null, "The Matrix"));
+    }
+
+    @Test
+    @DisplayName("Should check many titles for one user in a single call")
+    void testCheckAccessBatch() {
+        AccessMatrix matrix = service.checkAccessBatch(childUser,
+            Arrays.asList("Finding Nemo", "The Matrix", "NonExistent Movie", null, "the lion king"));
+
+        assertEquals(1, matrix.getRows());
+        assertEquals(5, matrix.getColumns());
+        assertTrue(matrix.isAllowed(0, 0));
+        assertFalse(matrix.isAllowed(0, 1));
+        assertFalse(matrix.isAllowed(0, 2));
+        assertFalse(matrix.isFound(2));
+        assertFalse(matrix.isFound(3));
+        assertTrue(matrix.isFound(4));
+        assertArrayEquals(new int[] {0, 4}, matrix.allowedColumns(0));
+        assertEquals(0b10001L, matrix.rowBits(0)[0]);
+        assertThrows(IndexOutOfBoundsException.class, () -> matrix.isAllowed(1, 0));
+    }
+
+    @Test
+    @DisplayName("Should match per-call decisions for a large parallel matrix")
+    void testCheckAccessMatrixParallel() {
+        Rating[] ratings = Rating.values();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            users.add(new User("Profile" + i, 5 + i * 4, ratings[i % ratings.length]));
+        }
+        List<Movie> movies = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            movies.add(new Movie(i, "Movie " + i, ratings[(i * 7 + i / 3) % ratings.length], "Drama", 2000));
+        }
+
+        AccessMatrix matrix = service.checkAccessMatrix(users, movies);
+
+        for (int row = 0; row < users.size(); row++) {
+            int allowed = 0;
+            for (int column = 0; column < movies.size(); column++) {
+                boolean expected = service.decide(users.get(row), movies.get(column)).isAllowed();
+                assertEquals(expected, matrix.isAllowed(row, column));
+                allowed += expected ? 1 : 0;
+            }
+            assertEquals(allowed, matrix.countAllowed(row));
+        }
+        assertThrows(IllegalArgumentException.class, () -> service.checkAccessMatrix(Arrays.asList(childUser, null), movies));
+    }
+
+    @Test
+    @DisplayName("Should check titles for a household of users")
+    void testCheckAccessMatrixForTitles() {
+        AccessMatrix matrix = service.checkAccessMatrixForTitles(List.of(childUser, adultUser),
+                                                                 List.of("The Matrix", "Finding Nemo"));
+
+        assertFalse(matrix.isAllowed(0, 0));
+        assertTrue(matrix.isAllowed(0, 1));
+        assertTrue(matrix.isAllowed(1, 0));
+        assertTrue(matrix.isAllowed(1, 1));
+        assertEquals(0, service.checkAccessMatrixForTitles(List.of(), List.of("The Matrix")).getRows());
+    }
+
+    @Test
+    @DisplayName("Should decide access under the service's rating scheme")
+    void testRatingScheme() {
+        User teen = new User("Carol", 16, Rating.FIFTEEN);
+        Movie restricted = new Movie(3, "Heat", Rating.R, "Crime", 1995);
+        ParentalControlService bbfc = new ParentalControlService(service.getMovieService(), RatingScheme.BBFC);
+        ParentalControlService mpaa = new ParentalControlService(service.getMovieService(), RatingScheme.MPAA);
+
+        assertSame(RatingScheme.DEFAULT, service.getRatingScheme());
+        assertFalse(bbfc.decide(teen, restricted).isAllowed());
+        assertTrue(mpaa.decide(teen, restricted).isAllowed());
+        assertSame(AccessDecision.of(Rating.R, Rating.FIFTEEN, RatingScheme.MPAA), mpaa.decide(teen, restricted));
+        assertFalse(bbfc.checkAccessMatrix(List.of(teen), List.of(restricted)).isAllowed(0, 0));
+        assertTrue(mpaa.checkAccessMatrix(List.of(teen), List.of(restricted)).isAllowed(0, 0));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new ParentalControlService(service.getMovieService(), (RatingScheme) null));
+    }
+
+    @Test
+    @DisplayName("Should count decisions and time title checks")
+    void testMetrics() {
+        service.checkAccess(childUser, "Finding Nemo");
+        service.checkAccess(childUser, "The Matrix");
+        service.checkAccess(childUser, "NonExistentMovie");
+        service.decide(adultUser, adultMovie);
+
+        assertEquals(2, service.getDecisionCounters().getGranted());
+        assertEquals(1, service.getDecisionCounters().getDenied(Rating.R));
+        assertEquals(1, service.getDecisionCounters().getNotFound());
+        assertEquals(1L, service.getDecisionCounters().getGrantedByRating().get("R"));
+
+        for (int i = 0; i < 1000; i++) {
+            service.checkAccess(childUser, "Finding Nemo");
+        }
+        assertTrue(service.getCheckAccessLatency().getSampleCount() > 0);
+        assertTrue(service.getCheckAccessLatency().getSampleCount() < 1003);
+    }
+
+    @Test
+    @DisplayName("Should send every single decision to the audit sink")
+    void testAuditSink() {
+        List<String> records = new ArrayList<>();
+        AuditSink sink = (username, maxRating, title, movieId, movieRating, verdict) ->
+            records.add(username + "|" + maxRating.name() + "|" + title + "|" + movieId + "|" + verdict);
+        ParentalControlService audited = new ParentalControlService(service.getMovieService(), RatingScheme.DEFAULT,
+                                                                    ForkJoinPool.commonPool(), sink);
+
+        audited.checkAccess(childUser, "Finding Nemo");
+        audited.checkAccess(childUser, adultMovie);
+        audited.decide(childUser, "NonExistentMovie");
+
+        assertEquals(3, records.size());
+        assertTrue(records.get(0).startsWith("Alice|PG|Finding Nemo|"));
+        assertTrue(records.get(0).endsWith("|ALLOWED"));
+        assertEquals("Alice|PG|The Matrix|2|DENIED", records.get(1));
+        assertEquals("Alice|PG|NonExistentMovie|-1|NOT_FOUND", records.get(2));
+        assertThrows(IllegalArgumentException.class, () -> new ParentalControlService(service.getMovieService(),
+                RatingScheme.DEFAULT, ForkJoinPool.commonPool(), null));
+    }
+
+    @Test
+    @DisplayName("Should check users with a profile policy against their entitlements")
+    void testProfilePolicy() {
+        Entitlements entitlements = service.setProfilePolicy(childUser,
+            ProfilePolicy.ratedUpTo(Rating.PG).blockGenre("Animation").allowTitle(7));
+        assertTrue(entitlements.isCompiled());
+        assertEquals(MovieIdSet.of(1, 7), service.getWatchableMovieIds(childUser));
+
+        ParentalControlService.AccessResult blocked = service.checkAccess(childUser, "Finding Nemo");
+        assertFalse(blocked.isAllowed());
+        assertTrue(blocked.getDecision().isBlockedByPolicy());
+        assertTrue(blocked.getReason().contains("blocked by your profile's viewing policy"));
+
+        ParentalControlService.AccessResult allowed = service.checkAccess(childUser, "The Dark Knight");
+        assertTrue(allowed.isAllowed());
+        assertFalse(service.checkAccess(childUser, "The Matrix").getDecision().isBlockedByPolicy());
+        assertTrue(service.checkAccess(adultUser, "Finding Nemo").isAllowed());
+
+        AccessMatrix matrix = service.checkAccessMatrixForTitles(Arrays.asList(childUser, adultUser),
+            Arrays.asList("Finding Nemo", "The Dark Knight", "Baby's Day Out", "Unknown"));
+        assertArrayEquals(new int[] {1, 2}, matrix.allowedColumns(0));
+        assertArrayEquals(new int[] {0, 1, 2}, matrix.allowedColumns(1));
+
+        service.getPolicyEngine().removePolicy(childUser.getUsername());
+        assertTrue(service.checkAccess(childUser, "Finding Nemo").isAllowed());
+    }
+
+    @Test
+    @DisplayName("Should apply per-user title overrides and combine watchable sets")
+    void testTitleOverrides() {
+        service.setProfilePolicy(childUser, ProfilePolicy.of(childUser).denyTitle(6).allowTitle(2));
+        assertFalse(service.checkAccess(childUser, "Finding Nemo").isAllowed());
+        assertTrue(service.checkAccess(childUser, "Finding Nemo").getDecision().isBlockedByPolicy());
+        assertTrue(service.checkAccess(childUser, "Notting Hill").isAllowed());
+        assertTrue(service.checkAccess(childUser, "Baby's Day Out").isAllowed());
+
+        MovieIdSet child = service.getWatchableMovieIds(childUser);
+        MovieIdSet adult = service.getWatchableMovieIds(adultUser);
+        assertEquals(MovieIdSet.of(1, 2, 3), child);
+        assertEquals(8, adult.size());
+        assertEquals(child, child.and(adult));
+        assertThrows(IllegalArgumentException.class, () -> service.getWatchableMovieIds(null));
+    }
+
+    @Test
+    @DisplayName("Should check registered users by ID")
+    void testCheckAccessByUserId() {
+        int child = service.getUserService().register(childUser);
+        assertTrue(service.checkAccess(child, "Finding Nemo").isAllowed());
+        assertFalse(service.checkAccess(child, "The Matrix").isAllowed());
+        assertSame(AccessDecision.notFound(), service.decide(child, "NonExistentMovie"));
+        assertEquals(service.decide(childUser, adultMovie), service.decide(child, adultMovie));
+
+        service.setProfilePolicy(childUser, ProfilePolicy.of(childUser).denyTitle(6));
+        assertTrue(service.checkAccess(child, "Finding Nemo").getDecision().isBlockedByPolicy());
+
+        assertThrows(IllegalArgumentException.class, () -> service.checkAccess(child + 1, "Finding Nemo"));
+        assertThrows(IllegalArgumentException.class, () -> service.checkAccess(child, " "));
+        assertThrows(IllegalArgumentException.class, () -> service.decide(child, (Movie) null));
+        assertThrows(IllegalArgumentException.class, () -> new ParentalControlService(service.getMovieService(),
+                (UserService) null));
+    }
+}
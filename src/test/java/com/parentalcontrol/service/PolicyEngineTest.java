@@ -0,0 +1,204 @@
+package com.parentalcontrol.service;
+
+import com.parentalcontrol.catalog.HeapCatalog;
+import com.parentalcontrol.catalog.MovieCatalog;
+import com.parentalcontrol.model.Movie;
+import com.parentalcontrol.model.MovieIdSet;
+import com.parentalcontrol.model.ProfilePolicy;
+import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.RatingScheme;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PolicyEngine.
+ */
+class PolicyEngineTest {
+
+    private static final String[] GENRES = {"Animation", "Action", "Comedy", "Drama", "Horror"};
+
+    private MovieService movieService;
+    private PolicyEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        movieService = new MovieService(catalog(1000));
+        engine = new PolicyEngine(movieService, RatingScheme.DEFAULT);
+    }
+
+    private static HeapCatalog catalog(int size) {
+        HeapCatalog catalog = new HeapCatalog(size);
+        Rating[] ratings = Rating.values();
+        for (int id = 1; id <= size; id++) {
+            catalog.add(new Movie(id, "Movie " + id, ratings[id % ratings.length], GENRES[id % GENRES.length],
+                                  1980 + id % 40));
+        }
+        return catalog;
+    }
+
+    // Compares every bit with the policy evaluated directly.
+    private void assertCompiled(String profile) {
+        Entitlements entitlements = engine.entitlementsOf(profile);
+        MovieCatalog catalog = movieService.getSnapshot().getCatalog();
+        ProfilePolicy policy = entitlements.getPolicy();
+        MovieIdSet.Builder permitted = new MovieIdSet.Builder();
+        for (Movie movie : (Iterable<Movie>) catalog.stream()::iterator) {
+            boolean expected = policy.permits(movie, RatingScheme.DEFAULT);
+            assertEquals(expected, entitlements.permits(movie), movie::toString);
+            if (expected) {
+                permitted.add(movie.getId());
+            }
+        }
+        assertEquals(permitted.build(), engine.permittedIds(profile));
+        if (entitlements.isCompiled()) {
+            assertEquals(movieService.getCatalogVersion(), entitlements.getCatalogVersion());
+        }
+    }
+
+    @Test
+    @DisplayName("Should compile a policy into the set of permitted IDs")
+    void testCompile() {
+        ProfilePolicy policy = ProfilePolicy.ratedUpTo(Rating.PG_13).blockGenre("Horror").withYears(1990, 2010)
+                                            .allowTitle(6).denyTitle(7);
+        engine.setPolicy("kid", policy);
+        assertCompiled("kid");
+        assertTrue(engine.isEntitled("kid", 6));
+        assertFalse(engine.isEntitled("kid", 7));
+        assertFalse(engine.isEntitled("kid", -1));
+        assertFalse(engine.isEntitled("kid", 1_000_000));
+        assertEquals(policy, engine.getPolicy("kid"));
+        assertEquals(1, engine.getFullCompileCount());
+        assertNull(engine.entitlementsOf("nobody"));
+        assertThrows(IllegalArgumentException.class, () -> engine.isEntitled("nobody", 1));
+    }
+
+    @Test
+    @DisplayName("Should recompile incrementally when a single rule changes")
+    void testIncrementalRuleChanges() {
+        engine.setPolicy("kid", ProfilePolicy.ratedUpTo(Rating.FIFTEEN).blockGenre("Horror"));
+
+        engine.updatePolicy("kid", policy -> policy.blockGenre("Action"));
+        assertCompiled("kid");
+        engine.updatePolicy("kid", policy -> policy.withYears(1985, 2015));
+        assertCompiled("kid");
+        engine.updatePolicy("kid", policy -> policy.withMaxRating(Rating.PG_13));
+        assertCompiled("kid");
+        engine.updatePolicy("kid", policy -> policy.allowTitle(5).denyTitle(20));
+        assertCompiled("kid");
+        engine.updatePolicy("kid", policy -> policy.unblockGenre("Action"));
+        assertCompiled("kid");
+        engine.updatePolicy("kid", ProfilePolicy::withoutYearLimit);
+        assertCompiled("kid");
+
+        assertEquals(1, engine.getFullCompileCount());
+        assertEquals(6, engine.getIncrementalCompileCount());
+        assertSame(engine.entitlementsOf("kid"), engine.updatePolicy("kid", policy -> policy));
+    }
+
+    @Test
+    @DisplayName("Should fall back to a full compile when a change touches much of the catalog")
+    void testLargeRuleChange() {
+        engine.setPolicy("kid", ProfilePolicy.ratedUpTo(Rating.EIGHTEEN).blockGenre("Horror"));
+        engine.updatePolicy("kid", policy -> policy.withYears(2015, 2020));
+        assertCompiled("kid");
+        assertEquals(2, engine.getFullCompileCount());
+        assertEquals(0, engine.getIncrementalCompileCount());
+    }
+
+    @Test
+    @DisplayName("Should re-evaluate only changed movies when the catalog changes")
+    void testCatalogChanges() {
+        engine.setPolicy("kid", ProfilePolicy.ratedUpTo(Rating.PG).blockGenre("Horror"));
+        movieService.upsertMovie(new Movie(5000, "Paddington", Rating.U, "Family", 2014));
+        movieService.upsertMovie(new Movie(1, "Movie 1", Rating.U, "Horror", 1981));
+        movieService.deleteMovie(7);
+
+        assertTrue(engine.isEntitled("kid", 5000));
+        assertFalse(engine.isEntitled("kid", 1));
+        assertFalse(engine.isEntitled("kid", 7));
+        assertCompiled("kid");
+        assertEquals(1, engine.getFullCompileCount());
+        assertEquals(1, engine.getIncrementalCompileCount());
+
+        movieService.reload(() -> catalog(10));
+        assertCompiled("kid");
+        assertEquals(2, engine.getFullCompileCount());
+    }
+
+    @Test
+    @DisplayName("Should size compiled entitlements by the movies, not by the range of their IDs")
+    void testSparseAndNegativeIds() {
+        HeapCatalog sparse = new HeapCatalog();
+        sparse.add(new Movie(-5, "Minus Five", Rating.U, "Comedy", 2000));
+        sparse.add(new Movie(1, "One", Rating.U, "Comedy", 2000));
+        sparse.add(new Movie(2_000_000_000, "Two Billion", Rating.U, "Comedy", 2000));
+        sparse.add(new Movie(Integer.MIN_VALUE, "Scream", Rating.U, "Horror", 2000));
+        movieService.reload(() -> sparse);
+
+        Entitlements entitlements = engine.setPolicy("kid", ProfilePolicy.ratedUpTo(Rating.U).blockGenre("Horror"));
+        assertTrue(entitlements.isCompiled());
+        assertTrue(engine.isEntitled("kid", -5));
+        assertTrue(engine.isEntitled("kid", 2_000_000_000));
+        assertFalse(engine.isEntitled("kid", Integer.MIN_VALUE));
+        assertTrue(entitlements.getSizeInBytes() < 500, entitlements.getSizeInBytes() + " bytes");
+        assertCompiled("kid");
+
+        movieService.upsertMovie(new Movie(-6, "Minus Six", Rating.U, "Drama", 2000));
+        movieService.upsertMovie(new Movie(-5, "Minus Five", Rating.U, "Horror", 2000));
+        assertTrue(engine.isEntitled("kid", -6));
+        assertFalse(engine.isEntitled("kid", -5));
+        assertCompiled("kid");
+    }
+
+    @Test
+    @DisplayName("Should manage profiles and reject invalid input")
+    void testProfiles() {
+        engine.setPolicy("kid", ProfilePolicy.ratedUpTo(Rating.U));
+        assertEquals(1, engine.getProfileCount());
+        assertTrue(engine.removePolicy("kid"));
+        assertFalse(engine.removePolicy("kid"));
+        assertNull(engine.getPolicy("kid"));
+        assertThrows(IllegalArgumentException.class, () -> engine.updatePolicy("kid", policy -> policy));
+        assertThrows(IllegalArgumentException.class, () -> engine.setPolicy(" ", ProfilePolicy.ratedUpTo(Rating.U)));
+        assertThrows(IllegalArgumentException.class, () -> engine.setPolicy("kid", null));
+        assertThrows(IllegalArgumentException.class, () -> new PolicyEngine(movieService, null));
+    }
+
+    @Test
+    @DisplayName("Should decide override-only policies without compiling them")
+    void testOverrideOnlyPolicy() {
+        Entitlements entitlements = engine.setPolicy("kid", ProfilePolicy.ratedUpTo(Rating.PG).allowTitle(5).denyTitle(7));
+        assertFalse(entitlements.isCompiled());
+        assertEquals(-1, entitlements.getCatalogVersion());
+        assertCompiled("kid");
+        assertTrue(engine.isEntitled("kid", 5));
+        assertFalse(engine.isEntitled("kid", 7));
+        assertEquals(0, engine.getFullCompileCount());
+
+        movieService.deleteMovie(5);
+        movieService.upsertMovie(new Movie(5000, "Paddington", Rating.U, "Family", 2014));
+        assertSame(entitlements, engine.entitlementsOf("kid"));
+        assertCompiled("kid");
+
+        engine.updatePolicy("kid", policy -> policy.blockGenre("Comedy"));
+        assertTrue(engine.entitlementsOf("kid").isCompiled());
+        assertCompiled("kid");
+        engine.updatePolicy("kid", policy -> policy.unblockGenre("Comedy"));
+        assertFalse(engine.entitlementsOf("kid").isCompiled());
+        assertTrue(entitlements.getSizeInBytes() < 300);
+    }
+
+    @Test
+    @DisplayName("Should list the IDs allowed by a rating ceiling")
+    void testIdsRatedWithin() {
+        MovieIdSet ids = engine.idsRatedWithin(Rating.PG);
+        MovieCatalog catalog = movieService.getSnapshot().getCatalog();
+        assertEquals(catalog.stream().filter(movie -> RatingScheme.DEFAULT.allows(movie.getRating(), Rating.PG)).count(),
+                     ids.size());
+        ids.forEach(id -> assertTrue(RatingScheme.DEFAULT.allows(catalog.findById(id).getRating(), Rating.PG)));
+        assertThrows(IllegalArgumentException.class, () -> engine.idsRatedWithin(null));
+        assertThrows(IllegalArgumentException.class, () -> engine.permittedIds("nobody"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.parentalcontrol.service;
+
+import com.parentalcontrol.model.Rating;
+import com.parentalcontrol.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Path;
+
+/**
+ * Unit tests for UserService.
+ */
+class UserServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should register users and resolve them by username and ID")
+    void testRegisterAndLookup() {
+        UserService userService = new UserService();
+        int alice = userService.register(User.createWithDefaultRating("Alice", 8));
+        int bob = userService.register(new User("Bob", 25, Rating.R));
+
+        assertEquals(alice, userService.getUserId("  Alice "));
+        assertEquals(-1, userService.getUserId("Carol"));
+        assertEquals(-1, userService.getUserId(null));
+        assertEquals(new User("Bob", 25, Rating.R), userService.findUserById(bob));
+        assertEquals(Rating.R, userService.findUserById(bob).getMaxAllowedRating());
+        assertEquals(Rating.PG, userService.getMaxAllowedRating(alice));
+        assertEquals("Alice", userService.getUsername(alice));
+        assertTrue(userService.lookupUser("Alice").isPresent());
+        assertTrue(userService.lookupUser("Carol").isEmpty());
+        assertEquals(2, userService.getUserCount());
+
+        assertEquals(alice, userService.register(new User("Alice", 13, Rating.PG_13)));
+        assertEquals(Rating.PG_13, userService.getMaxAllowedRating(alice));
+        assertThrows(IllegalArgumentException.class, () -> userService.register(null));
+        assertThrows(IllegalArgumentException.class, () -> userService.findUserById(5));
+    }
+
+    @Test
+    @DisplayName("Should keep registered users in a file across restarts")
+    void testOpen() {
+        Path file = tempDir.resolve("users.bin");
+        int alice;
+        try (UserService userService = UserService.open(file)) {
+            alice = userService.register(User.createWithDefaultRating("Alice", 8));
+        }
+        try (UserService userService = UserService.open(file)) {
+            assertEquals(alice, userService.getUserId("Alice"));
+            assertEquals(8, userService.findUserById(alice).getAge());
+        }
+        assertThrows(IllegalArgumentException.class, () -> UserService.open(null));
+    }
+}
@@ -0,0 +1,100 @@
+package com.parentalcontrol.user;
+
+import com.parentalcontrol.model.Rating;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Unit tests for UserStore.
+ */
+class UserStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should assign dense IDs and update registered usernames in place")
+    void testPutAndLookup() {
+        UserStore store = UserStore.inMemory();
+        assertEquals(0, store.put("alice", 8, Rating.PG));
+        assertEquals(1, store.put("bob", 25, Rating.R));
+        assertEquals(0, store.put("alice", 9, Rating.TWELVE));
+
+        assertEquals(2, store.size());
+        assertEquals(0, store.idOf("alice"));
+        assertEquals(-1, store.idOf("Alice"));
+        assertEquals(-1, store.idOf(null));
+        assertEquals("alice", store.getUsername(0));
+        assertEquals(9, store.getAge(0));
+        assertEquals(Rating.TWELVE, store.getMaxAllowedRating(0));
+        assertEquals(Rating.R, store.getMaxAllowedRating(1));
+        assertThrows(IllegalArgumentException.class, () -> store.getMaxAllowedRating(2));
+        assertThrows(IllegalArgumentException.class, () -> store.getUsername(-1));
+    }
+
+    @Test
+    @DisplayName("Should reject out-of-range profiles")
+    void testValidation() {
+        UserStore store = UserStore.inMemory();
+        assertThrows(IllegalArgumentException.class, () -> store.put("", 8, Rating.PG));
+        assertThrows(IllegalArgumentException.class, () -> store.put("alice", UserStore.MAX_AGE + 1, Rating.PG));
+        assertThrows(IllegalArgumentException.class, () -> store.put("alice", 8, null));
+        assertThrows(IllegalArgumentException.class,
+                     () -> store.put("x".repeat(UserStore.MAX_USERNAME_BYTES + 1), 8, Rating.PG));
+        store.close();
+        assertThrows(IllegalStateException.class, () -> store.put("alice", 8, Rating.PG));
+    }
+
+    @Test
+    @DisplayName("Should grow past its initial capacity and keep every user reachable")
+    void testGrowth() {
+        UserStore store = UserStore.inMemory();
+        int users = 50_000;
+        for (int i = 0; i < users; i++) {
+            assertEquals(i, store.put("user-" + i, i % 100, Rating.values()[i % Rating.values().length]));
+        }
+        assertTrue(store.getDataSizeInBytes() > UserStore.INITIAL_CAPACITY);
+        for (int i = 0; i < users; i++) {
+            assertEquals(i, store.idOf("user-" + i));
+        }
+        assertEquals(Rating.values()[12_345 % Rating.values().length], store.getMaxAllowedRating(12_345));
+        assertTrue(store.getIndexSizeInBytes() < 20L * users);
+    }
+
+    @Test
+    @DisplayName("Should persist users across reopen")
+    void testPersistence() {
+        Path file = tempDir.resolve("users.bin");
+        try (UserStore store = UserStore.open(file)) {
+            for (int i = 0; i < 10_000; i++) {
+                store.put("user-" + i, 30, Rating.PG);
+            }
+            store.put("Zoë", 6, Rating.U);
+            store.put("user-7", 16, Rating.FIFTEEN);
+        }
+        try (UserStore store = UserStore.open(file)) {
+            assertEquals(10_001, store.size());
+            assertEquals(10_000, store.idOf("Zoë"));
+            assertEquals("Zoë", store.getUsername(10_000));
+            assertEquals(16, store.getAge(7));
+            assertEquals(Rating.FIFTEEN, store.getMaxAllowedRating(7));
+            assertEquals(10_001, store.put("carol", 40, Rating.EIGHTEEN));
+        }
+        try (UserStore store = UserStore.open(file)) {
+            assertEquals(10_001, store.idOf("carol"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject files that are not user stores")
+    void testInvalidFile() throws IOException {
+        Path file = tempDir.resolve("movies.json");
+        Files.writeString(file, "{\"movies\": [], \"padding\": \"................\"}");
+        assertThrows(IllegalArgumentException.class, () -> UserStore.open(file));
+    }
+}